@@ -29,8 +29,10 @@ import com.alipay.sofa.registry.client.log.LoggerFactory;
 import com.alipay.sofa.registry.client.task.ObserverHandler;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 
 /**
@@ -73,6 +75,20 @@ public class DefaultObserverHandler implements ObserverHandler {
   /** @see ObserverHandler#notify(Subscriber) */
   @Override
   public void notify(Subscriber subscriber) {
+    if (subscriber instanceof DefaultSubscriber) {
+      AtomicInteger pending = ((DefaultSubscriber) subscriber).getPendingNotify();
+      // a task is already queued or running, it will deliver the latest data
+      if (pending.getAndIncrement() > 0) {
+        return;
+      }
+      try {
+        executor.submit(new SubscriberNotifyTask(subscriber));
+      } catch (RejectedExecutionException e) {
+        pending.set(0);
+        throw e;
+      }
+      return;
+    }
     executor.submit(new SubscriberNotifyTask(subscriber));
   }
 
@@ -104,6 +120,37 @@ public class DefaultObserverHandler implements ObserverHandler {
         return;
       }
 
+      AtomicInteger pending = null;
+      int seen = 0;
+      if (subscriber instanceof DefaultSubscriber) {
+        pending = ((DefaultSubscriber) subscriber).getPendingNotify();
+        seen = pending.get();
+      }
+      try {
+        doNotify();
+      } finally {
+        if (null != pending && !pending.compareAndSet(seen, 0)) {
+          // data changed while notifying, deliver the latest one in a single extra round
+          pending.set(1);
+          resubmit(pending);
+        }
+      }
+    }
+
+    private void resubmit(AtomicInteger pending) {
+      try {
+        executor.submit(new SubscriberNotifyTask(subscriber));
+      } catch (Exception e) {
+        pending.set(0);
+        LOGGER.error(
+            "[notify] resubmit SubscriberNotifyTask error, dataId: {}, registId: {}",
+            subscriber.getDataId(),
+            subscriber.getRegistId(),
+            e);
+      }
+    }
+
+    private void doNotify() {
       SubscriberProcessEvent event = new SubscriberProcessEvent();
       long start = System.currentTimeMillis();
       event.setStart(start);
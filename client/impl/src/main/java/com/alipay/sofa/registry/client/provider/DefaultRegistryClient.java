@@ -20,6 +20,7 @@ import static com.alipay.sofa.registry.client.constants.ValueConstants.DEFAULT_G
 
 import com.alipay.remoting.ConnectionEventProcessor;
 import com.alipay.remoting.ConnectionEventType;
+import com.alipay.remoting.rpc.protocol.SyncUserProcessor;
 import com.alipay.remoting.rpc.protocol.UserProcessor;
 import com.alipay.sofa.registry.client.api.Configurator;
 import com.alipay.sofa.registry.client.api.EventBus;
@@ -45,6 +46,7 @@ import com.alipay.sofa.registry.client.remoting.ClientConnection;
 import com.alipay.sofa.registry.client.remoting.ClientConnectionCloseEventProcessor;
 import com.alipay.sofa.registry.client.remoting.ClientConnectionOpenEventProcessor;
 import com.alipay.sofa.registry.client.remoting.ReceivedConfigDataProcessor;
+import com.alipay.sofa.registry.client.remoting.ReceivedDataBatchProcessor;
 import com.alipay.sofa.registry.client.remoting.ReceivedDataProcessor;
 import com.alipay.sofa.registry.client.remoting.ServerManager;
 import com.alipay.sofa.registry.client.task.ObserverHandler;
@@ -54,6 +56,7 @@ import com.alipay.sofa.registry.client.task.WorkerThread;
 import com.alipay.sofa.registry.client.util.StringUtils;
 import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatch;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -99,6 +102,8 @@ public class DefaultRegistryClient implements RegistryClient {
 
   private AuthManager authManager;
 
+  private volatile boolean acceptBatchPush;
+
   private EventBus eventBus;
 
   private LookoutSubscriber lookoutSubscriber;
@@ -185,12 +190,25 @@ public class DefaultRegistryClient implements RegistryClient {
     // init user processor
     List<UserProcessor> userProcessorList = new ArrayList<UserProcessor>();
     if (null == userProcessorMap) {
-      userProcessorList.add(new ReceivedDataProcessor(registerCache, observerHandler));
+      ReceivedDataProcessor receivedDataProcessor =
+          new ReceivedDataProcessor(registerCache, observerHandler);
+      userProcessorList.add(receivedDataProcessor);
       userProcessorList.add(new ReceivedConfigDataProcessor(registerCache, observerHandler));
+      userProcessorList.add(new ReceivedDataBatchProcessor(receivedDataProcessor));
+      acceptBatchPush = true;
     } else {
       UserProcessor userProcessor = userProcessorMap.get(ReceivedData.class);
       if (null == userProcessor) {
-        userProcessorList.add(new ReceivedDataProcessor(registerCache, observerHandler));
+        userProcessor = new ReceivedDataProcessor(registerCache, observerHandler);
+        userProcessorList.add(userProcessor);
+      }
+      // the batch push is handled by the processor of ReceivedData
+      if (null != userProcessorMap.get(ReceivedDataBatch.class)) {
+        acceptBatchPush = true;
+      } else if (userProcessor instanceof SyncUserProcessor) {
+        userProcessorList.add(
+            new ReceivedDataBatchProcessor((SyncUserProcessor<ReceivedData>) userProcessor));
+        acceptBatchPush = true;
       }
       userProcessor = userProcessorMap.get(ReceivedConfigData.class);
       if (null == userProcessor) {
@@ -329,6 +347,7 @@ public class DefaultRegistryClient implements RegistryClient {
 
     subscriber = new DefaultSubscriber(registration, workerThread, registryClientConfig);
     ((DefaultSubscriber) subscriber).setAuthManager(authManager);
+    ((DefaultSubscriber) subscriber).setAcceptBatchPush(acceptBatchPush);
 
     Subscriber oldSubscriber = registrationSubscriberMap.putIfAbsent(registration, subscriber);
     if (null != oldSubscriber) {
@@ -25,11 +25,13 @@ import com.alipay.sofa.registry.client.model.SegmentData;
 import com.alipay.sofa.registry.client.task.TaskEvent;
 import com.alipay.sofa.registry.client.task.Worker;
 import com.alipay.sofa.registry.client.util.CommonUtils;
+import com.alipay.sofa.registry.core.constants.AttributeKeyConstants;
 import com.alipay.sofa.registry.core.constants.EventTypeConstants;
 import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.core.model.SubscriberRegister;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +40,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The type Default subscriber multi.
@@ -58,6 +61,14 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   private volatile String localZone;
   private List<String> availableSegments = new ArrayList<String>();
 
+  /** immutable user data built from current segments, reset on every effective change */
+  private volatile UserData snapshot;
+
+  /** notifications requested but not yet delivered, used to coalesce observer callbacks */
+  private final AtomicInteger pendingNotify = new AtomicInteger(0);
+
+  private volatile boolean acceptBatchPush;
+
   /**
    * Instantiates a new Default subscriber multi.
    *
@@ -91,53 +102,70 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   /** @see Subscriber#peekData() */
   @Override
   public UserData peekData() {
+    UserData current = snapshot;
+    if (null != current) {
+      return current;
+    }
     readLock.lock();
     try {
       if (!init.get()) {
         // todo sync read from server
         return new DefaultUserData();
       }
-      Set<Entry<String, SegmentData>> values = data.entrySet();
-      DefaultUserData userData = new DefaultUserData();
-      if (null == localZone) {
-        userData.setLocalZone(config.getZone());
-      } else {
-        userData.setLocalZone(localZone);
+      current = snapshot;
+      if (null == current) {
+        current = buildUserData();
+        snapshot = current;
+      }
+      return current;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private UserData buildUserData() {
+    Set<Entry<String, SegmentData>> values = data.entrySet();
+    DefaultUserData userData = new DefaultUserData();
+    if (null == localZone) {
+      userData.setLocalZone(config.getZone());
+    } else {
+      userData.setLocalZone(localZone);
+    }
+    Map<String, List<String>> zoneMap = new HashMap<String, List<String>>();
+    for (Entry<String, SegmentData> segmentDataEntry : values) {
+      String segment = segmentDataEntry.getKey();
+
+      // only accept available segments, when available segments is empty accept all
+      if (CommonUtils.isNotEmpty(availableSegments) && !availableSegments.contains(segment)) {
+        continue;
       }
-      Map<String, List<String>> zoneMap = new HashMap<String, List<String>>();
-      for (Entry<String, SegmentData> segmentDataEntry : values) {
-        String segment = segmentDataEntry.getKey();
 
-        // only accept available segments, when available segments is empty accept all
-        if (CommonUtils.isNotEmpty(availableSegments) && !availableSegments.contains(segment)) {
-          continue;
-        }
+      SegmentData segmentData = segmentDataEntry.getValue();
 
-        SegmentData segmentData = segmentDataEntry.getValue();
+      if (null == segmentData) {
+        continue;
+      }
 
-        if (null == segmentData) {
-          continue;
+      Map<String, List<DataBox>> data = segmentData.getData();
+      for (Entry<String, List<DataBox>> entry : data.entrySet()) {
+        String zone = entry.getKey();
+        List<String> resultList = zoneMap.get(zone);
+        if (null == resultList) {
+          resultList = new ArrayList<String>();
+          zoneMap.put(zone, resultList);
         }
-
-        Map<String, List<DataBox>> data = segmentData.getData();
-        for (Entry<String, List<DataBox>> entry : data.entrySet()) {
-          String zone = entry.getKey();
-          List<String> resultList = zoneMap.get(zone);
-          if (null == resultList) {
-            resultList = new ArrayList<String>();
-            zoneMap.put(zone, resultList);
-          }
-          List<DataBox> dataList = entry.getValue();
-          for (DataBox dataBox : dataList) {
-            resultList.add(dataBox.getData());
-          }
+        List<DataBox> dataList = entry.getValue();
+        for (DataBox dataBox : dataList) {
+          resultList.add(dataBox.getData());
         }
       }
-      userData.setZoneData(zoneMap);
-      return userData;
-    } finally {
-      readLock.unlock();
     }
+    // the snapshot is shared by every observer callback, so it must not be modified
+    for (Entry<String, List<String>> entry : zoneMap.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+    userData.setZoneData(Collections.unmodifiableMap(zoneMap));
+    return userData;
   }
 
   /**
@@ -179,6 +207,9 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
       setAttributes(register, registration, config);
       // auth signature
       setAuthSignature(register);
+      if (acceptBatchPush) {
+        setAcceptBatchPushAttribute(register);
+      }
 
       if (isEnabled()) {
         register.setEventType(EventTypeConstants.REGISTER);
@@ -191,33 +222,60 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
     return register;
   }
 
+  private void setAcceptBatchPushAttribute(SubscriberRegister register) {
+    Map<String, String> registerAttributes = register.getAttributes();
+    if (null == registerAttributes) {
+      registerAttributes = new HashMap<String, String>();
+    }
+    registerAttributes.put(AttributeKeyConstants.ATTRIBUTE_ACCEPT_BATCH_PUSH, "true");
+    register.setAttributes(registerAttributes);
+  }
+
+  /**
+   * Setter method for property <tt>acceptBatchPush</tt>.
+   *
+   * @param acceptBatchPush value to be assigned to property acceptBatchPush
+   */
+  public void setAcceptBatchPush(boolean acceptBatchPush) {
+    this.acceptBatchPush = acceptBatchPush;
+  }
+
   public void putReceivedData(SegmentData segmentData, String localZone) {
     writeLock.lock();
     try {
-      putSegmentData(segmentData);
+      boolean changed = putSegmentData(segmentData);
+      if (changed || !isSameZone(this.localZone, localZone)) {
+        this.snapshot = null;
+      }
       this.localZone = localZone;
     } finally {
       writeLock.unlock();
     }
   }
 
-  private void putSegmentData(SegmentData segmentData) {
+  private static boolean isSameZone(String current, String update) {
+    return null == current ? null == update : current.equals(update);
+  }
+
+  private boolean putSegmentData(SegmentData segmentData) {
     if (null != segmentData) {
 
       SegmentData existsData = data.putIfAbsent(segmentData.getSegment(), segmentData);
       if (null == existsData) {
         init.compareAndSet(false, true);
-        return;
+        return true;
       }
 
       if (existsData.getVersion() < segmentData.getVersion()) {
         boolean result = data.replace(segmentData.getSegment(), existsData, segmentData);
         if (!result) {
-          putSegmentData(segmentData);
+          return putSegmentData(segmentData);
         }
         init.compareAndSet(false, true);
+        return true;
       }
     }
+    return false;
   }
 
   /**
@@ -277,6 +335,7 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
       } else {
         this.availableSegments = new ArrayList<String>(availableSegments);
       }
+      this.snapshot = null;
     } finally {
       writeLock.unlock();
     }
@@ -286,6 +345,15 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
     return init.get();
   }
 
+  /**
+   * Getter method for property <tt>pendingNotify</tt>.
+   *
+   * @return property value of pendingNotify
+   */
+  AtomicInteger getPendingNotify() {
+    return pendingNotify;
+  }
+
   @Override
   public String toString() {
     return "DefaultSubscriber{" + "registration=" + registration + '}' + super.toString();
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.remoting;
+
+import com.alipay.remoting.BizContext;
+import com.alipay.remoting.rpc.protocol.SyncUserProcessor;
+import com.alipay.sofa.registry.client.log.LoggerFactory;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatch;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatchResult;
+import com.alipay.sofa.registry.core.model.Result;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+
+/**
+ * The type Received data batch processor, every ReceivedData in the batch is handled by the
+ * processor of ReceivedData and acked by its own result.
+ */
+public class ReceivedDataBatchProcessor extends SyncUserProcessor<ReceivedDataBatch> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReceivedDataBatchProcessor.class);
+
+  private final SyncUserProcessor<ReceivedData> receivedDataProcessor;
+
+  /**
+   * Instantiates a new Received data batch processor.
+   *
+   * @param receivedDataProcessor the processor of ReceivedData
+   */
+  public ReceivedDataBatchProcessor(SyncUserProcessor<ReceivedData> receivedDataProcessor) {
+    this.receivedDataProcessor = receivedDataProcessor;
+  }
+
+  /**
+   * Handle request object.
+   *
+   * @param bizCtx the biz ctx
+   * @param request the request
+   * @return the ReceivedDataBatchResult
+   */
+  @Override
+  public Object handleRequest(BizContext bizCtx, ReceivedDataBatch request) {
+    if (null == request || null == request.getData()) {
+      return new ReceivedDataBatchResult(new ArrayList<Result>(0));
+    }
+    List<Result> results = new ArrayList<Result>(request.getData().size());
+    for (ReceivedData data : request.getData()) {
+      results.add(handleOne(bizCtx, data));
+    }
+    return new ReceivedDataBatchResult(results);
+  }
+
+  private Result handleOne(BizContext bizCtx, ReceivedData data) {
+    try {
+      Object result = receivedDataProcessor.handleRequest(bizCtx, data);
+      if (result instanceof Result) {
+        return (Result) result;
+      }
+      return Result.success();
+    } catch (Throwable e) {
+      LOGGER.error(
+          "[received] receive batch data failed, dataId: {} group: {} version: {}",
+          data == null ? null : data.getDataId(),
+          data == null ? null : data.getGroup(),
+          data == null ? null : data.getVersion(),
+          e);
+      return Result.failed(e.getMessage());
+    }
+  }
+
+  /**
+   * Interest string.
+   *
+   * @return the string
+   */
+  @Override
+  public String interest() {
+    return ReceivedDataBatch.class.getName();
+  }
+}
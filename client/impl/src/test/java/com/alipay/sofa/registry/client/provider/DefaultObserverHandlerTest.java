@@ -19,7 +19,21 @@ package com.alipay.sofa.registry.client.provider;
 import static org.mockito.Mockito.times;
 
 import com.alipay.sofa.registry.client.api.*;
+import com.alipay.sofa.registry.client.api.model.UserData;
+import com.alipay.sofa.registry.client.api.registration.SubscriberRegistration;
 import com.alipay.sofa.registry.client.event.DefaultEventBus;
+import com.alipay.sofa.registry.client.model.SegmentData;
+import com.alipay.sofa.registry.core.model.DataBox;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -63,4 +77,52 @@ public class DefaultObserverHandlerTest {
     Thread.sleep(100);
     Mockito.verify(mockConfigurator, times(1)).getDataObserver();
   }
+
+  @Test
+  public void testSubscriberCoalesce() throws Exception {
+    init();
+    final CountDownLatch blocking = new CountDownLatch(1);
+    final AtomicInteger called = new AtomicInteger(0);
+    final AtomicReference<UserData> last = new AtomicReference<UserData>();
+    SubscriberDataObserver observer =
+        new SubscriberDataObserver() {
+          @Override
+          public void handleData(String dataId, UserData data) {
+            try {
+              blocking.await(3, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            called.incrementAndGet();
+            last.set(data);
+          }
+        };
+    DefaultSubscriber subscriber =
+        new DefaultSubscriber(new SubscriberRegistration("test-data-id", observer), null, config);
+
+    // first notify is running and blocked, the following ones are coalesced
+    for (int i = 1; i <= 10; i++) {
+      subscriber.putReceivedData(segmentData(i), "zone");
+      handler.notify(subscriber);
+    }
+    blocking.countDown();
+    Thread.sleep(500);
+
+    Assert.assertTrue(called.get() <= 2);
+    Assert.assertEquals(Collections.singletonList("data-10"), last.get().getZoneData().get("zone"));
+    Assert.assertEquals(0, subscriber.getPendingNotify().get());
+  }
+
+  private SegmentData segmentData(long version) {
+    Map<String, List<DataBox>> data = new HashMap<String, List<DataBox>>();
+    List<DataBox> boxes = new ArrayList<DataBox>();
+    DataBox box = new DataBox();
+    box.setData("data-" + version);
+    boxes.add(box);
+    data.put("zone", boxes);
+    SegmentData segmentData = new SegmentData();
+    segmentData.setSegment("segment");
+    segmentData.setVersion(version);
+    segmentData.setData(data);
+    return segmentData;
+  }
 }
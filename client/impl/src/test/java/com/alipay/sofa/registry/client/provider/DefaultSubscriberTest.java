@@ -17,7 +17,9 @@
 package com.alipay.sofa.registry.client.provider;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import com.alipay.sofa.registry.client.api.model.UserData;
@@ -233,6 +235,66 @@ public class DefaultSubscriberTest {
     assertZoneDataEquals(expectedMap8, userData10.getZoneData());
   }
 
+  @Test
+  public void testPeekDataSnapshot() {
+    DefaultRegistryClientConfig config = DefaultRegistryClientConfigBuilder.start().build();
+    DefaultSubscriber defaultSubscriber = new DefaultSubscriber(null, null, config);
+
+    Map<String, List<DataBox>> map1 = new HashMap<String, List<DataBox>>();
+    addToDataBoxMap(map1, ZHEJIANG, HANGZHOU);
+    SegmentData sd1 = new SegmentData();
+    sd1.setSegment(segmentA);
+    sd1.setVersion(1L);
+    sd1.setData(map1);
+    defaultSubscriber.putReceivedData(sd1, ZHEJIANG);
+
+    UserData userData1 = defaultSubscriber.peekData();
+    assertSame(userData1, defaultSubscriber.peekData());
+
+    // stale version keeps the snapshot
+    defaultSubscriber.putReceivedData(sd1, ZHEJIANG);
+    assertSame(userData1, defaultSubscriber.peekData());
+
+    // snapshot is shared, so it is immutable
+    try {
+      userData1.getZoneData().get(ZHEJIANG).add(NINGBO);
+      throw new AssertionError("snapshot should be immutable");
+    } catch (UnsupportedOperationException expected) {
+    }
+    try {
+      userData1.getZoneData().clear();
+      throw new AssertionError("snapshot should be immutable");
+    } catch (UnsupportedOperationException expected) {
+    }
+
+    // new version rebuilds the snapshot
+    Map<String, List<DataBox>> map2 = new HashMap<String, List<DataBox>>();
+    addToDataBoxMap(map2, ZHEJIANG, NINGBO);
+    SegmentData sd2 = new SegmentData();
+    sd2.setSegment(segmentA);
+    sd2.setVersion(2L);
+    sd2.setData(map2);
+    defaultSubscriber.putReceivedData(sd2, ZHEJIANG);
+
+    UserData userData2 = defaultSubscriber.peekData();
+    assertNotSame(userData1, userData2);
+    Map<String, List<String>> expectedMap2 = new HashMap<String, List<String>>();
+    addToStringMap(expectedMap2, ZHEJIANG, NINGBO);
+    assertZoneDataEquals(expectedMap2, userData2.getZoneData());
+
+    // local zone change rebuilds the snapshot
+    defaultSubscriber.putReceivedData(sd2, JIANGSU);
+    UserData userData3 = defaultSubscriber.peekData();
+    assertNotSame(userData2, userData3);
+    assertEquals(JIANGSU, userData3.getLocalZone());
+
+    // available segments change rebuilds the snapshot
+    defaultSubscriber.setAvailableSegments(Collections.singletonList(segmentB));
+    UserData userData4 = defaultSubscriber.peekData();
+    assertNotSame(userData3, userData4);
+    assertTrue(userData4.getZoneData().isEmpty());
+  }
+
   private void addToDataBoxMap(Map<String, List<DataBox>> map, String key, String... values) {
     List<DataBox> list = map.get(key);
     if (list == null) {
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.remoting;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatch;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatchResult;
+import com.alipay.sofa.registry.core.model.Result;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReceivedDataBatchProcessorTest {
+
+  @Test
+  public void handleRequest() {
+    ReceivedDataProcessor delegate = mock(ReceivedDataProcessor.class);
+    ReceivedData success = new ReceivedData();
+    ReceivedData failed = new ReceivedData();
+    ReceivedData error = new ReceivedData();
+    when(delegate.handleRequest(null, success)).thenReturn(Result.success());
+    when(delegate.handleRequest(null, failed)).thenReturn(Result.failed("failed"));
+    when(delegate.handleRequest(null, error)).thenThrow(new RuntimeException("error"));
+
+    ReceivedDataBatchProcessor processor = new ReceivedDataBatchProcessor(delegate);
+    Assert.assertEquals(ReceivedDataBatch.class.getName(), processor.interest());
+
+    ReceivedDataBatchResult result =
+        (ReceivedDataBatchResult) processor.handleRequest(null, new ReceivedDataBatch());
+    Assert.assertTrue(result.getResults().isEmpty());
+
+    result =
+        (ReceivedDataBatchResult)
+            processor.handleRequest(
+                null, new ReceivedDataBatch(Arrays.asList(success, failed, error)));
+    Assert.assertEquals(3, result.getResults().size());
+    Assert.assertTrue(result.getResults().get(0).isSuccess());
+    Assert.assertFalse(result.getResults().get(1).isSuccess());
+    Assert.assertEquals("failed", result.getResults().get(1).getMessage());
+    Assert.assertFalse(result.getResults().get(2).isSuccess());
+    Assert.assertEquals("error", result.getResults().get(2).getMessage());
+  }
+}
@@ -30,4 +30,6 @@ public class AttributeKeyConstants {
   public static final String ATTRIBUTE_SIGNATURE = "!Signature";
   /** Timestamp Key */
   public static final String ATTRIBUTE_TIMESTAMP = "!Timestamp";
+  /** the client could handle the ReceivedDataBatch push */
+  public static final String ATTRIBUTE_ACCEPT_BATCH_PUSH = "!AcceptBatchPush";
 }
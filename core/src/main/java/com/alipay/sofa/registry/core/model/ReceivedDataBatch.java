@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.core.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * many ReceivedData of the same client connection pushed in one request, the response is a
+ * ReceivedDataBatchResult with the result of each ReceivedData in the same order
+ */
+public class ReceivedDataBatch implements Serializable {
+
+  private static final long serialVersionUID = 6172435540182431806L;
+
+  private List<ReceivedData> data;
+
+  public ReceivedDataBatch() {}
+
+  public ReceivedDataBatch(List<ReceivedData> data) {
+    this.data = data;
+  }
+
+  /**
+   * Getter method for property <tt>data</tt>.
+   *
+   * @return property value of data
+   */
+  public List<ReceivedData> getData() {
+    return data;
+  }
+
+  /**
+   * Setter method for property <tt>data</tt>.
+   *
+   * @param data value to be assigned to property data
+   */
+  public void setData(List<ReceivedData> data) {
+    this.data = data;
+  }
+
+  @Override
+  public String toString() {
+    return "ReceivedDataBatch{" + "size=" + (data == null ? 0 : data.size()) + '}';
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.core.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/** the results of a ReceivedDataBatch, one for each ReceivedData in the same order */
+public class ReceivedDataBatchResult implements Serializable {
+
+  private static final long serialVersionUID = -2368217764523471075L;
+
+  private List<Result> results;
+
+  public ReceivedDataBatchResult() {}
+
+  public ReceivedDataBatchResult(List<Result> results) {
+    this.results = results;
+  }
+
+  /**
+   * Getter method for property <tt>results</tt>.
+   *
+   * @return property value of results
+   */
+  public List<Result> getResults() {
+    return results;
+  }
+
+  /**
+   * Setter method for property <tt>results</tt>.
+   *
+   * @param results value to be assigned to property results
+   */
+  public void setResults(List<Result> results) {
+    this.results = results;
+  }
+
+  @Override
+  public String toString() {
+    return "ReceivedDataBatchResult{" + "results=" + results + '}';
+  }
+}
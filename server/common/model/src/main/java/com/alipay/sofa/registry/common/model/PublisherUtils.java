@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncAcceptorRequest;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
 import com.google.common.collect.Maps;
 import java.util.*;
 
@@ -46,6 +47,9 @@ public final class PublisherUtils {
     publisher.setCell(publisher.getCell());
     publisher.setProcessId(publisher.getProcessId());
     publisher.setAppName(publisher.getAppName());
+    publisher.setSourceAddress(URL.internURL(publisher.getSourceAddress()));
+    publisher.setTargetAddress(URL.internURL(publisher.getTargetAddress()));
+    publisher.setAttributes(publisher.getAttributes());
     return publisher;
   }
 
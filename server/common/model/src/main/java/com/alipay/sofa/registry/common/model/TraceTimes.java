@@ -22,6 +22,9 @@ import java.io.Serializable;
 public class TraceTimes implements Serializable {
   private long createTs;
   private int dataChangeType;
+  // the first put request received and committed to the datum storage on data server
+  private long dataPutReceive;
+  private long dataPutCommit;
   private long firstDataChange;
   private long datumNotifyCreate;
   private long datumNotifySend;
@@ -32,6 +35,14 @@ public class TraceTimes implements Serializable {
     createTs = System.currentTimeMillis();
   }
 
+  public long getCreateTs() {
+    return createTs;
+  }
+
+  public void setCreateTs(long createTs) {
+    this.createTs = createTs;
+  }
+
   public long getDatumNotifyCreate() {
     return datumNotifyCreate;
   }
@@ -56,6 +67,22 @@ public class TraceTimes implements Serializable {
     this.dataChangeType = dataChangeType;
   }
 
+  public long getDataPutReceive() {
+    return dataPutReceive;
+  }
+
+  public void setDataPutReceive(long dataPutReceive) {
+    this.dataPutReceive = dataPutReceive;
+  }
+
+  public long getDataPutCommit() {
+    return dataPutCommit;
+  }
+
+  public void setDataPutCommit(long dataPutCommit) {
+    this.dataPutCommit = dataPutCommit;
+  }
+
   public long getFirstDataChange() {
     return firstDataChange;
   }
@@ -76,6 +103,8 @@ public class TraceTimes implements Serializable {
     TraceTimes times = new TraceTimes();
     times.createTs = createTs;
     times.dataChangeType = dataChangeType;
+    times.dataPutReceive = dataPutReceive;
+    times.dataPutCommit = dataPutCommit;
     times.firstDataChange = firstDataChange;
     times.datumNotifyCreate = datumNotifyCreate;
     times.datumNotifySend = datumNotifySend;
@@ -111,6 +140,10 @@ public class TraceTimes implements Serializable {
     return "TraceTimes{"
         + ", dataChangeType="
         + dataChangeType
+        + ", dataPutReceive="
+        + dataPutReceive
+        + ", dataPutCommit="
+        + dataPutCommit
         + ", firstDataChange="
         + firstDataChange
         + ", datumNotifyCreate="
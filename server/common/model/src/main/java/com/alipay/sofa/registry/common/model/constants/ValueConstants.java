@@ -144,6 +144,9 @@ public class ValueConstants {
   public static final String COMPRESS_DATUM_SWITCH_DATA_ID =
       DataInfo.toDataInfoId(
           "compress.datum.switch", SESSION_PROVIDE_DATA_INSTANCE_ID, SESSION_PROVIDE_DATA_GROUP);
+  public static final String COMPRESS_DICTS_DATA_ID =
+      DataInfo.toDataInfoId(
+          "compress.dicts", SESSION_PROVIDE_DATA_INSTANCE_ID, SESSION_PROVIDE_DATA_GROUP);
 
   public static final String APP_REVISION_WRITE_SWITCH_DATA_ID =
       DataInfo.toDataInfoId(
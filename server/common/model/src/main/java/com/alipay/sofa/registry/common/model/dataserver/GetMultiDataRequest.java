@@ -39,6 +39,9 @@ public class GetMultiDataRequest implements Serializable {
 
   private final Map<String, Long> slotLeaderEpochs;
 
+  // not null means the follower could serve the read if its datum version >= the min version
+  private Map<String, Long> minVersions;
+
   public GetMultiDataRequest(
       ProcessId sessionProcessId,
       int slotId,
@@ -107,4 +110,22 @@ public class GetMultiDataRequest implements Serializable {
   public Map<String, Long> getSlotLeaderEpochs() {
     return slotLeaderEpochs;
   }
+
+  /**
+   * Getter method for property <tt>minVersions</tt>.
+   *
+   * @return property value of minVersions
+   */
+  public Map<String, Long> getMinVersions() {
+    return minVersions;
+  }
+
+  /**
+   * Setter method for property <tt>minVersions</tt>.
+   *
+   * @param minVersions value to be assigned to property minVersions
+   */
+  public void setMinVersions(Map<String, Long> minVersions) {
+    this.minVersions = minVersions;
+  }
 }
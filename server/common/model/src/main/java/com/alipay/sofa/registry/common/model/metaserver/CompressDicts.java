@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompressDicts {
+  // base64 of the trained zstd dictionaries, the former is preferred when negotiating
+  @JsonSetter(nulls = Nulls.SKIP)
+  private List<String> zstdDicts = new ArrayList<>();
+
+  public static CompressDicts defaultDicts() {
+    return new CompressDicts();
+  }
+
+  public List<String> getZstdDicts() {
+    return zstdDicts;
+  }
+
+  public void setZstdDicts(List<String> zstdDicts) {
+    this.zstdDicts = zstdDicts;
+  }
+
+  @Override
+  public String toString() {
+    return "CompressDicts{" + "zstdDicts=" + zstdDicts.size() + '}';
+  }
+}
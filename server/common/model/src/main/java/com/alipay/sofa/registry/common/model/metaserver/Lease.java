@@ -37,7 +37,10 @@ public class Lease<T> implements Serializable {
 
   private volatile long lastUpdateTimestamp;
 
-  private long duration;
+  private volatile long duration;
+
+  /** lastUpdateTimestamp + duration, written once per renew so readers never see a torn pair */
+  private volatile long expireTimestamp;
 
   /**
    * constructor
@@ -50,6 +53,7 @@ public class Lease<T> implements Serializable {
     this.beginTimestamp = System.currentTimeMillis();
     this.lastUpdateTimestamp = beginTimestamp;
     this.duration = durationSECS * 1000;
+    this.expireTimestamp = lastUpdateTimestamp + duration;
   }
 
   /**
@@ -69,12 +73,14 @@ public class Lease<T> implements Serializable {
    * @return boolean
    */
   public boolean isExpired() {
-    return System.currentTimeMillis() > lastUpdateTimestamp + duration;
+    return System.currentTimeMillis() > expireTimestamp;
   }
 
   /** refresh lastUpdateTimestamp */
   public void renew() {
-    lastUpdateTimestamp = System.currentTimeMillis();
+    long now = System.currentTimeMillis();
+    lastUpdateTimestamp = now;
+    expireTimestamp = now + duration;
   }
 
   /**
@@ -83,8 +89,10 @@ public class Lease<T> implements Serializable {
    * @param durationSECS durationSECS
    */
   public void renew(long durationSECS) {
-    lastUpdateTimestamp = System.currentTimeMillis();
+    long now = System.currentTimeMillis();
+    lastUpdateTimestamp = now;
     duration = durationSECS * 1000;
+    expireTimestamp = now + duration;
   }
 
   /**
@@ -123,6 +131,15 @@ public class Lease<T> implements Serializable {
     return lastUpdateTimestamp;
   }
 
+  /**
+   * Getter method for property <tt>expireTimestamp</tt>.
+   *
+   * @return property value of expireTimestamp
+   */
+  public long getExpireTimestamp() {
+    return expireTimestamp;
+  }
+
   /**
    * To string string.
    *
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver;
+
+import com.alipay.sofa.registry.common.model.Node.NodeType;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * the provide datas changed together are notified in one batch, the full values are carried inline,
+ * so the receivers apply them without fetching from meta one key at a time. Each value is applied
+ * by its own version, the set valued ones, e.g. the blacklist, are carried as the add/remove diffs
+ */
+public class ProvideDataBatchChangeEvent implements Serializable {
+
+  private final List<ProvideData> provideDatas;
+
+  private final List<ProvideDataSetDiff> setDiffs;
+
+  // the dataInfoIds which value is not carried, e.g. removed or persisted outside of meta
+  private final Set<String> fetchDataInfoIds;
+
+  private final Set<NodeType> nodeTypes;
+
+  public ProvideDataBatchChangeEvent(
+      List<ProvideData> provideDatas, Set<String> fetchDataInfoIds, Set<NodeType> nodeTypes) {
+    this(provideDatas, Collections.emptyList(), fetchDataInfoIds, nodeTypes);
+  }
+
+  public ProvideDataBatchChangeEvent(
+      List<ProvideData> provideDatas,
+      List<ProvideDataSetDiff> setDiffs,
+      Set<String> fetchDataInfoIds,
+      Set<NodeType> nodeTypes) {
+    this.provideDatas = Collections.unmodifiableList(provideDatas);
+    this.setDiffs = Collections.unmodifiableList(setDiffs);
+    this.fetchDataInfoIds = Collections.unmodifiableSet(fetchDataInfoIds);
+    this.nodeTypes = Collections.unmodifiableSet(nodeTypes);
+  }
+
+  /**
+   * Getter method for property <tt>provideDatas</tt>.
+   *
+   * @return property value of provideDatas
+   */
+  public List<ProvideData> getProvideDatas() {
+    return provideDatas;
+  }
+
+  /**
+   * Getter method for property <tt>setDiffs</tt>.
+   *
+   * @return property value of setDiffs
+   */
+  public List<ProvideDataSetDiff> getSetDiffs() {
+    return setDiffs;
+  }
+
+  /**
+   * Getter method for property <tt>fetchDataInfoIds</tt>.
+   *
+   * @return property value of fetchDataInfoIds
+   */
+  public Set<String> getFetchDataInfoIds() {
+    return fetchDataInfoIds;
+  }
+
+  /**
+   * Getter method for property <tt>nodeTypes</tt>.
+   *
+   * @return property value of nodeTypes
+   */
+  public Set<NodeType> getNodeTypes() {
+    return nodeTypes;
+  }
+
+  public int size() {
+    return provideDatas.size() + setDiffs.size() + fetchDataInfoIds.size();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("ProvideDataBatchChange{");
+    sb.append("provideDatas=[");
+    for (ProvideData data : provideDatas) {
+      sb.append(data.getDataInfoId()).append('/').append(data.getVersion()).append(',');
+    }
+    sb.append("], setDiffs=[");
+    for (ProvideDataSetDiff diff : setDiffs) {
+      sb.append(diff.getDataInfoId())
+          .append('/')
+          .append(diff.getBaseVersion())
+          .append("->")
+          .append(diff.getVersion())
+          .append(',');
+    }
+    sb.append("], fetchDataInfoIds=").append(fetchDataInfoIds);
+    sb.append(", nodeTypes=").append(nodeTypes);
+    sb.append('}');
+    return sb.toString();
+  }
+}
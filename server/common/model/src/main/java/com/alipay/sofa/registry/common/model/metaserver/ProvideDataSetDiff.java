@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * the add/remove diff of a set valued provide data, e.g. the blacklist, which value is
+ * {group:{type:[members]}}. The diff is applied only on the value of baseVersion, otherwise the
+ * receivers fetch the full value
+ */
+public class ProvideDataSetDiff implements Serializable {
+
+  private final String dataInfoId;
+
+  private final long baseVersion;
+
+  private final long version;
+
+  private final Map<String, Map<String, Set<String>>> added;
+
+  private final Map<String, Map<String, Set<String>>> removed;
+
+  public ProvideDataSetDiff(
+      String dataInfoId,
+      long baseVersion,
+      long version,
+      Map<String, Map<String, Set<String>>> added,
+      Map<String, Map<String, Set<String>>> removed) {
+    this.dataInfoId = dataInfoId;
+    this.baseVersion = baseVersion;
+    this.version = version;
+    this.added = Collections.unmodifiableMap(added);
+    this.removed = Collections.unmodifiableMap(removed);
+  }
+
+  /**
+   * diff the update value against the base value
+   *
+   * @return the diff
+   */
+  public static ProvideDataSetDiff diff(
+      String dataInfoId,
+      long baseVersion,
+      Map<String, Map<String, Set<String>>> base,
+      long version,
+      Map<String, Map<String, Set<String>>> update) {
+    return new ProvideDataSetDiff(
+        dataInfoId, baseVersion, version, subtract(update, base), subtract(base, update));
+  }
+
+  /**
+   * apply the diff on a copy of the base value
+   *
+   * @param base the value of baseVersion
+   * @return the value of version
+   */
+  public Map<String, Map<String, Set<String>>> applyTo(Map<String, Map<String, Set<String>>> base) {
+    Map<String, Map<String, Set<String>>> ret = new HashMap<>(base.size());
+    for (Map.Entry<String, Map<String, Set<String>>> group : base.entrySet()) {
+      Map<String, Set<String>> types = new HashMap<>(group.getValue().size());
+      for (Map.Entry<String, Set<String>> type : group.getValue().entrySet()) {
+        types.put(type.getKey(), new HashSet<>(type.getValue()));
+      }
+      ret.put(group.getKey(), types);
+    }
+    for (Map.Entry<String, Map<String, Set<String>>> group : removed.entrySet()) {
+      Map<String, Set<String>> types = ret.get(group.getKey());
+      if (types == null) {
+        continue;
+      }
+      for (Map.Entry<String, Set<String>> type : group.getValue().entrySet()) {
+        Set<String> members = types.get(type.getKey());
+        if (members != null) {
+          members.removeAll(type.getValue());
+        }
+      }
+    }
+    for (Map.Entry<String, Map<String, Set<String>>> group : added.entrySet()) {
+      Map<String, Set<String>> types = ret.computeIfAbsent(group.getKey(), k -> new HashMap<>());
+      for (Map.Entry<String, Set<String>> type : group.getValue().entrySet()) {
+        types.computeIfAbsent(type.getKey(), k -> new HashSet<>()).addAll(type.getValue());
+      }
+    }
+    return ret;
+  }
+
+  private static Map<String, Map<String, Set<String>>> subtract(
+      Map<String, Map<String, Set<String>>> left, Map<String, Map<String, Set<String>>> right) {
+    Map<String, Map<String, Set<String>>> ret = new HashMap<>();
+    for (Map.Entry<String, Map<String, Set<String>>> group : left.entrySet()) {
+      Map<String, Set<String>> rightTypes =
+          right.getOrDefault(group.getKey(), Collections.emptyMap());
+      for (Map.Entry<String, Set<String>> type : group.getValue().entrySet()) {
+        Set<String> members = new HashSet<>(type.getValue());
+        members.removeAll(rightTypes.getOrDefault(type.getKey(), Collections.emptySet()));
+        if (!members.isEmpty()) {
+          ret.computeIfAbsent(group.getKey(), k -> new HashMap<>()).put(type.getKey(), members);
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * the count of the members in the value
+   *
+   * @return count
+   */
+  public static int memberCount(Map<String, Map<String, Set<String>>> value) {
+    int count = 0;
+    for (Map<String, Set<String>> types : value.values()) {
+      for (Set<String> members : types.values()) {
+        count += members.size();
+      }
+    }
+    return count;
+  }
+
+  public int size() {
+    return memberCount(added) + memberCount(removed);
+  }
+
+  /**
+   * Getter method for property <tt>dataInfoId</tt>.
+   *
+   * @return property value of dataInfoId
+   */
+  public String getDataInfoId() {
+    return dataInfoId;
+  }
+
+  /**
+   * Getter method for property <tt>baseVersion</tt>.
+   *
+   * @return property value of baseVersion
+   */
+  public long getBaseVersion() {
+    return baseVersion;
+  }
+
+  /**
+   * Getter method for property <tt>version</tt>.
+   *
+   * @return property value of version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Getter method for property <tt>added</tt>.
+   *
+   * @return property value of added
+   */
+  public Map<String, Map<String, Set<String>>> getAdded() {
+    return added;
+  }
+
+  /**
+   * Getter method for property <tt>removed</tt>.
+   *
+   * @return property value of removed
+   */
+  public Map<String, Map<String, Set<String>>> getRemoved() {
+    return removed;
+  }
+
+  @Override
+  public String toString() {
+    return "ProvideDataSetDiff{"
+        + "dataInfoId="
+        + dataInfoId
+        + ", baseVersion="
+        + baseVersion
+        + ", version="
+        + version
+        + ", added="
+        + added
+        + ", removed="
+        + removed
+        + '}';
+  }
+}
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.common.model.sessionserver;
 
 import com.alipay.sofa.registry.common.model.TraceTimes;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.util.StringFormatter;
 import java.io.Serializable;
 import java.util.Collections;
@@ -39,17 +40,34 @@ public class DataChangeRequest implements Serializable {
 
   private final TraceTimes times;
 
+  // the small datums carried with the change, the session needs not to fetch them
+  private final Map<String, SubDatum> datums;
+
   public DataChangeRequest(
       String dataCenter, Map<String, DatumVersion> dataInfoIds, TraceTimes times) {
+    this(dataCenter, dataInfoIds, times, Collections.emptyMap());
+  }
+
+  public DataChangeRequest(
+      String dataCenter,
+      Map<String, DatumVersion> dataInfoIds,
+      TraceTimes times,
+      Map<String, SubDatum> datums) {
     this.dataCenter = dataCenter;
     this.dataInfoIds = dataInfoIds;
     this.times = times;
+    this.datums = datums;
   }
 
   public Map<String, DatumVersion> getDataInfoIds() {
     return Collections.unmodifiableMap(dataInfoIds);
   }
 
+  public Map<String, SubDatum> getDatums() {
+    // null if the request is sent by the old version
+    return datums == null ? Collections.emptyMap() : Collections.unmodifiableMap(datums);
+  }
+
   public String getDataCenter() {
     return dataCenter;
   }
@@ -21,6 +21,7 @@ import com.google.common.collect.Lists;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.collections.CollectionUtils;
 
 /**
@@ -34,6 +35,8 @@ public class DataSlotDiffDigestResult implements Serializable {
   private final List<String> removedDataInfoIds;
   // if from session, return the sessionProcessId for lease
   private ProcessId sessionProcessId;
+  // if from the slot leader, the leader versions of the dataInfoIds which digest are same
+  private Map<String, Long> datumVersions;
 
   public DataSlotDiffDigestResult(
       List<String> updatedDataInfoIds,
@@ -97,6 +100,24 @@ public class DataSlotDiffDigestResult implements Serializable {
     this.sessionProcessId = sessionProcessId;
   }
 
+  /**
+   * Getter method for property <tt>datumVersions</tt>.
+   *
+   * @return property value of datumVersions
+   */
+  public Map<String, Long> getDatumVersions() {
+    return datumVersions;
+  }
+
+  /**
+   * Setter method for property <tt>datumVersions</tt>.
+   *
+   * @param datumVersions value to be assigned to property datumVersions
+   */
+  public void setDatumVersions(Map<String, Long> datumVersions) {
+    this.datumVersions = datumVersions;
+  }
+
   public boolean isEmpty() {
     return CollectionUtils.isEmpty(updatedDataInfoIds)
         && CollectionUtils.isEmpty(removedDataInfoIds)
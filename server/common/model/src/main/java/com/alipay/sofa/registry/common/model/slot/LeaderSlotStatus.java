@@ -26,6 +26,9 @@ public class LeaderSlotStatus extends BaseSlotStatus implements Serializable {
 
   private final LeaderStatus leaderStatus;
 
+  // the load of the slot, the publisher count now, used by the weighted slot balance
+  private long weight;
+
   /**
    * Constructor.
    *
@@ -49,11 +52,31 @@ public class LeaderSlotStatus extends BaseSlotStatus implements Serializable {
     return leaderStatus;
   }
 
+  /**
+   * Gets get weight.
+   *
+   * @return the get weight
+   */
+  public long getWeight() {
+    return weight;
+  }
+
+  /**
+   * Sets set weight.
+   *
+   * @param weight the weight
+   */
+  public void setWeight(long weight) {
+    this.weight = weight;
+  }
+
   @Override
   public String toString() {
     return "LeaderSlotStatus{"
         + "leaderStatus="
         + leaderStatus
+        + ", weight="
+        + weight
         + ", slotId="
         + slotId
         + ", slotLeaderEpoch="
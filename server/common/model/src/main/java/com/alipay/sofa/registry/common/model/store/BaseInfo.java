@@ -19,6 +19,8 @@ package com.alipay.sofa.registry.common.model.store;
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Maps;
 import java.io.Serializable;
 import java.util.Collections;
@@ -34,6 +36,9 @@ public abstract class BaseInfo implements Serializable, StoreData<String> {
 
   private static final long serialVersionUID = -6263388188316303789L;
 
+  private static final Interner<Map<String, String>> ATTRIBUTES_INTERNER =
+      Interners.newWeakInterner();
+
   private String dataInfoId;
 
   private String dataId;
@@ -227,7 +232,8 @@ public abstract class BaseInfo implements Serializable, StoreData<String> {
     if (attributes == null || attributes.isEmpty()) {
       this.attributes = null;
     } else {
-      this.attributes = internAttributes(attributes);
+      // the attributes of the registrations are mostly the same, share the equal maps
+      this.attributes = ATTRIBUTES_INTERNER.intern(internAttributes(attributes));
     }
   }
 
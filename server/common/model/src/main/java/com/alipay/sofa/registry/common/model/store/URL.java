@@ -19,11 +19,13 @@ package com.alipay.sofa.registry.common.model.store;
 import com.alipay.sofa.registry.concurrent.ThreadLocalStringBuilder;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.MapMaker;
 import java.io.Serializable;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author shangyu.wh
@@ -41,6 +43,12 @@ public final class URL implements Serializable {
 
   public static final byte JSON = 2;
 
+  /**
+   * the registrations from the same connection share one URL instance, the values are weak, the
+   * entry is removed after all the registrations are gone
+   */
+  private static final ConcurrentMap<Key, URL> CACHE = new MapMaker().weakValues().makeMap();
+
   private ProtocolType protocol;
 
   private String ipAddress;
@@ -116,8 +124,11 @@ public final class URL implements Serializable {
       return null;
     }
     url.setIpAddress(url.getIpAddress());
-    return url;
+    final Key key = new Key(url.protocol, url.ipAddress, url.port, url.serializerIndex);
+    final URL exist = CACHE.putIfAbsent(key, url);
+    return exist == null ? url : exist;
   }
+
   /**
    * url transfer to InetSocketAddress
    *
@@ -241,4 +252,34 @@ public final class URL implements Serializable {
     sb.append('}');
     return sb.toString();
   }
+
+  private static final class Key {
+    final ProtocolType protocol;
+    final String ipAddress;
+    final int port;
+    final Byte serializerIndex;
+
+    Key(ProtocolType protocol, String ipAddress, int port, Byte serializerIndex) {
+      this.protocol = protocol;
+      this.ipAddress = ipAddress;
+      this.port = port;
+      this.serializerIndex = serializerIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key key = (Key) o;
+      return port == key.port
+          && protocol == key.protocol
+          && Objects.equals(ipAddress, key.ipAddress)
+          && Objects.equals(serializerIndex, key.serializerIndex);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(protocol, ipAddress, port, serializerIndex);
+    }
+  }
 }
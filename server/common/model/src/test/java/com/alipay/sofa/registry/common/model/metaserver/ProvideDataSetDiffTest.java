@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProvideDataSetDiffTest {
+
+  @Test
+  public void testDiffAndApply() {
+    Map<String, Map<String, Set<String>>> base =
+        ImmutableMap.of(
+            "FORBIDDEN_PUB", ImmutableMap.of("IP_FULL", Sets.newHashSet("1.1.1.1", "2.2.2.2")),
+            "FORBIDDEN_SUB_BY_PREFIX", ImmutableMap.of("IP_FULL", Sets.newHashSet("1.1.1.1")));
+    Map<String, Map<String, Set<String>>> update =
+        ImmutableMap.of(
+            "FORBIDDEN_PUB", ImmutableMap.of("IP_FULL", Sets.newHashSet("2.2.2.2", "3.3.3.3")));
+
+    ProvideDataSetDiff diff = ProvideDataSetDiff.diff("blacklist", 1L, base, 2L, update);
+    Assert.assertEquals(1L, diff.getBaseVersion());
+    Assert.assertEquals(2L, diff.getVersion());
+    Assert.assertEquals(
+        ImmutableMap.of("FORBIDDEN_PUB", ImmutableMap.of("IP_FULL", Sets.newHashSet("3.3.3.3"))),
+        diff.getAdded());
+    Assert.assertEquals(
+        ImmutableMap.of(
+            "FORBIDDEN_PUB", ImmutableMap.of("IP_FULL", Sets.newHashSet("1.1.1.1")),
+            "FORBIDDEN_SUB_BY_PREFIX", ImmutableMap.of("IP_FULL", Sets.newHashSet("1.1.1.1"))),
+        diff.getRemoved());
+    Assert.assertEquals(3, diff.size());
+    Assert.assertEquals(3, ProvideDataSetDiff.memberCount(base));
+
+    Map<String, Map<String, Set<String>>> applied = diff.applyTo(base);
+    Assert.assertEquals(
+        Sets.newHashSet("2.2.2.2", "3.3.3.3"), applied.get("FORBIDDEN_PUB").get("IP_FULL"));
+    Assert.assertTrue(applied.get("FORBIDDEN_SUB_BY_PREFIX").get("IP_FULL").isEmpty());
+    // the base is not changed
+    Assert.assertEquals(2, base.get("FORBIDDEN_PUB").get("IP_FULL").size());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import com.alipay.sofa.registry.common.model.PublisherUtils;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InternTest {
+  private static final Logger LOGGER = LoggerFactory.getLogger(InternTest.class);
+
+  private static Subscriber newSubscriber(int i, int port) {
+    Subscriber sub = new Subscriber();
+    sub.setDataInfoId("dataInfoId-" + (i % 1000));
+    sub.setRegisterId("registerId-" + i);
+    sub.setSourceAddress(new URL("192.168.1.1", port));
+    sub.setTargetAddress(new URL("192.168.1.2", 9600));
+    Map<String, String> attrs = Maps.newHashMap();
+    attrs.put(new String("zone"), new String("RZ00A"));
+    sub.setAttributes(attrs);
+    return sub;
+  }
+
+  @Test
+  public void testInternURL() {
+    URL url1 = new URL(URL.ProtocolType.BOLT, "192.168.1.1", 1234, URL.HESSIAN_2);
+    URL url2 = new URL(URL.ProtocolType.BOLT, new String("192.168.1.1"), 1234, URL.HESSIAN_2);
+    Assert.assertSame(URL.internURL(url1), URL.internURL(url2));
+
+    // serializer is not in URL.equals, but should not be shared
+    URL url3 = new URL(URL.ProtocolType.BOLT, "192.168.1.1", 1234, URL.PROTOBUF);
+    Assert.assertEquals(url1, url3);
+    Assert.assertNotSame(URL.internURL(url1), URL.internURL(url3));
+    Assert.assertEquals(URL.PROTOBUF, URL.internURL(url3).getSerializerIndex().byteValue());
+
+    URL url4 = new URL(URL.ProtocolType.BOLT, "192.168.1.1", 1235, URL.HESSIAN_2);
+    Assert.assertNotSame(URL.internURL(url1), URL.internURL(url4));
+    Assert.assertNull(URL.internURL(null));
+  }
+
+  @Test
+  public void testInternRegistration() {
+    Subscriber sub1 = Subscriber.internSubscriber(newSubscriber(1, 1234));
+    Subscriber sub2 = Subscriber.internSubscriber(newSubscriber(2, 1234));
+    Assert.assertSame(sub1.getSourceAddress(), sub2.getSourceAddress());
+    Assert.assertSame(sub1.getTargetAddress(), sub2.getTargetAddress());
+    Assert.assertEquals("RZ00A", sub1.attributeOf("zone"));
+    Assert.assertSame(sub1.attributeOf("zone"), sub2.attributeOf("zone"));
+
+    Publisher pub1 = new Publisher();
+    pub1.setSourceAddress(new URL("192.168.1.1", 1234));
+    pub1.setAttributes(sub1.getAttributes());
+    Publisher pub2 = new Publisher();
+    pub2.setSourceAddress(new URL("192.168.1.1", 1234));
+    pub2.setAttributes(newSubscriber(3, 1234).getAttributes());
+    PublisherUtils.internPublisher(pub1);
+    PublisherUtils.internPublisher(pub2);
+    Assert.assertSame(pub1.getSourceAddress(), sub1.getSourceAddress());
+    Assert.assertSame(pub1.getSourceAddress(), pub2.getSourceAddress());
+    Assert.assertSame(pub1.attributeOf("zone"), pub2.attributeOf("zone"));
+
+    // the attributes are copied on get, the shared map could not be modified
+    Map<String, String> attrs = pub1.getAttributes();
+    attrs.put("zone", "RZ00B");
+    Assert.assertEquals("RZ00A", pub2.attributeOf("zone"));
+  }
+
+  /** rough retained bytes per registration, run with -Xmx4g */
+  public static void main(String[] args) {
+    final int count = 1000000;
+    final int connections = 10000;
+    List<Subscriber> subs = Lists.newArrayListWithCapacity(count);
+    long before = usedMemory();
+    for (int i = 0; i < count; i++) {
+      subs.add(Subscriber.internSubscriber(newSubscriber(i, i % connections)));
+    }
+    long after = usedMemory();
+    LOGGER.info("registrations={}, bytes/registration={}", subs.size(), (after - before) / count);
+  }
+
+  private static long usedMemory() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    Runtime rt = Runtime.getRuntime();
+    return rt.totalMemory() - rt.freeMemory();
+  }
+}
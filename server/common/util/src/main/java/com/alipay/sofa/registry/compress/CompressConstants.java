@@ -19,6 +19,9 @@ package com.alipay.sofa.registry.compress;
 public class CompressConstants {
   public static final String encodingGzip = "gzip";
   public static final String encodingZstd = "zstd";
+  // zstd with the trained dictionary, the encoding is zstd-dict:<dictId>
+  public static final String encodingZstdDictPrefix = "zstd-dict:";
+  public static final int defaultZstdDictSize = 1024 * 16; // 16KB
   public static final int defaultCompressPushMinSize = 1024 * 4; // 4KB
   public static final int defaultCompressDatumMinSize = 1024 * 12; // 12KB
 
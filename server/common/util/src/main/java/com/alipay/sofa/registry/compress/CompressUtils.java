@@ -21,10 +21,14 @@ import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.metrics.CounterFunc;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictTrainer;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.Assert;
@@ -45,8 +49,20 @@ public final class CompressUtils {
         }
       };
 
-  public static Compressor mustGet(String encode) {
+  // the trained dictionaries are registered at runtime, never removed, the data compressed by
+  // the retired dictionary maybe still in flight
+  private static final Map<String, Compressor> dictCompressorMap = new ConcurrentHashMap<>();
+
+  private static Compressor get(String encode) {
     Compressor compressor = compressorMap.get(encode);
+    if (compressor == null && encode != null) {
+      compressor = dictCompressorMap.get(encode);
+    }
+    return compressor;
+  }
+
+  public static Compressor mustGet(String encode) {
+    Compressor compressor = get(encode);
     Assert.notNull(compressor, StringFormatter.format("compress {} not found", encode));
     return compressor;
   }
@@ -63,7 +79,7 @@ public final class CompressUtils {
       if (forbidEncodes.contains(encoding)) {
         continue;
       }
-      Compressor compressor = compressorMap.get(encoding);
+      Compressor compressor = get(encoding);
       if (compressor != null) {
         return compressor;
       }
@@ -73,6 +89,44 @@ public final class CompressUtils {
     return null;
   }
 
+  /**
+   * register the trained zstd dictionary, the dictId is read from the dictionary
+   *
+   * @param dict the dictionary trained by zstd
+   * @return the compressor with encoding zstd-dict:<dictId>
+   */
+  public static Compressor registerZstdDict(byte[] dict) {
+    Assert.isTrue(dict != null && dict.length != 0, "zstd dict is empty");
+    final long dictId = Zstd.getDictIdFromDict(dict);
+    Assert.isTrue(dictId != 0, "not a zstd dict, dictId is 0");
+    return dictCompressorMap.computeIfAbsent(
+        CompressConstants.encodingZstdDictPrefix + dictId,
+        k -> {
+          LOG.info("register zstd dict, dictId={}, size={}", dictId, dict.length);
+          return new Compressor.ZstdDictCompressor(dictId, dict);
+        });
+  }
+
+  /**
+   * train the zstd dictionary from the samples
+   *
+   * @param samples the samples, e.g. the serialized data boxes
+   * @param dictSize the max size of dictionary
+   * @return the dictionary
+   */
+  public static byte[] trainZstdDict(Collection<byte[]> samples, int dictSize) {
+    long total = 0;
+    for (byte[] sample : samples) {
+      total += sample.length;
+    }
+    Assert.isTrue(total <= Integer.MAX_VALUE, "too many samples for zstd dict");
+    ZstdDictTrainer trainer = new ZstdDictTrainer((int) total, dictSize);
+    for (byte[] sample : samples) {
+      trainer.addSample(sample);
+    }
+    return trainer.trainSamples();
+  }
+
   public static <V extends Sizer> CompressCachedExecutor<V> newCachedExecutor(
       String name, long silentMs, long maxWeight) {
     CompressCachedExecutor<V> cachedExecutor =
@@ -85,4 +85,40 @@ public abstract class Compressor {
       return Zstd.decompress(data, decompressedSize);
     }
   }
+
+  public static class ZstdDictCompressor extends Compressor {
+    // the default level of zstd
+    private static final int LEVEL = 3;
+
+    private final long dictId;
+    private final String encoding;
+    private final ZstdDictCompress dictCompress;
+    private final ZstdDictDecompress dictDecompress;
+
+    public ZstdDictCompressor(long dictId, byte[] dict) {
+      this.dictId = dictId;
+      this.encoding = CompressConstants.encodingZstdDictPrefix + dictId;
+      this.dictCompress = new ZstdDictCompress(dict, LEVEL);
+      this.dictDecompress = new ZstdDictDecompress(dict);
+    }
+
+    @Override
+    public String getEncoding() {
+      return encoding;
+    }
+
+    public long getDictId() {
+      return dictId;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws Exception {
+      return Zstd.compress(data, dictCompress);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int decompressedSize) throws Exception {
+      return Zstd.decompress(data, dictDecompress, decompressedSize);
+    }
+  }
 }
@@ -22,6 +22,7 @@ import com.alipay.remoting.rpc.protocol.RpcProtocol;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
+import com.alipay.sofa.registry.task.ThreadPerTaskExecutor;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.codahale.metrics.Gauge;
@@ -99,8 +100,7 @@ public class TaskMetrics {
 
   public void registerThreadExecutor(String executorName, ThreadPoolExecutor executor) {
     registerIfAbsent(
-        MetricRegistry.name(executorName, "queue"),
-        (Gauge<Integer>) () -> executor.getQueue().size());
+        MetricRegistry.name(executorName, "queue"), (Gauge<Integer>) () -> queueSizeOf(executor));
 
     registerIfAbsent(
         MetricRegistry.name(executorName, "poolSize"), (Gauge<Integer>) executor::getPoolSize);
@@ -117,6 +117,14 @@ public class TaskMetrics {
     executors.add(executorName);
   }
 
+  static int queueSizeOf(ThreadPoolExecutor executor) {
+    // the tasks of the thread per task executor wait for the permit, not in the queue
+    if (executor instanceof ThreadPerTaskExecutor) {
+      return ((ThreadPerTaskExecutor) executor).getWaitingCount();
+    }
+    return executor.getQueue().size();
+  }
+
   private boolean registerIfAbsent(String metricName, Metric metric) {
     Map<String, Metric> metricMap = metrics.getMetrics();
     if (metricMap.containsKey(metricName)) {
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.task;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * keyed executor whose lane polls the priority tasks first, the tasks with the same priority are
+ * polled in the order of offer. after maxPriorityBurst priority tasks in a row, the lane polls one
+ * normal task if any, the normal tasks are not starved by the continuous priority tasks. the tasks
+ * of the same key still run in one lane, the priority tasks could use the reserved buffer when the
+ * lanes are full of the normal tasks
+ */
+public class KeyedPriorityThreadPoolExecutor extends KeyedThreadPoolExecutor {
+  private final AtomicInteger totalSize = new AtomicInteger();
+  private final AtomicInteger prioritySize = new AtomicInteger();
+  private final Predicate<Runnable> priority;
+  private final int reservedBufferSize;
+  private final int maxPriorityBurst;
+
+  public KeyedPriorityThreadPoolExecutor(
+      String executorName,
+      int coreSize,
+      int coreBufferSize,
+      int reservedBufferSize,
+      int maxPriorityBurst,
+      Predicate<Runnable> priority) {
+    super(executorName, coreSize, coreBufferSize, false);
+    // the priority tasks are polled only when the burst is under it
+    ParaCheckUtil.checkIsPositive(maxPriorityBurst, "maxPriorityBurst");
+    this.reservedBufferSize = reservedBufferSize;
+    this.maxPriorityBurst = maxPriorityBurst;
+    this.priority = priority;
+    startWorkers();
+  }
+
+  @Override
+  protected AbstractWorker[] createWorkers(int coreSize, int coreBufferSize) {
+    AbstractWorker[] workers = new AbstractWorker[coreSize];
+    for (int i = 0; i < coreSize; i++) {
+      workers[i] = new PriorityWorker(i);
+    }
+    return workers;
+  }
+
+  public int getPriorityQueueSize() {
+    return prioritySize.get();
+  }
+
+  private final class PriorityWorker extends AbstractWorker {
+    final Queue<KeyedTask> priorityQueue = new ConcurrentLinkedQueue<>();
+    final Queue<KeyedTask> normalQueue = new ConcurrentLinkedQueue<>();
+    // the permits are the tasks in the queues
+    final Semaphore available = new Semaphore(0);
+    final AtomicInteger size = new AtomicInteger();
+    // only accessed by the worker thread
+    int priorityBurst;
+
+    PriorityWorker(int idx) {
+      super(idx);
+    }
+
+    public int size() {
+      return size.get();
+    }
+
+    public KeyedTask poll() throws InterruptedException {
+      if (!available.tryAcquire(180, TimeUnit.SECONDS)) {
+        return null;
+      }
+      KeyedTask task = null;
+      if (priorityBurst < maxPriorityBurst) {
+        task = priorityQueue.poll();
+      }
+      if (task != null) {
+        priorityBurst++;
+        prioritySize.decrementAndGet();
+      } else {
+        task = normalQueue.poll();
+        if (task != null) {
+          priorityBurst = 0;
+        } else {
+          // the burst is over but no normal task
+          task = priorityQueue.poll();
+          prioritySize.decrementAndGet();
+        }
+      }
+      size.decrementAndGet();
+      totalSize.decrementAndGet();
+      return task;
+    }
+
+    public boolean offer(KeyedTask task) {
+      final boolean isPriority = priority.test(task.getRunnable());
+      // same as BlockingQueues, the lane could borrow the buffer of others
+      final int limit = isPriority ? coreBufferSize + reservedBufferSize : coreBufferSize;
+      if (size.get() >= coreBufferSize / coreSize && totalSize.get() >= limit) {
+        return false;
+      }
+      totalSize.incrementAndGet();
+      size.incrementAndGet();
+      if (isPriority) {
+        prioritySize.incrementAndGet();
+        priorityQueue.offer(task);
+      } else {
+        normalQueue.offer(task);
+      }
+      available.release();
+      return true;
+    }
+  }
+}
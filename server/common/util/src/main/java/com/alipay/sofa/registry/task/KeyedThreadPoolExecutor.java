@@ -40,6 +40,15 @@ public class KeyedThreadPoolExecutor {
   private final Counter taskCounter;
 
   public KeyedThreadPoolExecutor(String executorName, int coreSize, int coreBufferSize) {
+    this(executorName, coreSize, coreBufferSize, true);
+  }
+
+  /**
+   * @param start false means the subclass starts the workers by startWorkers after its own fields
+   *     assigned
+   */
+  protected KeyedThreadPoolExecutor(
+      String executorName, int coreSize, int coreBufferSize, boolean start) {
     this.executorName = executorName;
     this.coreBufferSize = coreBufferSize;
     this.coreSize = coreSize;
@@ -52,6 +61,12 @@ public class KeyedThreadPoolExecutor {
             .register();
 
     workers = createWorkers(coreSize, coreBufferSize);
+    if (start) {
+      startWorkers();
+    }
+  }
+
+  protected final void startWorkers() {
     for (int i = 0; i < coreSize; i++) {
       ConcurrentUtils.createDaemonThread(executorName + "_" + i, workers[i]).start();
     }
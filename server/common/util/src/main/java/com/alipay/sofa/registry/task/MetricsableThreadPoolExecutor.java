@@ -21,6 +21,7 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.util.NamedThreadFactory;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.VirtualThreads;
 import java.util.concurrent.*;
 
 /**
@@ -92,4 +93,34 @@ public class MetricsableThreadPoolExecutor extends ThreadPoolExecutor {
       String executorName, int corePoolSize, int size) {
     return newExecutor(executorName, corePoolSize, size, new RejectedLogErrorHandler(LOGGER, true));
   }
+
+  /**
+   * the executor of the tasks blocking on I/O. When the virtual thread mode is enabled, each task
+   * runs on a new virtual thread and the concurrency is bounded by a semaphore of the pool size,
+   * otherwise it is a pool of platform threads with the pool size
+   *
+   * @param executorName executorName
+   * @param poolSize the max concurrency of the tasks
+   * @param queueSize the max waiting tasks
+   * @param handler handler of the rejected tasks
+   * @return MetricsableThreadPoolExecutor
+   */
+  public static MetricsableThreadPoolExecutor newBlockingIOExecutor(
+      String executorName, int poolSize, int queueSize, RejectedExecutionHandler handler) {
+    if (VirtualThreads.isEnabled()) {
+      return new ThreadPerTaskExecutor(
+          executorName,
+          poolSize,
+          queueSize,
+          VirtualThreads.newVirtualThreadFactory(executorName),
+          handler);
+    }
+    return newExecutor(executorName, poolSize, queueSize, handler);
+  }
+
+  public static MetricsableThreadPoolExecutor newBlockingIOExecutor(
+      String executorName, int poolSize, int queueSize) {
+    return newBlockingIOExecutor(
+        executorName, poolSize, queueSize, new RejectedLogErrorHandler(LOGGER, true));
+  }
 }
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.task;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * runs each task on a new thread, used with the virtual threads which should not be pooled. The
+ * running tasks are bounded by a semaphore, the tasks over the bound wait for the permit on their
+ * own threads, and the waiting tasks are bounded by the queue size. The queue of the executor is
+ * always empty, the waiting tasks are counted by getWaitingCount.
+ */
+public final class ThreadPerTaskExecutor extends MetricsableThreadPoolExecutor {
+  private final Semaphore permits;
+  private final int maxConcurrency;
+  private final int maxPending;
+  private final AtomicInteger pending = new AtomicInteger();
+
+  ThreadPerTaskExecutor(
+      String executorName,
+      int maxConcurrency,
+      int queueSize,
+      ThreadFactory threadFactory,
+      RejectedExecutionHandler handler) {
+    super(
+        executorName,
+        0,
+        Integer.MAX_VALUE,
+        0,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        threadFactory,
+        handler);
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.permits = new Semaphore(this.maxConcurrency);
+    this.maxPending = this.maxConcurrency + Math.max(0, queueSize);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (command == null) {
+      throw new NullPointerException();
+    }
+    if (isShutdown()) {
+      getRejectedExecutionHandler().rejectedExecution(command, this);
+      return;
+    }
+    if (pending.incrementAndGet() > maxPending) {
+      pending.decrementAndGet();
+      getRejectedExecutionHandler().rejectedExecution(command, this);
+      return;
+    }
+    try {
+      super.execute(new BoundedTask(command));
+    } catch (Throwable e) {
+      pending.decrementAndGet();
+      throw e;
+    }
+  }
+
+  @Override
+  public int getActiveCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  public int getWaitingCount() {
+    return Math.max(0, pending.get() - getActiveCount());
+  }
+
+  private final class BoundedTask implements Runnable {
+    final Runnable task;
+
+    BoundedTask(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        // shutdown now
+        pending.decrementAndGet();
+        Thread.currentThread().interrupt();
+        return;
+      }
+      try {
+        task.run();
+      } finally {
+        permits.release();
+        pending.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.util;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * opt-in virtual thread mode of the blocking I/O executors, only works when running on JDK 21+. the
+ * virtual threads are not pooled, each task runs on a new virtual thread and the concurrency is
+ * bounded by a semaphore of the configured pool size, see
+ * MetricsableThreadPoolExecutor.newBlockingIOExecutor
+ */
+public final class VirtualThreads {
+  private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+  public static final String KEY_ENABLED = "registry.executor.virtual_thread.enabled";
+
+  // Thread.ofVirtual(), null if not support
+  private static final Method OF_VIRTUAL = lookupOfVirtual();
+
+  private static final boolean ENABLED = initEnabled();
+
+  private VirtualThreads() {}
+
+  private static Method lookupOfVirtual() {
+    try {
+      return Thread.class.getMethod("ofVirtual");
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  private static boolean initEnabled() {
+    if (!Boolean.parseBoolean(SystemUtils.getSystem(KEY_ENABLED, "false"))) {
+      return false;
+    }
+    if (OF_VIRTUAL == null) {
+      LOGGER.warn(
+          "virtual thread mode is ignored, not supported by java {}",
+          System.getProperty("java.version"));
+      return false;
+    }
+    LOGGER.info("virtual thread mode is enabled");
+    return true;
+  }
+
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * the factory of the virtual threads
+   *
+   * @param name name prefix of the virtual threads
+   * @return ThreadFactory
+   */
+  public static ThreadFactory newVirtualThreadFactory(String name) {
+    if (OF_VIRTUAL == null) {
+      throw new UnsupportedOperationException("virtual thread not supported");
+    }
+    try {
+      Object builder = OF_VIRTUAL.invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder =
+          builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (Throwable e) {
+      throw new IllegalStateException("failed to create virtual thread factory: " + name, e);
+    }
+  }
+}
@@ -19,12 +19,14 @@ package com.alipay.sofa.registry.compress;
 import com.alipay.sofa.registry.TestUtils;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.io.CharStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Random;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -137,6 +139,88 @@ public class CompressorTest {
     Assert.assertEquals("zstd", CompressUtils.normalizeEncode("zstd"));
   }
 
+  @Test
+  public void testZstdDict() throws Exception {
+    Random random = new Random(1);
+    List<byte[]> samples = Lists.newArrayList();
+    for (int i = 0; i < 2000; i++) {
+      samples.add(dubboUrls(random, 1 + random.nextInt(4)));
+    }
+    long start = System.currentTimeMillis();
+    byte[] dict = CompressUtils.trainZstdDict(samples.subList(0, 1500), 1024 * 16);
+    LOG.info("zstd dict train: {}, cost={}", dict.length, System.currentTimeMillis() - start);
+
+    Compressor dictCompressor = CompressUtils.registerZstdDict(dict);
+    Assert.assertSame(dictCompressor, CompressUtils.registerZstdDict(dict));
+    Assert.assertTrue(
+        dictCompressor.getEncoding().startsWith(CompressConstants.encodingZstdDictPrefix));
+    Assert.assertSame(dictCompressor, CompressUtils.mustGet(dictCompressor.getEncoding()));
+    Assert.assertSame(
+        dictCompressor,
+        CompressUtils.find(new String[] {"zstd-dict:0", dictCompressor.getEncoding(), "zstd"}));
+
+    Compressor zstd = CompressUtils.mustGet(CompressConstants.encodingZstd);
+    Compressor gzip = CompressUtils.mustGet(CompressConstants.encodingGzip);
+    List<byte[]> tests = samples.subList(1500, samples.size());
+    long srcSize = 0;
+    for (byte[] src : tests) {
+      srcSize += src.length;
+      Assert.assertArrayEquals(
+          src, dictCompressor.decompress(dictCompressor.compress(src), src.length));
+    }
+    long dictSize = benchmark("zstd-dict", dictCompressor, tests, srcSize);
+    long zstdSize = benchmark("zstd", zstd, tests, srcSize);
+    benchmark("gzip", gzip, tests, srcSize);
+    Assert.assertTrue(dictSize < zstdSize);
+
+    TestUtils.assertException(
+        IllegalArgumentException.class, () -> CompressUtils.registerZstdDict(new byte[10]));
+  }
+
+  private static long benchmark(
+      String name, Compressor compressor, List<byte[]> tests, long srcSize) throws Exception {
+    long dstSize = 0;
+    long start = System.nanoTime();
+    for (byte[] src : tests) {
+      dstSize += compressor.compress(src).length;
+    }
+    long cost = System.nanoTime() - start;
+    LOG.info(
+        "{} src: {} dst: {}, ratio: {}, compress per: {}us",
+        name,
+        srcSize,
+        dstSize,
+        (double) srcSize / dstSize,
+        cost / 1000 / tests.size());
+    return dstSize;
+  }
+
+  private static byte[] dubboUrls(Random random, int num) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < num; i++) {
+      int service = random.nextInt(200);
+      sb.append("dubbo://10.")
+          .append(random.nextInt(256))
+          .append('.')
+          .append(random.nextInt(256))
+          .append('.')
+          .append(random.nextInt(256))
+          .append(":20880/com.alipay.demo.DemoService")
+          .append(service)
+          .append("?anyhost=true&application=demo-app")
+          .append(random.nextInt(50))
+          .append("&deprecated=false&dubbo=2.0.2&dynamic=true&generic=false&interface=")
+          .append("com.alipay.demo.DemoService")
+          .append(service)
+          .append("&methods=sayHello,sayHelloAsync,echo&pid=")
+          .append(random.nextInt(65536))
+          .append("&release=2.7.8&side=provider&timeout=3000&timestamp=")
+          .append(1600000000000L + random.nextInt(Integer.MAX_VALUE))
+          .append('\n');
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
   @Test
   public void testNewExec() {
     Random r = new Random();
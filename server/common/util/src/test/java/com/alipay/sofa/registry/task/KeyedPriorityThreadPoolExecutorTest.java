@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.task;
+
+import com.alipay.sofa.registry.TestUtils;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyedPriorityThreadPoolExecutorTest {
+
+  @Test
+  public void testPriorityFirst() throws Exception {
+    KeyedPriorityThreadPoolExecutor executor =
+        new KeyedPriorityThreadPoolExecutor(
+            "TestPriorityFirst", 1, 3, 1, 10, r -> r instanceof PriorityTask);
+    CountDownLatch blocking = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(4);
+    List<String> runs = new CopyOnWriteArrayList<>();
+    executor.execute(
+        "key",
+        () -> {
+          started.countDown();
+          try {
+            blocking.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+    Assert.assertTrue(started.await(3, TimeUnit.SECONDS));
+
+    executor.execute("key", new NormalTask("n1", runs, finished));
+    executor.execute("key", new NormalTask("n2", runs, finished));
+    executor.execute("key", new PriorityTask("p1", runs, finished));
+    // full of normal tasks
+    TestUtils.assertException(
+        FastRejectedExecutionException.class,
+        () -> executor.execute("key", new NormalTask("n3", runs, finished)));
+    // the priority task use the reserved buffer
+    executor.execute("key", new PriorityTask("p2", runs, finished));
+    TestUtils.assertException(
+        FastRejectedExecutionException.class,
+        () -> executor.execute("key", new PriorityTask("p3", runs, finished)));
+    Assert.assertEquals(4, executor.getQueueSize());
+    Assert.assertEquals(2, executor.getPriorityQueueSize());
+
+    blocking.countDown();
+    Assert.assertTrue(finished.await(3, TimeUnit.SECONDS));
+    Assert.assertArrayEquals(new String[] {"p1", "p2", "n1", "n2"}, runs.toArray());
+    Assert.assertEquals(0, executor.getQueueSize());
+    Assert.assertEquals(0, executor.getPriorityQueueSize());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalPriorityBurst() {
+    new KeyedPriorityThreadPoolExecutor(
+        "TestIllegalPriorityBurst", 1, 10, 0, 0, r -> r instanceof PriorityTask);
+  }
+
+  @Test
+  public void testPriorityBurst() throws Exception {
+    KeyedPriorityThreadPoolExecutor executor =
+        new KeyedPriorityThreadPoolExecutor(
+            "TestPriorityBurst", 1, 10, 0, 2, r -> r instanceof PriorityTask);
+    CountDownLatch blocking = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(7);
+    List<String> runs = new CopyOnWriteArrayList<>();
+    executor.execute(
+        "key",
+        () -> {
+          started.countDown();
+          try {
+            blocking.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+    Assert.assertTrue(started.await(3, TimeUnit.SECONDS));
+
+    executor.execute("key", new NormalTask("n1", runs, finished));
+    executor.execute("key", new NormalTask("n2", runs, finished));
+    for (int i = 1; i <= 5; i++) {
+      executor.execute("key", new PriorityTask("p" + i, runs, finished));
+    }
+    blocking.countDown();
+    Assert.assertTrue(finished.await(3, TimeUnit.SECONDS));
+    // one normal task every two priority tasks, the rest priority tasks run when no normal
+    Assert.assertArrayEquals(
+        new String[] {"p1", "p2", "n1", "p3", "p4", "n2", "p5"}, runs.toArray());
+    Assert.assertEquals(0, executor.getQueueSize());
+    Assert.assertEquals(0, executor.getPriorityQueueSize());
+  }
+
+  private static class NormalTask implements Runnable {
+    final String name;
+    final List<String> runs;
+    final CountDownLatch finished;
+
+    NormalTask(String name, List<String> runs, CountDownLatch finished) {
+      this.name = name;
+      this.runs = runs;
+      this.finished = finished;
+    }
+
+    @Override
+    public void run() {
+      runs.add(name);
+      finished.countDown();
+    }
+  }
+
+  private static final class PriorityTask extends NormalTask {
+    PriorityTask(String name, List<String> runs, CountDownLatch finished) {
+      super(name, runs, finished);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.task;
+
+import com.alipay.sofa.registry.metrics.TaskMetrics;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThreadPerTaskExecutorTest {
+
+  @Test
+  public void testBound() throws Exception {
+    // platform threads in test, the virtual threads need JDK 21+
+    ThreadPerTaskExecutor executor =
+        new ThreadPerTaskExecutor(
+            "testThreadPerTask",
+            2,
+            1,
+            new NamedThreadFactory("testThreadPerTask", true),
+            new ThreadPoolExecutor.DiscardPolicy());
+    CountDownLatch block = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger done = new AtomicInteger();
+    for (int i = 0; i < 4; i++) {
+      executor.execute(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+              block.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            done.incrementAndGet();
+          });
+    }
+    waitFor(() -> executor.getActiveCount() == 2 && executor.getWaitingCount() == 1);
+    // 2 running, 1 waiting for the permit, the 4th is discarded
+    Assert.assertEquals(2, running.get());
+    Gauge<?> queue =
+        TaskMetrics.getInstance()
+            .getMetricRegistry()
+            .getGauges()
+            .get(MetricRegistry.name("testThreadPerTask", "queue"));
+    Assert.assertEquals(1, queue.getValue());
+
+    block.countDown();
+    waitFor(() -> done.get() == 3);
+    Assert.assertEquals(2, maxRunning.get());
+    Assert.assertEquals(0, executor.getActiveCount());
+    Assert.assertEquals(0, executor.getWaitingCount());
+
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(3, TimeUnit.SECONDS));
+  }
+
+  private static void waitFor(BooleanSupplier condition) {
+    for (int i = 0; i < 300 && !condition.getAsBoolean(); i++) {
+      ConcurrentUtils.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+    }
+    Assert.assertTrue(condition.getAsBoolean());
+  }
+}
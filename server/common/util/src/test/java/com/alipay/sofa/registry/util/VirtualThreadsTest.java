@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.util;
+
+import com.alipay.sofa.registry.TestUtils;
+import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+  @Test
+  public void testDisabled() {
+    // not enabled by default, the blocking I/O executor is a platform thread pool
+    Assert.assertFalse(VirtualThreads.isEnabled());
+    MetricsableThreadPoolExecutor executor =
+        MetricsableThreadPoolExecutor.newBlockingIOExecutor("testBlockingIO", 2, 10);
+    Assert.assertEquals(MetricsableThreadPoolExecutor.class, executor.getClass());
+    Assert.assertEquals(2, executor.getCorePoolSize());
+    Assert.assertEquals(2, executor.getMaximumPoolSize());
+    executor.shutdown();
+  }
+
+  @Test
+  public void testVirtualThreadFactory() throws Exception {
+    if (!VirtualThreads.isSupported()) {
+      TestUtils.assertException(
+          UnsupportedOperationException.class,
+          () -> VirtualThreads.newVirtualThreadFactory("test"));
+      return;
+    }
+    ThreadFactory factory = VirtualThreads.newVirtualThreadFactory("test");
+    Thread thread = factory.newThread(() -> {});
+    Assert.assertTrue(thread.getName().startsWith("test-"));
+    Assert.assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+  }
+}
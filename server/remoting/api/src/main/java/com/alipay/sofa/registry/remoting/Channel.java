@@ -46,6 +46,15 @@ public interface Channel {
    */
   boolean isConnected();
 
+  /**
+   * is writable, false when the outbound buffer of the channel is above the high water mark.
+   *
+   * @return writable
+   */
+  default boolean isWritable() {
+    return isConnected();
+  }
+
   /**
    * get attribute in context.
    *
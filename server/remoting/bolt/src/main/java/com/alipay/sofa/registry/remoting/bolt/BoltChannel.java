@@ -63,6 +63,11 @@ public class BoltChannel implements Channel {
     return connection.isFine();
   }
 
+  @Override
+  public boolean isWritable() {
+    return connection.isFine() && connection.getChannel().isWritable();
+  }
+
   @Override
   public void setConnAttribute(String key, Object value) {
 
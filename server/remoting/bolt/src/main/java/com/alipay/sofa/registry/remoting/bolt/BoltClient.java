@@ -186,7 +186,8 @@ public class BoltClient implements Client {
   public Object sendSync(URL url, Object message, int timeoutMillis) {
     try {
       Url boltUrl = createBoltUrl(url);
-      return rpcClient.invokeSync(boltUrl, message, timeoutMillis);
+      return rpcClient.invokeSync(
+          boltUrl, message, BoltUtil.newInvokeContext(message), timeoutMillis);
     } catch (Throwable e) {
       throw BoltUtil.handleException("BoltClient", url, e, "sendSync");
     }
@@ -196,7 +197,11 @@ public class BoltClient implements Client {
   public Object sendSync(Channel channel, Object message, int timeoutMillis) {
     BoltUtil.checkChannelConnected(channel);
     try {
-      return rpcClient.invokeSync(((BoltChannel) channel).getConnection(), message, timeoutMillis);
+      return rpcClient.invokeSync(
+          ((BoltChannel) channel).getConnection(),
+          message,
+          BoltUtil.newInvokeContext(message),
+          timeoutMillis);
     } catch (Throwable e) {
       throw BoltUtil.handleException("BoltClient", channel, e, "sendSync");
     }
@@ -210,6 +215,7 @@ public class BoltClient implements Client {
       rpcClient.invokeWithCallback(
           connection,
           message,
+          BoltUtil.newInvokeContext(message),
           new InvokeCallbackHandler(new BoltChannel(connection), callbackHandler),
           timeoutMillis);
       return;
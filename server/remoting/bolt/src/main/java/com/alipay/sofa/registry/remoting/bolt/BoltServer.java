@@ -274,7 +274,7 @@ public class BoltServer implements Server {
   }
 
   protected InvokeContext newInvokeContext(Object request) {
-    return null;
+    return BoltUtil.newInvokeContext(request);
   }
 
   public RpcServer getRpcServer() {
@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.ChannelConnectException;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.remoting.ChannelOverflowException;
+import com.alipay.sofa.registry.remoting.bolt.serializer.CustomClassSerializerManager;
 import com.alipay.sofa.registry.remoting.exchange.RequestChannelClosedException;
 import com.alipay.sofa.registry.remoting.exchange.RequestException;
 import com.alipay.sofa.registry.util.StringFormatter;
@@ -57,6 +58,25 @@ public final class BoltUtil {
     return null;
   }
 
+  /**
+   * Create the invoke context with the serializer registered to the class of the request.
+   *
+   * @param request the request
+   * @return null if no serializer registered
+   */
+  public static InvokeContext newInvokeContext(Object request) {
+    if (request == null) {
+      return null;
+    }
+    Byte serializer = CustomClassSerializerManager.getClassSerializer(request.getClass());
+    if (serializer == null) {
+      return null;
+    }
+    InvokeContext invokeContext = new InvokeContext();
+    invokeContext.put(InvokeContext.BOLT_CUSTOM_SERIALIZER, serializer);
+    return invokeContext;
+  }
+
   public static RuntimeException handleException(
       String role, Object target, Throwable e, String op) {
     if (e instanceof RemotingException) {
@@ -0,0 +1,862 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.TraceTimes;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataVersionRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.ZipSubPublisherList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Schemas of the messages between session and data, and between data and data. */
+public final class RegistrySchemaCodecs {
+  private RegistrySchemaCodecs() {}
+
+  static final byte TYPE_DATUM_VERSION = 16;
+  static final byte TYPE_TRACE_TIMES = 17;
+  static final byte TYPE_PROCESS_ID = 18;
+  static final byte TYPE_SLOT_ACCESS = 19;
+  static final byte TYPE_SUB_DATUM = 20;
+  static final byte TYPE_MULTI_SUB_DATUM = 21;
+  static final byte TYPE_GENERIC_RESPONSE = 22;
+  static final byte TYPE_SLOT_ACCESS_RESPONSE = 23;
+  static final byte TYPE_MULTI_SLOT_ACCESS_RESPONSE = 24;
+  static final byte TYPE_DATA_CHANGE_REQUEST = 25;
+  static final byte TYPE_GET_DATA_VERSION_REQUEST = 26;
+  static final byte TYPE_SLOT_DIFF_DIGEST_RESULT = 27;
+  static final byte TYPE_GET_DATA_REQUEST = 28;
+  static final byte TYPE_GET_MULTI_DATA_REQUEST = 29;
+  static final byte TYPE_BATCH_GET_MULTI_DATA_REQUEST = 30;
+  static final byte TYPE_SLOT_DIFF_DIGEST_REQUEST = 31;
+
+  static List<SchemaCodec> codecs() {
+    return Arrays.asList(
+        new DatumVersionCodec(),
+        new TraceTimesCodec(),
+        new ProcessIdCodec(),
+        new SlotAccessCodec(),
+        new SubDatumCodec(),
+        new MultiSubDatumCodec(),
+        new GenericResponseCodec(),
+        new SlotAccessResponseCodec(),
+        new MultiSlotAccessResponseCodec(),
+        new DataChangeRequestCodec(),
+        new GetDataVersionRequestCodec(),
+        new SlotDiffDigestResultCodec(),
+        new GetDataRequestCodec(),
+        new GetMultiDataRequestCodec(),
+        new BatchGetMultiDataRequestCodec(),
+        new SlotDiffDigestRequestCodec());
+  }
+
+  /**
+   * the requests sent through the schema serializer, the responses follow the serializer of the
+   * request. the BatchRequest of publishers is left to the default serializer, its items are
+   * publishers of any kind and would be embedded as hessian one by one
+   *
+   * @return classes
+   */
+  static List<Class> requestClasses() {
+    return Arrays.asList(
+        DataChangeRequest.class,
+        GetDataVersionRequest.class,
+        GetDataRequest.class,
+        GetMultiDataRequest.class,
+        BatchGetMultiDataRequest.class,
+        DataSlotDiffDigestRequest.class);
+  }
+
+  static void writeDatumVersions(Map<String, DatumVersion> versions, SchemaOutput out) {
+    if (versions == null) {
+      out.writeVarInt(0);
+      return;
+    }
+    out.writeVarInt(versions.size() + 1);
+    for (Map.Entry<String, DatumVersion> e : versions.entrySet()) {
+      out.writeString(e.getKey());
+      out.writeLong(e.getValue().getValue());
+    }
+  }
+
+  static Map<String, DatumVersion> readDatumVersions(SchemaInput in) throws CodecException {
+    int size = in.readVarInt();
+    if (size == 0) {
+      return null;
+    }
+    Map<String, DatumVersion> versions = new HashMap<>((size - 1) * 4 / 3 + 1);
+    for (int i = 0; i < size - 1; i++) {
+      String dataInfoId = in.readString();
+      versions.put(dataInfoId, DatumVersion.of(in.readLong()));
+    }
+    return versions;
+  }
+
+  static void writeLongs(Map<String, Long> longs, SchemaOutput out) {
+    if (longs == null) {
+      out.writeVarInt(0);
+      return;
+    }
+    out.writeVarInt(longs.size() + 1);
+    for (Map.Entry<String, Long> e : longs.entrySet()) {
+      out.writeString(e.getKey());
+      out.writeLong(e.getValue());
+    }
+  }
+
+  static Map<String, Long> readLongs(SchemaInput in) throws CodecException {
+    int size = in.readVarInt();
+    if (size == 0) {
+      return null;
+    }
+    Map<String, Long> longs = new HashMap<>((size - 1) * 4 / 3 + 1);
+    for (int i = 0; i < size - 1; i++) {
+      String key = in.readString();
+      longs.put(key, in.readLong());
+    }
+    return longs;
+  }
+
+  static void writeStrings(String[] strings, SchemaOutput out) {
+    out.writeStringList(strings == null ? null : Arrays.asList(strings));
+  }
+
+  static String[] readStrings(SchemaInput in) throws CodecException {
+    List<String> list = in.readStringList();
+    return list == null ? null : list.toArray(new String[list.size()]);
+  }
+
+  static final class DatumVersionCodec implements SchemaCodec<DatumVersion> {
+    @Override
+    public byte typeId() {
+      return TYPE_DATUM_VERSION;
+    }
+
+    @Override
+    public Class<DatumVersion> type() {
+      return DatumVersion.class;
+    }
+
+    @Override
+    public void encode(DatumVersion value, SchemaOutput out) {
+      out.writeLong(value.getValue());
+    }
+
+    @Override
+    public DatumVersion decode(SchemaInput in, int version) {
+      return DatumVersion.of(in.readLong());
+    }
+  }
+
+  static final class TraceTimesCodec implements SchemaCodec<TraceTimes> {
+    @Override
+    public byte typeId() {
+      return TYPE_TRACE_TIMES;
+    }
+
+    @Override
+    public Class<TraceTimes> type() {
+      return TraceTimes.class;
+    }
+
+    @Override
+    public void encode(TraceTimes value, SchemaOutput out) {
+      out.writeLong(value.getCreateTs());
+      out.writeVarInt(value.getDataChangeType());
+      out.writeLong(value.getFirstDataChange());
+      out.writeLong(value.getDatumNotifyCreate());
+      out.writeLong(value.getDatumNotifySend());
+      out.writeLong(value.getTriggerSession());
+      out.writeLong(value.getDataPutReceive());
+      out.writeLong(value.getDataPutCommit());
+    }
+
+    @Override
+    public TraceTimes decode(SchemaInput in, int version) throws CodecException {
+      TraceTimes times = new TraceTimes();
+      times.setCreateTs(in.readLong());
+      times.setDataChangeType(in.readVarInt());
+      times.setFirstDataChange(in.readLong());
+      times.setDatumNotifyCreate(in.readLong());
+      times.setDatumNotifySend(in.readLong());
+      times.setTriggerSession(in.readLong());
+      times.setDataPutReceive(in.readLong());
+      times.setDataPutCommit(in.readLong());
+      return times;
+    }
+  }
+
+  static final class ProcessIdCodec implements SchemaCodec<ProcessId> {
+    @Override
+    public byte typeId() {
+      return TYPE_PROCESS_ID;
+    }
+
+    @Override
+    public Class<ProcessId> type() {
+      return ProcessId.class;
+    }
+
+    @Override
+    public void encode(ProcessId value, SchemaOutput out) {
+      out.writeString(value.getHostAddress());
+      out.writeLong(value.getTimestamp());
+      out.writeVarInt(value.getPid());
+      out.writeVarInt(value.getRand());
+    }
+
+    @Override
+    public ProcessId decode(SchemaInput in, int version) throws CodecException {
+      return new ProcessId(in.readString(), in.readLong(), in.readVarInt(), in.readVarInt());
+    }
+  }
+
+  static final class SlotAccessCodec implements SchemaCodec<SlotAccess> {
+    @Override
+    public byte typeId() {
+      return TYPE_SLOT_ACCESS;
+    }
+
+    @Override
+    public Class<SlotAccess> type() {
+      return SlotAccess.class;
+    }
+
+    @Override
+    public void encode(SlotAccess value, SchemaOutput out) {
+      out.writeVarInt(value.getSlotId());
+      out.writeLong(value.getSlotTableEpoch());
+      out.writeString(value.getStatus() == null ? null : value.getStatus().name());
+      out.writeLong(value.getSlotLeaderEpoch());
+    }
+
+    @Override
+    public SlotAccess decode(SchemaInput in, int version) throws CodecException {
+      int slotId = in.readVarInt();
+      long slotTableEpoch = in.readLong();
+      String status = in.readString();
+      long slotLeaderEpoch = in.readLong();
+      return new SlotAccess(
+          slotId,
+          slotTableEpoch,
+          status == null ? null : SlotAccess.Status.valueOf(status),
+          slotLeaderEpoch);
+    }
+  }
+
+  static final class SubDatumCodec implements SchemaCodec<SubDatum> {
+    private static final byte PUBLISHERS = 0;
+    private static final byte ZIP_PUBLISHERS = 1;
+
+    @Override
+    public byte typeId() {
+      return TYPE_SUB_DATUM;
+    }
+
+    @Override
+    public Class<SubDatum> type() {
+      return SubDatum.class;
+    }
+
+    @Override
+    public void encode(SubDatum value, SchemaOutput out) throws CodecException {
+      out.writeString(value.getDataInfoId());
+      out.writeString(value.getDataCenter());
+      out.writeString(value.getDataId());
+      out.writeString(value.getInstanceId());
+      out.writeString(value.getGroup());
+      out.writeLong(value.getVersion());
+      List<Long> recentVersions = value.getRecentVersions();
+      if (recentVersions == null) {
+        out.writeVarInt(0);
+      } else {
+        out.writeVarInt(recentVersions.size() + 1);
+        for (Long v : recentVersions) {
+          out.writeLong(v);
+        }
+      }
+      ZipSubPublisherList zip = value.getZipPublishers();
+      if (zip != null) {
+        // already compressed, keep the bytes as they are
+        out.writeByte(ZIP_PUBLISHERS);
+        out.writeValue(zip);
+        return;
+      }
+      out.writeByte(PUBLISHERS);
+      List<SubPublisher> publishers = value.mustGetPublishers();
+      out.writeVarInt(publishers.size());
+      for (SubPublisher publisher : publishers) {
+        encodePublisher(publisher, out);
+      }
+    }
+
+    @Override
+    public SubDatum decode(SchemaInput in, int version) throws CodecException {
+      String dataInfoId = in.readString();
+      String dataCenter = in.readString();
+      String dataId = in.readString();
+      String instanceId = in.readString();
+      String group = in.readString();
+      long datumVersion = in.readLong();
+      List<Long> recentVersions = null;
+      int recentSize = in.readVarInt();
+      if (recentSize != 0) {
+        recentVersions = new ArrayList<>(recentSize - 1);
+        for (int i = 0; i < recentSize - 1; i++) {
+          recentVersions.add(in.readLong());
+        }
+      }
+      byte mode = in.readByte();
+      if (mode == ZIP_PUBLISHERS) {
+        ZipSubPublisherList zip = in.readValue();
+        return SubDatum.zipOf(
+            dataInfoId, dataCenter, datumVersion, dataId, instanceId, group, recentVersions, zip);
+      }
+      int size = in.readVarInt();
+      List<SubPublisher> publishers = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        publishers.add(decodePublisher(in));
+      }
+      return SubDatum.normalOf(
+          dataInfoId,
+          dataCenter,
+          datumVersion,
+          publishers,
+          dataId,
+          instanceId,
+          group,
+          recentVersions);
+    }
+
+    private static void encodePublisher(SubPublisher publisher, SchemaOutput out) {
+      out.writeString(publisher.getRegisterId());
+      out.writeString(publisher.getCell());
+      out.writeString(publisher.getClientId());
+      out.writeString(publisher.getSrcAddressString());
+      out.writeLong(publisher.getRegisterTimestamp());
+      out.writeLong(publisher.getVersion());
+      PublishSource source = publisher.getPublishSource();
+      out.writeString(source == null ? null : source.name());
+      List<ServerDataBox> boxes = publisher.getDataList();
+      out.writeVarInt(boxes.size());
+      for (ServerDataBox box : boxes) {
+        if (box.isInBytes()) {
+          out.writeVarInt(box.getSerialization());
+          out.writeBytes(box.getBytes());
+        } else if (box.getObject() != null) {
+          box.object2bytes();
+          out.writeVarInt(box.getSerialization());
+          out.writeBytes(box.getBytes());
+        } else {
+          out.writeVarInt(0);
+          out.writeBytes(null);
+        }
+      }
+    }
+
+    private static SubPublisher decodePublisher(SchemaInput in) throws CodecException {
+      String registerId = in.readString();
+      String cell = in.readString();
+      String clientId = in.readString();
+      String srcAddressString = in.readString();
+      long registerTimestamp = in.readLong();
+      long version = in.readLong();
+      String source = in.readString();
+      int boxSize = in.readVarInt();
+      List<ServerDataBox> boxes = new ArrayList<>(boxSize);
+      for (int i = 0; i < boxSize; i++) {
+        int serialization = in.readVarInt();
+        byte[] bytes = in.readBytes();
+        ServerDataBox box = new ServerDataBox();
+        if (bytes != null) {
+          box.setBytes(bytes);
+          box.setSerialization(serialization);
+        }
+        boxes.add(box);
+      }
+      return new SubPublisher(
+          registerId,
+          cell,
+          boxes,
+          clientId,
+          version,
+          srcAddressString,
+          registerTimestamp,
+          source == null ? null : PublishSource.valueOf(source));
+    }
+  }
+
+  static final class MultiSubDatumCodec implements SchemaCodec<MultiSubDatum> {
+    private final SubDatumCodec subDatumCodec = new SubDatumCodec();
+
+    @Override
+    public byte typeId() {
+      return TYPE_MULTI_SUB_DATUM;
+    }
+
+    @Override
+    public Class<MultiSubDatum> type() {
+      return MultiSubDatum.class;
+    }
+
+    @Override
+    public void encode(MultiSubDatum value, SchemaOutput out) throws CodecException {
+      out.writeString(value.getDataInfoId());
+      Map<String, SubDatum> datumMap = value.getDatumMap();
+      if (datumMap == null) {
+        out.writeVarInt(0);
+        return;
+      }
+      out.writeVarInt(datumMap.size() + 1);
+      for (Map.Entry<String, SubDatum> e : datumMap.entrySet()) {
+        out.writeString(e.getKey());
+        if (e.getValue() == null) {
+          out.writeBoolean(false);
+        } else {
+          out.writeBoolean(true);
+          subDatumCodec.encode(e.getValue(), out);
+        }
+      }
+    }
+
+    @Override
+    public MultiSubDatum decode(SchemaInput in, int version) throws CodecException {
+      String dataInfoId = in.readString();
+      int size = in.readVarInt();
+      if (size == 0) {
+        return new MultiSubDatum(dataInfoId, null);
+      }
+      Map<String, SubDatum> datumMap = new HashMap<>((size - 1) * 4 / 3 + 1);
+      for (int i = 0; i < size - 1; i++) {
+        String dataCenter = in.readString();
+        datumMap.put(dataCenter, in.readBoolean() ? subDatumCodec.decode(in, version) : null);
+      }
+      return new MultiSubDatum(dataInfoId, datumMap);
+    }
+  }
+
+  static final class GenericResponseCodec implements SchemaCodec<GenericResponse> {
+    @Override
+    public byte typeId() {
+      return TYPE_GENERIC_RESPONSE;
+    }
+
+    @Override
+    public Class<GenericResponse> type() {
+      return GenericResponse.class;
+    }
+
+    @Override
+    public void encode(GenericResponse value, SchemaOutput out) throws CodecException {
+      out.writeBoolean(value.isSuccess());
+      out.writeString(value.getMessage());
+      out.writeValue(value.getData());
+    }
+
+    @Override
+    public GenericResponse decode(SchemaInput in, int version) throws CodecException {
+      GenericResponse response = new GenericResponse();
+      response.setSuccess(in.readBoolean());
+      response.setMessage(in.readString());
+      response.setData(in.readValue());
+      return response;
+    }
+  }
+
+  static final class SlotAccessResponseCodec implements SchemaCodec<SlotAccessGenericResponse> {
+    @Override
+    public byte typeId() {
+      return TYPE_SLOT_ACCESS_RESPONSE;
+    }
+
+    @Override
+    public Class<SlotAccessGenericResponse> type() {
+      return SlotAccessGenericResponse.class;
+    }
+
+    @Override
+    public void encode(SlotAccessGenericResponse value, SchemaOutput out) throws CodecException {
+      out.writeBoolean(value.isSuccess());
+      out.writeString(value.getMessage());
+      out.writeValue(value.getSlotAccess());
+      out.writeValue(value.getData());
+    }
+
+    @Override
+    public SlotAccessGenericResponse decode(SchemaInput in, int version) throws CodecException {
+      boolean success = in.readBoolean();
+      String message = in.readString();
+      SlotAccess slotAccess = in.readValue();
+      return new SlotAccessGenericResponse(success, message, slotAccess, in.readValue());
+    }
+  }
+
+  static final class MultiSlotAccessResponseCodec
+      implements SchemaCodec<MultiSlotAccessGenericResponse> {
+    @Override
+    public byte typeId() {
+      return TYPE_MULTI_SLOT_ACCESS_RESPONSE;
+    }
+
+    @Override
+    public Class<MultiSlotAccessGenericResponse> type() {
+      return MultiSlotAccessGenericResponse.class;
+    }
+
+    @Override
+    public void encode(MultiSlotAccessGenericResponse value, SchemaOutput out)
+        throws CodecException {
+      out.writeBoolean(value.isSuccess());
+      out.writeString(value.getMessage());
+      out.writeValue(value.getData());
+      out.writeValue(value.getSlotAccessMap());
+    }
+
+    @Override
+    public MultiSlotAccessGenericResponse decode(SchemaInput in, int version)
+        throws CodecException {
+      boolean success = in.readBoolean();
+      String message = in.readString();
+      Object data = in.readValue();
+      Map<String, SlotAccess> slotAccessMap = in.readValue();
+      return new MultiSlotAccessGenericResponse(success, message, data, slotAccessMap);
+    }
+  }
+
+  static final class DataChangeRequestCodec implements SchemaCodec<DataChangeRequest> {
+    @Override
+    public byte typeId() {
+      return TYPE_DATA_CHANGE_REQUEST;
+    }
+
+    @Override
+    public Class<DataChangeRequest> type() {
+      return DataChangeRequest.class;
+    }
+
+    @Override
+    public void encode(DataChangeRequest value, SchemaOutput out) throws CodecException {
+      out.writeString(value.getDataCenter());
+      writeDatumVersions(value.getDataInfoIds(), out);
+      out.writeValue(value.getTimes());
+      // the datums map is unmodifiable, write the entries to avoid embedding it as hessian
+      Map<String, SubDatum> datums = value.getDatums();
+      out.writeVarInt(datums.size());
+      for (Map.Entry<String, SubDatum> e : datums.entrySet()) {
+        out.writeString(e.getKey());
+        out.writeValue(e.getValue());
+      }
+    }
+
+    @Override
+    public DataChangeRequest decode(SchemaInput in, int version) throws CodecException {
+      String dataCenter = in.readString();
+      Map<String, DatumVersion> dataInfoIds = readDatumVersions(in);
+      TraceTimes times = in.readValue();
+      int size = in.readVarInt();
+      Map<String, SubDatum> datums = new HashMap<>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; i++) {
+        String dataInfoId = in.readString();
+        datums.put(dataInfoId, in.readValue());
+      }
+      return new DataChangeRequest(dataCenter, dataInfoIds, times, datums);
+    }
+  }
+
+  static final class GetDataVersionRequestCodec implements SchemaCodec<GetDataVersionRequest> {
+    @Override
+    public byte typeId() {
+      return TYPE_GET_DATA_VERSION_REQUEST;
+    }
+
+    @Override
+    public Class<GetDataVersionRequest> type() {
+      return GetDataVersionRequest.class;
+    }
+
+    @Override
+    public void encode(GetDataVersionRequest value, SchemaOutput out) throws CodecException {
+      out.writeString(value.getDataCenter());
+      out.writeValue(value.getSessionProcessId());
+      out.writeVarInt(value.getSlotId());
+      out.writeLong(value.getSlotTableEpoch());
+      out.writeLong(value.getSlotLeaderEpoch());
+      writeDatumVersions(value.getInterests(), out);
+    }
+
+    @Override
+    public GetDataVersionRequest decode(SchemaInput in, int version) throws CodecException {
+      String dataCenter = in.readString();
+      ProcessId sessionProcessId = in.readValue();
+      int slotId = in.readVarInt();
+      long slotTableEpoch = in.readLong();
+      long slotLeaderEpoch = in.readLong();
+      Map<String, DatumVersion> interests = readDatumVersions(in);
+      GetDataVersionRequest request =
+          new GetDataVersionRequest(
+              dataCenter,
+              sessionProcessId,
+              slotId,
+              interests == null ? Collections.emptyMap() : interests);
+      request.setSlotTableEpoch(slotTableEpoch);
+      request.setSlotLeaderEpoch(slotLeaderEpoch);
+      return request;
+    }
+  }
+
+  static final class SlotDiffDigestResultCodec implements SchemaCodec<DataSlotDiffDigestResult> {
+    @Override
+    public byte typeId() {
+      return TYPE_SLOT_DIFF_DIGEST_RESULT;
+    }
+
+    @Override
+    public Class<DataSlotDiffDigestResult> type() {
+      return DataSlotDiffDigestResult.class;
+    }
+
+    @Override
+    public void encode(DataSlotDiffDigestResult value, SchemaOutput out) throws CodecException {
+      out.writeLong(value.getSlotTableEpoch());
+      out.writeStringList(value.getUpdatedDataInfoIds());
+      out.writeStringList(value.getAddedDataInfoIds());
+      out.writeStringList(value.getRemovedDataInfoIds());
+      out.writeValue(value.getSessionProcessId());
+      writeLongs(value.getDatumVersions(), out);
+    }
+
+    @Override
+    public DataSlotDiffDigestResult decode(SchemaInput in, int version) throws CodecException {
+      long slotTableEpoch = in.readLong();
+      List<String> updated = in.readStringList();
+      List<String> added = in.readStringList();
+      List<String> removed = in.readStringList();
+      DataSlotDiffDigestResult result =
+          new DataSlotDiffDigestResult(
+              updated == null ? Collections.emptyList() : updated,
+              added == null ? Collections.emptyList() : added,
+              removed == null ? Collections.emptyList() : removed);
+      result.setSlotTableEpoch(slotTableEpoch);
+      result.setSessionProcessId(in.readValue());
+      result.setDatumVersions(readLongs(in));
+      return result;
+    }
+  }
+
+  static final class GetDataRequestCodec implements SchemaCodec<GetDataRequest> {
+    @Override
+    public byte typeId() {
+      return TYPE_GET_DATA_REQUEST;
+    }
+
+    @Override
+    public Class<GetDataRequest> type() {
+      return GetDataRequest.class;
+    }
+
+    @Override
+    public void encode(GetDataRequest value, SchemaOutput out) throws CodecException {
+      out.writeValue(value.getSessionProcessId());
+      out.writeString(value.getDataInfoId());
+      out.writeString(value.getDataCenter());
+      out.writeVarInt(value.getSlotId());
+      out.writeLong(value.getSlotTableEpoch());
+      out.writeLong(value.getSlotLeaderEpoch());
+      writeStrings(value.getAcceptEncodes(), out);
+    }
+
+    @Override
+    public GetDataRequest decode(SchemaInput in, int version) throws CodecException {
+      ProcessId sessionProcessId = in.readValue();
+      String dataInfoId = in.readString();
+      String dataCenter = in.readString();
+      int slotId = in.readVarInt();
+      GetDataRequest request = new GetDataRequest(sessionProcessId, dataInfoId, dataCenter, slotId);
+      request.setSlotTableEpoch(in.readLong());
+      request.setSlotLeaderEpoch(in.readLong());
+      request.setAcceptEncodes(readStrings(in));
+      return request;
+    }
+  }
+
+  static final class GetMultiDataRequestCodec implements SchemaCodec<GetMultiDataRequest> {
+    @Override
+    public byte typeId() {
+      return TYPE_GET_MULTI_DATA_REQUEST;
+    }
+
+    @Override
+    public Class<GetMultiDataRequest> type() {
+      return GetMultiDataRequest.class;
+    }
+
+    @Override
+    public void encode(GetMultiDataRequest value, SchemaOutput out) throws CodecException {
+      out.writeValue(value.getSessionProcessId());
+      out.writeVarInt(value.getSlotId());
+      out.writeString(value.getDataInfoId());
+      writeStrings(value.getAcceptEncodes(), out);
+      writeLongs(value.getSlotTableEpochs(), out);
+      writeLongs(value.getSlotLeaderEpochs(), out);
+      writeLongs(value.getMinVersions(), out);
+    }
+
+    @Override
+    public GetMultiDataRequest decode(SchemaInput in, int version) throws CodecException {
+      ProcessId sessionProcessId = in.readValue();
+      int slotId = in.readVarInt();
+      String dataInfoId = in.readString();
+      String[] acceptEncodes = readStrings(in);
+      Map<String, Long> slotTableEpochs = readLongs(in);
+      Map<String, Long> slotLeaderEpochs = readLongs(in);
+      GetMultiDataRequest request =
+          new GetMultiDataRequest(
+              sessionProcessId,
+              slotId,
+              dataInfoId,
+              acceptEncodes,
+              slotTableEpochs,
+              slotLeaderEpochs);
+      request.setMinVersions(readLongs(in));
+      return request;
+    }
+  }
+
+  static final class BatchGetMultiDataRequestCodec
+      implements SchemaCodec<BatchGetMultiDataRequest> {
+    private final GetMultiDataRequestCodec requestCodec = new GetMultiDataRequestCodec();
+
+    @Override
+    public byte typeId() {
+      return TYPE_BATCH_GET_MULTI_DATA_REQUEST;
+    }
+
+    @Override
+    public Class<BatchGetMultiDataRequest> type() {
+      return BatchGetMultiDataRequest.class;
+    }
+
+    @Override
+    public void encode(BatchGetMultiDataRequest value, SchemaOutput out) throws CodecException {
+      out.writeValue(value.getSessionProcessId());
+      List<GetMultiDataRequest> requests = value.getRequests();
+      out.writeVarInt(requests.size());
+      for (GetMultiDataRequest request : requests) {
+        requestCodec.encode(request, out);
+      }
+    }
+
+    @Override
+    public BatchGetMultiDataRequest decode(SchemaInput in, int version) throws CodecException {
+      ProcessId sessionProcessId = in.readValue();
+      int size = in.readVarInt();
+      List<GetMultiDataRequest> requests = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        requests.add(requestCodec.decode(in, version));
+      }
+      return new BatchGetMultiDataRequest(sessionProcessId, requests);
+    }
+  }
+
+  static final class SlotDiffDigestRequestCodec implements SchemaCodec<DataSlotDiffDigestRequest> {
+    @Override
+    public byte typeId() {
+      return TYPE_SLOT_DIFF_DIGEST_REQUEST;
+    }
+
+    @Override
+    public Class<DataSlotDiffDigestRequest> type() {
+      return DataSlotDiffDigestRequest.class;
+    }
+
+    @Override
+    public void encode(DataSlotDiffDigestRequest value, SchemaOutput out) throws CodecException {
+      out.writeString(value.getLocalDataCenter());
+      out.writeLong(value.getSlotTableEpoch());
+      out.writeVarInt(value.getSlotId());
+      out.writeLong(value.getSlotLeaderEpoch());
+      Map<String, DatumDigest> digests = value.getDatumDigest();
+      out.writeVarInt(digests.size());
+      for (Map.Entry<String, DatumDigest> e : digests.entrySet()) {
+        DatumDigest digest = e.getValue();
+        out.writeString(e.getKey());
+        out.writeVarInt(digest.getPublisherNum());
+        out.writeLong(digest.getPublisherIdSign());
+        out.writeLong(digest.getPublisherVerSign());
+        out.writeLong(digest.getPublisherTimestampSign());
+        out.writeZigZagVarInt(digest.getMaxTimestamp());
+        out.writeZigZagVarInt(digest.getMinTimestamp());
+      }
+      // the acceptors are of any kind, embedded as hessian
+      out.writeValue(value.getAcceptorManager());
+    }
+
+    @Override
+    public DataSlotDiffDigestRequest decode(SchemaInput in, int version) throws CodecException {
+      String localDataCenter = in.readString();
+      long slotTableEpoch = in.readLong();
+      int slotId = in.readVarInt();
+      long slotLeaderEpoch = in.readLong();
+      int size = in.readVarInt();
+      Map<String, DatumDigest> digests = new HashMap<>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; i++) {
+        String dataInfoId = in.readString();
+        int publisherNum = in.readVarInt();
+        long publisherIdSign = in.readLong();
+        long publisherVerSign = in.readLong();
+        long publisherTimestampSign = in.readLong();
+        short maxTimestamp = (short) in.readZigZagVarInt();
+        short minTimestamp = (short) in.readZigZagVarInt();
+        digests.put(
+            dataInfoId,
+            new DatumDigest(
+                publisherNum,
+                publisherIdSign,
+                publisherVerSign,
+                publisherTimestampSign,
+                maxTimestamp,
+                minTimestamp));
+      }
+      SyncSlotAcceptorManager acceptorManager = in.readValue();
+      return new DataSlotDiffDigestRequest(
+          localDataCenter, slotTableEpoch, slotId, slotLeaderEpoch, digests, acceptorManager);
+    }
+  }
+}
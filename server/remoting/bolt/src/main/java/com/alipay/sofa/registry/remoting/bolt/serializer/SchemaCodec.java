@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.CodecException;
+
+/**
+ * Schema of one message type. The fields are written in a fixed order, new fields must be appended
+ * and guarded by the schema version of the frame.
+ */
+public interface SchemaCodec<T> {
+
+  /**
+   * type tag on the wire, must be unique and never reused
+   *
+   * @return byte
+   */
+  byte typeId();
+
+  /**
+   * the exact class handled by the codec
+   *
+   * @return Class
+   */
+  Class<T> type();
+
+  void encode(T value, SchemaOutput out) throws CodecException;
+
+  T decode(SchemaInput in, int version) throws CodecException;
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Reader of the schema codec, reads from the wrapped frame without copying it. */
+public final class SchemaInput {
+  private final SchemaSerializer serializer;
+  private final ByteBuf buf;
+  private final List<String> strings = new ArrayList<>();
+  private int version;
+
+  SchemaInput(SchemaSerializer serializer, byte[] data) {
+    this.serializer = serializer;
+    this.buf = Unpooled.wrappedBuffer(data);
+  }
+
+  public byte readByte() {
+    return buf.readByte();
+  }
+
+  public boolean readBoolean() {
+    return buf.readBoolean();
+  }
+
+  public long readLong() {
+    return buf.readLong();
+  }
+
+  public int readVarInt() throws DeserializationException {
+    int v = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = buf.readByte();
+      v |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return v;
+      }
+    }
+    throw new DeserializationException("malformed var int");
+  }
+
+  public int readZigZagVarInt() throws DeserializationException {
+    int v = readVarInt();
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+  public String readString() throws DeserializationException {
+    int v = readVarInt();
+    if (v == 0) {
+      return null;
+    }
+    if ((v & 1) == 1) {
+      int index = v >>> 1;
+      if (index >= strings.size()) {
+        throw new DeserializationException("illegal string ref: " + index);
+      }
+      return strings.get(index);
+    }
+    int len = (v >>> 1) - 1;
+    String s = buf.toString(buf.readerIndex(), len, StandardCharsets.UTF_8);
+    buf.skipBytes(len);
+    strings.add(s);
+    return s;
+  }
+
+  public byte[] readBytes() throws DeserializationException {
+    int len = readVarInt();
+    if (len == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[len - 1];
+    buf.readBytes(bytes);
+    return bytes;
+  }
+
+  public List<String> readStringList() throws DeserializationException {
+    int size = readVarInt();
+    if (size == 0) {
+      return null;
+    }
+    List<String> list = new ArrayList<>(size - 1);
+    for (int i = 0; i < size - 1; i++) {
+      list.add(readString());
+    }
+    return list;
+  }
+
+  public <T> T readValue() throws CodecException {
+    return (T) serializer.readValue(this);
+  }
+
+  Object readHessian() throws CodecException {
+    Serializer hessian = SerializerManager.getSerializer(SerializerManager.Hessian2);
+    return hessian.deserialize(readBytes(), Object.class.getName());
+  }
+
+  int getVersion() {
+    return version;
+  }
+
+  void setVersion(int version) {
+    this.version = version;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of the schema codec. Values are written into a pooled netty buffer, strings are
+ * deduplicated within one message through a string table.
+ */
+public final class SchemaOutput {
+  private static final int INIT_CAPACITY = 256;
+
+  private final SchemaSerializer serializer;
+  private final ByteBuf buf;
+  private final Map<String, Integer> strings = new HashMap<>();
+
+  SchemaOutput(SchemaSerializer serializer) {
+    this.serializer = serializer;
+    // always pooled, not depends on the allocator type of netty
+    this.buf = PooledByteBufAllocator.DEFAULT.heapBuffer(INIT_CAPACITY);
+  }
+
+  public void writeByte(int v) {
+    buf.writeByte(v);
+  }
+
+  public void writeBoolean(boolean v) {
+    buf.writeBoolean(v);
+  }
+
+  public void writeLong(long v) {
+    buf.writeLong(v);
+  }
+
+  /**
+   * unsigned var int, used for sizes, counts and small numbers
+   *
+   * @param v v
+   */
+  public void writeVarInt(int v) {
+    while ((v & ~0x7F) != 0) {
+      buf.writeByte((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buf.writeByte(v);
+  }
+
+  /**
+   * signed var int, the small negative numbers are also encoded in few bytes
+   *
+   * @param v v
+   */
+  public void writeZigZagVarInt(int v) {
+    writeVarInt((v << 1) ^ (v >> 31));
+  }
+
+  /**
+   * 0 means null, odd is a reference to the string table, even is a new string with utf8 length
+   *
+   * @param s s
+   */
+  public void writeString(String s) {
+    if (s == null) {
+      writeVarInt(0);
+      return;
+    }
+    Integer index = strings.get(s);
+    if (index != null) {
+      writeVarInt((index << 1) | 1);
+      return;
+    }
+    strings.put(s, strings.size());
+    int len = ByteBufUtil.utf8Bytes(s);
+    writeVarInt((len + 1) << 1);
+    ByteBufUtil.reserveAndWriteUtf8(buf, s, len);
+  }
+
+  /**
+   * the bytes are copied into the output buffer as is, without any intermediate encoding
+   *
+   * @param bytes bytes
+   */
+  public void writeBytes(byte[] bytes) {
+    if (bytes == null) {
+      writeVarInt(0);
+      return;
+    }
+    writeVarInt(bytes.length + 1);
+    buf.writeBytes(bytes);
+  }
+
+  public void writeStringList(List<String> list) {
+    if (list == null) {
+      writeVarInt(0);
+      return;
+    }
+    writeVarInt(list.size() + 1);
+    for (String s : list) {
+      writeString(s);
+    }
+  }
+
+  /**
+   * write a value with its type tag, fallback to hessian if the type has no schema
+   *
+   * @param value value
+   * @throws CodecException CodecException
+   */
+  public void writeValue(Object value) throws CodecException {
+    serializer.writeValue(this, value);
+  }
+
+  void writeHessian(Object value) throws CodecException {
+    Serializer hessian = SerializerManager.getSerializer(SerializerManager.Hessian2);
+    writeBytes(hessian.serialize(value));
+  }
+
+  byte[] toBytes() {
+    try {
+      return ByteBufUtil.getBytes(buf);
+    } finally {
+      buf.release();
+    }
+  }
+
+  void release() {
+    if (buf.refCnt() > 0) {
+      buf.release();
+    }
+  }
+}
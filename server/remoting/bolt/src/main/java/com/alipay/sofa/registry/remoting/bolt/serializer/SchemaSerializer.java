@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.exception.SerializationException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.util.SystemUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schema based serializer for the messages between registry servers. The frame is [magic, version,
+ * value], a value is a type tag followed by its fields. Types without a schema are embedded as
+ * hessian bytes, so any request or response could go through this serializer. The list and map tags
+ * are decoded as ArrayList and HashMap, other collection classes are embedded as hessian to keep
+ * their concrete types.
+ */
+public final class SchemaSerializer implements Serializer {
+
+  public static final byte PROTOCOL_SCHEMA = 12;
+
+  public static final String KEY_SCHEMA_SERIALIZER_ENABLED =
+      "registry.remoting.schema.serializer.enabled";
+
+  static final byte MAGIC = (byte) 0xA7;
+
+  static final byte VERSION_1 = 1;
+
+  // the max version could be decoded
+  static final byte VERSION = VERSION_1;
+
+  static final byte TAG_NULL = 0;
+  static final byte TAG_HESSIAN = 1;
+  static final byte TAG_STRING = 2;
+  static final byte TAG_LONG = 3;
+  static final byte TAG_BOOLEAN = 4;
+  static final byte TAG_LIST = 5;
+  static final byte TAG_MAP = 6;
+  // the zigzag var int
+  static final byte TAG_VAR_INT = 7;
+
+  /** the tags of codecs start from here */
+  static final byte TAG_CODEC_MIN = 16;
+
+  private static final SchemaSerializer instance = new SchemaSerializer();
+
+  private final Map<Class, SchemaCodec> codecsByType = new ConcurrentHashMap<>();
+
+  private final Map<Byte, SchemaCodec> codecsById = new ConcurrentHashMap<>();
+
+  private SchemaSerializer() {
+    for (SchemaCodec codec : RegistrySchemaCodecs.codecs()) {
+      registerCodec(codec);
+    }
+  }
+
+  public static SchemaSerializer getInstance() {
+    return instance;
+  }
+
+  /**
+   * register the serializer to bolt, so the frames could always be decoded; the request classes are
+   * sent by the serializer only when it is enabled, so all the servers must be upgraded before
+   * enable it
+   */
+  public static void install() {
+    SerializerManager.addSerializer(PROTOCOL_SCHEMA, instance);
+    if (Boolean.parseBoolean(SystemUtils.getSystem(KEY_SCHEMA_SERIALIZER_ENABLED, "false"))) {
+      for (Class clazz : RegistrySchemaCodecs.requestClasses()) {
+        CustomClassSerializerManager.registerSerializer(clazz, PROTOCOL_SCHEMA);
+      }
+    }
+  }
+
+  void registerCodec(SchemaCodec codec) {
+    if (codec.typeId() < TAG_CODEC_MIN) {
+      throw new IllegalArgumentException("illegal codec typeId: " + codec.typeId());
+    }
+    SchemaCodec exist = codecsById.putIfAbsent(codec.typeId(), codec);
+    if (exist != null && exist != codec) {
+      throw new IllegalArgumentException(
+          "duplicate codec typeId: " + codec.typeId() + ", " + exist.type());
+    }
+    codecsByType.put(codec.type(), codec);
+  }
+
+  @Override
+  public byte[] serialize(Object obj) throws CodecException {
+    SchemaOutput out = new SchemaOutput(this);
+    try {
+      out.writeByte(MAGIC);
+      out.writeByte(VERSION);
+      writeValue(out, obj);
+      return out.toBytes();
+    } catch (CodecException e) {
+      out.release();
+      throw e;
+    } catch (Throwable e) {
+      out.release();
+      throw new SerializationException("schema serialize failed: " + obj.getClass().getName(), e);
+    }
+  }
+
+  @Override
+  public <T> T deserialize(byte[] data, String classOfT) throws CodecException {
+    if (data == null || data.length < 2) {
+      throw new DeserializationException("illegal schema frame, classOfT=" + classOfT);
+    }
+    SchemaInput in = new SchemaInput(this, data);
+    try {
+      byte magic = in.readByte();
+      if (magic != MAGIC) {
+        throw new DeserializationException("illegal schema magic: " + magic);
+      }
+      byte version = in.readByte();
+      if (version > VERSION) {
+        throw new DeserializationException("unsupported schema version: " + version);
+      }
+      in.setVersion(version);
+      return (T) readValue(in);
+    } catch (CodecException e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new DeserializationException("schema deserialize failed: " + classOfT, e);
+    }
+  }
+
+  void writeValue(SchemaOutput out, Object value) throws CodecException {
+    if (value == null) {
+      out.writeByte(TAG_NULL);
+      return;
+    }
+    SchemaCodec codec = codecsByType.get(value.getClass());
+    if (codec != null) {
+      out.writeByte(codec.typeId());
+      codec.encode(value, out);
+      return;
+    }
+    if (value instanceof String) {
+      out.writeByte(TAG_STRING);
+      out.writeString((String) value);
+    } else if (value instanceof Long) {
+      out.writeByte(TAG_LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(TAG_VAR_INT);
+      out.writeZigZagVarInt((Integer) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(TAG_BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value.getClass() == ArrayList.class) {
+      List<Object> list = (List<Object>) value;
+      out.writeByte(TAG_LIST);
+      out.writeVarInt(list.size());
+      for (Object item : list) {
+        writeValue(out, item);
+      }
+    } else if (value.getClass() == HashMap.class && isStringKeys((Map<Object, Object>) value)) {
+      Map<String, Object> map = (Map<String, Object>) value;
+      out.writeByte(TAG_MAP);
+      out.writeVarInt(map.size());
+      for (Map.Entry<String, Object> e : map.entrySet()) {
+        out.writeString(e.getKey());
+        writeValue(out, e.getValue());
+      }
+    } else {
+      out.writeByte(TAG_HESSIAN);
+      out.writeHessian(value);
+    }
+  }
+
+  Object readValue(SchemaInput in) throws CodecException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case TAG_NULL:
+        return null;
+      case TAG_HESSIAN:
+        return in.readHessian();
+      case TAG_STRING:
+        return in.readString();
+      case TAG_LONG:
+        return in.readLong();
+      case TAG_VAR_INT:
+        return in.readZigZagVarInt();
+      case TAG_BOOLEAN:
+        return in.readBoolean();
+      case TAG_LIST:
+        {
+          int size = in.readVarInt();
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            list.add(readValue(in));
+          }
+          return list;
+        }
+      case TAG_MAP:
+        {
+          int size = in.readVarInt();
+          Map<String, Object> map = new HashMap<>(size * 4 / 3 + 1);
+          for (int i = 0; i < size; i++) {
+            String key = in.readString();
+            map.put(key, readValue(in));
+          }
+          return map;
+        }
+      default:
+        SchemaCodec codec = codecsById.get(tag);
+        if (codec == null) {
+          throw new DeserializationException("unknown schema tag: " + tag);
+        }
+        return codec.decode(in, in.getVersion());
+    }
+  }
+
+  private static boolean isStringKeys(Map<Object, Object> map) {
+    for (Object key : map.keySet()) {
+      if (!(key instanceof String)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.TraceTimes;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataVersionRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SchemaSerializerTest {
+  private final SchemaSerializer serializer = SchemaSerializer.getInstance();
+
+  @Test
+  public void testSubDatum() throws Exception {
+    SubDatum datum = newSubDatum(50);
+    SlotAccessGenericResponse<SubDatum> response =
+        SlotAccessGenericResponse.successResponse(
+            new SlotAccess(10, 100, SlotAccess.Status.Accept, 200), datum);
+
+    byte[] bytes = serializer.serialize(response);
+    SlotAccessGenericResponse<SubDatum> decoded = serializer.deserialize(bytes, null);
+    Assert.assertTrue(decoded.isSuccess());
+    Assert.assertEquals(response.getSlotAccess().toString(), decoded.getSlotAccess().toString());
+    assertSubDatum(datum, decoded.getData());
+
+    Serializer hessian = SerializerManager.getSerializer(SerializerManager.Hessian2);
+    byte[] hessianBytes = hessian.serialize(response);
+    Assert.assertTrue(bytes.length + "<" + hessianBytes.length, bytes.length < hessianBytes.length);
+  }
+
+  @Test
+  public void testMultiSubDatum() throws Exception {
+    Map<String, SubDatum> datumMap = Maps.newHashMap();
+    datumMap.put("dc1", newSubDatum(3));
+    datumMap.put("dc2", null);
+    MultiSubDatum multi =
+        new MultiSubDatum("dataId#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP", datumMap);
+    Map<String, SlotAccess> accessMap = Maps.newHashMap();
+    accessMap.put("dc1", new SlotAccess(10, 100, SlotAccess.Status.Moved, 200));
+    MultiSlotAccessGenericResponse<MultiSubDatum> response =
+        new MultiSlotAccessGenericResponse<>(true, "ok", multi, accessMap);
+
+    MultiSlotAccessGenericResponse<MultiSubDatum> decoded =
+        serializer.deserialize(serializer.serialize(response), null);
+    Assert.assertEquals("ok", decoded.getMessage());
+    Assert.assertEquals(SlotAccess.Status.Moved, decoded.getSlotAccessMap().get("dc1").getStatus());
+    Assert.assertNull(decoded.getData().getDatumMap().get("dc2"));
+    assertSubDatum(datumMap.get("dc1"), decoded.getData().getDatumMap().get("dc1"));
+  }
+
+  @Test
+  public void testDataChangeRequest() throws Exception {
+    Map<String, DatumVersion> versions = Maps.newHashMap();
+    for (int i = 0; i < 10; i++) {
+      versions.put("dataId" + i + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP", DatumVersion.of(i));
+    }
+    TraceTimes times = new TraceTimes();
+    times.setFirstDataChange(1);
+    times.setDataChangeType(2);
+    times.setDatumNotifyCreate(3);
+    times.setDatumNotifySend(4);
+    times.setTriggerSession(5);
+    times.setDataPutReceive(6);
+    times.setDataPutCommit(7);
+    DataChangeRequest request = new DataChangeRequest("dc", versions, times);
+
+    DataChangeRequest decoded = serializer.deserialize(serializer.serialize(request), null);
+    Assert.assertEquals("dc", decoded.getDataCenter());
+    Assert.assertEquals(versions, decoded.getDataInfoIds());
+    Assert.assertEquals(times.toString(), decoded.getTimes().toString());
+    Assert.assertEquals(times.getCreateTs(), decoded.getTimes().getCreateTs());
+    Assert.assertEquals(6, decoded.getTimes().getDataPutReceive());
+    Assert.assertEquals(7, decoded.getTimes().getDataPutCommit());
+    Assert.assertTrue(decoded.getDatums().isEmpty());
+
+    SubDatum datum = newSubDatum(3);
+    request =
+        new DataChangeRequest(
+            "dc", versions, times, Collections.singletonMap(datum.getDataInfoId(), datum));
+    decoded = serializer.deserialize(serializer.serialize(request), null);
+    Assert.assertEquals(versions, decoded.getDataInfoIds());
+    SubDatum decodedDatum = decoded.getDatums().get(datum.getDataInfoId());
+    Assert.assertEquals(datum.getVersion(), decodedDatum.getVersion());
+    Assert.assertEquals(datum.getPubNum(), decodedDatum.getPubNum());
+  }
+
+  @Test
+  public void testGetDataVersionRequest() throws Exception {
+    Map<String, DatumVersion> interests = Collections.singletonMap("a", DatumVersion.of(100));
+    GetDataVersionRequest request =
+        new GetDataVersionRequest("dc", new ProcessId("127.0.0.1", 1, 2, -3), 5, interests);
+    request.setSlotTableEpoch(10);
+    request.setSlotLeaderEpoch(20);
+
+    GetDataVersionRequest decoded = serializer.deserialize(serializer.serialize(request), null);
+    Assert.assertEquals(request.toString(), decoded.toString());
+    Assert.assertEquals(request.getSessionProcessId(), decoded.getSessionProcessId());
+    Assert.assertEquals(interests, decoded.getInterests());
+  }
+
+  @Test
+  public void testDiffDigestResult() throws Exception {
+    DataSlotDiffDigestResult result =
+        new DataSlotDiffDigestResult(
+            Lists.newArrayList("a", "b"), Lists.newArrayList("c"), Collections.emptyList());
+    result.setSlotTableEpoch(100);
+    result.setSessionProcessId(new ProcessId("127.0.0.1", 1, 2, 3));
+    result.setDatumVersions(Collections.singletonMap("d", 200L));
+
+    DataSlotDiffDigestResult decoded = serializer.deserialize(serializer.serialize(result), null);
+    Assert.assertEquals(100, decoded.getSlotTableEpoch());
+    Assert.assertEquals(result.getUpdatedDataInfoIds(), decoded.getUpdatedDataInfoIds());
+    Assert.assertEquals(result.getAddedDataInfoIds(), decoded.getAddedDataInfoIds());
+    Assert.assertTrue(decoded.getRemovedDataInfoIds().isEmpty());
+    Assert.assertEquals(result.getSessionProcessId(), decoded.getSessionProcessId());
+    Assert.assertEquals(result.getDatumVersions(), decoded.getDatumVersions());
+  }
+
+  @Test
+  public void testGetMultiDataRequest() throws Exception {
+    Map<String, Long> slotTableEpochs = Collections.singletonMap("dc", 10L);
+    Map<String, Long> slotLeaderEpochs = Collections.singletonMap("dc", 20L);
+    GetMultiDataRequest request =
+        new GetMultiDataRequest(
+            new ProcessId("127.0.0.1", 1, 2, 3),
+            5,
+            "a",
+            new String[] {"zstd", "gzip"},
+            slotTableEpochs,
+            slotLeaderEpochs);
+    request.setMinVersions(Collections.singletonMap("dc", 30L));
+    BatchGetMultiDataRequest batch =
+        new BatchGetMultiDataRequest(
+            request.getSessionProcessId(), Lists.newArrayList(request, request));
+
+    byte[] bytes = serializer.serialize(batch);
+    Assert.assertTrue(bytes[2] >= SchemaSerializer.TAG_CODEC_MIN);
+    BatchGetMultiDataRequest decoded = serializer.deserialize(bytes, null);
+    Assert.assertEquals(batch.getSessionProcessId(), decoded.getSessionProcessId());
+    Assert.assertEquals(2, decoded.getRequests().size());
+    GetMultiDataRequest decodedRequest = decoded.getRequests().get(1);
+    Assert.assertEquals(5, decodedRequest.getSlotId());
+    Assert.assertEquals("a", decodedRequest.getDataInfoId());
+    Assert.assertArrayEquals(request.getAcceptEncodes(), decodedRequest.getAcceptEncodes());
+    Assert.assertEquals(slotTableEpochs, decodedRequest.getSlotTableEpochs());
+    Assert.assertEquals(slotLeaderEpochs, decodedRequest.getSlotLeaderEpochs());
+    Assert.assertEquals(request.getMinVersions(), decodedRequest.getMinVersions());
+
+    GetDataRequest getDataRequest = new GetDataRequest(request.getSessionProcessId(), "a", "dc", 5);
+    getDataRequest.setSlotTableEpoch(10);
+    getDataRequest.setSlotLeaderEpoch(20);
+    GetDataRequest decodedGetData =
+        serializer.deserialize(serializer.serialize(getDataRequest), null);
+    Assert.assertEquals(getDataRequest.toString(), decodedGetData.toString());
+    Assert.assertNull(decodedGetData.getAcceptEncodes());
+  }
+
+  @Test
+  public void testDiffDigestRequest() throws Exception {
+    Map<String, DatumDigest> digests = Maps.newHashMap();
+    digests.put("a", new DatumDigest(3, 1L, -2L, 3L, (short) 4, (short) -5));
+    digests.put("b", new DatumDigest(0, 0, 0, 0, (short) 0, (short) 0));
+    DataSlotDiffDigestRequest request =
+        DataSlotDiffDigestRequest.buildRequest("dc", 10, 5, 20, digests, null);
+
+    DataSlotDiffDigestRequest decoded = serializer.deserialize(serializer.serialize(request), null);
+    Assert.assertEquals(request.toString(), decoded.toString());
+    Assert.assertEquals(digests, decoded.getDatumDigest());
+    Assert.assertNull(decoded.getAcceptorManager());
+  }
+
+  @Test
+  public void testRequestCodecs() {
+    // the requests routed to the serializer must have a schema, or they are sent as hessian
+    for (Class clazz : RegistrySchemaCodecs.requestClasses()) {
+      Assert.assertTrue(
+          clazz.getName(), RegistrySchemaCodecs.codecs().stream().anyMatch(c -> c.type() == clazz));
+    }
+  }
+
+  @Test
+  public void testFallback() throws Exception {
+    Assert.assertNull(serializer.deserialize(serializer.serialize(null), null));
+    Assert.assertEquals("abc", serializer.deserialize(serializer.serialize("abc"), null));
+    Assert.assertEquals(10L, (long) serializer.deserialize(serializer.serialize(10L), null));
+    ProcessId processId = new ProcessId("127.0.0.1", 1, 2, 3);
+    List<Object> list = Lists.newArrayList(processId, Collections.singleton("x"), 1, true);
+    Assert.assertEquals(list, serializer.deserialize(serializer.serialize(list), null));
+  }
+
+  @Test
+  public void testValueTypes() throws Exception {
+    // int as zigzag var int
+    for (int v : new int[] {0, 1, -1, 300, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+      byte[] bytes = serializer.serialize(v);
+      Assert.assertEquals(SchemaSerializer.TAG_VAR_INT, bytes[2]);
+      Assert.assertEquals(v, (int) serializer.deserialize(bytes, null));
+    }
+    Assert.assertEquals(4, serializer.serialize(-1).length);
+
+    // the concrete collection classes are kept
+    List<Object> linkedList = new LinkedList<>(Lists.newArrayList("a", 1L));
+    Object decoded = serializer.deserialize(serializer.serialize(linkedList), null);
+    Assert.assertEquals(LinkedList.class, decoded.getClass());
+    Assert.assertEquals(linkedList, decoded);
+    Map<String, Object> treeMap = new TreeMap<>(Collections.singletonMap("a", "b"));
+    decoded = serializer.deserialize(serializer.serialize(treeMap), null);
+    Assert.assertEquals(TreeMap.class, decoded.getClass());
+    Assert.assertEquals(treeMap, decoded);
+    Map<String, Object> hashMap = Maps.newHashMap(treeMap);
+    byte[] bytes = serializer.serialize(hashMap);
+    Assert.assertEquals(SchemaSerializer.TAG_MAP, bytes[2]);
+    Assert.assertEquals(hashMap, serializer.deserialize(bytes, null));
+  }
+
+  @Test(expected = DeserializationException.class)
+  public void testIllegalFrame() throws Exception {
+    serializer.deserialize(new byte[] {1, 2, 3}, null);
+  }
+
+  @Test(expected = DeserializationException.class)
+  public void testNewerVersion() throws Exception {
+    byte[] bytes = serializer.serialize("abc");
+    bytes[1] = SchemaSerializer.VERSION + 1;
+    serializer.deserialize(bytes, null);
+  }
+
+  private static SubDatum newSubDatum(int publisherNum) {
+    List<SubPublisher> publishers = Lists.newArrayList();
+    for (int i = 0; i < publisherNum; i++) {
+      String url = "dubbo://10.0.0." + i + ":12200/com.alipay.test.Service?version=1.0&app=test";
+      publishers.add(
+          new SubPublisher(
+              "registerId-" + i,
+              "cell",
+              Collections.singletonList(new ServerDataBox(ServerDataBox.getBytes(url))),
+              "clientId-" + i,
+              i,
+              "10.0.0." + i + ":12200",
+              System.currentTimeMillis(),
+              PublishSource.CLIENT));
+    }
+    return SubDatum.normalOf(
+        "dataId#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP",
+        "dc",
+        100,
+        publishers,
+        "dataId",
+        "DEFAULT_INSTANCE_ID",
+        "DEFAULT_GROUP",
+        Lists.newArrayList(1L, 2L));
+  }
+
+  private static void assertSubDatum(SubDatum expect, SubDatum actual) throws Exception {
+    Assert.assertEquals(expect.getDataInfoId(), actual.getDataInfoId());
+    Assert.assertEquals(expect.getDataCenter(), actual.getDataCenter());
+    Assert.assertEquals(expect.getDataId(), actual.getDataId());
+    Assert.assertEquals(expect.getInstanceId(), actual.getInstanceId());
+    Assert.assertEquals(expect.getGroup(), actual.getGroup());
+    Assert.assertEquals(expect.getVersion(), actual.getVersion());
+    Assert.assertEquals(expect.getRecentVersions(), actual.getRecentVersions());
+    Assert.assertEquals(expect.getPubNum(), actual.getPubNum());
+    for (int i = 0; i < expect.getPubNum(); i++) {
+      SubPublisher e = expect.mustGetPublishers().get(i);
+      SubPublisher a = actual.mustGetPublishers().get(i);
+      Assert.assertEquals(e.getRegisterId(), a.getRegisterId());
+      Assert.assertEquals(e.getCell(), a.getCell());
+      Assert.assertEquals(e.getClientId(), a.getClientId());
+      Assert.assertEquals(e.getSrcAddressString(), a.getSrcAddressString());
+      Assert.assertEquals(e.getRegisterTimestamp(), a.getRegisterTimestamp());
+      Assert.assertEquals(e.getVersion(), a.getVersion());
+      Assert.assertEquals(e.getPublishSource(), a.getPublishSource());
+      Assert.assertEquals(e.getDataList(), a.getDataList());
+      Assert.assertEquals(
+          new String(e.getDataList().get(0).getBytes(), StandardCharsets.ISO_8859_1),
+          new String(a.getDataList().get(0).getBytes(), StandardCharsets.ISO_8859_1));
+    }
+  }
+}
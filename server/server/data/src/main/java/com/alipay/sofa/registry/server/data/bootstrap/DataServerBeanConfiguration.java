@@ -34,6 +34,7 @@ import com.alipay.sofa.registry.server.data.remoting.SessionNodeExchanger;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerDiffDigestRequestHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerDiffPublisherRequestHandler;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.MetaServerServiceImpl;
+import com.alipay.sofa.registry.server.data.remoting.metaserver.handler.NotifyProvideDataBatchChangeHandler;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.handler.NotifyProvideDataChangeHandler;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.handler.RemoteDatumClearEventHandler;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.provideData.ProvideDataProcessorManager;
@@ -51,6 +52,7 @@ import com.alipay.sofa.registry.server.data.timer.CacheCountTask;
 import com.alipay.sofa.registry.server.data.timer.CacheDigestTask;
 import com.alipay.sofa.registry.server.shared.config.CommonConfig;
 import com.alipay.sofa.registry.server.shared.meta.MetaLeaderExchanger;
+import com.alipay.sofa.registry.server.shared.providedata.FetchCompressDictService;
 import com.alipay.sofa.registry.server.shared.providedata.FetchSystemPropertyService;
 import com.alipay.sofa.registry.server.shared.providedata.ProvideDataProcessor;
 import com.alipay.sofa.registry.server.shared.providedata.SystemPropertyProcessorManager;
@@ -204,6 +206,7 @@ public class DataServerBeanConfiguration {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(getDataHandler());
       list.add(getMultiDataHandler());
+      list.add(batchGetMultiDataHandler());
       list.add(batchPutDataHandler());
       list.add(getDataVersionsHandler());
       return list;
@@ -221,6 +224,7 @@ public class DataServerBeanConfiguration {
     public Collection<AbstractClientHandler> metaClientHandlers() {
       Collection<AbstractClientHandler> list = new ArrayList<>();
       list.add(notifyProvideDataChangeHandler());
+      list.add(notifyProvideDataBatchChangeHandler());
       list.add(slotTableChangeEventHandler());
       list.add(remoteDatumClearEventHandler());
       return list;
@@ -236,6 +240,11 @@ public class DataServerBeanConfiguration {
       return new GetMultiDataHandler();
     }
 
+    @Bean
+    public AbstractServerHandler batchGetMultiDataHandler() {
+      return new BatchGetMultiDataHandler();
+    }
+
     @Bean
     public AbstractServerHandler slotFollowerDiffDataInfoIdRequestHandler() {
       return new SlotFollowerDiffDigestRequestHandler();
@@ -261,6 +270,11 @@ public class DataServerBeanConfiguration {
       return new NotifyProvideDataChangeHandler();
     }
 
+    @Bean
+    public NotifyProvideDataBatchChangeHandler notifyProvideDataBatchChangeHandler() {
+      return new NotifyProvideDataBatchChangeHandler();
+    }
+
     @Bean
     public SlotTableChangeEventHandler slotTableChangeEventHandler() {
       return new SlotTableChangeEventHandler();
@@ -436,6 +450,14 @@ public class DataServerBeanConfiguration {
       return compressDatumService;
     }
 
+    @Bean
+    public FetchSystemPropertyService fetchCompressDictService(
+        SystemPropertyProcessorManager systemPropertyProcessorManager) {
+      FetchCompressDictService fetchCompressDictService = new FetchCompressDictService();
+      systemPropertyProcessorManager.addSystemDataProcessor(fetchCompressDictService);
+      return fetchCompressDictService;
+    }
+
     @Bean
     public FetchSystemPropertyService fetchStopPushService(
         SystemPropertyProcessorManager systemPropertyProcessorManager) {
@@ -59,6 +59,15 @@ public class DataServerConfig implements ServerShareConfig {
 
   private int notifyRetryBackoffMillis = 500;
 
+  // only notify the sessions which subscribe the changed dataInfoIds
+  private boolean notifyInterestFilterEnabled = true;
+
+  // the interests summary of session without refreshing is expired, notify all
+  private int notifyInterestExpireMillis = 30000;
+
+  // carry the datum in the change notify if its dataBox bytes under it, 0 means disabled
+  private int notifyInlineDatumMaxBytes = 0;
+
   private int notifyTempExecutorPoolSize = OsUtils.getCpuCount() * 3;
 
   private int notifyTempExecutorQueueSize = 4000;
@@ -830,6 +839,30 @@ public class DataServerConfig implements ServerShareConfig {
     this.notifyRetryBackoffMillis = notifyRetryBackoffMillis;
   }
 
+  public boolean isNotifyInterestFilterEnabled() {
+    return notifyInterestFilterEnabled;
+  }
+
+  public void setNotifyInterestFilterEnabled(boolean notifyInterestFilterEnabled) {
+    this.notifyInterestFilterEnabled = notifyInterestFilterEnabled;
+  }
+
+  public int getNotifyInterestExpireMillis() {
+    return notifyInterestExpireMillis;
+  }
+
+  public void setNotifyInterestExpireMillis(int notifyInterestExpireMillis) {
+    this.notifyInterestExpireMillis = notifyInterestExpireMillis;
+  }
+
+  public int getNotifyInlineDatumMaxBytes() {
+    return notifyInlineDatumMaxBytes;
+  }
+
+  public void setNotifyInlineDatumMaxBytes(int notifyInlineDatumMaxBytes) {
+    this.notifyInlineDatumMaxBytes = notifyInlineDatumMaxBytes;
+  }
+
   public int getLowWaterMark() {
     return lowWaterMark;
   }
@@ -24,6 +24,7 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.collect.Maps;
@@ -78,6 +79,32 @@ public class BaseDatumStorage {
     return groups == null ? null : groups.getDatum(dataInfoId);
   }
 
+  public SubDatum getSubDatum(String dataInfoId) {
+    final PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getSubDatum(dataInfoId);
+  }
+
+  public SubDatum getLeaderSubDatum(String dataInfoId, long slotLeaderEpoch) {
+    final PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getLeaderSubDatum(dataInfoId, slotLeaderEpoch);
+  }
+
+  public int estimateDataBoxBytes(String dataInfoId) {
+    final PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? -1 : groups.estimateDataBoxBytes(dataInfoId);
+  }
+
+  public int updateLeaderVersions(
+      int slotId,
+      Map<String, DatumVersion> localVersions,
+      Map<String, Long> leaderVersions,
+      long slotLeaderEpoch) {
+    PublisherGroups groups = getPublisherGroups(slotId);
+    return groups == null
+        ? 0
+        : groups.updateLeaderVersions(localVersions, leaderVersions, slotLeaderEpoch);
+  }
+
   public DatumVersion getVersion(String dataInfoId) {
     PublisherGroups groups = getPublisherGroups(dataInfoId);
     return groups == null ? null : groups.getVersion(dataInfoId);
@@ -216,7 +243,8 @@ public class BaseDatumStorage {
     publisherGroupsMap.computeIfAbsent(
         slotId,
         k -> {
-          PublisherGroups groups = new PublisherGroups(dataCenter);
+          PublisherGroups groups =
+              new PublisherGroups(dataCenter, PublisherArena.ENABLED ? new PublisherArena() : null);
           logger.info(
               "{} add publisherGroup {}, role={}, slotNum={}",
               dataCenter,
@@ -227,7 +255,12 @@ public class BaseDatumStorage {
   }
 
   public boolean removePublisherGroups(int slotId) {
-    boolean removed = publisherGroupsMap.remove(slotId) != null;
+    PublisherGroups groups = publisherGroupsMap.remove(slotId);
+    boolean removed = groups != null;
+    if (removed) {
+      // free the off-heap storage of the slot whole
+      groups.close();
+    }
     logger.info(
         "{}, remove publisherGroup {}, removed={}, slotNum={}",
         dataCenter,
@@ -22,6 +22,7 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
 import java.util.Collection;
 import java.util.List;
@@ -46,6 +47,51 @@ public interface DatumStorage {
    */
   Datum get(String dataCenter, String dataInfoId);
 
+  /**
+   * get the datum for the session, the publishers are not rebuilt if stored off-heap
+   *
+   * @param dataCenter dataCenter
+   * @param dataInfoId dataInfoId
+   * @return SubDatum
+   */
+  SubDatum getSubDatum(String dataCenter, String dataInfoId);
+
+  /**
+   * get the datum of the follower under the version of the slot leader
+   *
+   * @param dataCenter dataCenter
+   * @param dataInfoId dataInfoId
+   * @param slotLeaderEpoch slotLeaderEpoch of the leader
+   * @return null if the datum has not been synced as the leader's
+   */
+  SubDatum getLeaderSubDatum(String dataCenter, String dataInfoId, long slotLeaderEpoch);
+
+  /**
+   * estimate the data box bytes of the datum by sampling the publishers, not reading all of them
+   *
+   * @param dataCenter dataCenter
+   * @param dataInfoId dataInfoId
+   * @return -1 if the datum not exists
+   */
+  int estimateDataBoxBytes(String dataCenter, String dataInfoId);
+
+  /**
+   * mark the datums of the follower are same as the leader's of the leaderVersions
+   *
+   * @param dataCenter dataCenter
+   * @param slotId slotId
+   * @param localVersions the local versions when the datums compared with the leader
+   * @param leaderVersions the versions of the leader
+   * @param slotLeaderEpoch slotLeaderEpoch of the leader
+   * @return the count of marked datums
+   */
+  int updateLeaderVersions(
+      String dataCenter,
+      int slotId,
+      Map<String, DatumVersion> localVersions,
+      Map<String, Long> leaderVersions,
+      long slotLeaderEpoch);
+
   DatumVersion getVersion(String dataCenter, String dataInfoId);
 
   Map<String, DatumVersion> getVersions(
@@ -22,6 +22,7 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.multi.cluster.storage.MultiClusterDatumStorage;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
@@ -72,10 +73,36 @@ public class DatumStorageDelegate implements DatumStorage {
     return storageOf(dataCenter).get(dataCenter, dataInfoId);
   }
 
+  @Override
+  public SubDatum getSubDatum(String dataCenter, String dataInfoId) {
+    return storageOf(dataCenter).getSubDatum(dataCenter, dataInfoId);
+  }
+
   public void cleanLocal(String dataCenter, String dataInfoId) {
     localDatumStorage.removePublishers(dataCenter, dataInfoId, null);
   }
 
+  @Override
+  public SubDatum getLeaderSubDatum(String dataCenter, String dataInfoId, long slotLeaderEpoch) {
+    return storageOf(dataCenter).getLeaderSubDatum(dataCenter, dataInfoId, slotLeaderEpoch);
+  }
+
+  @Override
+  public int estimateDataBoxBytes(String dataCenter, String dataInfoId) {
+    return storageOf(dataCenter).estimateDataBoxBytes(dataCenter, dataInfoId);
+  }
+
+  @Override
+  public int updateLeaderVersions(
+      String dataCenter,
+      int slotId,
+      Map<String, DatumVersion> localVersions,
+      Map<String, Long> leaderVersions,
+      long slotLeaderEpoch) {
+    return storageOf(dataCenter)
+        .updateLeaderVersions(dataCenter, slotId, localVersions, leaderVersions, slotLeaderEpoch);
+  }
+
   @Override
   public DatumVersion getVersion(String dataCenter, String dataInfoId) {
     DatumVersion version = storageOf(dataCenter).getVersion(dataCenter, dataInfoId);
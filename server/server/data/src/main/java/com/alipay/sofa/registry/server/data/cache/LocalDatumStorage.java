@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
@@ -56,6 +57,31 @@ public final class LocalDatumStorage implements DatumStorage {
     return storage.get(dataInfoId);
   }
 
+  @Override
+  public SubDatum getSubDatum(String dataCenter, String dataInfoId) {
+    return storage.getSubDatum(dataInfoId);
+  }
+
+  @Override
+  public SubDatum getLeaderSubDatum(String dataCenter, String dataInfoId, long slotLeaderEpoch) {
+    return storage.getLeaderSubDatum(dataInfoId, slotLeaderEpoch);
+  }
+
+  @Override
+  public int estimateDataBoxBytes(String dataCenter, String dataInfoId) {
+    return storage.estimateDataBoxBytes(dataInfoId);
+  }
+
+  @Override
+  public int updateLeaderVersions(
+      String dataCenter,
+      int slotId,
+      Map<String, DatumVersion> localVersions,
+      Map<String, Long> leaderVersions,
+      long slotLeaderEpoch) {
+    return storage.updateLeaderVersions(slotId, localVersions, leaderVersions, slotLeaderEpoch);
+  }
+
   @Override
   public DatumVersion getVersion(String dataCenter, String dataInfoId) {
     return storage.getVersion(dataInfoId);
@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.common.model.PublisherUtils;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.common.annotations.VisibleForTesting;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * the off-heap storage of the publishers in one slot. A publisher is appended to a direct slab as
+ * two records: the SubPublisher part read by the sessions, and the rest of the publisher without
+ * the dataList. So the SubDatum is built from the slab without rebuilding the publishers. The
+ * handle of a publisher is (generation << 48 | slabIndex << 32 | offset), the index of a released
+ * slab is reused with a new generation, the stale handles of the released slab read nothing. A
+ * freed record is tombstoned in its length header, so a double free of the same handle is ignored.
+ * The slabs are freed whole when all publishers in it are released or when the slot is removed.
+ */
+public final class PublisherArena {
+  public static final String KEY_ENABLED = "registry.data.publisher.offheap.enabled";
+  private static final String KEY_SLAB_SIZE = "registry.data.publisher.offheap.slab_size";
+
+  static final boolean ENABLED = Boolean.parseBoolean(SystemUtils.getSystem(KEY_ENABLED, "false"));
+  private static final int SLAB_SIZE = SystemUtils.getSystemInteger(KEY_SLAB_SIZE, 1024 * 1024 * 2);
+
+  // compact the slab which live bytes less than the ratio
+  static final double COMPACT_LIVE_RATIO = 0.5;
+
+  static final int MAX_SLAB_NUM = 1 << 16;
+  private static final int GENERATION_MASK = 0xFFFF;
+  // the high bit of the record length, set when the record is freed
+  private static final int TOMBSTONE = 0x80000000;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final int slabSize;
+  private final List<Slab> slabs = new ArrayList<>();
+  // the generation of the slab index, increased when the slab of the index is released
+  private final List<Integer> generations = new ArrayList<>();
+  // the indexes of the released slabs
+  private final ArrayDeque<Integer> freeIndexes = new ArrayDeque<>();
+  // the slabs without live publisher, release after the grace period, the concurrent readers
+  // may hold the stale handles
+  private final List<Slab> emptySlabs = new ArrayList<>();
+  private Slab active;
+  private boolean closed;
+
+  PublisherArena() {
+    this(SLAB_SIZE);
+  }
+
+  PublisherArena(int slabSize) {
+    this.slabSize = slabSize;
+  }
+
+  /**
+   * serialize the publisher, called out of the lock of the publisher group
+   *
+   * @param publisher publisher
+   * @return the records to write
+   */
+  static Record encode(Publisher publisher) {
+    final byte[] subBytes = serialize(DatumUtils.of(publisher));
+    final Publisher withoutData = PublisherUtils.clonePublisher(publisher);
+    withoutData.setDataList(null);
+    return new Record(subBytes, serialize(withoutData));
+  }
+
+  /**
+   * write the publisher to arena
+   *
+   * @param publisher publisher
+   * @return the handle, NO_HANDLE if the arena is closed
+   */
+  long write(Publisher publisher) {
+    return write(encode(publisher));
+  }
+
+  /**
+   * write the encoded publisher to arena
+   *
+   * @param record the records of the publisher
+   * @return the handle, NO_HANDLE if the arena is closed
+   */
+  long write(Record record) {
+    final byte[] subBytes = record.subBytes;
+    final byte[] pubBytes = record.pubBytes;
+    final int size = subBytes.length + pubBytes.length + 8;
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return PublisherEnvelope.NO_HANDLE;
+      }
+      if (active == null || active.buf.writableBytes() < size) {
+        if (active != null && active.liveNum == 0) {
+          // all publishers of the rolled slab have been freed
+          markEmpty(active);
+        }
+        active = newSlab(Math.max(slabSize, size));
+      }
+      final int offset = active.buf.writerIndex();
+      active.buf.writeInt(subBytes.length);
+      active.buf.writeBytes(subBytes);
+      active.buf.writeInt(pubBytes.length);
+      active.buf.writeBytes(pubBytes);
+      active.liveBytes += size;
+      active.liveNum++;
+      return ((long) active.generation << 48) | ((long) active.index << 32) | offset;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * read the SubPublisher part of the publisher
+   *
+   * @param handle handle of the publisher
+   * @return null if the handle has been freed
+   */
+  SubPublisher readSubPublisher(long handle) {
+    final Record record = copy(handle, false);
+    return record == null ? null : record.toSubPublisher();
+  }
+
+  /**
+   * read the publisher
+   *
+   * @param handle handle of the publisher
+   * @return null if the handle has been freed
+   */
+  Publisher read(long handle) {
+    final Record record = copy(handle, true);
+    return record == null ? null : record.toPublisher();
+  }
+
+  /**
+   * copy the records of the publisher out of the slab, deserialize them out of the locks
+   *
+   * @param handle handle of the publisher
+   * @param withPublisher copy the rest of the publisher besides the SubPublisher part
+   * @return null if the handle has been freed
+   */
+  Record copy(long handle, boolean withPublisher) {
+    lock.readLock().lock();
+    try {
+      final Slab slab = slabOf(handle);
+      if (slab == null) {
+        return null;
+      }
+      final int offset = (int) handle;
+      final byte[] subBytes = readRecord(slab.buf, offset);
+      final byte[] pubBytes =
+          withPublisher ? readRecord(slab.buf, offset + 4 + subBytes.length) : null;
+      return new Record(subBytes, pubBytes);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * free the publisher, ignore the handle which has been freed or the slab has been released
+   *
+   * @param handle handle of the publisher
+   */
+  void free(long handle) {
+    lock.writeLock().lock();
+    try {
+      final Slab slab = slabOf(handle);
+      if (slab == null) {
+        return;
+      }
+      final int offset = (int) handle;
+      if (offset < 0 || offset + 4 > slab.buf.writerIndex()) {
+        return;
+      }
+      final int header = slab.buf.getInt(offset);
+      if ((header & TOMBSTONE) != 0) {
+        // freed already
+        return;
+      }
+      final int subLen = header;
+      final int pubLen = slab.buf.getInt(offset + 4 + subLen);
+      // the readers holding the handle still read the record until the slab is released
+      slab.buf.setInt(offset, header | TOMBSTONE);
+      slab.liveBytes -= subLen + pubLen + 8;
+      slab.liveNum--;
+      if (slab.liveNum == 0 && slab != active) {
+        markEmpty(slab);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * check the publisher need to move out of the sparse slab
+   *
+   * @param handle handle of the publisher
+   * @return true if the slab which contains the handle is sparse
+   */
+  boolean needCompact(long handle) {
+    lock.readLock().lock();
+    try {
+      final Slab slab = slabOf(handle);
+      return slab != null
+          && slab != active
+          && slab.liveBytes < slab.buf.writerIndex() * COMPACT_LIVE_RATIO;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * release the empty slabs
+   *
+   * @param emptyBefore release the slabs which become empty before the timestamp
+   * @return the count of released
+   */
+  int releaseEmptySlabs(long emptyBefore) {
+    lock.writeLock().lock();
+    try {
+      int count = 0;
+      Iterator<Slab> it = emptySlabs.iterator();
+      while (it.hasNext()) {
+        final Slab slab = it.next();
+        if (slab.emptyTimestamp < emptyBefore) {
+          it.remove();
+          slabs.set(slab.index, null);
+          generations.set(slab.index, (slab.generation + 1) & GENERATION_MASK);
+          freeIndexes.add(slab.index);
+          slab.buf.release();
+          count++;
+        }
+      }
+      return count;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void close() {
+    lock.writeLock().lock();
+    try {
+      for (Slab slab : slabs) {
+        if (slab != null) {
+          slab.buf.release();
+        }
+      }
+      slabs.clear();
+      generations.clear();
+      freeIndexes.clear();
+      emptySlabs.clear();
+      active = null;
+      closed = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @VisibleForTesting
+  int slabNum() {
+    lock.readLock().lock();
+    try {
+      int count = 0;
+      for (Slab slab : slabs) {
+        if (slab != null) {
+          count++;
+        }
+      }
+      return count;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  long usedBytes() {
+    lock.readLock().lock();
+    try {
+      long bytes = 0;
+      for (Slab slab : slabs) {
+        if (slab != null) {
+          bytes += slab.buf.capacity();
+        }
+      }
+      return bytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Slab newSlab(int capacity) {
+    final Integer free = freeIndexes.poll();
+    final int index = free != null ? free : slabs.size();
+    if (index >= MAX_SLAB_NUM) {
+      throw new IllegalStateException("too many slabs in arena: " + index);
+    }
+    final ByteBuf buf = Unpooled.directBuffer(capacity, capacity);
+    if (free != null) {
+      // the new generation, the stale handles of the released slab must not read the new slab
+      final Slab slab = new Slab(index, generations.get(index), buf);
+      slabs.set(index, slab);
+      return slab;
+    }
+    final Slab slab = new Slab(index, 0, buf);
+    slabs.add(slab);
+    generations.add(0);
+    return slab;
+  }
+
+  private void markEmpty(Slab slab) {
+    slab.emptyTimestamp = System.currentTimeMillis();
+    emptySlabs.add(slab);
+  }
+
+  private Slab slabOf(long handle) {
+    final int index = (int) (handle >>> 32) & 0xFFFF;
+    final int generation = (int) (handle >>> 48) & GENERATION_MASK;
+    if (index >= slabs.size()) {
+      return null;
+    }
+    final Slab slab = slabs.get(index);
+    return slab != null && slab.generation == generation ? slab : null;
+  }
+
+  private static byte[] readRecord(ByteBuf buf, int offset) {
+    final byte[] bytes = new byte[buf.getInt(offset) & ~TOMBSTONE];
+    buf.getBytes(offset + 4, bytes);
+    return bytes;
+  }
+
+  private static byte[] serialize(Object obj) {
+    try {
+      return hessian().serialize(obj);
+    } catch (Throwable e) {
+      throw new IllegalArgumentException("failed to serialize: " + obj, e);
+    }
+  }
+
+  private static <T> T deserialize(byte[] bytes, Class<T> clazz) {
+    try {
+      return hessian().deserialize(bytes, clazz.getName());
+    } catch (Throwable e) {
+      throw new IllegalStateException("failed to deserialize " + clazz.getSimpleName(), e);
+    }
+  }
+
+  private static Serializer hessian() {
+    return SerializerManager.getSerializer(SerializerManager.Hessian2);
+  }
+
+  /** the serialized SubPublisher part and the rest of the publisher */
+  static final class Record {
+    final byte[] subBytes;
+    // null if only the SubPublisher part copied
+    final byte[] pubBytes;
+
+    Record(byte[] subBytes, byte[] pubBytes) {
+      this.subBytes = subBytes;
+      this.pubBytes = pubBytes;
+    }
+
+    SubPublisher toSubPublisher() {
+      return deserialize(subBytes, SubPublisher.class);
+    }
+
+    Publisher toPublisher() {
+      final Publisher publisher = deserialize(pubBytes, Publisher.class);
+      publisher.setDataList(toSubPublisher().getDataList());
+      return publisher;
+    }
+  }
+
+  private static final class Slab {
+    final int index;
+    final int generation;
+    final ByteBuf buf;
+    long liveBytes;
+    int liveNum;
+    long emptyTimestamp;
+
+    Slab(int index, int generation, ByteBuf buf) {
+      this.index = index;
+      this.generation = generation;
+      this.buf = buf;
+    }
+  }
+}
@@ -18,37 +18,79 @@ package com.alipay.sofa.registry.server.data.cache;
 
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.StoreData;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * @author yuzhi.lyz
  * @version v 0.1 2020-12-02 19:47 yuzhi.lyz Exp $
  */
 public final class PublisherEnvelope {
+  static final long NO_HANDLE = -1;
+
+  // null when unpub or the publisher is stored in arena
   final Publisher publisher;
+  final PublisherArena arena;
+  // the handle of publisher in arena
+  final long handle;
+  // the fields of the publisher keep on heap when stored in arena
+  final ConnectId connectId;
+  final PublishSource publishSource;
+  // compare the dataList without reading arena when the publisher is replaced
+  final int dataListHash;
+
   final ProcessId sessionProcessId;
   final RegisterVersion registerVersion;
   final long tombstoneTimestamp;
 
   private PublisherEnvelope(
       Publisher publisher,
+      PublisherArena arena,
+      long handle,
+      ConnectId connectId,
+      PublishSource publishSource,
+      int dataListHash,
       ProcessId sessionProcessId,
       RegisterVersion registerVersion,
       long tombstoneTimestamp) {
     this.publisher = publisher;
+    this.arena = arena;
+    this.handle = handle;
+    this.connectId = connectId;
+    this.publishSource = publishSource;
+    this.dataListHash = dataListHash;
     this.sessionProcessId = sessionProcessId;
     this.registerVersion = registerVersion;
     this.tombstoneTimestamp = tombstoneTimestamp;
   }
 
   static PublisherEnvelope of(Publisher publisher) {
+    return of(publisher, null);
+  }
+
+  static PublisherEnvelope of(Publisher publisher, PublisherArena arena) {
+    return of(publisher, arena, null);
+  }
+
+  /**
+   * @param record the publisher encoded by PublisherArena.encode out of the lock, null to encode it
+   *     here
+   */
+  static PublisherEnvelope of(
+      Publisher publisher, PublisherArena arena, PublisherArena.Record record) {
     ParaCheckUtil.checkNotNull(publisher.getSessionProcessId(), "publisher.sessionProcessId");
     switch (publisher.getDataType()) {
       case PUBLISHER:
-        return pubOf(publisher, publisher.getSessionProcessId());
+        return pubOf(publisher, publisher.getSessionProcessId(), arena, record);
       case UN_PUBLISHER:
         return unpubOf(publisher.registerVersion(), publisher.getSessionProcessId());
       default:
@@ -57,22 +99,158 @@ public final class PublisherEnvelope {
   }
 
   static PublisherEnvelope pubOf(Publisher publisher, ProcessId sessionProcessId) {
+    return pubOf(publisher, sessionProcessId, null);
+  }
+
+  static PublisherEnvelope pubOf(
+      Publisher publisher, ProcessId sessionProcessId, PublisherArena arena) {
+    return pubOf(publisher, sessionProcessId, arena, null);
+  }
+
+  static PublisherEnvelope pubOf(
+      Publisher publisher,
+      ProcessId sessionProcessId,
+      PublisherArena arena,
+      PublisherArena.Record record) {
     ParaCheckUtil.checkEquals(
         publisher.getDataType(), StoreData.DataType.PUBLISHER, "Publisher.dataType");
+    long handle = NO_HANDLE;
+    if (arena != null) {
+      handle = arena.write(record != null ? record : PublisherArena.encode(publisher));
+    }
+    if (handle == NO_HANDLE) {
+      // arena disable or closed
+      return new PublisherEnvelope(
+          publisher,
+          null,
+          NO_HANDLE,
+          null,
+          null,
+          0,
+          sessionProcessId,
+          publisher.registerVersion(),
+          // Long.max means pub never compact
+          Long.MAX_VALUE);
+    }
     return new PublisherEnvelope(
-        publisher,
+        null,
+        arena,
+        handle,
+        publisher.connectId(),
+        publisher.getPublishSource(),
+        dataListHash(publisher.getDataList()),
         sessionProcessId,
         publisher.registerVersion(),
-        // Long.max means pub never compact
         Long.MAX_VALUE);
   }
 
   static PublisherEnvelope unpubOf(RegisterVersion version, ProcessId sessionProcessId) {
-    return new PublisherEnvelope(null, sessionProcessId, version, System.currentTimeMillis());
+    return new PublisherEnvelope(
+        null,
+        null,
+        NO_HANDLE,
+        null,
+        null,
+        0,
+        sessionProcessId,
+        version,
+        System.currentTimeMillis());
+  }
+
+  /**
+   * move the publisher to the new handle of arena, used by compaction
+   *
+   * @return the new envelope
+   */
+  PublisherEnvelope moveTo(Publisher publisher) {
+    return pubOf(publisher, sessionProcessId, arena);
   }
 
   boolean isPub() {
-    return publisher != null;
+    return publisher != null || handle != NO_HANDLE;
+  }
+
+  boolean isInArena() {
+    return handle != NO_HANDLE;
+  }
+
+  /** release the space in arena, the envelope could not be read after released */
+  void release() {
+    if (isInArena()) {
+      arena.free(handle);
+    }
+  }
+
+  /**
+   * compare the dataList with the publisher, the publisher in arena is read only if the hash of the
+   * dataList is same
+   *
+   * @return null if unpub or released
+   */
+  Boolean isSameDataList(List<ServerDataBox> dataList) {
+    if (publisher != null) {
+      return Objects.equals(publisher.getDataList(), dataList);
+    }
+    if (!isInArena()) {
+      return null;
+    }
+    if (this.dataListHash != dataListHash(dataList)) {
+      return false;
+    }
+    final SubPublisher subPublisher = arena.readSubPublisher(handle);
+    return subPublisher == null ? null : Objects.equals(subPublisher.getDataList(), dataList);
+  }
+
+  /** consistent with ServerDataBox.equals, which has no hashCode */
+  static int dataListHash(List<ServerDataBox> dataList) {
+    if (dataList == null) {
+      return 0;
+    }
+    int hash = 1;
+    for (ServerDataBox box : dataList) {
+      int h = 0;
+      if (box != null) {
+        h = 31 * Arrays.hashCode(box.getBytes()) + Objects.hashCode(box.getObject());
+      }
+      hash = 31 * hash + h;
+    }
+    return hash;
+  }
+
+  /**
+   * copy the publisher out of arena, called under the read lock of the group. The handles are freed
+   * under the write lock of the group, so the copy fails only if the arena is closed
+   *
+   * @return null if unpub or the arena is closed
+   */
+  Snapshot snapshot(boolean withPublisher) {
+    if (publisher != null) {
+      return new Snapshot(publisher, null);
+    }
+    if (!isInArena()) {
+      return null;
+    }
+    final PublisherArena.Record record = arena.copy(handle, withPublisher);
+    return record == null ? null : new Snapshot(null, record);
+  }
+
+  /** the publisher copied out of arena, deserialized out of the lock */
+  static final class Snapshot {
+    private final Publisher publisher;
+    private final PublisherArena.Record record;
+
+    Snapshot(Publisher publisher, PublisherArena.Record record) {
+      this.publisher = publisher;
+      this.record = record;
+    }
+
+    Publisher getPublisher() {
+      return publisher != null ? publisher : record.toPublisher();
+    }
+
+    SubPublisher getSubPublisher() {
+      return publisher != null ? DatumUtils.of(publisher) : record.toSubPublisher();
+    }
   }
 
   public RegisterVersion getVersionIfPub() {
@@ -89,16 +267,43 @@ public final class PublisherEnvelope {
   }
 
   /**
-   * Getter method for property <tt>publisher</tt>.
+   * Getter method for property <tt>publisher</tt>, deserialize from arena if the publisher is
+   * stored in arena.
    *
-   * @return property value of publisher
+   * @return property value of publisher, null if unpub or released
    */
   public Publisher getPublisher() {
-    return publisher;
+    if (publisher != null || !isInArena()) {
+      return publisher;
+    }
+    return arena.read(handle);
+  }
+
+  /**
+   * the SubPublisher of the publisher, read from arena without rebuilding the publisher if the
+   * publisher is stored in arena.
+   *
+   * @return null if unpub or released
+   */
+  SubPublisher getSubPublisher() {
+    if (publisher != null) {
+      return DatumUtils.of(publisher);
+    }
+    return isInArena() ? arena.readSubPublisher(handle) : null;
+  }
+
+  public PublishSource getPublishSource() {
+    if (publisher != null) {
+      return publisher.getPublishSource();
+    }
+    return publishSource;
   }
 
   boolean isConnectId(ConnectId connectId) {
-    return isPub() && publisher.connectId().equals(connectId);
+    if (publisher != null) {
+      return publisher.connectId().equals(connectId);
+    }
+    return isInArena() && this.connectId.equals(connectId);
   }
 
   @Override
@@ -107,7 +312,7 @@ public final class PublisherEnvelope {
     sb.append("pub=")
         .append(isPub())
         .append(", connectId=")
-        .append(publisher != null ? publisher.connectId() : "null")
+        .append(publisher != null ? publisher.connectId() : connectId)
         .append(", ver=")
         .append(registerVersion)
         .append(", ts=")
@@ -26,6 +26,9 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.ProcessIdCache;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.StoreData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -37,6 +40,7 @@ import com.google.common.collect.Sets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -66,6 +70,9 @@ public final class PublisherGroup {
 
   final String group;
 
+  // not null if the publishers stored off-heap
+  final PublisherArena arena;
+
   // if the delete publisher from session, mark unpub
   final Map<String /*registerId*/, PublisherEnvelope> pubMap = Maps.newConcurrentMap();
 
@@ -75,7 +82,22 @@ public final class PublisherGroup {
 
   private final ArrayDeque<Long> recentVersions = new ArrayDeque<>(RECENT_VERSIONS_CAP);
 
+  private static final int ESTIMATE_SAMPLES = 3;
+
+  // the publishers of the follower are same as the slot leader's of the leaderVersion, it is valid
+  // only if the version is still leaderSyncedVersion and the leader not changed
+  private long leaderVersion;
+
+  private long leaderSyncedVersion;
+
+  private long leaderEpoch;
+
   PublisherGroup(String dataInfoId, String dataCenter) {
+    this(dataInfoId, dataCenter, null);
+  }
+
+  PublisherGroup(String dataInfoId, String dataCenter, PublisherArena arena) {
+    this.arena = arena;
     DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
     this.dataInfoId = WordCache.getWordCache(dataInfoId);
     this.dataCenter = WordCache.getWordCache(dataCenter);
@@ -101,41 +123,162 @@ public final class PublisherGroup {
     datum.setGroup(group);
     datum.setInstanceId(instanceId);
     long ver;
-    List<Publisher> list = new ArrayList<>(pubMap.size());
+    List<PublisherEnvelope.Snapshot> list;
     lock.readLock().lock();
     datum.setRecentVersions(
         recentVersions.stream().filter(Objects::nonNull).collect(Collectors.toList()));
     try {
       ver = this.version;
-      for (PublisherEnvelope envelope : pubMap.values()) {
-        if (envelope.isPub()) {
-          list.add(envelope.publisher);
-        }
-      }
+      list = snapshotPubs(true);
     } finally {
       lock.readLock().unlock();
     }
+    if (list == null) {
+      return null;
+    }
     datum.setVersion(ver);
-    list.forEach(datum::addPublisher);
+    // deserialize out of the lock
+    for (PublisherEnvelope.Snapshot snapshot : list) {
+      datum.addPublisher(snapshot.getPublisher());
+    }
     return datum;
   }
 
-  List<Publisher> getPublishers() {
-    List<Publisher> list = new ArrayList<>(pubMap.size());
+  SubDatum toSubDatum() {
+    return toSubDatum(false, 0);
+  }
+
+  /**
+   * get the datum under the version of the slot leader, the publishers are synced from
+   *
+   * @param slotLeaderEpoch slotLeaderEpoch of the leader
+   * @return null if the publishers have changed since synced or the leader has changed
+   */
+  SubDatum toLeaderSubDatum(long slotLeaderEpoch) {
+    return toSubDatum(true, slotLeaderEpoch);
+  }
+
+  private SubDatum toSubDatum(boolean asLeader, long slotLeaderEpoch) {
+    long ver;
+    List<Long> recent;
+    List<PublisherEnvelope.Snapshot> list;
+    lock.readLock().lock();
+    try {
+      if (asLeader) {
+        if (leaderVersion == 0
+            || leaderSyncedVersion != this.version
+            || leaderEpoch != slotLeaderEpoch) {
+          return null;
+        }
+        // the recent versions are local, not comparable with the leader's
+        ver = this.leaderVersion;
+        recent = Collections.emptyList();
+      } else {
+        ver = this.version;
+        recent = recentVersions.stream().filter(Objects::nonNull).collect(Collectors.toList());
+      }
+      list = snapshotPubs(false);
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (list == null) {
+      return null;
+    }
+    // deserialize out of the lock
+    List<SubPublisher> publishers = new ArrayList<>(list.size());
+    for (PublisherEnvelope.Snapshot snapshot : list) {
+      publishers.add(snapshot.getSubPublisher());
+    }
+    return SubDatum.normalOf(
+        dataInfoId, dataCenter, ver, publishers, dataId, instanceId, group, recent);
+  }
+
+  /**
+   * copy the pubs out of arena, must hold the lock, the handles are freed under the write lock
+   *
+   * @return null if the arena is closed, the publishers are missing
+   */
+  private List<PublisherEnvelope.Snapshot> snapshotPubs(boolean withPublisher) {
+    List<PublisherEnvelope.Snapshot> list = new ArrayList<>(pubMap.size());
     for (PublisherEnvelope envelope : pubMap.values()) {
       if (envelope.isPub()) {
-        list.add(envelope.publisher);
+        PublisherEnvelope.Snapshot snapshot = envelope.snapshot(withPublisher);
+        if (snapshot == null) {
+          return null;
+        }
+        list.add(snapshot);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * estimate the data box bytes as CollectionUtils.fuzzyTotalSize does, only the sampled publishers
+   * are read
+   */
+  int estimateDataBoxBytes() {
+    List<PublisherEnvelope> samples = new ArrayList<>(ESTIMATE_SAMPLES);
+    int count = 0;
+    lock.readLock().lock();
+    try {
+      for (PublisherEnvelope envelope : pubMap.values()) {
+        if (envelope.isPub()) {
+          count++;
+          if (samples.size() < ESTIMATE_SAMPLES) {
+            samples.add(envelope);
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    int maxPerSize = 0;
+    for (PublisherEnvelope envelope : samples) {
+      SubPublisher publisher = envelope.getSubPublisher();
+      if (publisher != null) {
+        maxPerSize = Math.max(maxPerSize, publisher.getDataBoxBytes());
       }
     }
+    return maxPerSize * count;
+  }
+
+  List<Publisher> getPublishers() {
+    List<PublisherEnvelope.Snapshot> snapshots;
+    lock.readLock().lock();
+    try {
+      snapshots = snapshotPubs(true);
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (snapshots == null) {
+      return Collections.emptyList();
+    }
+    List<Publisher> list = new ArrayList<>(snapshots.size());
+    for (PublisherEnvelope.Snapshot snapshot : snapshots) {
+      list.add(snapshot.getPublisher());
+    }
     return list;
   }
 
   Map<String, Publisher> getByConnectId(ConnectId connectId) {
-    Map<String, Publisher> map = Maps.newHashMap();
-    for (PublisherEnvelope p : pubMap.values()) {
-      if (p.isConnectId(connectId)) {
-        map.put(p.publisher.getRegisterId(), p.publisher);
+    List<PublisherEnvelope.Snapshot> snapshots = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (PublisherEnvelope p : pubMap.values()) {
+        if (p.isConnectId(connectId)) {
+          PublisherEnvelope.Snapshot snapshot = p.snapshot(true);
+          if (snapshot != null) {
+            snapshots.add(snapshot);
+          }
+        }
       }
+    } finally {
+      lock.readLock().unlock();
+    }
+    Map<String, Publisher> map = Maps.newHashMap();
+    for (PublisherEnvelope.Snapshot snapshot : snapshots) {
+      Publisher publisher = snapshot.getPublisher();
+      map.put(publisher.getRegisterId(), publisher);
     }
     return map;
   }
@@ -157,6 +300,29 @@ public final class PublisherGroup {
     }
   }
 
+  /**
+   * mark the publishers are same as the slot leader's of the leaderVersion
+   *
+   * @param localVersion the version when the publishers compared with the leader
+   * @param leaderVersion the version of the leader
+   * @param slotLeaderEpoch slotLeaderEpoch of the leader
+   * @return false if the publishers have changed after compared
+   */
+  boolean updateLeaderVersion(long localVersion, long leaderVersion, long slotLeaderEpoch) {
+    lock.writeLock().lock();
+    try {
+      if (this.version != localVersion) {
+        return false;
+      }
+      this.leaderVersion = leaderVersion;
+      this.leaderSyncedVersion = localVersion;
+      this.leaderEpoch = slotLeaderEpoch;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
   private void appendRecentVersion(long version) {
     for (int i = 0; recentVersions.size() >= RECENT_VERSIONS_CAP && i < 3; i++) {
       this.recentVersions.pollFirst();
@@ -164,11 +330,23 @@ public final class PublisherGroup {
     this.recentVersions.addLast(version);
   }
 
-  private boolean tryAddPublisher(Publisher publisher) {
+  /**
+   * serialize the publisher for arena before taking the lock
+   *
+   * @return null if arena disabled or not a pub
+   */
+  private PublisherArena.Record encode(Publisher publisher) {
+    if (arena == null || publisher.getDataType() != StoreData.DataType.PUBLISHER) {
+      return null;
+    }
+    return PublisherArena.encode(publisher);
+  }
+
+  private boolean tryAddPublisher(Publisher publisher, PublisherArena.Record record) {
     PublisherEnvelope exist = pubMap.get(publisher.getRegisterId());
     final RegisterVersion registerVersion = publisher.registerVersion();
     if (exist == null) {
-      PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
+      PublisherEnvelope envelope = PublisherEnvelope.of(publisher, arena, record);
       pubMap.put(publisher.getRegisterId(), envelope);
       return envelope.isPub();
     }
@@ -193,10 +371,27 @@ public final class PublisherGroup {
           publisher.registerVersion());
       return false;
     }
-    PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
+    PublisherEnvelope envelope = PublisherEnvelope.of(publisher, arena, record);
     pubMap.put(publisher.getRegisterId(), envelope);
+    final Boolean same;
+    try {
+      same = exist.isSameDataList(publisher.getDataList());
+    } catch (Throwable t) {
+      // unexpect run into here, if it happens,
+      // return true to update version because pubMap has been put a newer version publish
+      LOGGER.error(
+          "[PubChangeJudgement]judge {}, {} change error, exist={}, add={}.",
+          publisher.getDataInfoId(),
+          publisher.getRegisterId(),
+          exist.registerVersion,
+          publisher.registerVersion(),
+          t);
+      return true;
+    } finally {
+      exist.release();
+    }
 
-    if (exist.publisher == null) {
+    if (same == null) {
       // publisher is null after client_off
       LOGGER.info(
           "[ReplaceEmptyPub] {}, {}, exist={}, add={}, regIsPub={}",
@@ -207,40 +402,24 @@ public final class PublisherGroup {
           envelope.isPub());
       return envelope.isPub();
     }
-    try {
-      boolean same =
-          exist.publisher.getDataList() == null
-              ? publisher.getDataList() == null
-              : exist.publisher.getDataList().equals(publisher.getDataList());
-      if (same) {
-        SKIP_SAME_VALUE_COUNTER.inc();
-        LOGGER.info(
-            "[SkipUpVer] {}, {}, exist={}, add={}",
-            publisher.getDataInfoId(),
-            publisher.getRegisterId(),
-            exist.registerVersion,
-            publisher.registerVersion());
-      }
-      return !same;
-    } catch (Throwable t) {
-      // unexpect run into here, if it happens,
-      // return true to update version because pubMap has been put a newer version publish
-      LOGGER.error(
-          "[PubChangeJudgement]judge {}, {} change error, exist={}, add={}.",
+    if (same) {
+      SKIP_SAME_VALUE_COUNTER.inc();
+      LOGGER.info(
+          "[SkipUpVer] {}, {}, exist={}, add={}",
           publisher.getDataInfoId(),
           publisher.getRegisterId(),
           exist.registerVersion,
-          publisher.registerVersion(),
-          t);
-      return true;
+          publisher.registerVersion());
     }
+    return !same;
   }
 
   DatumVersion addPublisher(Publisher publisher) {
     publisher.setSessionProcessId(ProcessIdCache.cache(publisher.getSessionProcessId()));
+    final PublisherArena.Record record = encode(publisher);
     lock.writeLock().lock();
     try {
-      if (tryAddPublisher(publisher)) {
+      if (tryAddPublisher(publisher, record)) {
         return updateVersion();
       }
       return null;
@@ -260,7 +439,7 @@ public final class PublisherGroup {
           return null;
         }
         cleanContinues.onClean(size);
-        pubMap.clear();
+        releaseAll();
         return updateVersion();
       } finally {
         lock.writeLock().unlock();
@@ -283,6 +462,7 @@ public final class PublisherGroup {
           break;
         }
         if (pubMap.remove(clean.getKey(), clean.getValue())) {
+          clean.getValue().release();
           cleanContinues.onClean(1);
           modified = true;
         }
@@ -316,6 +496,7 @@ public final class PublisherGroup {
           // sync from local-leader/remote-leader
           if (sessionProcessId == null) {
             pubMap.remove(registerId);
+            existing.release();
             modified = true;
             continue;
           }
@@ -324,6 +505,7 @@ public final class PublisherGroup {
             pubMap.put(
                 registerId,
                 PublisherEnvelope.unpubOf(removedVer.incrRegisterTimestamp(), sessionProcessId));
+            existing.release();
             modified = true;
           } else {
             LOGGER.warn(
@@ -357,11 +539,15 @@ public final class PublisherGroup {
       ParaCheckUtil.checkEquals(p.getDataInfoId(), dataInfoId, "publisher.dataInfoId");
       p.setSessionProcessId(ProcessIdCache.cache(p.getSessionProcessId()));
     }
+    final List<PublisherArena.Record> records = new ArrayList<>(puts.size());
+    for (Publisher p : puts) {
+      records.add(encode(p));
+    }
     lock.writeLock().lock();
     try {
       boolean modified = false;
-      for (Publisher publisher : puts) {
-        if (tryAddPublisher(publisher)) {
+      for (int i = 0; i < puts.size(); i++) {
+        if (tryAddPublisher(puts.get(i), records.get(i))) {
           modified = true;
         }
       }
@@ -411,6 +597,44 @@ public final class PublisherGroup {
     return count;
   }
 
+  /**
+   * move the publishers out of the sparse slabs of arena
+   *
+   * @return the count of moved
+   */
+  int compactArena() {
+    if (arena == null) {
+      return 0;
+    }
+    int count = 0;
+    lock.writeLock().lock();
+    try {
+      for (Map.Entry<String, PublisherEnvelope> e : pubMap.entrySet()) {
+        final PublisherEnvelope envelope = e.getValue();
+        if (!envelope.isInArena() || !arena.needCompact(envelope.handle)) {
+          continue;
+        }
+        final Publisher publisher = envelope.getPublisher();
+        if (publisher == null) {
+          continue;
+        }
+        e.setValue(envelope.moveTo(publisher));
+        envelope.release();
+        count++;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    return count;
+  }
+
+  private void releaseAll() {
+    for (PublisherEnvelope envelope : pubMap.values()) {
+      envelope.release();
+    }
+    pubMap.clear();
+  }
+
   int tombstoneNum() {
     int count = 0;
     for (PublisherEnvelope envelope : pubMap.values()) {
@@ -431,7 +655,7 @@ public final class PublisherGroup {
     lock.writeLock().lock();
     try {
       if (pubSize() > 0) {
-        pubMap.clear();
+        releaseAll();
         return updateVersion();
       }
       return null;
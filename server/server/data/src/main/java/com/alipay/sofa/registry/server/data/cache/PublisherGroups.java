@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.collect.Maps;
 import java.util.Collection;
@@ -39,11 +40,20 @@ import org.springframework.util.CollectionUtils;
  * @version v 0.1 2020-12-02 21:52 yuzhi.lyz Exp $
  */
 public final class PublisherGroups {
+  private static final long ARENA_RELEASE_GRACE_MILLIS = 10000;
+
   private final Map<String, PublisherGroup> publisherGroupMap = Maps.newConcurrentMap();
   private final String dataCenter;
+  // the off-heap storage of the slot, null if disabled
+  private final PublisherArena arena;
 
   PublisherGroups(String dataCenter) {
+    this(dataCenter, null);
+  }
+
+  PublisherGroups(String dataCenter, PublisherArena arena) {
     this.dataCenter = dataCenter;
+    this.arena = arena;
   }
 
   Datum getDatum(String dataInfoId) {
@@ -51,6 +61,38 @@ public final class PublisherGroups {
     return group == null ? null : group.toDatum();
   }
 
+  SubDatum getSubDatum(String dataInfoId) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.toSubDatum();
+  }
+
+  SubDatum getLeaderSubDatum(String dataInfoId, long slotLeaderEpoch) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.toLeaderSubDatum(slotLeaderEpoch);
+  }
+
+  int estimateDataBoxBytes(String dataInfoId) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? -1 : group.estimateDataBoxBytes();
+  }
+
+  int updateLeaderVersions(
+      Map<String, DatumVersion> localVersions,
+      Map<String, Long> leaderVersions,
+      long slotLeaderEpoch) {
+    int count = 0;
+    for (Map.Entry<String, Long> e : leaderVersions.entrySet()) {
+      final DatumVersion localVersion = localVersions.get(e.getKey());
+      final PublisherGroup group = publisherGroupMap.get(e.getKey());
+      if (localVersion != null
+          && group != null
+          && group.updateLeaderVersion(localVersion.getValue(), e.getValue(), slotLeaderEpoch)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   DatumVersion getVersion(String dataInfoId) {
     PublisherGroup group = publisherGroupMap.get(dataInfoId);
     return group == null ? null : group.getVersion();
@@ -77,7 +119,11 @@ public final class PublisherGroups {
     Map<String, Datum> map = Maps.newHashMapWithExpectedSize(publisherGroupMap.size());
     publisherGroupMap.forEach(
         (k, v) -> {
-          map.put(k, v.toDatum());
+          Datum datum = v.toDatum();
+          // null if the arena closed concurrently
+          if (datum != null) {
+            map.put(k, datum);
+          }
         });
     return map;
   }
@@ -105,7 +151,7 @@ public final class PublisherGroups {
 
   PublisherGroup createGroupIfAbsent(String dataInfoId) {
     return publisherGroupMap.computeIfAbsent(
-        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter));
+        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter, arena));
   }
 
   Map<String, DatumVersion> clean(ProcessId sessionProcessId, CleanContinues cleanContinues) {
@@ -161,9 +207,30 @@ public final class PublisherGroups {
                 compacts.put(g.dataInfoId, count);
               }
             });
+    compactArena();
     return compacts;
   }
 
+  int compactArena() {
+    if (arena == null) {
+      return 0;
+    }
+    int count = 0;
+    for (PublisherGroup g : publisherGroupMap.values()) {
+      count += g.compactArena();
+    }
+    // the empty slabs keep a grace period for the concurrent readers
+    arena.releaseEmptySlabs(System.currentTimeMillis() - ARENA_RELEASE_GRACE_MILLIS);
+    return count;
+  }
+
+  /** free the off-heap storage of the slot whole, the groups could not be read after closed */
+  void close() {
+    if (arena != null) {
+      arena.close();
+    }
+  }
+
   int tombstoneNum() {
     int count = 0;
     for (PublisherGroup group : publisherGroupMap.values()) {
@@ -35,6 +35,10 @@ public final class ChangeMetrics {
   static final Counter.Child CHANGE_RETRY_COUNTER = CHANGE_COUNTER_.labels("retry");
   // skip change
   static final Counter.Child CHANGE_SKIP_COUNTER = CHANGE_COUNTER_.labels("skip");
+  // the session does not subscribe any of the changes
+  static final Counter.Child CHANGE_FILTER_COUNTER = CHANGE_COUNTER_.labels("filter");
+  // the datums carried by the change notify
+  static final Counter.Child CHANGE_INLINE_COUNTER = CHANGE_COUNTER_.labels("inline");
   // skip same pub value
   public static final Counter.Child SKIP_SAME_VALUE_COUNTER =
       CHANGE_COUNTER_.labels("skipSameValue");
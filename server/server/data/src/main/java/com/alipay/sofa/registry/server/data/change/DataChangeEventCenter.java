@@ -25,8 +25,14 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
 import com.alipay.sofa.registry.common.model.sessionserver.DataPushRequest;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
@@ -35,6 +41,7 @@ import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.bootstrap.MultiClusterDataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.data.slot.SlotAccessorDelegate;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
 import com.alipay.sofa.registry.task.FastRejectedExecutionException;
@@ -66,6 +73,8 @@ public class DataChangeEventCenter {
 
   @Autowired private DatumStorageDelegate datumStorageDelegate;
 
+  @Autowired private SlotAccessorDelegate slotAccessorDelegate;
+
   @Autowired private Exchange boltExchange;
 
   @Autowired private DefaultCommonConfig defaultCommonConfig;
@@ -80,6 +89,9 @@ public class DataChangeEventCenter {
   private final TempChangeMerger tempChangeMerger = new TempChangeMerger();
   private final ChangeMerger changeMerger = new ChangeMerger();
 
+  private final SessionInterestIndex sessionInterestIndex = new SessionInterestIndex();
+  private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
+
   private KeyedThreadPoolExecutor notifyExecutor;
   private KeyedThreadPoolExecutor notifyTempExecutor;
 
@@ -118,6 +130,19 @@ public class DataChangeEventCenter {
 
   public void onChange(
       Collection<String> dataInfoIds, DataChangeType dataChangeType, String dataCenter) {
+    onChange(dataInfoIds, dataChangeType, dataCenter, 0, 0);
+  }
+
+  /**
+   * @param putReceiveTs the put request received, 0 if the change not from a put request
+   * @param putCommitTs the put request committed to the storage
+   */
+  public void onChange(
+      Collection<String> dataInfoIds,
+      DataChangeType dataChangeType,
+      String dataCenter,
+      long putReceiveTs,
+      long putCommitTs) {
     if (dataInfoIds.isEmpty()) {
       return;
     }
@@ -125,12 +150,22 @@ public class DataChangeEventCenter {
         dataCenter2Changes.computeIfAbsent(dataCenter, k -> new DataChangeMerger());
     lock.readLock().lock();
     try {
-      changes.addChanges(dataInfoIds, dataChangeType);
+      changes.addChanges(dataInfoIds, dataChangeType, putReceiveTs, putCommitTs);
     } finally {
       lock.readLock().unlock();
     }
   }
 
+  public void onSessionInterests(
+      String sessionAddress, String dataCenter, int slotId, Collection<String> dataInfoIds) {
+    sessionInterestIndex.refresh(sessionAddress, dataCenter, slotId, dataInfoIds);
+  }
+
+  public void onSessionInterest(String sessionAddress, String dataCenter, String dataInfoId) {
+    sessionInterestIndex.add(
+        sessionAddress, dataCenter, slotFunction.slotOf(dataInfoId), dataInfoId);
+  }
+
   final class TempNotifier implements Runnable {
     final Channel channel;
     final Datum datum;
@@ -172,6 +207,7 @@ public class DataChangeEventCenter {
     final int notifyPort;
     final String dataCenter;
     final Map<String, DatumVersion> dataInfoIds;
+    final Map<String, SubDatum> datums;
     final TraceTimes times;
 
     volatile int retryCount;
@@ -181,11 +217,13 @@ public class DataChangeEventCenter {
         int notifyPort,
         String dataCenter,
         Map<String, DatumVersion> dataInfoIds,
+        Map<String, SubDatum> datums,
         TraceTimes parentTimes) {
       this.dataCenter = dataCenter;
       this.channel = channel;
       this.notifyPort = notifyPort;
       this.dataInfoIds = dataInfoIds;
+      this.datums = datums;
       this.times = parentTimes.copy();
       this.times.setDatumNotifyCreate(System.currentTimeMillis());
     }
@@ -198,7 +236,7 @@ public class DataChangeEventCenter {
           LOGGER.info("change notify failed, conn is closed, {}", channel);
           return;
         }
-        DataChangeRequest request = new DataChangeRequest(dataCenter, dataInfoIds, times);
+        DataChangeRequest request = new DataChangeRequest(dataCenter, dataInfoIds, times, datums);
         request.getTimes().setDatumNotifySend(System.currentTimeMillis());
         doNotify(request, channel, notifyPort);
         LOGGER.info("success to notify {}, {}", channel.getRemoteAddress(), this);
@@ -221,10 +259,11 @@ public class DataChangeEventCenter {
     @Override
     public String toString() {
       return StringFormatter.format(
-          "ChangeNotifier{{},notifyPort={},num={},size={},retry={},traceTimes={}}",
+          "ChangeNotifier{{},notifyPort={},num={},datums={},size={},retry={},traceTimes={}}",
           dataCenter,
           notifyPort,
           dataInfoIds.size(),
+          datums.size(),
           size(),
           retryCount,
           times.format(System.currentTimeMillis()));
@@ -376,6 +415,9 @@ public class DataChangeEventCenter {
       }
       return false;
     }
+    if (nodeType == NodeType.SESSION) {
+      sessionInterestIndex.retainSessions(channelsMap.keySet());
+    }
     for (DataChangeEvent event : events) {
       String dataCenter = event.getDataCenter();
       if (nodeType == NodeType.DATA) {
@@ -409,12 +451,28 @@ public class DataChangeEventCenter {
       for (Map.Entry<String, DatumVersion> entry : changes.entrySet()) {
         LOGGER.info("datum change notify: {},{}", entry.getKey(), entry.getValue());
       }
+      final Map<String, SubDatum> datums =
+          nodeType == NodeType.SESSION
+              ? inlineDatums(event.getDataCenter(), changes)
+              : Collections.emptyMap();
       for (Map.Entry<String, List<Channel>> entry : channelsMap.entrySet()) {
+        final Map<String, DatumVersion> interests =
+            filterInterests(nodeType, entry.getKey(), event.getDataCenter(), changes);
+        if (interests.isEmpty()) {
+          CHANGE_FILTER_COUNTER.inc();
+          continue;
+        }
         Channel channel = CollectionUtils.getRandom(entry.getValue());
         try {
           notifyExecutor.execute(
               channel.getRemoteAddress(),
-              new ChangeNotifier(channel, notifyPort, dataCenter, changes, event.getTraceTimes()));
+              new ChangeNotifier(
+                  channel,
+                  notifyPort,
+                  dataCenter,
+                  interests,
+                  filterDatums(interests, datums),
+                  event.getTraceTimes()));
           CHANGE_COMMIT_COUNTER.inc();
         } catch (FastRejectedExecutionException e) {
           CHANGE_SKIP_COUNTER.inc();
@@ -428,6 +486,114 @@ public class DataChangeEventCenter {
     return true;
   }
 
+  Map<String, DatumVersion> filterInterests(
+      NodeType nodeType,
+      String sessionAddress,
+      String dataCenter,
+      Map<String, DatumVersion> changes) {
+    if (nodeType != NodeType.SESSION || !dataServerConfig.isNotifyInterestFilterEnabled()) {
+      return changes;
+    }
+    final long expireTimestamp =
+        System.currentTimeMillis() - dataServerConfig.getNotifyInterestExpireMillis();
+    Map<String, DatumVersion> interests = null;
+    for (Map.Entry<String, DatumVersion> e : changes.entrySet()) {
+      final String dataInfoId = e.getKey();
+      if (sessionInterestIndex.mayInterest(
+          sessionAddress,
+          dataCenter,
+          slotFunction.slotOf(dataInfoId),
+          dataInfoId,
+          expireTimestamp)) {
+        if (interests == null) {
+          interests = Maps.newHashMapWithExpectedSize(changes.size());
+        }
+        interests.put(dataInfoId, e.getValue());
+      }
+    }
+    if (interests == null) {
+      return Collections.emptyMap();
+    }
+    // all interested, share the changes
+    return interests.size() == changes.size() ? changes : interests;
+  }
+
+  /**
+   * the small datums are carried by the notify, the SubDatum is built once and shared by all the
+   * sessions. the publishers are serialized and zipped once, the notifies to the sessions only copy
+   * the bytes, the session keeps the zipped datum in cache as the fetched one. only the datums the
+   * GetData would serve are inlined: the slot is leader and migrated, the others are fetched
+   */
+  Map<String, SubDatum> inlineDatums(String dataCenter, Map<String, DatumVersion> changes) {
+    final int maxBytes = dataServerConfig.getNotifyInlineDatumMaxBytes();
+    if (maxBytes <= 0) {
+      return Collections.emptyMap();
+    }
+    Map<String, SubDatum> datums = Maps.newHashMapWithExpectedSize(changes.size());
+    for (Map.Entry<String, DatumVersion> e : changes.entrySet()) {
+      final String dataInfoId = e.getKey();
+      final SlotAccess accessBefore = checkInlineAccess(dataCenter, dataInfoId);
+      if (accessBefore == null) {
+        continue;
+      }
+      // estimate before reading all the publishers, the big datum is skipped cheaply
+      final int estimateBytes = datumStorageDelegate.estimateDataBoxBytes(dataCenter, dataInfoId);
+      if (estimateBytes < 0 || estimateBytes > maxBytes) {
+        continue;
+      }
+      final SubDatum subDatum = datumStorageDelegate.getSubDatum(dataCenter, dataInfoId);
+      // the datum maybe updated after the version got, the newer is acceptable
+      if (subDatum == null
+          || subDatum.getVersion() < e.getValue().getValue()
+          || subDatum.getDataBoxBytes() > maxBytes) {
+        continue;
+      }
+      // double check as the GetData, the slot may be moved and cleaned in the getting
+      final SlotAccess accessAfter = checkInlineAccess(dataCenter, dataInfoId);
+      if (accessAfter == null
+          || accessAfter.getSlotLeaderEpoch() != accessBefore.getSlotLeaderEpoch()) {
+        continue;
+      }
+      datums.put(
+          dataInfoId,
+          DatumUtils.compressSubDatum(
+              subDatum, CompressUtils.mustGet(CompressConstants.encodingZstd)));
+    }
+    CHANGE_INLINE_COUNTER.inc(datums.size());
+    return datums;
+  }
+
+  private SlotAccess checkInlineAccess(String dataCenter, String dataInfoId) {
+    final int slotId = slotFunction.slotOf(dataInfoId);
+    final Slot slot = slotAccessorDelegate.getSlot(dataCenter, slotId);
+    if (slot == null) {
+      return null;
+    }
+    final SlotAccess access =
+        slotAccessorDelegate.checkSlotAccess(dataCenter, slotId, 0, slot.getLeaderEpoch());
+    return access.isAccept() ? access : null;
+  }
+
+  static Map<String, SubDatum> filterDatums(
+      Map<String, DatumVersion> interests, Map<String, SubDatum> datums) {
+    if (datums.isEmpty()) {
+      return datums;
+    }
+    Map<String, SubDatum> ret = Maps.newHashMapWithExpectedSize(interests.size());
+    for (String dataInfoId : interests.keySet()) {
+      SubDatum datum = datums.get(dataInfoId);
+      if (datum != null) {
+        ret.put(dataInfoId, datum);
+      }
+    }
+    return ret.size() == datums.size() ? datums : ret;
+  }
+
+  @VisibleForTesting
+  SessionInterestIndex getSessionInterestIndex() {
+    return sessionInterestIndex;
+  }
+
   void handleExpire() {
     final List<ChangeNotifier> retries = getExpires();
     // commit retry
@@ -524,6 +690,11 @@ public class DataChangeEventCenter {
     this.datumStorageDelegate = datumStorageDelegate;
   }
 
+  @VisibleForTesting
+  void setSlotAccessorDelegate(SlotAccessorDelegate slotAccessorDelegate) {
+    this.slotAccessorDelegate = slotAccessorDelegate;
+  }
+
   @VisibleForTesting
   void setExchange(Exchange boltExchange) {
     this.boltExchange = boltExchange;
@@ -532,7 +703,8 @@ public class DataChangeEventCenter {
   @VisibleForTesting
   ChangeNotifier newChangeNotifier(
       Channel channel, int notifyPort, String dataCenter, Map<String, DatumVersion> dataInfoIds) {
-    return new ChangeNotifier(channel, notifyPort, dataCenter, dataInfoIds, new TraceTimes());
+    return new ChangeNotifier(
+        channel, notifyPort, dataCenter, dataInfoIds, Collections.emptyMap(), new TraceTimes());
   }
 
   @VisibleForTesting
@@ -25,6 +25,9 @@ public class DataChangeMerger {
   private final Set<String> dataInfoIds = Sets.newConcurrentHashSet();
   private volatile DataChangeType lastDataChangeType;
   private long firstTs;
+  // the put stages of the first put in the merged changes
+  private long firstPutReceiveTs;
+  private long firstPutCommitTs;
 
   public DataChangeMerger() {}
 
@@ -37,15 +40,31 @@ public class DataChangeMerger {
     }
   }
 
+  public void addChanges(
+      Collection<String> dataInfoIds,
+      DataChangeType dataChangeType,
+      long putReceiveTs,
+      long putCommitTs) {
+    addChanges(dataInfoIds, dataChangeType);
+    if (firstPutReceiveTs == 0) {
+      firstPutReceiveTs = putReceiveTs;
+      firstPutCommitTs = putCommitTs;
+    }
+  }
+
   public void clear() {
     this.dataInfoIds.clear();
     this.firstTs = 0;
+    this.firstPutReceiveTs = 0;
+    this.firstPutCommitTs = 0;
   }
 
   public TraceTimes createTraceTime() {
     TraceTimes times = new TraceTimes();
     times.setDataChangeType(lastDataChangeType.ordinal());
     times.setFirstDataChange(firstTs);
+    times.setDataPutReceive(firstPutReceiveTs);
+    times.setDataPutCommit(firstPutCommitTs);
     return times;
   }
 
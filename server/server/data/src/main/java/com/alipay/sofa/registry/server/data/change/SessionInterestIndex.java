@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.change;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the dataInfoIds interested by the sessions, group by session address, dataCenter and slotId. the
+ * full set of a slot is refreshed by the version scan of session, and the dataInfoId is added
+ * incrementally when the session gets the datum. the slot without a fresh summary is treated as
+ * interesting in everything
+ */
+public final class SessionInterestIndex {
+  // sessionAddress -> dataCenter -> slotId -> interests
+  private final Map<String, Map<String, Map<Integer, SlotInterests>>> interests =
+      new ConcurrentHashMap<>();
+
+  public void refresh(
+      String sessionAddress, String dataCenter, int slotId, Collection<String> dataInfoIds) {
+    final Set<String> set = ConcurrentHashMap.newKeySet(dataInfoIds.size());
+    set.addAll(dataInfoIds);
+    slotsOf(sessionAddress, dataCenter)
+        .put(slotId, new SlotInterests(set, System.currentTimeMillis()));
+  }
+
+  public void add(String sessionAddress, String dataCenter, int slotId, String dataInfoId) {
+    Map<String, Map<Integer, SlotInterests>> dataCenters = interests.get(sessionAddress);
+    if (dataCenters == null) {
+      return;
+    }
+    Map<Integer, SlotInterests> slots = dataCenters.get(dataCenter);
+    if (slots == null) {
+      return;
+    }
+    SlotInterests slotInterests = slots.get(slotId);
+    // no summary means interested in everything, needless to add
+    if (slotInterests != null) {
+      slotInterests.dataInfoIds.add(dataInfoId);
+    }
+  }
+
+  /**
+   * @param expireTimestamp the summary refreshed before it is expired
+   * @return false if the session is sure not to subscribe the dataInfoId
+   */
+  public boolean mayInterest(
+      String sessionAddress,
+      String dataCenter,
+      int slotId,
+      String dataInfoId,
+      long expireTimestamp) {
+    Map<String, Map<Integer, SlotInterests>> dataCenters = interests.get(sessionAddress);
+    if (dataCenters == null) {
+      return true;
+    }
+    Map<Integer, SlotInterests> slots = dataCenters.get(dataCenter);
+    if (slots == null) {
+      return true;
+    }
+    SlotInterests slotInterests = slots.get(slotId);
+    if (slotInterests == null || slotInterests.refreshTimestamp < expireTimestamp) {
+      // the session has not scanned the slot recently, e.g. the stopPush is open
+      return true;
+    }
+    return slotInterests.dataInfoIds.contains(dataInfoId);
+  }
+
+  public void retainSessions(Collection<String> sessionAddresses) {
+    interests.keySet().retainAll(sessionAddresses);
+  }
+
+  public int size() {
+    int size = 0;
+    for (Map<String, Map<Integer, SlotInterests>> dataCenters : interests.values()) {
+      for (Map<Integer, SlotInterests> slots : dataCenters.values()) {
+        for (SlotInterests slotInterests : slots.values()) {
+          size += slotInterests.dataInfoIds.size();
+        }
+      }
+    }
+    return size;
+  }
+
+  private Map<Integer, SlotInterests> slotsOf(String sessionAddress, String dataCenter) {
+    return interests
+        .computeIfAbsent(sessionAddress, k -> Maps.newConcurrentMap())
+        .computeIfAbsent(dataCenter, k -> Maps.newConcurrentMap());
+  }
+
+  private static final class SlotInterests {
+    final Set<String> dataInfoIds;
+    final long refreshTimestamp;
+
+    SlotInterests(Set<String> dataInfoIds, long refreshTimestamp) {
+      this.dataInfoIds = dataInfoIds;
+      this.refreshTimestamp = refreshTimestamp;
+    }
+
+    @Override
+    public String toString() {
+      return StringFormatter.format(
+          "SlotInterests{num={},ts={}}", dataInfoIds.size(), refreshTimestamp);
+    }
+  }
+}
@@ -187,6 +187,13 @@ public class MultiClusterSlotManagerImpl implements MultiClusterSlotManager {
         slotId, currentSlotTableEpoch, SlotAccess.Status.Accept, slot.getLeaderEpoch());
   }
 
+  @Override
+  public SlotAccess checkFollowerReadAccess(
+      String dataCenter, int slotId, long srcSlotEpoch, long srcLeaderEpoch) {
+    // the remote datum only stored in the leader of local slot, no follower reads
+    return new SlotAccess(slotId, SlotTable.INIT.getEpoch(), SlotAccess.Status.UnSupport, -1);
+  }
+
   private boolean localIsLeader(Slot slot) {
     return slotManager.isLeader(dataServerConfig.getLocalDataCenter(), slot.getId());
   }
@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.exception.UnSupportOperationException;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -80,6 +81,41 @@ public class MultiClusterDatumStorage implements DatumStorage {
     return datum;
   }
 
+  @Override
+  public SubDatum getSubDatum(String dataCenter, String dataInfoId) {
+    BaseDatumStorage storage = storageMap.get(dataCenter);
+    if (storage == null) {
+      LOGGER.warn("[nullStorage]dataCenter={},dataInfoId={}", dataCenter, dataInfoId);
+      return null;
+    }
+    SubDatum datum = storage.getSubDatum(dataInfoId);
+    if (datum == null) {
+      LOGGER.warn("[nullDatum]dataCenter={},dataInfoId={}", dataCenter, dataInfoId);
+    }
+    return datum;
+  }
+
+  @Override
+  public SubDatum getLeaderSubDatum(String dataCenter, String dataInfoId, long slotLeaderEpoch) {
+    throw new UnSupportOperationException("MultiClusterDatumStorage.getLeaderSubDatum");
+  }
+
+  @Override
+  public int estimateDataBoxBytes(String dataCenter, String dataInfoId) {
+    BaseDatumStorage storage = storageMap.get(dataCenter);
+    return storage == null ? -1 : storage.estimateDataBoxBytes(dataInfoId);
+  }
+
+  @Override
+  public int updateLeaderVersions(
+      String dataCenter,
+      int slotId,
+      Map<String, DatumVersion> localVersions,
+      Map<String, Long> leaderVersions,
+      long slotLeaderEpoch) {
+    throw new UnSupportOperationException("MultiClusterDatumStorage.updateLeaderVersions");
+  }
+
   @Override
   public DatumVersion getVersion(String dataCenter, String dataInfoId) {
     BaseDatumStorage storage = storageMap.get(dataCenter);
@@ -84,8 +84,7 @@ public class DatumBiConsumer {
       // v = null when envelope is unpub
       if (v == null
           || !syncSlotAcceptorManager.accept(
-              SyncAcceptorRequest.buildRequest(
-                  dataInfoId, envelope.getPublisher().getPublishSource()))) {
+              SyncAcceptorRequest.buildRequest(dataInfoId, envelope.getPublishSource()))) {
         return;
       }
 
@@ -120,8 +119,7 @@ public class DatumBiConsumer {
       // v = null when envelope is unpub
       if (v == null
           || !syncSlotAcceptorManager.accept(
-              SyncAcceptorRequest.buildRequest(
-                  dataInfoId, envelope.getPublisher().getPublishSource()))) {
+              SyncAcceptorRequest.buildRequest(dataInfoId, envelope.getPublishSource()))) {
         return;
       }
       publisherVersions.put(registerId, v);
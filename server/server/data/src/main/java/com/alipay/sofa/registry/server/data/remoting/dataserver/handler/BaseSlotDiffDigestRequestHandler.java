@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
@@ -33,7 +34,10 @@ import com.alipay.sofa.registry.server.shared.remoting.AbstractServerHandler;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -69,6 +73,13 @@ public abstract class BaseSlotDiffDigestRequestHandler
       }
       slotManager.triggerUpdateSlotTable(request.getSlotTableEpoch());
 
+      // read the versions before the publishers, the publishers are not older than the versions
+      final Map<String, DatumVersion> versions =
+          carryDatumVersions()
+              ? datumStorageDelegate.getVersions(
+                  dataServerConfig.getLocalDataCenter(), request.getSlotId(), null)
+              : null;
+
       // not use acceptorManager to filter in getPublishers() method,
       // because getPublishers() method only loop dataIndoId, will not loop publishers;
       Map<String, Map<String, Publisher>> existingPublishers =
@@ -85,6 +96,9 @@ public abstract class BaseSlotDiffDigestRequestHandler
               existingPublishers,
               request.getAcceptorManager());
       result.setSlotTableEpoch(slotManager.getSlotTableEpoch());
+      if (versions != null) {
+        result.setDatumVersions(sameDigestVersions(request.getDatumDigest(), result, versions));
+      }
 
       if (!postCheck(request)) {
         return new GenericResponse().fillFailed("post check fail of: " + slotId);
@@ -102,6 +116,32 @@ public abstract class BaseSlotDiffDigestRequestHandler
     }
   }
 
+  /**
+   * the follower keeps the leader versions of the same digest datums, then the follower reads are
+   * served under the leader versions
+   *
+   * @return true if the result carries the versions
+   */
+  protected boolean carryDatumVersions() {
+    return false;
+  }
+
+  static Map<String, Long> sameDigestVersions(
+      Map<String, DatumDigest> targetDigestMap,
+      DataSlotDiffDigestResult result,
+      Map<String, DatumVersion> versions) {
+    final Set<String> diffs = Sets.newHashSet(result.getUpdatedDataInfoIds());
+    diffs.addAll(result.getRemovedDataInfoIds());
+    final Map<String, Long> ret = Maps.newHashMapWithExpectedSize(targetDigestMap.size());
+    for (String dataInfoId : targetDigestMap.keySet()) {
+      final DatumVersion version = versions.get(dataInfoId);
+      if (version != null && !diffs.contains(dataInfoId)) {
+        ret.put(dataInfoId, version.getValue());
+      }
+    }
+    return ret;
+  }
+
   private DataSlotDiffDigestResult calcDiffResult(
       String requestDataCenter,
       int targetSlot,
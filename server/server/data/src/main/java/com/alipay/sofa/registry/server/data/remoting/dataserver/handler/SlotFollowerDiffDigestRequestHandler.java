@@ -53,6 +53,11 @@ public class SlotFollowerDiffDigestRequestHandler extends BaseSlotDiffDigestRequ
     return true;
   }
 
+  @Override
+  protected boolean carryDatumVersions() {
+    return true;
+  }
+
   @Override
   protected boolean postCheck(DataSlotDiffDigestRequest request) {
     return true;
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.metaserver.handler;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.Node.NodeType;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataBatchChangeEvent;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataSetDiff;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
+import com.alipay.sofa.registry.server.shared.providedata.ProvideDataProcessor;
+import com.alipay.sofa.registry.server.shared.providedata.SystemPropertyProcessorManager;
+import com.alipay.sofa.registry.server.shared.remoting.AbstractClientHandler;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** apply the provide datas carried by the batch notify, fetch the ones not carried */
+public class NotifyProvideDataBatchChangeHandler
+    extends AbstractClientHandler<ProvideDataBatchChangeEvent> {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(NotifyProvideDataBatchChangeHandler.class);
+
+  @Autowired private MetaServerService metaServerService;
+
+  @Autowired private ProvideDataProcessor provideDataProcessorManager;
+
+  @Autowired private SystemPropertyProcessorManager systemPropertyProcessorManager;
+
+  @Autowired private ThreadPoolExecutor metaNodeExecutor;
+
+  @Override
+  protected NodeType getConnectNodeType() {
+    return NodeType.META;
+  }
+
+  @Override
+  public Object doHandle(Channel channel, ProvideDataBatchChangeEvent event) {
+    LOGGER.info("receive {}", event);
+    for (ProvideData data : event.getProvideDatas()) {
+      if (provideDataProcessorManager.support(data.getDataInfoId())) {
+        provideDataProcessorManager.processData(data);
+      } else if (!systemPropertyProcessorManager.doApply(data)) {
+        systemPropertyProcessorManager.doFetch(data.getDataInfoId());
+      }
+    }
+    for (ProvideDataSetDiff diff : event.getSetDiffs()) {
+      if (provideDataProcessorManager.support(diff.getDataInfoId())) {
+        provideDataProcessorManager.processData(metaServerService.fetchData(diff.getDataInfoId()));
+      } else if (!systemPropertyProcessorManager.doApplyDiff(diff)) {
+        systemPropertyProcessorManager.doFetch(diff.getDataInfoId());
+      }
+    }
+    for (String dataInfoId : event.getFetchDataInfoIds()) {
+      if (provideDataProcessorManager.support(dataInfoId)) {
+        provideDataProcessorManager.processData(metaServerService.fetchData(dataInfoId));
+      } else {
+        systemPropertyProcessorManager.doFetch(dataInfoId);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Class interest() {
+    return ProvideDataBatchChangeEvent.class;
+  }
+
+  @Override
+  public CommonResponse buildFailedResponse(String msg) {
+    return CommonResponse.buildFailedResponse(msg);
+  }
+
+  @Override
+  public Executor getExecutor() {
+    return metaNodeExecutor;
+  }
+
+  @VisibleForTesting
+  void setMetaServerService(MetaServerService metaServerService) {
+    this.metaServerService = metaServerService;
+  }
+
+  @VisibleForTesting
+  void setProvideDataProcessorManager(ProvideDataProcessor provideDataProcessorManager) {
+    this.provideDataProcessorManager = provideDataProcessorManager;
+  }
+
+  @VisibleForTesting
+  void setSystemPropertyProcessorManager(
+      SystemPropertyProcessorManager systemPropertyProcessorManager) {
+    this.systemPropertyProcessorManager = systemPropertyProcessorManager;
+  }
+}
@@ -16,20 +16,30 @@
  */
 package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 
+import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_DATUM_FOLLOWER_N_COUNTER;
+import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_DATUM_FOLLOWER_Y_COUNTER;
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_DATUM_N_COUNTER;
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_DATUM_Y_COUNTER;
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_PUBLISHER_COUNTER;
 
-import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.slot.SlotAccess;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import javax.annotation.Resource;
@@ -58,14 +68,37 @@ public abstract class BaseGetDataHandler<T> extends AbstractDataHandler<T> {
       long slotTableEpoch,
       long slotLeaderEpoch,
       String[] acceptEncodes) {
+    return processSingleDataCenter(
+        dataCenter, dataInfoId, slotTableEpoch, slotLeaderEpoch, acceptEncodes, null);
+  }
+
+  /**
+   * @param minVersion not null means a version bounded read, the follower serves it if the leader
+   *     version of its datum is not less than the minVersion
+   */
+  protected SlotAccessGenericResponse<SubDatum> processSingleDataCenter(
+      String dataCenter,
+      String dataInfoId,
+      long slotTableEpoch,
+      long slotLeaderEpoch,
+      String[] acceptEncodes,
+      Long minVersion) {
+    final boolean followerRead =
+        minVersion != null
+            && !slotAccessorDelegate.isLeader(dataCenter, slotAccessorDelegate.slotOf(dataInfoId));
     final SlotAccess slotAccessBefore =
-        checkAccess(dataCenter, dataInfoId, slotTableEpoch, slotLeaderEpoch);
+        checkReadAccess(dataCenter, dataInfoId, slotTableEpoch, slotLeaderEpoch, followerRead);
     if (!slotAccessBefore.isAccept()) {
       GET_DATUM_N_COUNTER.inc();
       return buildResponse(false, slotAccessBefore, null, "slotAccess not accept.");
     }
 
-    final Datum datum = datumStorageDelegate.get(dataCenter, dataInfoId);
+    // the follower serves the datum synced as the leader's, under the version of the leader. the
+    // version of the follower is not comparable with the leader's
+    final SubDatum datum =
+        followerRead
+            ? datumStorageDelegate.getLeaderSubDatum(dataCenter, dataInfoId, slotLeaderEpoch)
+            : datumStorageDelegate.getSubDatum(dataCenter, dataInfoId);
     // important. double check the slot access. avoid the case:
     // 1. the slot is leader, the first check pass
     // 2. slot moved and data cleaned
@@ -75,13 +108,29 @@ public abstract class BaseGetDataHandler<T> extends AbstractDataHandler<T> {
     // push empty
     // so, need a double check slot access, make sure the slot's leader not change in the getting
     final SlotAccess slotAccessAfter =
-        checkAccess(dataCenter, dataInfoId, slotTableEpoch, slotLeaderEpoch);
+        checkReadAccess(dataCenter, dataInfoId, slotTableEpoch, slotLeaderEpoch, followerRead);
     if (slotAccessAfter.getSlotLeaderEpoch() != slotAccessBefore.getSlotLeaderEpoch()) {
       // the slot's leader has change
       GET_DATUM_N_COUNTER.inc();
       return buildResponse(
           false, slotAccessAfter, null, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
     }
+    if (followerRead) {
+      // the follower could not tell the datum not exists or not synced, the leader serves it
+      if (datum == null || datum.getVersion() < minVersion) {
+        GET_DATUM_N_COUNTER.inc();
+        GET_DATUM_FOLLOWER_N_COUNTER.inc();
+        return buildResponse(
+            false,
+            slotAccessAfter,
+            null,
+            StringFormatter.format(
+                "follower not caught up, version={}, minVersion={}",
+                datum == null ? null : datum.getVersion(),
+                minVersion));
+      }
+      GET_DATUM_FOLLOWER_Y_COUNTER.inc();
+    }
 
     GET_DATUM_Y_COUNTER.inc();
 
@@ -90,10 +139,72 @@ public abstract class BaseGetDataHandler<T> extends AbstractDataHandler<T> {
     return buildResponse(true, slotAccessAfter, zipDatum, "");
   }
 
+  private SlotAccess checkReadAccess(
+      String dataCenter,
+      String dataInfoId,
+      long slotTableEpoch,
+      long slotLeaderEpoch,
+      boolean followerRead) {
+    if (!followerRead) {
+      return checkAccess(dataCenter, dataInfoId, slotTableEpoch, slotLeaderEpoch);
+    }
+    return slotAccessorDelegate.checkFollowerReadAccess(
+        dataCenter, slotAccessorDelegate.slotOf(dataInfoId), slotTableEpoch, slotLeaderEpoch);
+  }
+
+  protected void checkMultiDataRequest(GetMultiDataRequest request) {
+    ParaCheckUtil.checkNotBlank(request.getDataInfoId(), "GetMultiDataRequest.dataInfoId");
+    ParaCheckUtil.checkNotEmpty(
+        request.getSlotTableEpochs(), "GetMultiDataRequest.slotTableEpochs");
+    ParaCheckUtil.checkNotEmpty(
+        request.getSlotLeaderEpochs(), "GetMultiDataRequest.slotLeaderEpochs");
+
+    for (Entry<String, Long> entry : request.getSlotTableEpochs().entrySet()) {
+      String dataCenter = entry.getKey();
+      ParaCheckUtil.checkNotNull(entry.getValue(), dataCenter + ".slotTableEpoch");
+      ParaCheckUtil.checkNotNull(
+          request.getSlotLeaderEpochs().get(dataCenter), dataCenter + ".slotLeaderEpoch");
+    }
+  }
+
+  protected MultiSlotAccessGenericResponse<MultiSubDatum> processMultiData(
+      Channel channel, GetMultiDataRequest request) {
+    int dataCenterSize = request.getSlotLeaderEpochs().size();
+
+    boolean success = true;
+    StringBuilder builder = new StringBuilder();
+    Map<String, SlotAccess> slotAccessMap = Maps.newHashMapWithExpectedSize(dataCenterSize);
+    Map<String, SubDatum> datumMap = Maps.newHashMapWithExpectedSize(dataCenterSize);
+    for (Entry<String, Long> entry : request.getSlotTableEpochs().entrySet()) {
+      String dataCenter = entry.getKey();
+      dataChangeEventCenter.onSessionInterest(
+          channel.getRemoteAddress().getAddress().getHostAddress(),
+          dataCenter,
+          request.getDataInfoId());
+      SlotAccessGenericResponse<SubDatum> res =
+          processSingleDataCenter(
+              dataCenter,
+              request.getDataInfoId(),
+              entry.getValue(),
+              request.getSlotLeaderEpochs().get(dataCenter),
+              request.getAcceptEncodes(),
+              request.getMinVersions() == null ? null : request.getMinVersions().get(dataCenter));
+
+      if (!res.isSuccess()) {
+        success = false;
+        builder.append(StringFormatter.format("{}:{}.", dataCenter, res.getMessage()));
+      }
+      slotAccessMap.put(dataCenter, res.getSlotAccess());
+      datumMap.put(dataCenter, res.getData());
+    }
+    MultiSubDatum data = new MultiSubDatum(request.getDataInfoId(), datumMap);
+
+    return new MultiSlotAccessGenericResponse(success, builder.toString(), data, slotAccessMap);
+  }
+
   private SubDatum zipDatum(
-      String dataInfoId, String dataCenter, Datum datum, String[] acceptEncodes) {
+      String dataInfoId, String dataCenter, SubDatum subDatum, String[] acceptEncodes) {
     // return SubDatum, it's serdeSize and memoryOverhead much smaller than Datum
-    SubDatum subDatum = datum != null ? DatumUtils.of(datum) : null;
 
     Compressor compressor = compressDatumService.getCompressor(subDatum, acceptEncodes);
 
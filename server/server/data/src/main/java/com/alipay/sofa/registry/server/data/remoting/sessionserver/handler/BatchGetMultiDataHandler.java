@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_DATUM_BATCH_COUNTER;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.ArrayList;
+import java.util.List;
+
+/** handle the GetMultiDataRequests of many dataInfoIds in one request, one response per request */
+public class BatchGetMultiDataHandler extends BaseGetDataHandler<BatchGetMultiDataRequest> {
+
+  @Override
+  public void checkParam(BatchGetMultiDataRequest request) {
+    ParaCheckUtil.checkNotEmpty(request.getRequests(), "BatchGetMultiDataRequest.requests");
+    for (GetMultiDataRequest req : request.getRequests()) {
+      checkMultiDataRequest(req);
+    }
+    checkSessionProcessId(request.getSessionProcessId());
+  }
+
+  @Override
+  public Class interest() {
+    return BatchGetMultiDataRequest.class;
+  }
+
+  @Override
+  public GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> doHandle(
+      Channel channel, BatchGetMultiDataRequest request) {
+    processSessionProcessId(channel, request.getSessionProcessId());
+    List<MultiSlotAccessGenericResponse<MultiSubDatum>> responses =
+        new ArrayList<>(request.getRequests().size());
+    for (GetMultiDataRequest req : request.getRequests()) {
+      MultiSlotAccessGenericResponse<MultiSubDatum> res = processMultiData(channel, req);
+      GET_DATUM_BATCH_COUNTER.labels(res.isSuccess() ? "Y" : "N").inc();
+      responses.add(res);
+    }
+    return new GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>>()
+        .fillSucceed(responses);
+  }
+
+  @Override
+  public CommonResponse buildFailedResponse(String msg) {
+    return new GenericResponse().fillFailed(msg);
+  }
+}
@@ -69,6 +69,7 @@ public class BatchPutDataHandler extends AbstractDataHandler<BatchRequest> {
 
   public SlotAccessGenericResponse<Object> handleRequest(
       BatchRequest request, ProcessId sessionProcessId) {
+    final long receiveTimestamp = System.currentTimeMillis();
     final SlotAccess slotAccess =
         checkAccess(
             dataServerConfig.getLocalDataCenter(),
@@ -136,7 +137,11 @@ public class BatchPutDataHandler extends AbstractDataHandler<BatchRequest> {
       // if has exception, try to notify the req which was handled
       if (!changeDataInfoIds.isEmpty()) {
         dataChangeEventCenter.onChange(
-            changeDataInfoIds, DataChangeType.PUT, dataServerConfig.getLocalDataCenter());
+            changeDataInfoIds,
+            DataChangeType.PUT,
+            dataServerConfig.getLocalDataCenter(),
+            receiveTimestamp,
+            System.currentTimeMillis());
       }
     }
 
@@ -40,6 +40,10 @@ public class GetDataHandler extends BaseGetDataHandler<GetDataRequest> {
   @Override
   public SlotAccessGenericResponse<SubDatum> doHandle(Channel channel, GetDataRequest request) {
     processSessionProcessId(channel, request.getSessionProcessId());
+    dataChangeEventCenter.onSessionInterest(
+        channel.getRemoteAddress().getAddress().getHostAddress(),
+        request.getDataCenter(),
+        request.getDataInfoId());
 
     return processSingleDataCenter(
         request.getDataCenter(),
@@ -66,6 +66,12 @@ public class GetDataVersionsHandler extends AbstractDataHandler<GetDataVersionRe
       return SlotAccessGenericResponse.failedResponse(slotAccessBefore);
     }
     final Map<String, DatumVersion> interests = request.getInterests();
+    // the scan carries all the dataInfoIds the session subscribes in the slot
+    dataChangeEventCenter.onSessionInterests(
+        channel.getRemoteAddress().getAddress().getHostAddress(),
+        dataCenter,
+        slotId,
+        interests.keySet());
     Map<String /*dataInfoId*/, DatumVersion> getVersions =
         datumStorageDelegate.getVersions(dataCenter, slotId, interests.keySet());
     // double check slot access, @see GetDataHandler
@@ -19,16 +19,8 @@ package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
 import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
-import com.alipay.sofa.registry.common.model.slot.SlotAccess;
-import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
-import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.remoting.Channel;
-import com.alipay.sofa.registry.util.ParaCheckUtil;
-import com.alipay.sofa.registry.util.StringFormatter;
-import com.google.common.collect.Maps;
-import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * @author xiaojian.xj
@@ -38,19 +30,7 @@ public class GetMultiDataHandler extends BaseGetDataHandler<GetMultiDataRequest>
 
   @Override
   public void checkParam(GetMultiDataRequest request) {
-    ParaCheckUtil.checkNotBlank(request.getDataInfoId(), "GetMultiDataRequest.dataInfoId");
-    ParaCheckUtil.checkNotEmpty(
-        request.getSlotTableEpochs(), "GetMultiDataRequest.slotTableEpochs");
-    ParaCheckUtil.checkNotEmpty(
-        request.getSlotLeaderEpochs(), "GetMultiDataRequest.slotLeaderEpochs");
-
-    for (Entry<String, Long> entry : request.getSlotTableEpochs().entrySet()) {
-      String dataCenter = entry.getKey();
-      ParaCheckUtil.checkNotNull(entry.getValue(), dataCenter + ".slotTableEpoch");
-      ParaCheckUtil.checkNotNull(
-          request.getSlotLeaderEpochs().get(dataCenter), dataCenter + ".slotLeaderEpoch");
-    }
-
+    checkMultiDataRequest(request);
     checkSessionProcessId(request.getSessionProcessId());
   }
 
@@ -75,33 +55,7 @@ public class GetMultiDataHandler extends BaseGetDataHandler<GetMultiDataRequest>
   public MultiSlotAccessGenericResponse<MultiSubDatum> doHandle(
       Channel channel, GetMultiDataRequest request) {
     processSessionProcessId(channel, request.getSessionProcessId());
-
-    int dataCenterSize = request.getSlotLeaderEpochs().size();
-
-    boolean success = true;
-    StringBuilder builder = new StringBuilder();
-    Map<String, SlotAccess> slotAccessMap = Maps.newHashMapWithExpectedSize(dataCenterSize);
-    Map<String, SubDatum> datumMap = Maps.newHashMapWithExpectedSize(dataCenterSize);
-    for (Entry<String, Long> entry : request.getSlotTableEpochs().entrySet()) {
-      String dataCenter = entry.getKey();
-      SlotAccessGenericResponse<SubDatum> res =
-          processSingleDataCenter(
-              dataCenter,
-              request.getDataInfoId(),
-              entry.getValue(),
-              request.getSlotLeaderEpochs().get(dataCenter),
-              request.getAcceptEncodes());
-
-      if (!res.isSuccess()) {
-        success = false;
-        builder.append(StringFormatter.format("{}:{}.", dataCenter, res.getMessage()));
-      }
-      slotAccessMap.put(dataCenter, res.getSlotAccess());
-      datumMap.put(dataCenter, res.getData());
-    }
-    MultiSubDatum data = new MultiSubDatum(request.getDataInfoId(), datumMap);
-
-    return new MultiSlotAccessGenericResponse(success, builder.toString(), data, slotAccessMap);
+    return processMultiData(channel, request);
   }
 
   @Override
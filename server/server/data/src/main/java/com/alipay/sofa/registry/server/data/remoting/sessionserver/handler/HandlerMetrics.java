@@ -41,6 +41,30 @@ public final class HandlerMetrics {
             .name("getP_total")
             .help("session get publisher")
             .register();
+
+    // the count of GetMultiDataRequests carried by BatchGetMultiDataRequest
+    static final Counter GET_DATUM_BATCH_COUNTER =
+        Counter.build()
+            .namespace("data")
+            .subsystem("remote")
+            .name("getD_batch_total")
+            .help("session batch get datum")
+            .labelNames("type")
+            .register();
+
+    private static final Counter GET_DATUM_FOLLOWER_COUNTER =
+        Counter.build()
+            .namespace("data")
+            .subsystem("remote")
+            .name("getD_follower_total")
+            .help("session get datum from follower")
+            .labelNames("type")
+            .register();
+
+    static final Counter.Child GET_DATUM_FOLLOWER_Y_COUNTER =
+        GET_DATUM_FOLLOWER_COUNTER.labels("Y");
+    static final Counter.Child GET_DATUM_FOLLOWER_N_COUNTER =
+        GET_DATUM_FOLLOWER_COUNTER.labels("N");
   }
 
   static final class GetVersion {
@@ -20,6 +20,7 @@ import com.alipay.remoting.Connection;
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
@@ -31,12 +32,19 @@ import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.MetaServerServiceImpl;
+import com.alipay.sofa.registry.util.JsonUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.collect.Lists;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
@@ -53,6 +61,8 @@ public class DataDigestResource {
 
   private static final String META = "META";
 
+  private static final String NDJSON = "application/x-ndjson";
+
   @Autowired Exchange boltExchange;
 
   @Autowired MetaServerServiceImpl metaServerService;
@@ -189,25 +199,17 @@ public class DataDigestResource {
   @Produces(MediaType.APPLICATION_JSON)
   public Collection<String> getDataInfoIdList() {
     try {
-      Map<String, Map<String, Datum>> allMap = datumStorageDelegate.getLocalAll();
+      // only count the publishers, not build the datum copies
+      Map<String, Map<String, Integer>> allMap = datumStorageDelegate.getLocalPubCount();
       if (CollectionUtils.isEmpty(allMap)) {
         return Collections.emptyList();
       }
       List<String> dataInfos = Lists.newArrayListWithCapacity(1024);
       StringBuilder builder = new StringBuilder(128);
-      for (Entry<String, Map<String, Datum>> dataCenterEntry : allMap.entrySet()) {
+      for (Entry<String, Map<String, Integer>> dataCenterEntry : allMap.entrySet()) {
         String dataCenter = dataCenterEntry.getKey();
-        Map<String, Datum> datumMap = dataCenterEntry.getValue();
-        for (Datum datum : datumMap.values()) {
-          builder
-              .append(dataCenter)
-              .append(",")
-              .append(datum.getDataInfoId())
-              .append(",")
-              .append(datum.publisherSize());
-
-          dataInfos.add(builder.toString());
-          builder.setLength(0);
+        for (Entry<String, Integer> e : dataCenterEntry.getValue().entrySet()) {
+          dataInfos.add(toDataInfoLine(builder, dataCenter, e.getKey(), e.getValue()));
         }
       }
       return dataInfos;
@@ -216,4 +218,46 @@ public class DataDigestResource {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * curl "http://localhost:9622/digest/datum/getDataInfoIdList/stream", the same lines as
+   * getDataInfoIdList, written slot by slot from the storage
+   */
+  @GET
+  @Path("datum/getDataInfoIdList/stream")
+  @Produces(NDJSON)
+  public Response streamDataInfoIdList() {
+    final String dataCenter = dataServerConfig.getLocalDataCenter();
+    return Response.ok()
+        .type(NDJSON)
+        .entity(
+            (StreamingOutput)
+                output -> {
+                  Writer writer =
+                      new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                  StringBuilder builder = new StringBuilder(128);
+                  for (int slotId = 0; slotId < SlotConfig.SLOT_NUM; slotId++) {
+                    List<String> lines = Lists.newArrayList();
+                    datumStorageDelegate.foreach(
+                        dataCenter,
+                        slotId,
+                        (dataInfoId, group) ->
+                            lines.add(
+                                toDataInfoLine(builder, dataCenter, dataInfoId, group.pubSize())));
+                    for (String line : lines) {
+                      writer.write(JsonUtils.writeValueAsString(line));
+                      writer.write('\n');
+                    }
+                  }
+                  writer.flush();
+                })
+        .build();
+  }
+
+  private static String toDataInfoLine(
+      StringBuilder builder, String dataCenter, String dataInfoId, int pubSize) {
+    builder.setLength(0);
+    builder.append(dataCenter).append(",").append(dataInfoId).append(",").append(pubSize);
+    return builder.toString();
+  }
 }
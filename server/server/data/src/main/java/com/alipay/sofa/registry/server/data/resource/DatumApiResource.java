@@ -22,7 +22,9 @@ import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.dataserver.BatchRequest;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
@@ -33,7 +35,6 @@ import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.server.shared.remoting.AbstractServerHandler;
-import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.google.common.collect.Lists;
 import java.util.*;
 import javax.ws.rs.GET;
@@ -239,9 +240,15 @@ public class DatumApiResource {
   private Map<String, Long> _getDatumVersions(DatumParam datumParam) {
     Map<String, Long> datumVersions = new HashMap<>();
     if (dataServerConfig.isLocalDataCenter(datumParam.getDataCenter())) {
-      Map<String, Datum> localDatums =
-          datumStorageDelegate.getAll(dataServerConfig.getLocalDataCenter());
-      return DatumUtils.getVersions(localDatums);
+      // read the versions slot by slot, not build the datum copies
+      final String dataCenter = dataServerConfig.getLocalDataCenter();
+      for (int slotId = 0; slotId < SlotConfig.SLOT_NUM; slotId++) {
+        Map<String, DatumVersion> versions =
+            datumStorageDelegate.getVersions(dataCenter, slotId, null);
+        for (Map.Entry<String, DatumVersion> e : versions.entrySet()) {
+          datumVersions.put(e.getKey(), e.getValue().getValue());
+        }
+      }
     } else {
       // TODO need support remote datecenter
       LOGGER.error("unsupport remote datacenter, {}", datumParam.getDataCenter());
@@ -274,10 +281,12 @@ public class DatumApiResource {
   public Object getDatumSizes() {
     Map<String, Integer> datumSizes = new HashMap<>();
 
-    Map<String, Datum> localDatums =
-        datumStorageDelegate.getAll(dataServerConfig.getLocalDataCenter());
-    int localDatumSize = localDatums.size();
-    datumSizes.put(dataServerConfig.getLocalDataCenter(), localDatumSize);
+    final String dataCenter = dataServerConfig.getLocalDataCenter();
+    final int[] localDatumSize = new int[1];
+    for (int slotId = 0; slotId < SlotConfig.SLOT_NUM; slotId++) {
+      datumStorageDelegate.foreach(dataCenter, slotId, (k, v) -> localDatumSize[0]++);
+    }
+    datumSizes.put(dataServerConfig.getLocalDataCenter(), localDatumSize[0]);
     // TODO remote cluster
     return datumSizes;
   }
@@ -298,11 +307,11 @@ public class DatumApiResource {
     String dataServer = null;
     Long version = null;
     if (dataServerConfig.isLocalDataCenter(datumParam.getDataCenter())) {
-      Map<String, Datum> localDatums =
-          datumStorageDelegate.getAll(dataServerConfig.getLocalDataCenter());
-      Datum datum = localDatums.get(datumParam.getDataInfoId());
-      if (datum != null) {
-        version = datum.getVersion();
+      DatumVersion datumVersion =
+          datumStorageDelegate.getVersion(
+              dataServerConfig.getLocalDataCenter(), datumParam.getDataInfoId());
+      if (datumVersion != null) {
+        version = datumVersion.getValue();
       }
     } else {
       // TODO unsupport remote cluster
@@ -34,6 +34,19 @@ public interface SlotAccessor {
 
   SlotAccess checkSlotAccess(String dataCenter, int slotId, long srcSlotEpoch, long srcLeaderEpoch);
 
+  /**
+   * check the local is a follower of the slot which is in sync with the leader, could serve the
+   * version bounded reads
+   *
+   * @param dataCenter dataCenter
+   * @param slotId slotId
+   * @param srcSlotEpoch slotTableEpoch of the requester
+   * @param srcLeaderEpoch slotLeaderEpoch of the requester
+   * @return Accept if the follower could serve the read
+   */
+  SlotAccess checkFollowerReadAccess(
+      String dataCenter, int slotId, long srcSlotEpoch, long srcLeaderEpoch);
+
   boolean isLeader(String dataCenter, int slotId);
 
   boolean isFollower(String dataCenter, int slotId);
@@ -58,6 +58,13 @@ public class SlotAccessorDelegate implements SlotAccessor {
     return accessOf(dataCenter).checkSlotAccess(dataCenter, slotId, srcSlotEpoch, srcLeaderEpoch);
   }
 
+  @Override
+  public SlotAccess checkFollowerReadAccess(
+      String dataCenter, int slotId, long srcSlotEpoch, long srcLeaderEpoch) {
+    return accessOf(dataCenter)
+        .checkFollowerReadAccess(dataCenter, slotId, srcSlotEpoch, srcLeaderEpoch);
+  }
+
   @Override
   public boolean isLeader(String dataCenter, int slotId) {
     return accessOf(dataCenter).isLeader(dataCenter, slotId);
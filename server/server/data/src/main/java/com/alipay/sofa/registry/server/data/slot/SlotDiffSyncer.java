@@ -262,7 +262,8 @@ public final class SlotDiffSyncer {
       String summaryTargetIp,
       int maxPublishers,
       SyncContinues continues,
-      Map<String, DatumSummary> summaryMap) {
+      Map<String, DatumSummary> summaryMap,
+      Map<String, DatumVersion> localVersions) {
     final boolean syncSession = summaryTargetIp != null;
     if (syncSession) {
       SyncSession.observeSyncSessionId(slotId, summaryMap.size());
@@ -288,6 +289,11 @@ public final class SlotDiffSyncer {
     if (result == null) {
       return false;
     }
+    if (localVersions != null && result.getDatumVersions() != null) {
+      // the same digest datums are served by the follower reads under the leader versions
+      datumStorageDelegate.updateLeaderVersions(
+          syncDataCenter, slotId, localVersions, result.getDatumVersions(), slotLeaderEpoch);
+    }
     if (result.getUpdateAndAddSize() == 0) {
       // no change of update and add
       return true;
@@ -470,7 +476,8 @@ public final class SlotDiffSyncer {
         sessionIp,
         dataServerConfig.getSlotSyncPublisherDigestMaxNum(),
         continues,
-        summary);
+        summary,
+        null);
   }
 
   public boolean syncSlotLeader(
@@ -485,6 +492,10 @@ public final class SlotDiffSyncer {
       SyncContinues continues)
       throws RequestException {
     ParaCheckUtil.checkNotBlank(slotLeaderIp, "slotLeaderIp");
+    // read the versions before the summaries, the datum changed after read is not marked as the
+    // leader's
+    final Map<String, DatumVersion> localVersions =
+        syncLocal ? datumStorageDelegate.getVersions(syncDataCenter, slotId, null) : null;
     Map<String, DatumSummary> summaries = Maps.newHashMap();
     datumStorageDelegate.foreach(
         syncDataCenter,
@@ -502,7 +513,8 @@ public final class SlotDiffSyncer {
         null,
         dataServerConfig.getSlotSyncPublisherDigestMaxNum(),
         continues,
-        summaries);
+        summaries,
+        localVersions);
   }
 
   static Map<String, DatumSummary> pickSummaries(Map<String, DatumSummary> syncSummaries, int n) {
@@ -43,6 +43,7 @@ import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
 import com.alipay.sofa.registry.task.TaskErrorSilenceException;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.SystemUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
@@ -73,6 +74,12 @@ public final class SlotManagerImpl implements SlotManager {
 
   private static final Logger DIFF_LOGGER = LoggerFactory.getLogger("SYNC-DIFF");
 
+  private static final String KEY_SLOT_WEIGHT_REFRESH_MILLIS =
+      "registry.data.slot.weight_refresh_millis";
+  // the weight is counted by scanning the slot, not refresh it at every heartbeat
+  private static final long SLOT_WEIGHT_REFRESH_MILLIS =
+      SystemUtils.getSystemLong(KEY_SLOT_WEIGHT_REFRESH_MILLIS, 60000);
+
   private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
 
   @Autowired private DataNodeExchanger dataNodeExchanger;
@@ -189,6 +196,64 @@ public final class SlotManagerImpl implements SlotManager {
         slotId, currentSlotTableEpoch, SlotAccess.Status.Accept, slot.getLeaderEpoch());
   }
 
+  @Override
+  public SlotAccess checkFollowerReadAccess(
+      String dataCenter, int slotId, long srcSlotEpoch, long srcLeaderEpoch) {
+    SlotTable currentSlotTable;
+    SlotState state;
+    updateLock.readLock().lock();
+    try {
+      currentSlotTable = slotTableStates.table;
+      state = slotTableStates.slotStates.get(slotId);
+    } finally {
+      updateLock.readLock().unlock();
+    }
+
+    final long currentEpoch = currentSlotTable.getEpoch();
+    if (currentEpoch < srcSlotEpoch) {
+      triggerUpdateSlotTable(srcSlotEpoch);
+    }
+    return checkFollowerReadAccess(
+        slotId,
+        currentEpoch,
+        state,
+        srcLeaderEpoch,
+        followerReadMaxLagMillis(dataServerConfig.getSlotFollowerSyncLeaderIntervalSecs()));
+  }
+
+  /**
+   * the follower serves the reads if it synced with the leader within two sync intervals, tolerate
+   * one failed sync. the datum served is the one synced as the leader's, not older than the min
+   * version of the read
+   */
+  static long followerReadMaxLagMillis(int syncLeaderIntervalSecs) {
+    return syncLeaderIntervalSecs * 2 * 1000L;
+  }
+
+  static SlotAccess checkFollowerReadAccess(
+      int slotId, long currentSlotTableEpoch, SlotState state, long srcLeaderEpoch, long maxLag) {
+    if (state == null) {
+      return new SlotAccess(slotId, currentSlotTableEpoch, SlotAccess.Status.Moved, -1);
+    }
+    final Slot slot = state.slot;
+    if (!slot.getFollowers().contains(ServerEnv.IP)) {
+      return new SlotAccess(
+          slotId, currentSlotTableEpoch, SlotAccess.Status.Moved, slot.getLeaderEpoch());
+    }
+    if (slot.getLeaderEpoch() != srcLeaderEpoch) {
+      return new SlotAccess(
+          slotId, currentSlotTableEpoch, SlotAccess.Status.MisMatch, slot.getLeaderEpoch());
+    }
+    // not synced with the leader recently, the data maybe too old
+    final long lastSync = state.lastSuccessLeaderSyncTime;
+    if (maxLag <= 0 || lastSync <= 0 || System.currentTimeMillis() - lastSync > maxLag) {
+      return new SlotAccess(
+          slotId, currentSlotTableEpoch, SlotAccess.Status.Migrating, slot.getLeaderEpoch());
+    }
+    return new SlotAccess(
+        slotId, currentSlotTableEpoch, SlotAccess.Status.Accept, slot.getLeaderEpoch());
+  }
+
   public boolean hasSlot() {
     updateLock.readLock().lock();
     try {
@@ -225,6 +290,7 @@ public final class SlotManagerImpl implements SlotManager {
                   slotState.migrated
                       ? BaseSlotStatus.LeaderStatus.HEALTHY
                       : BaseSlotStatus.LeaderStatus.UNHEALTHY);
+          status.setWeight(getSlotWeight(slotState));
           slotStatuses.add(status);
         } else {
           final KeyedTask syncLeaderTask = slotState.syncLeaderTask;
@@ -745,6 +811,8 @@ public final class SlotManagerImpl implements SlotManager {
     final Map<String, MigratingTask> migratingTasks = Maps.newTreeMap();
     final Map<String, KeyedTask<SyncSessionTask>> syncSessionTasks = Maps.newTreeMap();
     volatile KeyedTask<SyncLeaderTask> syncLeaderTask;
+    volatile long weight;
+    volatile long weightTimestamp;
 
     SlotState(Slot slot) {
       this.slotId = slot.getId();
@@ -938,6 +1006,26 @@ public final class SlotManagerImpl implements SlotManager {
     return ret;
   }
 
+  long getSlotWeight(SlotState slotState) {
+    // the publishers are partial before migrated, the weight is unknown and not cached
+    if (!slotState.migrated) {
+      slotState.weightTimestamp = 0;
+      return 0;
+    }
+    final long now = System.currentTimeMillis();
+    if (now - slotState.weightTimestamp < SLOT_WEIGHT_REFRESH_MILLIS) {
+      return slotState.weight;
+    }
+    final long[] pubCount = new long[1];
+    datumStorageDelegate.foreach(
+        dataServerConfig.getLocalDataCenter(),
+        slotState.slotId,
+        (dataInfoId, group) -> pubCount[0] += group.pubSize());
+    slotState.weight = pubCount[0];
+    slotState.weightTimestamp = now;
+    return slotState.weight;
+  }
+
   @Override
   public Tuple<Long, List<BaseSlotStatus>> getSlotTableEpochAndStatuses(String dataCenter) {
     updateLock.readLock().lock();
@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PublisherArenaTest {
+
+  @Test
+  public void testReadWrite() {
+    PublisherArena arena = new PublisherArena(1024);
+    List<Long> handles = Lists.newArrayList();
+    List<Publisher> publishers = Lists.newArrayList();
+    for (int i = 0; i < 20; i++) {
+      Publisher publisher = TestBaseUtils.createTestPublisher("testDataId");
+      publisher.setDataList(
+          Collections.singletonList(new ServerDataBox(ServerDataBox.getBytes("data-" + i))));
+      publishers.add(publisher);
+      handles.add(arena.write(publisher));
+    }
+    Assert.assertTrue(arena.slabNum() > 1);
+    for (int i = 0; i < handles.size(); i++) {
+      Publisher expect = publishers.get(i);
+      Publisher actual = arena.read(handles.get(i));
+      Assert.assertEquals(expect.getRegisterId(), actual.getRegisterId());
+      Assert.assertEquals(expect.registerVersion(), actual.registerVersion());
+      Assert.assertEquals(expect.connectId(), actual.connectId());
+      Assert.assertEquals(expect.getDataList(), actual.getDataList());
+    }
+
+    // free all publishers of the first slab, release after grace
+    final int slabs = arena.slabNum();
+    final long firstSlab = handles.get(0) >>> 32;
+    for (long handle : handles) {
+      if (handle >>> 32 == firstSlab) {
+        arena.free(handle);
+      }
+    }
+    Assert.assertEquals(0, arena.releaseEmptySlabs(0));
+    Assert.assertNotNull(arena.read(handles.get(0)));
+    Assert.assertEquals(1, arena.releaseEmptySlabs(System.currentTimeMillis() + 1));
+    Assert.assertEquals(slabs - 1, arena.slabNum());
+    Assert.assertNull(arena.read(handles.get(0)));
+    Assert.assertNotNull(arena.read(handles.get(handles.size() - 1)));
+
+    arena.close();
+    Assert.assertEquals(0, arena.slabNum());
+    Assert.assertEquals(0, arena.usedBytes());
+    Assert.assertNull(arena.read(handles.get(handles.size() - 1)));
+    Assert.assertEquals(PublisherEnvelope.NO_HANDLE, arena.write(publishers.get(0)));
+  }
+
+  @Test
+  public void testGroup() {
+    PublisherArena arena = new PublisherArena(1024);
+    Publisher publisher = TestBaseUtils.createTestPublisher("testDataId");
+    PublisherGroup group = new PublisherGroup(publisher.getDataInfoId(), "dc", arena);
+    Assert.assertNotNull(group.addPublisher(publisher));
+    PublisherEnvelope envelope = group.pubMap.get(publisher.getRegisterId());
+    Assert.assertTrue(envelope.isInArena());
+    Assert.assertNull(envelope.publisher);
+    Assert.assertEquals(PublishSource.CLIENT, envelope.getPublishSource());
+    Assert.assertTrue(envelope.isConnectId(publisher.connectId()));
+    Assert.assertFalse(
+        envelope.isConnectId(
+            ConnectId.of("127.0.0.2:9999", publisher.getTargetAddress().buildAddressString())));
+
+    Datum datum = group.toDatum();
+    Assert.assertEquals(1, datum.publisherSize());
+    Assert.assertEquals(
+        publisher.getRegisterId(), datum.getPubMap().values().iterator().next().getRegisterId());
+    Assert.assertEquals(1, group.getByConnectId(publisher.connectId()).size());
+
+    // the same publisher, not change
+    Assert.assertNull(group.addPublisher(publisher));
+
+    // newer version replace the exist
+    Publisher newer = TestBaseUtils.cloneBase(publisher);
+    newer.setVersion(publisher.getVersion() + 1);
+    newer.setDataList(Collections.singletonList(new ServerDataBox(ServerDataBox.getBytes("x"))));
+    Assert.assertNotNull(group.addPublisher(newer));
+    Assert.assertEquals(newer.getVersion(), group.getPublishers().get(0).getVersion());
+
+    // newer version with the same dataList, not change
+    Publisher sameData = TestBaseUtils.cloneBase(newer);
+    sameData.setVersion(newer.getVersion() + 1);
+    sameData.setDataList(Collections.singletonList(new ServerDataBox(ServerDataBox.getBytes("x"))));
+    Assert.assertEquals(
+        PublisherEnvelope.dataListHash(newer.getDataList()),
+        group.pubMap.get(newer.getRegisterId()).dataListHash);
+    Assert.assertTrue(
+        group.pubMap.get(newer.getRegisterId()).isSameDataList(sameData.getDataList()));
+    Assert.assertNull(group.addPublisher(sameData));
+    Assert.assertEquals(sameData.getVersion(), group.getPublishers().get(0).getVersion());
+    newer = sameData;
+
+    // make the first slab sparse and compact
+    for (int i = 0; i < 10; i++) {
+      group.addPublisher(TestBaseUtils.createTestPublisher("testDataId"));
+    }
+    Assert.assertTrue(arena.slabNum() > 1);
+    final int pubSize = group.pubSize();
+    group.compactArena();
+    for (PublisherEnvelope e : group.pubMap.values()) {
+      Assert.assertFalse(arena.needCompact(e.handle));
+    }
+    Assert.assertEquals(pubSize, group.getPublishers().size());
+
+    // remove and clean
+    Assert.assertNotNull(
+        group.remove(
+            null,
+            Collections.singletonMap(
+                newer.getRegisterId(),
+                RegisterVersion.of(newer.getVersion(), newer.getRegisterTimestamp()))));
+    Assert.assertEquals(pubSize - 1, group.getPublishers().size());
+    Assert.assertNotNull(group.clearPublishers());
+    Assert.assertEquals(0, group.getPublishers().size());
+    arena.releaseEmptySlabs(System.currentTimeMillis() + 1);
+    Assert.assertEquals(1, arena.slabNum());
+  }
+
+  @Test
+  public void testRollEmptyActive() {
+    PublisherArena arena = new PublisherArena(1024);
+    Publisher publisher = TestBaseUtils.createTestPublisher("testDataId");
+    long handle = arena.write(publisher);
+    // the active slab becomes empty, not released while it is active
+    arena.free(handle);
+    Assert.assertEquals(0, arena.releaseEmptySlabs(System.currentTimeMillis() + 1));
+
+    // roll over, the empty slab is released after grace
+    long last = handle;
+    while (last >>> 32 == handle >>> 32) {
+      last = arena.write(TestBaseUtils.createTestPublisher("testDataId"));
+    }
+    Assert.assertEquals(2, arena.slabNum());
+    Assert.assertEquals(1, arena.releaseEmptySlabs(System.currentTimeMillis() + 1));
+    Assert.assertEquals(1, arena.slabNum());
+    arena.close();
+  }
+
+  @Test
+  public void testReuseIndex() {
+    PublisherArena arena = new PublisherArena(1024);
+    List<Long> handles = Lists.newArrayList();
+    while (arena.slabNum() < 3) {
+      handles.add(arena.write(TestBaseUtils.createTestPublisher("testDataId")));
+    }
+    final long first = handles.get(0);
+    for (long handle : handles) {
+      if (handle >>> 32 == first >>> 32) {
+        arena.free(handle);
+      }
+    }
+    Assert.assertEquals(1, arena.releaseEmptySlabs(System.currentTimeMillis() + 1));
+
+    // the released index is reused by the next slab with a new generation
+    Assert.assertEquals(2, arena.slabNum());
+    long reused = first;
+    while (arena.slabNum() < 3) {
+      reused = arena.write(TestBaseUtils.createTestPublisher("testDataId"));
+    }
+    Assert.assertEquals(first >>> 32 & 0xFFFF, reused >>> 32 & 0xFFFF);
+    Assert.assertNotEquals(first >>> 48, reused >>> 48);
+    // the stale handle reads nothing from the new slab
+    Assert.assertNull(arena.read(first));
+    Assert.assertNull(arena.readSubPublisher(first));
+    Assert.assertNotNull(arena.read(reused));
+    arena.free(first);
+    Assert.assertNotNull(arena.read(reused));
+    arena.close();
+  }
+
+  @Test
+  public void testDoubleFree() {
+    PublisherArena arena = new PublisherArena(4096);
+    long first = arena.write(TestBaseUtils.createTestPublisher("testDataId"));
+    long second = arena.write(TestBaseUtils.createTestPublisher("testDataId"));
+    Assert.assertEquals(first >>> 32, second >>> 32);
+    long last = second;
+    while (last >>> 32 == first >>> 32) {
+      last = arena.write(TestBaseUtils.createTestPublisher("testDataId"));
+    }
+    // the tombstoned record is still readable until the slab is released
+    arena.free(first);
+    Assert.assertNotNull(arena.read(first));
+    // the double free is ignored, the slab is still alive with the second publisher
+    arena.free(first);
+    arena.free(first);
+    Assert.assertEquals(0, arena.releaseEmptySlabs(System.currentTimeMillis() + 1));
+    Assert.assertNotNull(arena.read(second));
+    Assert.assertNotNull(arena.readSubPublisher(second));
+
+    // a handle out of the written range is ignored
+    arena.free(second + 1024 * 1024);
+    Assert.assertNotNull(arena.read(second));
+    arena.close();
+  }
+
+  @Test
+  public void testSubDatum() {
+    PublisherArena arena = new PublisherArena(1024);
+    Publisher publisher = TestBaseUtils.createTestPublisher("testDataId");
+    publisher.setDataList(
+        Collections.singletonList(new ServerDataBox(ServerDataBox.getBytes("x"))));
+    long handle = arena.write(publisher);
+    SubPublisher sub = arena.readSubPublisher(handle);
+    Assert.assertEquals(publisher.getRegisterId(), sub.getRegisterId());
+    Assert.assertEquals(publisher.getVersion(), sub.getVersion());
+    Assert.assertEquals(publisher.getDataList(), sub.getDataList());
+    Assert.assertEquals(
+        publisher.getSourceAddress().buildAddressString(), sub.getSrcAddressString());
+    // the publisher stored in arena is not changed
+    Assert.assertEquals(1, publisher.getDataList().size());
+
+    PublisherGroup group = new PublisherGroup(publisher.getDataInfoId(), "dc", arena);
+    group.addPublisher(publisher);
+    SubDatum subDatum = group.toSubDatum();
+    Assert.assertEquals(group.getVersion().getValue(), subDatum.getVersion());
+    Assert.assertEquals(1, subDatum.mustGetPublishers().size());
+    Assert.assertEquals(publisher.getDataList(), subDatum.mustGetPublishers().get(0).getDataList());
+    arena.close();
+  }
+
+  @Test
+  public void testClose() {
+    PublisherArena arena = new PublisherArena(1024);
+    PublisherGroups groups = new PublisherGroups("dc", arena);
+    Publisher publisher = TestBaseUtils.createTestPublisher("testDataId");
+    Assert.assertNotNull(
+        groups.put(publisher.getDataInfoId(), Collections.singletonList(publisher)));
+    Assert.assertEquals(1, groups.getDatum(publisher.getDataInfoId()).publisherSize());
+    groups.close();
+    Assert.assertEquals(0, arena.slabNum());
+    // the publishers released by close are not dropped silently, the read fails
+    Assert.assertNull(groups.getDatum(publisher.getDataInfoId()));
+    Assert.assertNull(groups.getSubDatum(publisher.getDataInfoId()));
+    // write after closed, fallback to on heap
+    Publisher other = TestBaseUtils.createTestPublisher("testOtherDataId");
+    Assert.assertNotNull(groups.put(other.getDataInfoId(), Collections.singletonList(other)));
+    Assert.assertEquals(1, groups.getDatum(other.getDataInfoId()).publisherSize());
+  }
+}
@@ -387,4 +387,22 @@ public class PublisherGroupTest {
     Assert.assertEquals(conns.size(), 1);
     Assert.assertEquals(conns.get(newer.getRegisterId()), newer);
   }
+
+  @Test
+  public void testEstimateDataBoxBytes() {
+    Publisher publisher = TestBaseUtils.createTestPublisher("testDataId");
+    PublisherGroup group = new PublisherGroup(publisher.getDataInfoId(), "dc");
+    Assert.assertEquals(0, group.estimateDataBoxBytes());
+    publisher.setDataList(Lists.newArrayList(new ServerDataBox(ServerDataBox.getBytes("data"))));
+    group.addPublisher(publisher);
+    final int bytes = group.estimateDataBoxBytes();
+    Assert.assertTrue(bytes > 0);
+    Assert.assertEquals(group.toSubDatum().getDataBoxBytes(), bytes);
+    for (int i = 0; i < 5; i++) {
+      Publisher add = TestBaseUtils.createTestPublisher(publisher.getDataId());
+      add.setDataList(publisher.getDataList());
+      group.addPublisher(add);
+    }
+    Assert.assertEquals(bytes * 6, group.estimateDataBoxBytes());
+  }
 }
@@ -19,9 +19,15 @@ package com.alipay.sofa.registry.server.data.change;
 import static com.alipay.sofa.registry.server.data.change.ChangeMetrics.*;
 
 import com.alipay.sofa.registry.common.model.Node.NodeType;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.TraceTimes;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.bolt.exchange.BoltExchange;
@@ -30,6 +36,9 @@ import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.bootstrap.MultiClusterDataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.data.slot.SlotAccessorDelegate;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -49,6 +58,7 @@ public class DataChangeEventCenterTest {
   private DatumStorageDelegate datumStorageDelegate;
   private MultiClusterDataServerConfig multiClusterDataServerConfig;
   private DefaultCommonConfig defaultCommonConfig;
+  private SlotAccessorDelegate slotAccessorDelegate;
 
   private void setCenter() {
     this.center = new DataChangeEventCenter();
@@ -60,6 +70,8 @@ public class DataChangeEventCenterTest {
     center.setDatumDelegate(datumStorageDelegate);
     center.setMultiClusterDataServerConfig(multiClusterDataServerConfig);
     center.setDefaultCommonConfig(defaultCommonConfig);
+    this.slotAccessorDelegate = Mockito.mock(SlotAccessorDelegate.class);
+    center.setSlotAccessorDelegate(slotAccessorDelegate);
     dataServerConfig.setNotifyIntervalMillis(100);
   }
 
@@ -155,6 +167,119 @@ public class DataChangeEventCenterTest {
     Assert.assertTrue(ChangeMetrics.CHANGE_SKIP_COUNTER.get() == (pre + 1));
   }
 
+  @Test
+  public void testFilterInterests() {
+    setCenter();
+    Map<String, DatumVersion> changes = Maps.newHashMap();
+    changes.put("a", new DatumVersion(1));
+    changes.put("b", new DatumVersion(2));
+    // no summary
+    Assert.assertSame(changes, center.filterInterests(NodeType.SESSION, "s1", DC, changes));
+
+    SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
+    center.onSessionInterests("s1", DC, slotFunction.slotOf("a"), Lists.newArrayList("a"));
+    if (slotFunction.slotOf("b") != slotFunction.slotOf("a")) {
+      center.onSessionInterests("s1", DC, slotFunction.slotOf("b"), Collections.emptyList());
+    }
+    Assert.assertEquals(
+        Collections.singletonMap("a", new DatumVersion(1)),
+        center.filterInterests(NodeType.SESSION, "s1", DC, changes));
+    Assert.assertSame(changes, center.filterInterests(NodeType.DATA, "s1", DC, changes));
+
+    center.onSessionInterest("s1", DC, "b");
+    Assert.assertSame(changes, center.filterInterests(NodeType.SESSION, "s1", DC, changes));
+
+    center.onSessionInterests("s1", DC, slotFunction.slotOf("a"), Collections.emptyList());
+    center.onSessionInterests("s1", DC, slotFunction.slotOf("b"), Collections.emptyList());
+    Assert.assertTrue(center.filterInterests(NodeType.SESSION, "s1", DC, changes).isEmpty());
+
+    dataServerConfig.setNotifyInterestFilterEnabled(false);
+    Assert.assertSame(changes, center.filterInterests(NodeType.SESSION, "s1", DC, changes));
+  }
+
+  @Test
+  public void testMergePutStages() {
+    DataChangeMerger merger = new DataChangeMerger();
+    merger.addChanges(Collections.singletonList("a"), DataChangeType.LEASE);
+    merger.addChanges(Collections.singletonList("b"), DataChangeType.PUT, 10, 20);
+    merger.addChanges(Collections.singletonList("c"), DataChangeType.PUT, 30, 40);
+    // the stages of the first put
+    TraceTimes times = merger.createTraceTime();
+    Assert.assertEquals(10, times.getDataPutReceive());
+    Assert.assertEquals(20, times.getDataPutCommit());
+    Assert.assertTrue(times.getFirstDataChange() > 0);
+
+    merger.clear();
+    merger.addChanges(Collections.singletonList("a"), DataChangeType.PUT);
+    times = merger.createTraceTime();
+    Assert.assertEquals(0, times.getDataPutReceive());
+    Assert.assertEquals(0, times.getDataPutCommit());
+  }
+
+  @Test
+  public void testInlineDatums() {
+    setCenter();
+    Publisher pub = TestBaseUtils.createTestPublisher("testDataId");
+    pub.setDataList(Lists.newArrayList(new ServerDataBox(ServerDataBox.getBytes("testData"))));
+    datumStorageDelegate.getLocalDatumStorage().putPublisher(DC, pub);
+    DatumVersion v = datumStorageDelegate.getVersion(DC, pub.getDataInfoId());
+    Map<String, DatumVersion> changes = Maps.newHashMap();
+    changes.put(pub.getDataInfoId(), v);
+    changes.put("notExist", new DatumVersion(1));
+    Mockito.when(slotAccessorDelegate.getSlot(Mockito.anyString(), Mockito.anyInt()))
+        .thenReturn(new Slot(1, ServerEnv.IP, 1, Collections.emptyList()));
+    Mockito.when(
+            slotAccessorDelegate.checkSlotAccess(
+                Mockito.anyString(), Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+    // disabled
+    Assert.assertTrue(center.inlineDatums(DC, changes).isEmpty());
+
+    dataServerConfig.setNotifyInlineDatumMaxBytes(1);
+    Assert.assertTrue(center.inlineDatums(DC, changes).isEmpty());
+
+    dataServerConfig.setNotifyInlineDatumMaxBytes(1024 * 1024);
+    Map<String, SubDatum> datums = center.inlineDatums(DC, changes);
+    Assert.assertEquals(1, datums.size());
+    Assert.assertEquals(v.getValue(), datums.get(pub.getDataInfoId()).getVersion());
+    // the publishers are serialized once, shared by the notifies
+    SubDatum zipped = datums.get(pub.getDataInfoId());
+    Assert.assertNotNull(zipped.getZipPublishers());
+    Assert.assertSame(
+        zipped.getZipPublishers().getCompressedData(),
+        center
+            .inlineDatums(DC, changes)
+            .get(pub.getDataInfoId())
+            .getZipPublishers()
+            .getCompressedData());
+    Assert.assertEquals(
+        pub.getRegisterId(),
+        DatumUtils.decompressSubDatum(zipped).mustGetPublishers().get(0).getRegisterId());
+
+    // the version is newer than the datum
+    changes.put(pub.getDataInfoId(), new DatumVersion(v.getValue() + 1));
+    Assert.assertTrue(center.inlineDatums(DC, changes).isEmpty());
+    changes.put(pub.getDataInfoId(), v);
+
+    // the slot is migrating, the GetData would not serve it
+    Mockito.when(
+            slotAccessorDelegate.checkSlotAccess(
+                Mockito.anyString(), Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong()))
+        .thenReturn(TestBaseUtils.migrating());
+    Assert.assertTrue(center.inlineDatums(DC, changes).isEmpty());
+    // not the slot of the server
+    Mockito.when(slotAccessorDelegate.getSlot(Mockito.anyString(), Mockito.anyInt()))
+        .thenReturn(null);
+    Assert.assertTrue(center.inlineDatums(DC, changes).isEmpty());
+
+    Assert.assertSame(
+        datums,
+        DataChangeEventCenter.filterDatums(
+            Collections.singletonMap(pub.getDataInfoId(), v), datums));
+    Assert.assertTrue(
+        DataChangeEventCenter.filterDatums(Collections.singletonMap("a", v), datums).isEmpty());
+  }
+
   @Test
   public void testNotify() {
     setCenter();
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.change;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionInterestIndexTest {
+
+  @Test
+  public void test() {
+    SessionInterestIndex index = new SessionInterestIndex();
+    // unknown session, interest in everything
+    Assert.assertTrue(index.mayInterest("s1", "dc", 1, "a", 0));
+    index.add("s1", "dc", 1, "a");
+    Assert.assertEquals(0, index.size());
+
+    index.refresh("s1", "dc", 1, Lists.newArrayList("a", "b"));
+    Assert.assertTrue(index.mayInterest("s1", "dc", 1, "a", 0));
+    Assert.assertFalse(index.mayInterest("s1", "dc", 1, "c", 0));
+    // other slot or dataCenter has no summary
+    Assert.assertTrue(index.mayInterest("s1", "dc", 2, "c", 0));
+    Assert.assertTrue(index.mayInterest("s1", "dc2", 1, "c", 0));
+
+    index.add("s1", "dc", 1, "c");
+    Assert.assertTrue(index.mayInterest("s1", "dc", 1, "c", 0));
+    Assert.assertEquals(3, index.size());
+
+    // expired
+    Assert.assertTrue(index.mayInterest("s1", "dc", 1, "d", System.currentTimeMillis() + 1000));
+
+    index.refresh("s1", "dc", 1, Lists.newArrayList("d"));
+    Assert.assertFalse(index.mayInterest("s1", "dc", 1, "a", 0));
+    Assert.assertEquals(1, index.size());
+
+    index.retainSessions(Sets.newHashSet("s2"));
+    Assert.assertEquals(0, index.size());
+    Assert.assertTrue(index.mayInterest("s1", "dc", 1, "a", 0));
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.metaserver.handler;
+
+import static org.mockito.Mockito.*;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataBatchChangeEvent;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
+import com.alipay.sofa.registry.server.shared.providedata.ProvideDataProcessor;
+import com.alipay.sofa.registry.server.shared.providedata.SystemPropertyProcessorManager;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NotifyProvideDataBatchChangeHandlerTest {
+
+  @Test
+  public void testHandle() {
+    NotifyProvideDataBatchChangeHandler handler = new NotifyProvideDataBatchChangeHandler();
+    Assert.assertEquals(handler.interest(), ProvideDataBatchChangeEvent.class);
+    Assert.assertEquals(handler.getConnectNodeType(), Node.NodeType.META);
+
+    ProvideDataProcessor processor = mock(ProvideDataProcessor.class);
+    when(processor.support("a")).thenReturn(true);
+    when(processor.support("c")).thenReturn(true);
+    SystemPropertyProcessorManager manager = mock(SystemPropertyProcessorManager.class);
+    when(manager.doApply(any())).thenReturn(false);
+    MetaServerService svc = mock(MetaServerService.class);
+    ProvideData fetched = new ProvideData(null, "c", 3L);
+    when(svc.fetchData("c")).thenReturn(fetched);
+    handler.setProvideDataProcessorManager(processor);
+    handler.setSystemPropertyProcessorManager(manager);
+    handler.setMetaServerService(svc);
+
+    ProvideData a = new ProvideData(null, "a", 1L);
+    ProvideData b = new ProvideData(null, "b", 2L);
+    ProvideDataBatchChangeEvent event =
+        new ProvideDataBatchChangeEvent(
+            Lists.newArrayList(a, b),
+            Sets.newHashSet("c", "d"),
+            Collections.singleton(Node.NodeType.DATA));
+    Assert.assertNull(handler.doHandle(TestBaseUtils.newChannel(9620, "localhost", 8888), event));
+
+    verify(processor, times(1)).processData(a);
+    verify(processor, times(1)).processData(fetched);
+    verify(manager, times(1)).doApply(b);
+    // the inline value could not be applied, fallback to fetch
+    verify(manager, times(1)).doFetch("b");
+    verify(manager, times(1)).doFetch("d");
+    verify(svc, never()).fetchData("a");
+    verify(svc, never()).fetchData("d");
+  }
+}
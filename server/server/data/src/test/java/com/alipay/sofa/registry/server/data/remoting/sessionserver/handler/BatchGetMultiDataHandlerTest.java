@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
+import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.data.slot.SlotAccessorDelegate;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchGetMultiDataHandlerTest {
+
+  private BatchGetMultiDataHandler newHandler() {
+    BatchGetMultiDataHandler handler = new BatchGetMultiDataHandler();
+    Assert.assertEquals(handler.interest(), BatchGetMultiDataRequest.class);
+    Assert.assertFalse(((GenericResponse) handler.buildFailedResponse("msg")).isSuccess());
+    handler.sessionLeaseManager = new SessionLeaseManager();
+    handler
+        .setSlotAccessor(mock(SlotAccessorDelegate.class))
+        .setDatumStorageDelegate(TestBaseUtils.newLocalDatumDelegate("testDc", true))
+        .setDataChangeEventCenter(new DataChangeEventCenter())
+        .setDataServerConfig(TestBaseUtils.newDataConfig("testDc"));
+    handler.setCompressDatumService(new CompressDatumService());
+    return handler;
+  }
+
+  @Test
+  public void testCheckParam() {
+    BatchGetMultiDataHandler handler = newHandler();
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () ->
+            handler.checkParam(
+                new BatchGetMultiDataRequest(ServerEnv.PROCESS_ID, Lists.newArrayList())));
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () ->
+            handler.checkParam(
+                new BatchGetMultiDataRequest(
+                    ServerEnv.PROCESS_ID, Lists.newArrayList(request(null)))));
+    handler.checkParam(
+        new BatchGetMultiDataRequest(ServerEnv.PROCESS_ID, Lists.newArrayList(request("xx"))));
+  }
+
+  @Test
+  public void testHandle() {
+    BatchGetMultiDataHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    Publisher pub = TestBaseUtils.createTestPublishers(1, 1).get(0);
+    handler.getDatumStorageDelegate().putPublisher("testDc", pub);
+
+    // the first accepts, the second is moved
+    when(handler
+            .getSlotAccessorDelegate()
+            .checkSlotAccess(anyString(), anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept(), TestBaseUtils.accept(), TestBaseUtils.moved());
+    GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> resp =
+        handler.doHandle(
+            channel,
+            new BatchGetMultiDataRequest(
+                ServerEnv.PROCESS_ID,
+                Lists.newArrayList(request(pub.getDataInfoId()), request(pub.getDataInfoId()))));
+    Assert.assertTrue(resp.isSuccess());
+    Assert.assertEquals(2, resp.getData().size());
+
+    MultiSlotAccessGenericResponse<MultiSubDatum> first = resp.getData().get(0);
+    Assert.assertTrue(first.isSuccess());
+    Assert.assertEquals(
+        first.getData().getSubDatum("testDc").mustGetPublishers().get(0).getRegisterId(),
+        pub.getRegisterId());
+
+    MultiSlotAccessGenericResponse<MultiSubDatum> second = resp.getData().get(1);
+    Assert.assertFalse(second.isSuccess());
+    Assert.assertEquals(
+        second.getSlotAccessMap().get("testDc").getStatus(), TestBaseUtils.moved().getStatus());
+  }
+
+  @Test
+  public void testFollowerRead() {
+    BatchGetMultiDataHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    Publisher pub = TestBaseUtils.createTestPublishers(1, 1).get(0);
+    handler.getDatumStorageDelegate().putPublisher("testDc", pub);
+    final int slotId = SlotFunctionRegistry.getFunc().slotOf(pub.getDataInfoId());
+    final Map<String, DatumVersion> localVersions =
+        handler.getDatumStorageDelegate().getVersions("testDc", slotId, null);
+    // the follower serves the version of the leader, which is not comparable with the local one
+    final long version = localVersions.get(pub.getDataInfoId()).getValue() + 100;
+    handler
+        .getDatumStorageDelegate()
+        .updateLeaderVersions(
+            "testDc",
+            slotId,
+            localVersions,
+            Collections.singletonMap(pub.getDataInfoId(), version),
+            1L);
+
+    when(handler.getSlotAccessorDelegate().isLeader(anyString(), anyInt())).thenReturn(false);
+    when(handler
+            .getSlotAccessorDelegate()
+            .checkFollowerReadAccess(anyString(), anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+
+    // the first is caught up, the second is newer than the follower, the third is absent
+    GetMultiDataRequest caughtUp = request(pub.getDataInfoId());
+    caughtUp.setMinVersions(Collections.singletonMap("testDc", version));
+    GetMultiDataRequest lagging = request(pub.getDataInfoId());
+    lagging.setMinVersions(Collections.singletonMap("testDc", version + 1));
+    GetMultiDataRequest absent = request(pub.getDataInfoId() + "-absent");
+    absent.setMinVersions(Collections.singletonMap("testDc", 1L));
+    GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> resp =
+        handler.doHandle(
+            channel,
+            new BatchGetMultiDataRequest(
+                ServerEnv.PROCESS_ID, Lists.newArrayList(caughtUp, lagging, absent)));
+    Assert.assertTrue(resp.isSuccess());
+    Assert.assertTrue(resp.getData().get(0).isSuccess());
+    Assert.assertEquals(
+        resp.getData().get(0).getData().getSubDatum("testDc").getVersion(), version);
+    Assert.assertFalse(resp.getData().get(1).isSuccess());
+    Assert.assertFalse(resp.getData().get(2).isSuccess());
+  }
+
+  @Test
+  public void testFollowerReadUnsynced() {
+    BatchGetMultiDataHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    Publisher pub = TestBaseUtils.createTestPublishers(1, 1).get(0);
+    handler.getDatumStorageDelegate().putPublisher("testDc", pub);
+    final int slotId = SlotFunctionRegistry.getFunc().slotOf(pub.getDataInfoId());
+    final Map<String, DatumVersion> localVersions =
+        handler.getDatumStorageDelegate().getVersions("testDc", slotId, null);
+    handler
+        .getDatumStorageDelegate()
+        .updateLeaderVersions(
+            "testDc", slotId, localVersions, Collections.singletonMap(pub.getDataInfoId(), 1L), 1L);
+    // changed after the sync, the datum is not the leader's
+    handler
+        .getDatumStorageDelegate()
+        .putPublisher("testDc", TestBaseUtils.createTestPublisher(pub.getDataId()));
+
+    when(handler.getSlotAccessorDelegate().isLeader(anyString(), anyInt())).thenReturn(false);
+    when(handler
+            .getSlotAccessorDelegate()
+            .checkFollowerReadAccess(anyString(), anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+    GetMultiDataRequest req = request(pub.getDataInfoId());
+    req.setMinVersions(Collections.singletonMap("testDc", 1L));
+    GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> resp =
+        handler.doHandle(
+            channel, new BatchGetMultiDataRequest(ServerEnv.PROCESS_ID, Lists.newArrayList(req)));
+    Assert.assertTrue(resp.isSuccess());
+    Assert.assertFalse(resp.getData().get(0).isSuccess());
+  }
+
+  private static GetMultiDataRequest request(String dataInfoId) {
+    return new GetMultiDataRequest(
+        ServerEnv.PROCESS_ID,
+        10,
+        dataInfoId,
+        new String[0],
+        Collections.singletonMap("testDc", 1L),
+        Collections.singletonMap("testDc", 1L));
+  }
+}
@@ -23,9 +23,13 @@ import com.alipay.sofa.registry.remoting.bolt.exchange.BoltExchange;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.MetaServerServiceImpl;
+import com.alipay.sofa.registry.util.JsonUtils;
+import java.io.ByteArrayOutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -140,4 +144,18 @@ public class DataDigestResourceTest {
     resource.datumStorageDelegate = null;
     TestBaseUtils.assertException(RuntimeException.class, () -> resource.getDataInfoIdList());
   }
+
+  @Test
+  public void testStreamDataInfoIdList() throws Exception {
+    DataDigestResource resource = newResource();
+    Publisher pub = TestBaseUtils.createTestPublishers(10, 1).get(0);
+    resource.datumStorageDelegate.getLocalDatumStorage().putPublisher(datacenter, pub);
+    Response response = resource.streamDataInfoIdList();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((StreamingOutput) response.getEntity()).write(out);
+    String[] lines = out.toString("UTF-8").split("\n");
+    Assert.assertEquals(1, lines.length);
+    Assert.assertEquals(
+        JsonUtils.writeValueAsString(resource.getDataInfoIdList().iterator().next()), lines[0]);
+  }
 }
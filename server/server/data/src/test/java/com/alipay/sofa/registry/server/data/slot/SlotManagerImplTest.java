@@ -132,6 +132,24 @@ public class SlotManagerImplTest {
     Assert.assertTrue(access1.isMoved());
   }
 
+  @Test
+  public void testSlotWeight() {
+    Mock mock = mockSM(10, false, false, Collections.EMPTY_SET);
+    SlotManagerImpl sm = mock.slotManager;
+    DatumStorageDelegate delegate = mock.mockSync.syncer.getDatumStorageDelegate();
+    Assert.assertTrue(sm.updateSlotTable(newTable_0_1(3, 3)));
+    sm.processUpdating();
+    delegate.putPublisher(DATACENTER, TestBaseUtils.createTestPublishers(0, 1).get(0));
+
+    SlotManagerImpl.SlotState slotState = new SlotManagerImpl.SlotState(createSelfLeader(0, 100));
+    // the publishers are partial before migrated, not counted and not cached
+    Assert.assertEquals(0, sm.getSlotWeight(slotState));
+    Assert.assertEquals(0, slotState.weightTimestamp);
+    slotState.migrated = true;
+    Assert.assertEquals(1, sm.getSlotWeight(slotState));
+    Assert.assertTrue(slotState.weightTimestamp > 0);
+  }
+
   @Test
   public void testCheckAccessFull() {
     Mock mock = mockSM(10, false, false, Collections.EMPTY_SET);
@@ -157,6 +175,49 @@ public class SlotManagerImplTest {
     Assert.assertTrue(access.isAccept());
   }
 
+  @Test
+  public void testCheckFollowerReadAccess() {
+    final long maxLag = 60000;
+    SlotAccess access = SlotManagerImpl.checkFollowerReadAccess(0, 100, null, 100, maxLag);
+    Assert.assertTrue(access.isMoved());
+
+    SlotManagerImpl.SlotState slotState = new SlotManagerImpl.SlotState(createSelfLeader(0, 100));
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 100, maxLag);
+    Assert.assertTrue(access.isMoved());
+
+    slotState = new SlotManagerImpl.SlotState(createSelfFollower(0, 100));
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 101, maxLag);
+    Assert.assertTrue(access.isMisMatch());
+
+    // never synced with the leader
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 100, maxLag);
+    Assert.assertTrue(access.isMigrating());
+
+    slotState.lastSuccessLeaderSyncTime = System.currentTimeMillis() - maxLag * 2;
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 100, maxLag);
+    Assert.assertTrue(access.isMigrating());
+
+    slotState.lastSuccessLeaderSyncTime = System.currentTimeMillis();
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 100, maxLag);
+    Assert.assertTrue(access.isAccept());
+    Assert.assertEquals(100, access.getSlotLeaderEpoch());
+
+    // the lag tolerates one failed sync of the interval
+    final int interval =
+        TestBaseUtils.newDataConfig(DATACENTER).getSlotFollowerSyncLeaderIntervalSecs();
+    final long defaultLag = SlotManagerImpl.followerReadMaxLagMillis(interval);
+    slotState.lastSuccessLeaderSyncTime = System.currentTimeMillis() - interval * 1000L - 1000;
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 100, defaultLag);
+    Assert.assertTrue(access.isAccept());
+    slotState.lastSuccessLeaderSyncTime = System.currentTimeMillis() - defaultLag - 1000;
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 100, defaultLag);
+    Assert.assertTrue(access.isMigrating());
+
+    // disabled
+    access = SlotManagerImpl.checkFollowerReadAccess(0, 100, slotState, 100, 0);
+    Assert.assertTrue(access.isMigrating());
+  }
+
   @Test
   public void testSync() throws Exception {
     Mock mock = mockSM(10, true, true, Sets.newHashSet("xx1", "xx2"));
@@ -118,9 +118,10 @@ public class AppRevisionCleaner
         slices.add((AppRevisionSlice) result);
       }
       for (String revision : AppRevisionSlice.merge(slices).getRevisions()) {
-        appRevisionRepository.heartbeatDB(revision);
-        ConcurrentUtils.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+        appRevisionRepository.asyncHeartbeatDB(revision);
       }
+      // the cleaner trusts the success, it is recorded after the heartbeats are written
+      appRevisionRepository.flushHeartbeatDB();
       consecutiveSuccess.success();
     } catch (Throwable e) {
       LOG.error("renew app revisions failed:", e);
@@ -27,7 +27,6 @@ import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.collect.Maps;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import org.glassfish.jersey.internal.guava.Sets;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
@@ -97,10 +96,11 @@ public class InterfaceAppsIndexCleaner implements ApplicationListener<ContextRef
       for (Map.Entry<String, Set<String>> entry : mappings.entrySet()) {
         String appName = entry.getKey();
         for (String interfaceName : entry.getValue()) {
-          interfaceAppsRepository.renew(interfaceName, appName);
-          ConcurrentUtils.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+          interfaceAppsRepository.asyncRenew(interfaceName, appName);
         }
       }
+      // the success is logged after the renewals are written
+      interfaceAppsRepository.flushRenew();
       LOG.info("renew interface apps index succeed");
     } catch (Throwable e) {
       LOG.error("renew interface apps index failed:", e);
@@ -25,7 +25,6 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.meta.lease.Evictable;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
-import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -41,6 +40,13 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
 
   private final EvictTask evictTask = new EvictTask();
 
+  private static final int EXPIRY_WHEEL_TICK_MILLIS = 100;
+
+  private static final int EXPIRY_WHEEL_SIZE = 512;
+
+  protected final LeaseExpiryWheel<T> expiryWheel =
+      new LeaseExpiryWheel<>(EXPIRY_WHEEL_TICK_MILLIS, EXPIRY_WHEEL_SIZE);
+
   @Override
   public void doInitialize() throws InitializeException {
     super.doInitialize();
@@ -67,7 +73,7 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
 
     for (Lease<T> lease : expirations) {
       Lease<T> doubleCheck = getLease(lease.getRenewal());
-      if (doubleCheck.isExpired()) {
+      if (doubleCheck != null && doubleCheck.isExpired()) {
         EVICT_LOG.info("[evict]{},{}", doubleCheck.getRenewal().getNodeType(), doubleCheck);
         try {
           cancel(lease);
@@ -78,14 +84,20 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
     }
   }
 
+  @Override
+  protected void onRegistered(Lease<T> lease) {
+    expiryWheel.schedule(lease);
+  }
+
+  @Override
+  protected void onRenewed(Lease<T> lease) {
+    expiryWheel.onRenewed(lease);
+  }
+
   protected List<Lease<T>> getExpiredLeases() {
-    List<Lease<T>> expires = Lists.newLinkedList();
-    for (Lease<T> lease : getLeaseMeta().getClusterMembers()) {
-      if (lease.isExpired()) {
-        expires.add(lease);
-      }
-    }
-    return expires;
+    return expiryWheel.advance(
+        System.currentTimeMillis(),
+        lease -> localRepo.get(lease.getRenewal().getNodeUrl().getIpAddress()) == lease);
   }
 
   protected abstract int getEvictBetweenMilli();
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.lease.impl;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Hashed timing wheel of lease expirations. Renew only moves the expire timestamp of a lease, the
+ * lease is rescheduled lazily when its bucket is reached, so heartbeats never touch the wheel and
+ * eviction only visits the buckets that are due. A renew with a shorter duration could expire the
+ * lease before its bucket, it is rescheduled to the earlier bucket by onRenewed.
+ */
+public final class LeaseExpiryWheel<T extends Node> {
+
+  private final long tickMillis;
+
+  private final List<List<Entry<T>>> buckets;
+
+  // the tick the lease is scheduled at, the entries of the other ticks are stale
+  private final ConcurrentMap<Lease<T>, Long> scheduledTicks = Maps.newConcurrentMap();
+
+  private long cursorTick;
+
+  /**
+   * Constructor.
+   *
+   * @param tickMillis the tick millis
+   * @param wheelSize the wheel size
+   */
+  public LeaseExpiryWheel(long tickMillis, int wheelSize) {
+    if (tickMillis <= 0 || wheelSize <= 0) {
+      throw new IllegalArgumentException(
+          "illegal tickMillis or wheelSize: " + tickMillis + ", " + wheelSize);
+    }
+    this.tickMillis = tickMillis;
+    this.buckets = Lists.newArrayListWithCapacity(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      buckets.add(Lists.newArrayList());
+    }
+    this.cursorTick = System.currentTimeMillis() / tickMillis;
+  }
+
+  /**
+   * Schedule the lease at its current expire timestamp.
+   *
+   * @param lease the lease
+   */
+  public synchronized void schedule(Lease<T> lease) {
+    long tick = Math.max(lease.getExpireTimestamp() / tickMillis, cursorTick);
+    scheduledTicks.put(lease, tick);
+    bucketOf(tick).add(new Entry<>(lease, tick));
+  }
+
+  /**
+   * Called after the lease is renewed, lock free unless the lease expires before the tick it is
+   * scheduled at.
+   *
+   * @param lease the lease
+   */
+  public void onRenewed(Lease<T> lease) {
+    Long scheduled = scheduledTicks.get(lease);
+    if (scheduled != null && lease.getExpireTimestamp() / tickMillis < scheduled) {
+      reschedule(lease);
+    }
+  }
+
+  private synchronized void reschedule(Lease<T> lease) {
+    Long scheduled = scheduledTicks.get(lease);
+    // double check under the lock, the lease may be renewed or removed concurrently
+    if (scheduled != null && lease.getExpireTimestamp() / tickMillis < scheduled) {
+      schedule(lease);
+    }
+  }
+
+  /**
+   * Advance the wheel to now and collect the expired leases. Leases renewed in the meantime are
+   * moved to the bucket of their new expire timestamp, expired leases stay in the wheel until they
+   * are no longer registered.
+   *
+   * @param now the now
+   * @param registered whether the lease is still the registered one
+   * @return the expired leases
+   */
+  public synchronized List<Lease<T>> advance(long now, Predicate<Lease<T>> registered) {
+    final long nowTick = now / tickMillis;
+    final long fromTick = Math.max(cursorTick, nowTick - buckets.size() + 1);
+    List<Lease<T>> expires = Lists.newArrayList();
+    List<Lease<T>> alives = Lists.newArrayList();
+    for (long tick = fromTick; tick <= nowTick; tick++) {
+      List<Entry<T>> bucket = bucketOf(tick);
+      if (bucket.isEmpty()) {
+        continue;
+      }
+      for (Entry<T> entry : bucket) {
+        Lease<T> lease = entry.lease;
+        Long scheduled = scheduledTicks.get(lease);
+        if (scheduled == null || scheduled != entry.tick) {
+          // rescheduled to an earlier tick
+          continue;
+        }
+        if (!registered.test(lease)) {
+          scheduledTicks.remove(lease);
+          continue;
+        }
+        alives.add(lease);
+        if (now > lease.getExpireTimestamp()) {
+          expires.add(lease);
+        }
+      }
+      bucket.clear();
+    }
+    cursorTick = Math.max(cursorTick, nowTick);
+    for (Lease<T> lease : alives) {
+      schedule(lease);
+    }
+    return expires;
+  }
+
+  /**
+   * Size int.
+   *
+   * @return the int
+   */
+  public synchronized int size() {
+    return scheduledTicks.size();
+  }
+
+  private List<Entry<T>> bucketOf(long tick) {
+    return buckets.get((int) (tick % buckets.size()));
+  }
+
+  private static final class Entry<T extends Node> {
+    final Lease<T> lease;
+    final long tick;
+
+    Entry(Lease<T> lease, long tick) {
+      this.lease = lease;
+      this.tick = tick;
+    }
+  }
+}
@@ -56,13 +56,29 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
     lock.writeLock().lock();
     try {
       String nodeIp = lease.getRenewal().getNodeUrl().getIpAddress();
-      localRepo.putIfAbsent(nodeIp, lease);
+      if (localRepo.putIfAbsent(nodeIp, lease) == null) {
+        onRegistered(lease);
+      }
       refreshEpoch(DatumVersionUtil.nextId());
     } finally {
       lock.writeLock().unlock();
     }
   }
 
+  /**
+   * Called under the write lock when the lease is added to the repo.
+   *
+   * @param lease the lease
+   */
+  protected void onRegistered(Lease<T> lease) {}
+
+  /**
+   * Called after the lease is renewed, not under the lock in the common case.
+   *
+   * @param lease the lease
+   */
+  protected void onRenewed(Lease<T> lease) {}
+
   protected boolean cancel(Lease<T> lease) {
     if (lease == null) {
       throw new IllegalArgumentException("[cancel]NullPointer of renewal");
@@ -87,32 +103,47 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
       throw new IllegalArgumentException("[renew]NullPointer of renewal");
     }
     int validLeaseDuration = leaseDuration > 0 ? leaseDuration : Lease.DEFAULT_DURATION_SECS;
+    String nodeIp = renewal.getNodeUrl().getIpAddress();
 
+    // renew only moves the expire timestamp of the lease, no need to block the other heartbeats
+    Lease<T> lease = localRepo.get(nodeIp);
+    if (lease != null) {
+      lease.renew(validLeaseDuration);
+      onRenewed(lease);
+      // double check the lease is not cancelled concurrently
+      if (localRepo.get(nodeIp) == lease) {
+        logRenew(renewal, validLeaseDuration);
+        return true;
+      }
+    }
+
+    // membership change, mutex with register/cancel
     lock.writeLock().lock();
     try {
-      Lease<T> lease = localRepo.get(renewal.getNodeUrl().getIpAddress());
+      lease = localRepo.get(nodeIp);
       if (lease == null) {
-        logger.warn(
-            "[renew][node not exist, register: {}-{}]",
-            renewal.getNodeType(),
-            renewal.getNodeUrl().getIpAddress());
+        logger.warn("[renew][node not exist, register: {}-{}]", renewal.getNodeType(), nodeIp);
 
         register(new Lease<>(renewal, validLeaseDuration));
         return false;
       }
-      logger.info(
-          "[renew][renew lease] node: {}-{}, extends: {}s",
-          renewal.getNodeType(),
-          renewal.getNodeUrl().getIpAddress(),
-          validLeaseDuration);
-
       lease.renew(validLeaseDuration);
+      onRenewed(lease);
+      logRenew(renewal, validLeaseDuration);
     } finally {
       lock.writeLock().unlock();
     }
     return true;
   }
 
+  private void logRenew(T renewal, int leaseDuration) {
+    logger.info(
+        "[renew][renew lease] node: {}-{}, extends: {}s",
+        renewal.getNodeType(),
+        renewal.getNodeUrl().getIpAddress(),
+        leaseDuration);
+  }
+
   @Override
   public Lease<T> getLease(T renewal) {
     return localRepo.get(renewal.getNodeUrl().getIpAddress());
@@ -21,6 +21,7 @@ import com.alipay.sofa.registry.common.model.slot.BaseSlotStatus;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.lifecycle.Initializable;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author chen.zhu
@@ -35,4 +36,11 @@ public interface SlotTableStats extends Initializable {
   void updateSlotTable(SlotTable slotTable);
 
   void checkSlotStatuses(DataNode node, List<BaseSlotStatus> slotStatuses);
+
+  /**
+   * Gets the weights of slots reported by the slot leaders
+   *
+   * @return slotId -> weight
+   */
+  Map<Integer, Long> getSlotWeights();
 }
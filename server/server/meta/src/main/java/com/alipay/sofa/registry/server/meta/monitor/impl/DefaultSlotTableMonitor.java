@@ -138,6 +138,11 @@ public class DefaultSlotTableMonitor extends AbstractLifecycle
     return slotTableStats.isSlotLeadersStable() && slotTableStats.isSlotFollowersStable();
   }
 
+  @Override
+  public Map<Integer, Long> getSlotWeights() {
+    return slotTableStats.getSlotWeights();
+  }
+
   @Override
   public void update(Observable source, Object message) {
     if (message instanceof SlotTable) {
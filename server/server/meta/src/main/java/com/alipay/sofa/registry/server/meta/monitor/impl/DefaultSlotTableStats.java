@@ -45,6 +45,9 @@ public class DefaultSlotTableStats extends AbstractLifecycle implements SlotTabl
 
   private final Map<Integer, SlotStats> slotStatses = Maps.newConcurrentMap();
 
+  // the weight reported by slot leader, keep it across the slot-table changes
+  private final Map<Integer, Long> slotWeights = Maps.newConcurrentMap();
+
   private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
   private final MetaServerConfig metaServerConfig;
@@ -171,7 +174,12 @@ public class DefaultSlotTableStats extends AbstractLifecycle implements SlotTabl
             Metrics.DataSlot.setDataReportNotStable(node.getIp(), slotId);
             continue;
           }
-          slotStats.updateLeaderState((LeaderSlotStatus) slotStatus);
+          final LeaderSlotStatus leaderSlotStatus = (LeaderSlotStatus) slotStatus;
+          slotStats.updateLeaderState(leaderSlotStatus);
+          // the weight of the migrating leader counts the partial publishers, keep the last one
+          if (leaderSlotStatus.getLeaderStatus().isHealthy()) {
+            slotWeights.put(slotId, leaderSlotStatus.getWeight());
+          }
         } else {
           if (!slotStats.getSlot().getFollowers().contains(node.getIp())) {
             logger.error(
@@ -217,6 +225,11 @@ public class DefaultSlotTableStats extends AbstractLifecycle implements SlotTabl
     }
   }
 
+  @Override
+  public Map<Integer, Long> getSlotWeights() {
+    return Collections.unmodifiableMap(slotWeights);
+  }
+
   @VisibleForTesting
   public SlotStats getSlotStats(int slotId) {
     return slotStatses.get(slotId);
@@ -17,11 +17,34 @@
 package com.alipay.sofa.registry.server.meta.provide.data;
 
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataBatchChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataSetDiff;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.meta.remoting.data.DefaultDataServerService;
 import com.alipay.sofa.registry.server.meta.remoting.session.DefaultSessionServerService;
+import com.alipay.sofa.registry.store.api.DBResponse;
+import com.alipay.sofa.registry.store.api.OperationStatus;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.JsonUtils;
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -37,13 +60,54 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class DefaultProvideDataNotifier implements ProvideDataNotifier {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DefaultProvideDataNotifier.class);
+
+  private static final String KEY_BATCH_ENABLED = "registry.meta.provide_data.batch.enabled";
+  private static final String KEY_BATCH_WINDOW_MILLIS =
+      "registry.meta.provide_data.batch.window_millis";
 
   @Autowired private DefaultDataServerService defaultDataServerService;
 
   @Autowired private DefaultSessionServerService defaultSessionServerService;
 
+  @Autowired private ProvideDataService provideDataService;
+
+  // the sessions and datas must support ProvideDataBatchChangeEvent before enable it
+  private boolean batchEnabled =
+      Boolean.parseBoolean(SystemUtils.getSystem(KEY_BATCH_ENABLED, "false"));
+
+  private final BatchNotifier batchNotifier =
+      new BatchNotifier(SystemUtils.getSystemInteger(KEY_BATCH_WINDOW_MILLIS, 100));
+
+  // the set valued provide datas are notified as the add/remove diffs against the last notified
+  private static final Set<String> SET_VALUED_DATA_INFO_IDS =
+      Collections.singleton(ValueConstants.BLACK_LIST_DATA_ID);
+
+  private static final TypeReference<Map<String, Map<String, Set<String>>>> SET_VALUE_TYPE =
+      new TypeReference<Map<String, Map<String, Set<String>>>>() {};
+
+  // the changes in the batch window, dataInfoId -> the latest event
+  private final Map<String, ProvideDataChangeEvent> pendings = Maps.newHashMap();
+
+  // dataInfoId -> the last notified set valued provide data, only accessed by flush
+  private final Map<String, ProvideData> lastNotifiedSets = Maps.newHashMap();
+
+  @PostConstruct
+  public void init() {
+    if (batchEnabled) {
+      ConcurrentUtils.createDaemonThread("ProvideDataBatchNotifier", batchNotifier).start();
+    }
+  }
+
   @Override
   public void notifyProvideDataChange(ProvideDataChangeEvent event) {
+    if (batchEnabled) {
+      synchronized (pendings) {
+        ProvideDataChangeEvent exist = pendings.get(event.getDataInfoId());
+        pendings.put(event.getDataInfoId(), merge(exist, event));
+      }
+      return;
+    }
     Set<Node.NodeType> notifyTypes = event.getNodeTypes();
     if (notifyTypes.contains(Node.NodeType.DATA)) {
       defaultDataServerService.notifyProvideDataChange(event);
@@ -53,6 +117,154 @@ public class DefaultProvideDataNotifier implements ProvideDataNotifier {
     }
   }
 
+  private static ProvideDataChangeEvent merge(
+      ProvideDataChangeEvent exist, ProvideDataChangeEvent event) {
+    if (exist == null) {
+      return event;
+    }
+    Set<Node.NodeType> nodeTypes = Sets.newHashSet(exist.getNodeTypes());
+    nodeTypes.addAll(event.getNodeTypes());
+    return new ProvideDataChangeEvent(
+        event.getDataInfoId(), Math.max(exist.getVersion(), event.getVersion()), nodeTypes);
+  }
+
+  @VisibleForTesting
+  int flush() {
+    final List<ProvideDataChangeEvent> events;
+    synchronized (pendings) {
+      if (pendings.isEmpty()) {
+        return 0;
+      }
+      events = Lists.newArrayList(pendings.values());
+      pendings.clear();
+    }
+    final Map<Node.NodeType, List<ProvideData>> datas = Maps.newHashMap();
+    final Map<Node.NodeType, List<ProvideDataSetDiff>> diffs = Maps.newHashMap();
+    final Map<Node.NodeType, Set<String>> fetches = Maps.newHashMap();
+    for (ProvideDataChangeEvent event : events) {
+      ProvideData data = queryProvideData(event);
+      ProvideDataSetDiff diff = diffSetValue(event.getDataInfoId(), data);
+      for (Node.NodeType nodeType : event.getNodeTypes()) {
+        if (diff != null) {
+          diffs.computeIfAbsent(nodeType, k -> Lists.newArrayList()).add(diff);
+        } else if (data != null) {
+          datas.computeIfAbsent(nodeType, k -> Lists.newArrayList()).add(data);
+        } else {
+          fetches.computeIfAbsent(nodeType, k -> Sets.newHashSet()).add(event.getDataInfoId());
+        }
+      }
+    }
+    ProvideDataBatchChangeEvent dataEvent = newBatch(Node.NodeType.DATA, datas, diffs, fetches);
+    if (dataEvent != null) {
+      LOGGER.info("notify batch to data: {}", dataEvent);
+      defaultDataServerService.notifyProvideDataBatchChange(dataEvent);
+    }
+    ProvideDataBatchChangeEvent sessionEvent =
+        newBatch(Node.NodeType.SESSION, datas, diffs, fetches);
+    if (sessionEvent != null) {
+      LOGGER.info("notify batch to session: {}", sessionEvent);
+      defaultSessionServerService.notifyProvideDataBatchChange(sessionEvent);
+    }
+    return events.size();
+  }
+
+  private static ProvideDataBatchChangeEvent newBatch(
+      Node.NodeType nodeType,
+      Map<Node.NodeType, List<ProvideData>> datas,
+      Map<Node.NodeType, List<ProvideDataSetDiff>> diffs,
+      Map<Node.NodeType, Set<String>> fetches) {
+    List<ProvideData> list = datas.getOrDefault(nodeType, Collections.emptyList());
+    List<ProvideDataSetDiff> diffList = diffs.getOrDefault(nodeType, Collections.emptyList());
+    Set<String> set = fetches.getOrDefault(nodeType, Collections.emptySet());
+    if (list.isEmpty() && diffList.isEmpty() && set.isEmpty()) {
+      return null;
+    }
+    return new ProvideDataBatchChangeEvent(list, diffList, set, Collections.singleton(nodeType));
+  }
+
+  /**
+   * diff the set valued provide data against the last notified one, the receivers which applied the
+   * last notified version apply the diff, the others fetch the full value
+   *
+   * @return null if the full value should be notified
+   */
+  private ProvideDataSetDiff diffSetValue(String dataInfoId, ProvideData data) {
+    if (!SET_VALUED_DATA_INFO_IDS.contains(dataInfoId)) {
+      return null;
+    }
+    ProvideData base =
+        data == null ? lastNotifiedSets.remove(dataInfoId) : lastNotifiedSets.put(dataInfoId, data);
+    if (data == null || base == null || base.getVersion() >= data.getVersion()) {
+      return null;
+    }
+    try {
+      Map<String, Map<String, Set<String>>> baseValue = parseSetValue(base);
+      Map<String, Map<String, Set<String>>> value = parseSetValue(data);
+      if (baseValue == null || value == null) {
+        return null;
+      }
+      ProvideDataSetDiff diff =
+          ProvideDataSetDiff.diff(
+              dataInfoId, base.getVersion(), baseValue, data.getVersion(), value);
+      // most of the members are replaced, the full value is smaller
+      return diff.size() < ProvideDataSetDiff.memberCount(value) ? diff : null;
+    } catch (Throwable e) {
+      LOGGER.error("failed to diff set value of {}", dataInfoId, e);
+      return null;
+    }
+  }
+
+  private static Map<String, Map<String, Set<String>>> parseSetValue(ProvideData data)
+      throws IOException {
+    String value = ProvideData.toString(data);
+    if (value == null) {
+      return null;
+    }
+    return JsonUtils.getJacksonObjectMapper().readValue(value, SET_VALUE_TYPE);
+  }
+
+  /**
+   * the value is carried when the local value is not older than the event, otherwise the receivers
+   * fetch it
+   */
+  private ProvideData queryProvideData(ProvideDataChangeEvent event) {
+    try {
+      DBResponse<PersistenceData> ret = provideDataService.queryProvideData(event.getDataInfoId());
+      if (ret.getOperationStatus() != OperationStatus.SUCCESS) {
+        return null;
+      }
+      PersistenceData persistenceData = ret.getEntity();
+      if (persistenceData.getVersion() < event.getVersion()) {
+        return null;
+      }
+      return new ProvideData(
+          new ServerDataBox(persistenceData.getData()),
+          event.getDataInfoId(),
+          persistenceData.getVersion());
+    } catch (Throwable e) {
+      LOGGER.error("failed to query provide data {}", event.getDataInfoId(), e);
+      return null;
+    }
+  }
+
+  private final class BatchNotifier extends WakeUpLoopRunnable {
+    private final int windowMillis;
+
+    BatchNotifier(int windowMillis) {
+      this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public void runUnthrowable() {
+      flush();
+    }
+
+    @Override
+    public int getWaitingMillis() {
+      return windowMillis;
+    }
+  }
+
   @VisibleForTesting
   DefaultProvideDataNotifier setDataServerProvideDataNotifier(
       DefaultDataServerService defaultDataServerService) {
@@ -66,4 +278,16 @@ public class DefaultProvideDataNotifier implements ProvideDataNotifier {
     this.defaultSessionServerService = defaultSessionServerService;
     return this;
   }
+
+  @VisibleForTesting
+  DefaultProvideDataNotifier setProvideDataService(ProvideDataService provideDataService) {
+    this.provideDataService = provideDataService;
+    return this;
+  }
+
+  @VisibleForTesting
+  DefaultProvideDataNotifier setBatchEnabled(boolean batchEnabled) {
+    this.batchEnabled = batchEnabled;
+    return this;
+  }
 }
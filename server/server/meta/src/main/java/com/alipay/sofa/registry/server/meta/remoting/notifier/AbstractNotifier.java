@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.meta.remoting.notifier;
 
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.Tuple;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataBatchChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.RemoteDatumClearEvent;
 import com.alipay.sofa.registry.common.model.metaserver.SlotTableChangeEvent;
@@ -32,9 +33,12 @@ import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.remoting.exchange.message.SimpleRequest;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
 import com.alipay.sofa.registry.server.meta.remoting.connection.NodeConnectManager;
+import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.DefaultExecutorFactory;
 import com.alipay.sofa.registry.util.OsUtils;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.VirtualThreads;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -57,19 +61,19 @@ public abstract class AbstractNotifier<T extends Node> implements Notifier {
 
   @Autowired protected MetaLeaderService metaLeaderService;
 
-  private Executor executors =
-      DefaultExecutorFactory.createCachedThreadPoolFactory(
-              getClass().getSimpleName(),
-              Math.min(4, OsUtils.getCpuCount()),
-              60 * 1000,
-              TimeUnit.MILLISECONDS)
-          .create();
+  // the notifies to the nodes run in parallel, each blocks on the rpc
+  private static final int VIRTUAL_THREAD_NOTIFY_CONCURRENCY = 1024;
+  private static final int VIRTUAL_THREAD_NOTIFY_QUEUE_SIZE = 10000;
+
+  private Executor executors = newNotifyExecutor(getClass().getSimpleName());
+
+  private final Map<InetSocketAddress, SlotTableNotifyState> slotTableNotifyStates =
+      Maps.newConcurrentMap();
 
   @Override
   public void notifySlotTableChange(SlotTable slotTable) {
     if (metaLeaderService.amIStableAsLeader()) {
-      new NotifyTemplate<SlotTableChangeEvent>()
-          .broadcast(new SlotTableChangeEvent(slotTable.getEpoch()));
+      broadcastSlotTableEpoch(slotTable.getEpoch());
     }
   }
 
@@ -78,6 +82,11 @@ public abstract class AbstractNotifier<T extends Node> implements Notifier {
     new NotifyTemplate<ProvideDataChangeEvent>().broadcast(event);
   }
 
+  @Override
+  public void notifyProvideDataBatchChange(ProvideDataBatchChangeEvent event) {
+    new NotifyTemplate<ProvideDataBatchChangeEvent>().broadcast(event);
+  }
+
   @Override
   public void notifyRemoteDatumClear(RemoteDatumClearEvent event) {
     if (metaLeaderService.amIStableAsLeader()) {
@@ -90,6 +99,16 @@ public abstract class AbstractNotifier<T extends Node> implements Notifier {
   }
 
   @VisibleForTesting
+  static Executor newNotifyExecutor(String name) {
+    if (VirtualThreads.isEnabled()) {
+      return MetricsableThreadPoolExecutor.newBlockingIOExecutor(
+          name, VIRTUAL_THREAD_NOTIFY_CONCURRENCY, VIRTUAL_THREAD_NOTIFY_QUEUE_SIZE);
+    }
+    return DefaultExecutorFactory.createCachedThreadPoolFactory(
+            name, Math.min(4, OsUtils.getCpuCount()), 60 * 1000, TimeUnit.MILLISECONDS)
+        .create();
+  }
+
   public AbstractNotifier<T> setExecutors(Executor executors) {
     this.executors = executors;
     return this;
@@ -121,6 +140,146 @@ public abstract class AbstractNotifier<T extends Node> implements Notifier {
     return new Tuple<>(ipAddresses, connections);
   }
 
+  private void broadcastSlotTableEpoch(long epoch) {
+    Tuple<Set<String>, Collection<InetSocketAddress>> nodeConnections = getNodeConnections();
+    if (nodeConnections == null) {
+      return;
+    }
+    Set<String> ipAddresses = nodeConnections.getFirst();
+    Collection<InetSocketAddress> connections = nodeConnections.getSecond();
+    // the disconnected receivers would not ack anymore, drop the states
+    slotTableNotifyStates.keySet().retainAll(Sets.newHashSet(connections));
+
+    new ConcurrentUtils.SafeParaLoop<InetSocketAddress>(executors, connections) {
+      @Override
+      protected void doRun0(InetSocketAddress connection) throws Exception {
+        if (!ipAddresses.contains(connection.getAddress().getHostAddress())) {
+          return;
+        }
+        notifySlotTableEpoch(connection, epoch);
+      }
+    }.run();
+  }
+
+  /**
+   * at most one slot-table notify is in flight per receiver, the epochs arriving during the flight
+   * are coalesced to the latest one, which is sent after the in flight one is acked
+   */
+  @VisibleForTesting
+  void notifySlotTableEpoch(InetSocketAddress connection, long epoch) {
+    SlotTableNotifyState state =
+        slotTableNotifyStates.computeIfAbsent(connection, k -> new SlotTableNotifyState());
+    synchronized (state) {
+      if (epoch <= state.ackedEpoch
+          || epoch <= state.inflightEpoch
+          || epoch <= state.pendingEpoch) {
+        logger.info("[SkipSlotNotify]{},epoch={},state={}", connection, epoch, state);
+        return;
+      }
+      if (state.inflightEpoch != 0) {
+        logger.info("[CoalesceSlotNotify]{},epoch={},state={}", connection, epoch, state);
+        state.pendingEpoch = epoch;
+        return;
+      }
+      state.inflightEpoch = epoch;
+    }
+    sendSlotTableEpoch(connection, epoch, state);
+  }
+
+  private void sendSlotTableEpoch(
+      InetSocketAddress connection, long epoch, SlotTableNotifyState state) {
+    try {
+      getNodeExchanger().request(new SlotTableNotifyRequest(connection, epoch, state, executors));
+    } catch (Throwable e) {
+      logger.error("notify slot-change to {} failed, epoch={}", connection, epoch, e);
+      onSlotTableNotified(connection, epoch, state, false);
+    }
+  }
+
+  private void onSlotTableNotified(
+      InetSocketAddress connection, long epoch, SlotTableNotifyState state, boolean acked) {
+    long next = 0;
+    synchronized (state) {
+      if (acked) {
+        state.ackedEpoch = Math.max(state.ackedEpoch, epoch);
+      }
+      if (state.inflightEpoch == epoch) {
+        state.inflightEpoch = 0;
+      }
+      if (state.inflightEpoch == 0 && state.pendingEpoch > state.ackedEpoch) {
+        next = state.pendingEpoch;
+        state.inflightEpoch = next;
+      }
+      state.pendingEpoch = 0;
+    }
+    if (next != 0) {
+      sendSlotTableEpoch(connection, next, state);
+    }
+  }
+
+  @VisibleForTesting
+  SlotTableNotifyState getSlotTableNotifyState(InetSocketAddress connection) {
+    return slotTableNotifyStates.get(connection);
+  }
+
+  static final class SlotTableNotifyState {
+    long inflightEpoch;
+    long pendingEpoch;
+    long ackedEpoch;
+
+    @Override
+    public String toString() {
+      return StringFormatter.format(
+          "inflight={},pending={},acked={}", inflightEpoch, pendingEpoch, ackedEpoch);
+    }
+  }
+
+  private final class SlotTableNotifyRequest extends SimpleRequest<SlotTableChangeEvent> {
+    private final InetSocketAddress connection;
+    private final long epoch;
+    private final SlotTableNotifyState state;
+    private final Executor executors;
+
+    SlotTableNotifyRequest(
+        InetSocketAddress connection, long epoch, SlotTableNotifyState state, Executor executors) {
+      super(new SlotTableChangeEvent(epoch), new URL(connection));
+      this.connection = connection;
+      this.epoch = epoch;
+      this.state = state;
+      this.executors = executors;
+    }
+
+    @Override
+    public CallbackHandler getCallBackHandler() {
+      return new CallbackHandler() {
+        @Override
+        public void onCallback(Channel channel, Object message) {
+          logger.info(
+              "[onCallback] notify slot-change succeed, ({}): [{}], epoch={}",
+              connection,
+              message,
+              epoch);
+          onSlotTableNotified(connection, epoch, state, true);
+        }
+
+        @Override
+        public void onException(Channel channel, Throwable exception) {
+          logger.error(
+              "[onException] notify slot-change failed, ({}), epoch={}",
+              connection,
+              epoch,
+              exception);
+          onSlotTableNotified(connection, epoch, state, false);
+        }
+
+        @Override
+        public Executor getExecutor() {
+          return executors;
+        }
+      };
+    }
+  }
+
   public final class InvokeTemplate<R> {
     public Map<String, Object> broadcast(R req, int timeout) throws Exception {
       Tuple<Set<String>, Collection<InetSocketAddress>> nodeConnections = getNodeConnections();
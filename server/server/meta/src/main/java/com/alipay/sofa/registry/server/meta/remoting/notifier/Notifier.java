@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.meta.remoting.notifier;
 
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataBatchChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.RemoteDatumClearEvent;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
@@ -30,5 +31,7 @@ public interface Notifier {
 
   void notifyProvideDataChange(ProvideDataChangeEvent event);
 
+  void notifyProvideDataBatchChange(ProvideDataBatchChangeEvent event);
+
   void notifyRemoteDatumClear(RemoteDatumClearEvent event);
 }
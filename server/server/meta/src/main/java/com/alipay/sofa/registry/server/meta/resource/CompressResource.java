@@ -21,8 +21,10 @@ import com.alipay.sofa.registry.common.model.console.PersistenceData;
 import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.CompressDatumSwitch;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDicts;
 import com.alipay.sofa.registry.common.model.metaserver.CompressPushSwitch;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
+import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.core.model.Result;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -33,6 +35,7 @@ import com.alipay.sofa.registry.store.api.DBResponse;
 import com.alipay.sofa.registry.store.api.OperationStatus;
 import com.alipay.sofa.registry.util.JsonUtils;
 import com.google.common.collect.Sets;
+import java.util.Base64;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import org.apache.commons.lang.StringUtils;
@@ -137,4 +140,59 @@ public class CompressResource {
     }
     return JsonUtils.read(response.getEntity().getData(), CompressDatumSwitch.class);
   }
+
+  @POST
+  @Path("dicts")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Result setDicts(CompressDicts compressDicts) {
+    Result result = new Result();
+    try {
+      // check the dictionaries before distributing them
+      for (String dict : compressDicts.getZstdDicts()) {
+        CompressUtils.registerZstdDict(Base64.getDecoder().decode(dict));
+      }
+    } catch (Throwable e) {
+      DB_LOGGER.error("invalid compress dicts {}", compressDicts, e);
+      result.setSuccess(false);
+      result.setMessage(e.getMessage());
+      return result;
+    }
+    PersistenceData persistenceData =
+        PersistenceDataBuilder.createPersistenceData(
+            ValueConstants.COMPRESS_DICTS_DATA_ID, JsonUtils.writeValueAsString(compressDicts));
+    boolean ret;
+    try {
+      ret = provideDataService.saveProvideData(persistenceData);
+      DB_LOGGER.info("compress dicts {} to DB result {}", compressDicts, ret);
+    } catch (Throwable e) {
+      DB_LOGGER.error("compress dicts {} to DB result error", compressDicts, e);
+      result.setSuccess(false);
+      result.setMessage(e.getMessage());
+      return result;
+    }
+    if (ret) {
+      ProvideDataChangeEvent provideDataChangeEvent =
+          new ProvideDataChangeEvent(
+              ValueConstants.COMPRESS_DICTS_DATA_ID,
+              persistenceData.getVersion(),
+              Sets.newHashSet(Node.NodeType.SESSION, Node.NodeType.DATA));
+      provideDataNotifier.notifyProvideDataChange(provideDataChangeEvent);
+    }
+    result.setSuccess(ret);
+    return result;
+  }
+
+  @GET
+  @Path("dicts")
+  @Produces(MediaType.APPLICATION_JSON)
+  public CompressDicts getDicts() {
+    DBResponse<PersistenceData> response =
+        provideDataService.queryProvideData(ValueConstants.COMPRESS_DICTS_DATA_ID);
+    if (response.getOperationStatus() == OperationStatus.NOTFOUND
+        || StringUtils.isBlank(response.getEntity().getData())) {
+      return CompressDicts.defaultDicts();
+    }
+    return JsonUtils.read(response.getEntity().getData(), CompressDicts.class);
+  }
 }
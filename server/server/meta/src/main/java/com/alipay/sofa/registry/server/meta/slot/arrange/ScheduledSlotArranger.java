@@ -189,7 +189,8 @@ public class ScheduledSlotArranger extends AbstractLifecycleObservable
 
   protected SlotBalancer createSlotBalancer(
       SlotTableBuilder slotTableBuilder, Collection<String> currentDataServers) {
-    return new DefaultSlotBalancer(slotTableBuilder, currentDataServers);
+    return new DefaultSlotBalancer(
+        slotTableBuilder, currentDataServers, slotTableMonitor.getSlotWeights());
   }
 
   @Override
@@ -61,4 +61,13 @@ public interface BalancePolicy {
    * @return the get max move follower slots
    */
   int getMaxMoveFollowerSlots();
+
+  /**
+   * Gets get high water mark of the weighted load. once the weighted load on a data-server is
+   * beyond the high water mark, we need to swap its heavy slots with the light data-servers
+   *
+   * @param average the average weighted load
+   * @return the get high water mark of the weighted load
+   */
+  long getHighWaterMarkSlotWeight(long average);
 }
@@ -30,6 +30,7 @@ import com.alipay.sofa.registry.server.meta.slot.SlotBalancer;
 import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
 import com.alipay.sofa.registry.server.meta.slot.util.comparator.Comparators;
 import com.alipay.sofa.registry.util.MathUtils;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -50,13 +51,23 @@ public class DefaultSlotBalancer implements SlotBalancer {
   private final BalancePolicy balancePolicy = new NaiveBalancePolicy();
   private final int slotNum;
   private final int slotReplicas;
+  // slotId -> weight reported by data-servers, empty means balance by slot nums only
+  private final Map<Integer, Long> slotWeights;
 
   public DefaultSlotBalancer(
       SlotTableBuilder slotTableBuilder, Collection<String> currentDataServers) {
+    this(slotTableBuilder, currentDataServers, Collections.emptyMap());
+  }
+
+  public DefaultSlotBalancer(
+      SlotTableBuilder slotTableBuilder,
+      Collection<String> currentDataServers,
+      Map<Integer, Long> slotWeights) {
     this.currentDataServers = Collections.unmodifiableSet(Sets.newTreeSet(currentDataServers));
     this.slotTableBuilder = slotTableBuilder;
     this.slotNum = slotTableBuilder.getSlotNums();
     this.slotReplicas = slotTableBuilder.getSlotReplicas();
+    this.slotWeights = slotWeights == null ? Collections.emptyMap() : slotWeights;
   }
 
   @Override
@@ -94,6 +105,18 @@ public class DefaultSlotBalancer implements SlotBalancer {
       slotTableBuilder.incrEpoch();
       return slotTableBuilder.build();
     }
+    // the slot nums has balanced, move the slots from the heavy data servers to the light
+    // within the water marks of slot nums
+    if (balanceLeaderWeights()) {
+      LOGGER.info("[balanceLeaderWeights] end");
+      slotTableBuilder.incrEpoch();
+      return slotTableBuilder.build();
+    }
+    if (balanceFollowerWeights()) {
+      LOGGER.info("[balanceFollowerWeights] end");
+      slotTableBuilder.incrEpoch();
+      return slotTableBuilder.build();
+    }
     LOGGER.info("[balance] do nothing");
     return null;
   }
@@ -638,6 +661,310 @@ public class DefaultSlotBalancer implements SlotBalancer {
     return null;
   }
 
+  private boolean balanceLeaderWeights() {
+    if (!hasSlotWeights()) {
+      return false;
+    }
+    final int maxMove = balancePolicy.getMaxMoveLeaderSlots();
+    int balanced = 0;
+    while (balanced < maxMove) {
+      final Map<String, Long> loads = collectWeightedLoads(true);
+      final String heavyDataServer = findHeaviestDataServer(loads);
+      final long heavyLoad = loads.get(heavyDataServer);
+      final long threshold = balancePolicy.getHighWaterMarkSlotWeight(averageLoad(loads));
+      if (heavyLoad <= threshold) {
+        break;
+      }
+      Triple<Integer, String, Integer> selected =
+          selectLeader4WeightBalance(heavyDataServer, loads, maxMove - balanced >= 2);
+      if (selected == null) {
+        LOGGER.info(
+            "[balanceLeaderWeights] could not find leader to move for {}, load={}, threshold={}",
+            heavyDataServer,
+            heavyLoad,
+            threshold);
+        break;
+      }
+      final int heavySlot = selected.getFirst();
+      final String lightDataServer = selected.getMiddle();
+      final Integer lightSlot = selected.getLast();
+      // upgrade the follower and keep the old leader as follower, no data migrating
+      slotTableBuilder.replaceLeader(heavySlot, lightDataServer);
+      slotTableBuilder.addFollower(heavySlot, heavyDataServer);
+      Metrics.SlotBalance.onLeaderUpgrade(heavyDataServer, lightDataServer, heavySlot);
+      balanced++;
+      if (lightSlot != null) {
+        slotTableBuilder.replaceLeader(lightSlot, heavyDataServer);
+        slotTableBuilder.addFollower(lightSlot, lightDataServer);
+        Metrics.SlotBalance.onLeaderUpgrade(lightDataServer, heavyDataServer, lightSlot);
+        balanced++;
+      }
+      LOGGER.info(
+          "[balanceLeaderWeights] move leader slotId={}/{} from {} to {}, swap slotId={}, load={}, threshold={}",
+          heavySlot,
+          slotWeight(heavySlot),
+          heavyDataServer,
+          lightDataServer,
+          lightSlot,
+          heavyLoad,
+          threshold);
+    }
+    return balanced != 0;
+  }
+
+  private boolean balanceFollowerWeights() {
+    if (!hasSlotWeights()) {
+      return false;
+    }
+    final int maxMove = balancePolicy.getMaxMoveFollowerSlots();
+    int balanced = 0;
+    while (balanced < maxMove) {
+      final Map<String, Long> loads = collectWeightedLoads(false);
+      final String heavyDataServer = findHeaviestDataServer(loads);
+      final long heavyLoad = loads.get(heavyDataServer);
+      final long threshold = balancePolicy.getHighWaterMarkSlotWeight(averageLoad(loads));
+      if (heavyLoad <= threshold) {
+        break;
+      }
+      Triple<Integer, String, Integer> selected =
+          selectFollower4WeightBalance(heavyDataServer, loads, maxMove - balanced >= 2);
+      if (selected == null) {
+        LOGGER.info(
+            "[balanceFollowerWeights] could not find follower to move for {}, load={}, threshold={}",
+            heavyDataServer,
+            heavyLoad,
+            threshold);
+        break;
+      }
+      final int heavySlot = selected.getFirst();
+      final String lightDataServer = selected.getMiddle();
+      final Integer lightSlot = selected.getLast();
+      slotTableBuilder.removeFollower(heavySlot, heavyDataServer);
+      slotTableBuilder.addFollower(heavySlot, lightDataServer);
+      Metrics.SlotBalance.onHighFollowerMigrate(heavyDataServer, lightDataServer, heavySlot);
+      balanced++;
+      if (lightSlot != null) {
+        slotTableBuilder.removeFollower(lightSlot, lightDataServer);
+        slotTableBuilder.addFollower(lightSlot, heavyDataServer);
+        Metrics.SlotBalance.onHighFollowerMigrate(lightDataServer, heavyDataServer, lightSlot);
+        balanced++;
+      }
+      LOGGER.info(
+          "[balanceFollowerWeights] move follower slotId={}/{} from {} to {}, swap slotId={}, load={}, threshold={}",
+          heavySlot,
+          slotWeight(heavySlot),
+          heavyDataServer,
+          lightDataServer,
+          lightSlot,
+          heavyLoad,
+          threshold);
+    }
+    return balanced != 0;
+  }
+
+  /**
+   * find a leader slot of the heavy data server which has a follower on a light data server, and
+   * upgrade the follower could minimize the max load of the two data servers. if the slot nums
+   * would break the water marks, swap with a leader slot of the light data server which has a
+   * follower on the heavy data server
+   *
+   * @return heavySlot, lightDataServer, lightSlot(null if move without swap)
+   */
+  private Triple<Integer, String, Integer> selectLeader4WeightBalance(
+      String heavyDataServer, Map<String, Long> loads, boolean swappable) {
+    final int leaderHigh =
+        balancePolicy.getHighWaterMarkSlotLeaderNums(
+            MathUtils.divideCeil(slotNum, currentDataServers.size()));
+    final int leaderLow =
+        balancePolicy.getLowWaterMarkSlotLeaderNums(
+            Math.floorDiv(slotNum, currentDataServers.size()));
+    final int followerHigh = followerHighWaterMark();
+    final int followerLow = followerLowWaterMark();
+
+    final DataNodeSlot heavyDataNodeSlot = slotTableBuilder.getDataNodeSlot(heavyDataServer);
+    final long heavyLoad = loads.get(heavyDataServer);
+    final boolean heavyMovable =
+        heavyDataNodeSlot.getLeaders().size() - 1 >= leaderLow
+            && heavyDataNodeSlot.getFollowers().size() + 1 <= followerHigh;
+    long minMaxLoad = heavyLoad;
+    Triple<Integer, String, Integer> selected = null;
+    for (int heavySlot : heavyDataNodeSlot.getLeaders()) {
+      final long heavyWeight = slotWeight(heavySlot);
+      for (String lightDataServer : slotTableBuilder.getDataServersOwnsFollower(heavySlot)) {
+        final Long lightLoad = loads.get(lightDataServer);
+        if (lightLoad == null || lightLoad >= heavyLoad) {
+          continue;
+        }
+        final DataNodeSlot lightDataNodeSlot = slotTableBuilder.getDataNodeSlot(lightDataServer);
+        if (heavyMovable
+            && lightDataNodeSlot.getLeaders().size() + 1 <= leaderHigh
+            && lightDataNodeSlot.getFollowers().size() - 1 >= followerLow) {
+          final long maxLoad = Math.max(heavyLoad - heavyWeight, lightLoad + heavyWeight);
+          if (maxLoad < minMaxLoad) {
+            minMaxLoad = maxLoad;
+            selected = Triple.from(heavySlot, lightDataServer, null);
+          }
+        }
+        if (!swappable) {
+          continue;
+        }
+        for (int lightSlot : lightDataNodeSlot.getLeaders()) {
+          if (!heavyDataNodeSlot.containsFollower(lightSlot)) {
+            continue;
+          }
+          final long delta = heavyWeight - slotWeight(lightSlot);
+          if (delta <= 0) {
+            continue;
+          }
+          final long maxLoad = Math.max(heavyLoad - delta, lightLoad + delta);
+          if (maxLoad < minMaxLoad) {
+            minMaxLoad = maxLoad;
+            selected = Triple.from(heavySlot, lightDataServer, lightSlot);
+          }
+        }
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * find a follower slot of the heavy data server, and move it to a light data server could
+   * minimize the max load of the two data servers. if the slot nums would break the water marks,
+   * swap with a follower slot of the light data server
+   *
+   * @return heavySlot, lightDataServer, lightSlot(null if move without swap)
+   */
+  private Triple<Integer, String, Integer> selectFollower4WeightBalance(
+      String heavyDataServer, Map<String, Long> loads, boolean swappable) {
+    final int followerHigh = followerHighWaterMark();
+    final int followerLow = followerLowWaterMark();
+
+    final DataNodeSlot heavyDataNodeSlot = slotTableBuilder.getDataNodeSlot(heavyDataServer);
+    final long heavyLoad = loads.get(heavyDataServer);
+    final boolean heavyMovable = heavyDataNodeSlot.getFollowers().size() - 1 >= followerLow;
+    long minMaxLoad = heavyLoad;
+    Triple<Integer, String, Integer> selected = null;
+    for (Map.Entry<String, Long> e : loads.entrySet()) {
+      final String lightDataServer = e.getKey();
+      final long lightLoad = e.getValue();
+      if (lightLoad >= heavyLoad) {
+        continue;
+      }
+      final DataNodeSlot lightDataNodeSlot =
+          slotTableBuilder.getDataNodeSlotIfPresent(lightDataServer);
+      if (lightDataNodeSlot == null) {
+        continue;
+      }
+      final boolean lightMovable = lightDataNodeSlot.getFollowers().size() + 1 <= followerHigh;
+      for (int heavySlot : heavyDataNodeSlot.getFollowers()) {
+        if (lightDataNodeSlot.containsLeader(heavySlot)
+            || lightDataNodeSlot.containsFollower(heavySlot)) {
+          continue;
+        }
+        final long heavyWeight = slotWeight(heavySlot);
+        if (heavyMovable && lightMovable) {
+          final long maxLoad = Math.max(heavyLoad - heavyWeight, lightLoad + heavyWeight);
+          if (maxLoad < minMaxLoad) {
+            minMaxLoad = maxLoad;
+            selected = Triple.from(heavySlot, lightDataServer, null);
+          }
+        }
+        if (!swappable) {
+          continue;
+        }
+        for (int lightSlot : lightDataNodeSlot.getFollowers()) {
+          if (heavyDataNodeSlot.containsLeader(lightSlot)
+              || heavyDataNodeSlot.containsFollower(lightSlot)) {
+            continue;
+          }
+          final long delta = heavyWeight - slotWeight(lightSlot);
+          if (delta <= 0) {
+            continue;
+          }
+          final long maxLoad = Math.max(heavyLoad - delta, lightLoad + delta);
+          if (maxLoad < minMaxLoad) {
+            minMaxLoad = maxLoad;
+            selected = Triple.from(heavySlot, lightDataServer, lightSlot);
+          }
+        }
+      }
+    }
+    return selected;
+  }
+
+  private int followerHighWaterMark() {
+    return balancePolicy.getHighWaterMarkSlotFollowerNums(
+        MathUtils.divideCeil(slotNum * (slotReplicas - 1), currentDataServers.size()));
+  }
+
+  private int followerLowWaterMark() {
+    return balancePolicy.getLowWaterMarkSlotFollowerNums(
+        Math.floorDiv(slotNum * (slotReplicas - 1), currentDataServers.size()));
+  }
+
+  private boolean hasSlotWeights() {
+    if (slotWeights.size() < slotNum) {
+      // some slots not reported, the weights are incomplete
+      return false;
+    }
+    for (Long weight : slotWeights.values()) {
+      if (weight != null && weight > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private long slotWeight(int slotId) {
+    Long weight = slotWeights.get(slotId);
+    return weight == null ? 0 : weight;
+  }
+
+  /**
+   * the leader load is the traffic of the data server, the replica load(leaders and followers) is
+   * the memory of the data server
+   */
+  @VisibleForTesting
+  Map<String, Long> collectWeightedLoads(boolean leaderOnly) {
+    Map<String, Long> loads = Maps.newHashMapWithExpectedSize(currentDataServers.size());
+    for (String dataServer : currentDataServers) {
+      DataNodeSlot dataNodeSlot = slotTableBuilder.getDataNodeSlotIfPresent(dataServer);
+      long load = 0;
+      if (dataNodeSlot != null) {
+        for (int slotId : dataNodeSlot.getLeaders()) {
+          load += slotWeight(slotId);
+        }
+        if (!leaderOnly) {
+          for (int slotId : dataNodeSlot.getFollowers()) {
+            load += slotWeight(slotId);
+          }
+        }
+      }
+      loads.put(dataServer, load);
+    }
+    return loads;
+  }
+
+  private static String findHeaviestDataServer(Map<String, Long> loads) {
+    String heavy = null;
+    long max = -1;
+    for (Map.Entry<String, Long> e : loads.entrySet()) {
+      if (e.getValue() > max) {
+        max = e.getValue();
+        heavy = e.getKey();
+      }
+    }
+    return heavy;
+  }
+
+  private static long averageLoad(Map<String, Long> loads) {
+    long total = 0;
+    for (long load : loads.values()) {
+      total += load;
+    }
+    return total / loads.size();
+  }
+
   public SlotTableBuilder getSlotTableBuilder() {
     return slotTableBuilder;
   }
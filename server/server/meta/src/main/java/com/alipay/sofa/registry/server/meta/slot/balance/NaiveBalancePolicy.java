@@ -27,11 +27,15 @@ public class NaiveBalancePolicy implements BalancePolicy {
   public static final String PROP_LEADER_MAX_MOVE = "registry.slot.leader.max.move";
   public static final String PROP_FOLLOWER_MAX_MOVE = "registry.slot.follower.max.move";
   public static final String PROP_BALANCE_THRESHOLD = "registry.slot.balance.threshold";
+  public static final String PROP_WEIGHT_BALANCE_THRESHOLD =
+      "registry.slot.balance.weight.threshold";
 
   public static final int DEF_LEADER_MAX_MOVE = 6;
 
   private int balanceThreshold = Integer.getInteger(PROP_BALANCE_THRESHOLD, 10);
 
+  private int weightBalanceThreshold = Integer.getInteger(PROP_WEIGHT_BALANCE_THRESHOLD, 20);
+
   private int maxMoveLeaderSlots = Integer.getInteger(PROP_LEADER_MAX_MOVE, DEF_LEADER_MAX_MOVE);
 
   private int maxMoveFollowerSlots = Integer.getInteger(PROP_FOLLOWER_MAX_MOVE, 10);
@@ -70,10 +74,19 @@ public class NaiveBalancePolicy implements BalancePolicy {
     return maxMoveFollowerSlots;
   }
 
+  @Override
+  public long getHighWaterMarkSlotWeight(long average) {
+    return average * (100 + weightBalanceThreshold) / 100;
+  }
+
   public void setBalanceThreshold(int balanceThreshold) {
     this.balanceThreshold = balanceThreshold;
   }
 
+  public void setWeightBalanceThreshold(int weightBalanceThreshold) {
+    this.weightBalanceThreshold = weightBalanceThreshold;
+  }
+
   public void setMaxMoveLeaderSlots(int maxMoveLeaderSlots) {
     this.maxMoveLeaderSlots = maxMoveLeaderSlots;
   }
@@ -102,7 +102,14 @@ public class AppRevisionCleanerTest extends AbstractMetaServerTestBase {
     mocked.renewer.getWaitingMillis();
     mocked.renew();
     mocked.renewer.runUnthrowable();
-    verify(mocked.appRevisionRepository, times(6)).heartbeatDB(anyString());
+    verify(mocked.appRevisionRepository, times(6)).asyncHeartbeatDB(anyString());
+    verify(mocked.appRevisionRepository, times(2)).flushHeartbeatDB();
+    Assert.assertTrue(mocked.consecutiveSuccess.check());
+
+    // the heartbeats not written, the cleaner must not trust the renew
+    doThrow(new RuntimeException("test")).when(mocked.appRevisionRepository).flushHeartbeatDB();
+    mocked.renew();
+    Assert.assertFalse(mocked.consecutiveSuccess.check());
     mocked.init();
     mocked.start();
     mocked.renewer.close();
@@ -18,15 +18,19 @@ package com.alipay.sofa.registry.server.meta.cleaner;
 
 import static org.mockito.Mockito.*;
 
+import com.alipay.sofa.registry.common.model.store.AppRevision;
+import com.alipay.sofa.registry.core.model.AppRevisionInterface;
 import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
+import java.util.Collections;
 import org.assertj.core.util.Lists;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 public class InterfaceAppsIndexCleanerTest extends AbstractMetaServerTestBase {
   private InterfaceAppsIndexCleaner interfaceAppsIndexCleaner;
@@ -63,6 +67,24 @@ public class InterfaceAppsIndexCleanerTest extends AbstractMetaServerTestBase {
     mocked.renewer.close();
   }
 
+  @Test
+  public void testRenewFlush() {
+    AppRevision revision = new AppRevision();
+    revision.setId(1);
+    revision.setAppName("app1");
+    revision.setInterfaceMap(Collections.singletonMap("service1", new AppRevisionInterface()));
+    doReturn(Lists.newArrayList(revision))
+        .when(interfaceAppsIndexCleaner.appRevisionRepository)
+        .listFromStorage(anyLong(), anyInt());
+    interfaceAppsIndexCleaner.renew();
+    // the renewals are written before the success
+    InOrder inOrder = inOrder(interfaceAppsIndexCleaner.interfaceAppsRepository);
+    inOrder
+        .verify(interfaceAppsIndexCleaner.interfaceAppsRepository)
+        .asyncRenew("service1", "app1");
+    inOrder.verify(interfaceAppsIndexCleaner.interfaceAppsRepository).flushRenew();
+  }
+
   @Test
   public void testClean() {
     InterfaceAppsIndexCleaner mocked = spy(interfaceAppsIndexCleaner);
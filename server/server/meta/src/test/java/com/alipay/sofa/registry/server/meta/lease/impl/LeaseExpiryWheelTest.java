@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.lease.impl;
+
+import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LeaseExpiryWheelTest extends AbstractMetaServerTestBase {
+
+  @Test
+  public void testExpired() throws InterruptedException {
+    LeaseExpiryWheel<SimpleNode> wheel = new LeaseExpiryWheel<>(10, 8);
+    Lease<SimpleNode> expired = new Lease<>(new SimpleNode(randomIp()), 1, TimeUnit.MILLISECONDS);
+    Lease<SimpleNode> alive = new Lease<>(new SimpleNode(randomIp()), 10);
+    wheel.schedule(expired);
+    wheel.schedule(alive);
+    Thread.sleep(5);
+
+    List<Lease<SimpleNode>> expires = wheel.advance(System.currentTimeMillis(), lease -> true);
+    Assert.assertEquals(1, expires.size());
+    Assert.assertSame(expired, expires.get(0));
+    // expired lease is kept until it is not registered
+    Assert.assertEquals(2, wheel.size());
+    Assert.assertEquals(1, wheel.advance(System.currentTimeMillis(), lease -> true).size());
+
+    Assert.assertTrue(wheel.advance(System.currentTimeMillis(), lease -> lease == alive).isEmpty());
+    Assert.assertEquals(1, wheel.size());
+  }
+
+  @Test
+  public void testRenewReschedule() throws InterruptedException {
+    LeaseExpiryWheel<SimpleNode> wheel = new LeaseExpiryWheel<>(10, 4);
+    Lease<SimpleNode> lease = new Lease<>(new SimpleNode(randomIp()), 1, TimeUnit.MILLISECONDS);
+    wheel.schedule(lease);
+    Thread.sleep(5);
+    lease.renew(10);
+
+    Assert.assertTrue(wheel.advance(System.currentTimeMillis(), l -> true).isEmpty());
+    Assert.assertEquals(1, wheel.size());
+    // far beyond a whole round of the wheel
+    long future = lease.getExpireTimestamp() + 1;
+    Assert.assertEquals(Sets.newHashSet(lease), toSet(wheel.advance(future, l -> true)));
+  }
+
+  @Test
+  public void testRenewShorter() throws InterruptedException {
+    LeaseExpiryWheel<SimpleNode> wheel = new LeaseExpiryWheel<>(10, 4);
+    Lease<SimpleNode> lease = new Lease<>(new SimpleNode(randomIp()), 10);
+    wheel.schedule(lease);
+    long scheduled = lease.getExpireTimestamp();
+    // renewed with the same duration, not rescheduled
+    lease.renew(10);
+    wheel.onRenewed(lease);
+
+    // shrink the duration, the lease expires far before the scheduled bucket
+    lease.renew(0);
+    wheel.onRenewed(lease);
+    Assert.assertEquals(1, wheel.size());
+    Thread.sleep(5);
+    long now = lease.getExpireTimestamp() + 20;
+    Assert.assertTrue(now < scheduled);
+    Assert.assertEquals(Sets.newHashSet(lease), toSet(wheel.advance(now, l -> true)));
+    Assert.assertEquals(1, wheel.size());
+
+    // the stale entry at the old bucket is skipped, the unregistered lease is removed
+    Assert.assertTrue(wheel.advance(scheduled + 1, l -> false).isEmpty());
+    Assert.assertEquals(0, wheel.size());
+  }
+
+  private static Set<Lease<SimpleNode>> toSet(List<Lease<SimpleNode>> leases) {
+    return Sets.newHashSet(leases);
+  }
+}
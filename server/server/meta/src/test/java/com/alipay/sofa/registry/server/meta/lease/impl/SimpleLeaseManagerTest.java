@@ -62,6 +62,22 @@ public class SimpleLeaseManagerTest extends AbstractMetaServerTestBase {
     Assert.assertEquals(1, leaseManager.localRepo.size());
   }
 
+  @Test
+  public void testRenewNotChangeEpoch() {
+    SimpleNode node = new SimpleNode(randomIp());
+    Assert.assertFalse(leaseManager.renew(node, 10));
+    long epoch = leaseManager.getLeaseMeta().getEpoch();
+    Lease<SimpleNode> lease = leaseManager.getLease(node);
+    Assert.assertTrue(leaseManager.renew(new SimpleNode(node.getNodeUrl().getIpAddress()), 20));
+    Assert.assertEquals(epoch, leaseManager.getLeaseMeta().getEpoch());
+    Assert.assertSame(lease, leaseManager.getLease(node));
+
+    // renew after cancel registers again
+    leaseManager.cancel(lease);
+    Assert.assertFalse(leaseManager.renew(node, 10));
+    Assert.assertNotSame(lease, leaseManager.getLease(node));
+  }
+
   @Test
   public void testRefreshEpoch() {
     Assert.assertTrue(leaseManager.refreshEpoch(DatumVersionUtil.nextId()));
@@ -73,16 +73,35 @@ public class DefaultSlotTableStatsTest extends AbstractMetaServerTestBase {
           .getLeaders()
           .forEach(
               slotId -> {
-                slotStatuses.add(
+                LeaderSlotStatus status =
                     new LeaderSlotStatus(
                         slotId,
                         slotTable.getSlot(slotId).getLeaderEpoch(),
                         dataNode.getIp(),
-                        BaseSlotStatus.LeaderStatus.HEALTHY));
+                        BaseSlotStatus.LeaderStatus.HEALTHY);
+                status.setWeight(slotId * 10);
+                slotStatuses.add(status);
               });
       slotTableStats.checkSlotStatuses(dataNode, slotStatuses);
     }
     Assert.assertTrue(slotTableStats.isSlotLeadersStable());
+    Assert.assertEquals(slotTable.getSlotIds().size(), slotTableStats.getSlotWeights().size());
+    Assert.assertEquals(10L, slotTableStats.getSlotWeights().get(1).longValue());
+
+    // the weight of the migrating leader is not recorded
+    for (DataNode dataNode : dataNodes) {
+      if (dataNode.getIp().equals(slotTable.getSlot(1).getLeader())) {
+        LeaderSlotStatus status =
+            new LeaderSlotStatus(
+                1,
+                slotTable.getSlot(1).getLeaderEpoch(),
+                dataNode.getIp(),
+                BaseSlotStatus.LeaderStatus.UNHEALTHY);
+        status.setWeight(1);
+        slotTableStats.checkSlotStatuses(dataNode, Lists.newArrayList(status));
+      }
+    }
+    Assert.assertEquals(10L, slotTableStats.getSlotWeights().get(1).longValue());
   }
 
   @Test
@@ -20,12 +20,20 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataBatchChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataSetDiff;
 import com.alipay.sofa.registry.server.meta.remoting.data.DefaultDataServerService;
 import com.alipay.sofa.registry.server.meta.remoting.session.DefaultSessionServerService;
+import com.alipay.sofa.registry.store.api.DBResponse;
 import com.google.common.collect.Sets;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -67,4 +75,96 @@ public class DefaultProvideDataNotifierTest {
     verify(defaultDataServerService, times(2)).notifyProvideDataChange(any());
     verify(defaultSessionServerService, times(2)).notifyProvideDataChange(any());
   }
+
+  @Test
+  public void testNotifyProvideDataBatchChange() {
+    ProvideDataService provideDataService = mock(ProvideDataService.class);
+    PersistenceData persistenceData =
+        PersistenceDataBuilder.createPersistenceData("a#@#b#@#c", "v");
+    persistenceData.setVersion(10L);
+    when(provideDataService.queryProvideData("a#@#b#@#c"))
+        .thenReturn(DBResponse.ok(persistenceData).build());
+    when(provideDataService.queryProvideData("d#@#e#@#f"))
+        .thenReturn(DBResponse.notfound().build());
+    notifier.setProvideDataService(provideDataService).setBatchEnabled(true);
+
+    notifier.notifyProvideDataChange(
+        new ProvideDataChangeEvent("a#@#b#@#c", 9L, Sets.newHashSet(Node.NodeType.DATA)));
+    notifier.notifyProvideDataChange(
+        new ProvideDataChangeEvent("a#@#b#@#c", 10L, Sets.newHashSet(Node.NodeType.SESSION)));
+    notifier.notifyProvideDataChange(
+        new ProvideDataChangeEvent("d#@#e#@#f", 5L, Sets.newHashSet(Node.NodeType.SESSION)));
+    verify(defaultDataServerService, never()).notifyProvideDataChange(any());
+    verify(defaultSessionServerService, never()).notifyProvideDataChange(any());
+
+    Assert.assertEquals(2, notifier.flush());
+    Assert.assertEquals(0, notifier.flush());
+
+    ArgumentCaptor<ProvideDataBatchChangeEvent> dataCaptor =
+        ArgumentCaptor.forClass(ProvideDataBatchChangeEvent.class);
+    verify(defaultDataServerService, times(1)).notifyProvideDataBatchChange(dataCaptor.capture());
+    ProvideDataBatchChangeEvent dataEvent = dataCaptor.getValue();
+    Assert.assertEquals(1, dataEvent.getProvideDatas().size());
+    Assert.assertEquals(10L, dataEvent.getProvideDatas().get(0).getVersion().longValue());
+    Assert.assertTrue(dataEvent.getFetchDataInfoIds().isEmpty());
+
+    ArgumentCaptor<ProvideDataBatchChangeEvent> sessionCaptor =
+        ArgumentCaptor.forClass(ProvideDataBatchChangeEvent.class);
+    verify(defaultSessionServerService, times(1))
+        .notifyProvideDataBatchChange(sessionCaptor.capture());
+    ProvideDataBatchChangeEvent sessionEvent = sessionCaptor.getValue();
+    Assert.assertEquals(1, sessionEvent.getProvideDatas().size());
+    Assert.assertEquals(Sets.newHashSet("d#@#e#@#f"), sessionEvent.getFetchDataInfoIds());
+  }
+
+  @Test
+  public void testNotifySetValueDiff() {
+    ProvideDataService provideDataService = mock(ProvideDataService.class);
+    notifier.setProvideDataService(provideDataService).setBatchEnabled(true);
+    String dataInfoId = ValueConstants.BLACK_LIST_DATA_ID;
+
+    mockBlacklist(provideDataService, "{\"FORBIDDEN_PUB\":{\"IP_FULL\":[\"1.1.1.1\"]}}", 1L);
+    ProvideDataBatchChangeEvent first = flushToSession(dataInfoId, 1L, 1);
+    // the first value is notified in full
+    Assert.assertEquals(1, first.getProvideDatas().size());
+    Assert.assertTrue(first.getSetDiffs().isEmpty());
+
+    mockBlacklist(
+        provideDataService,
+        "{\"FORBIDDEN_PUB\":{\"IP_FULL\":[\"1.1.1.1\",\"2.2.2.2\",\"3.3.3.3\"]}}",
+        2L);
+    ProvideDataBatchChangeEvent second = flushToSession(dataInfoId, 2L, 2);
+    Assert.assertTrue(second.getProvideDatas().isEmpty());
+    ProvideDataSetDiff diff = second.getSetDiffs().get(0);
+    Assert.assertEquals(1L, diff.getBaseVersion());
+    Assert.assertEquals(2L, diff.getVersion());
+    Assert.assertEquals(
+        Sets.newHashSet("2.2.2.2", "3.3.3.3"), diff.getAdded().get("FORBIDDEN_PUB").get("IP_FULL"));
+    Assert.assertTrue(diff.getRemoved().isEmpty());
+
+    // all replaced, the full value is smaller than the diff
+    mockBlacklist(provideDataService, "{\"FORBIDDEN_PUB\":{\"IP_FULL\":[\"4.4.4.4\"]}}", 3L);
+    ProvideDataBatchChangeEvent third = flushToSession(dataInfoId, 3L, 3);
+    Assert.assertEquals(1, third.getProvideDatas().size());
+    Assert.assertTrue(third.getSetDiffs().isEmpty());
+  }
+
+  private static void mockBlacklist(ProvideDataService provideDataService, String value, long v) {
+    PersistenceData persistenceData =
+        PersistenceDataBuilder.createPersistenceData(ValueConstants.BLACK_LIST_DATA_ID, value);
+    persistenceData.setVersion(v);
+    when(provideDataService.queryProvideData(ValueConstants.BLACK_LIST_DATA_ID))
+        .thenReturn(DBResponse.ok(persistenceData).build());
+  }
+
+  private ProvideDataBatchChangeEvent flushToSession(String dataInfoId, long version, int times) {
+    notifier.notifyProvideDataChange(
+        new ProvideDataChangeEvent(dataInfoId, version, Sets.newHashSet(Node.NodeType.SESSION)));
+    Assert.assertEquals(1, notifier.flush());
+    ArgumentCaptor<ProvideDataBatchChangeEvent> captor =
+        ArgumentCaptor.forClass(ProvideDataBatchChangeEvent.class);
+    verify(defaultSessionServerService, times(times))
+        .notifyProvideDataBatchChange(captor.capture());
+    return captor.getValue();
+  }
 }
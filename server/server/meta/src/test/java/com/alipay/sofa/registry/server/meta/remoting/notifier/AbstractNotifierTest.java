@@ -18,14 +18,17 @@ package com.alipay.sofa.registry.server.meta.remoting.notifier;
 
 import static org.mockito.Mockito.*;
 
+import com.alipay.sofa.registry.common.model.metaserver.SlotTableChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
 import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
+import com.alipay.sofa.registry.remoting.exchange.message.SimpleRequest;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.remoting.connection.NodeConnectManager;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
 import org.assertj.core.util.Lists;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -78,4 +81,60 @@ public class AbstractNotifierTest extends AbstractMetaServerTestBase {
     Thread.sleep(100);
     verify(exchanger, atLeast(1)).request(any());
   }
+
+  @Test
+  public void testCoalesceSlotTableNotify() throws Exception {
+    InetSocketAddress connection = new InetSocketAddress("127.0.0.1", 8080);
+    List<SimpleRequest> requests = Lists.newArrayList();
+    doAnswer(
+            invocation -> {
+              requests.add((SimpleRequest) invocation.getArguments()[0]);
+              return null;
+            })
+        .when(exchanger)
+        .request(any());
+
+    notifier.notifySlotTableEpoch(connection, 1);
+    // in flight, coalesced to the latest
+    notifier.notifySlotTableEpoch(connection, 2);
+    notifier.notifySlotTableEpoch(connection, 3);
+    // superseded
+    notifier.notifySlotTableEpoch(connection, 2);
+    Assert.assertEquals(1, requests.size());
+    Assert.assertEquals(3, notifier.getSlotTableNotifyState(connection).pendingEpoch);
+
+    requests.get(0).getCallBackHandler().onCallback(null, null);
+    Assert.assertEquals(2, requests.size());
+    Assert.assertEquals(
+        3, ((SlotTableChangeEvent) requests.get(1).getRequestBody()).getSlotTableEpoch());
+    AbstractNotifier.SlotTableNotifyState state = notifier.getSlotTableNotifyState(connection);
+    Assert.assertEquals(1, state.ackedEpoch);
+    Assert.assertEquals(3, state.inflightEpoch);
+    Assert.assertEquals(0, state.pendingEpoch);
+
+    // failed, no pending
+    requests.get(1).getCallBackHandler().onException(null, new TimeoutException());
+    Assert.assertEquals(0, state.inflightEpoch);
+    Assert.assertEquals(1, state.ackedEpoch);
+
+    notifier.notifySlotTableEpoch(connection, 1);
+    Assert.assertEquals(2, requests.size());
+    notifier.notifySlotTableEpoch(connection, 4);
+    Assert.assertEquals(3, requests.size());
+    requests.get(2).getCallBackHandler().onCallback(null, null);
+    Assert.assertEquals(4, state.ackedEpoch);
+    notifier.notifySlotTableEpoch(connection, 4);
+    Assert.assertEquals(3, requests.size());
+  }
+
+  @Test
+  public void testSlotTableNotifyRequestFailed() throws Exception {
+    InetSocketAddress connection = new InetSocketAddress("127.0.0.1", 8080);
+    when(exchanger.request(any())).thenThrow(new RuntimeException("expected exception"));
+    notifier.notifySlotTableEpoch(connection, 1);
+    AbstractNotifier.SlotTableNotifyState state = notifier.getSlotTableNotifyState(connection);
+    Assert.assertEquals(0, state.inflightEpoch);
+    notifier.notifySlotTableEpoch(connection, 2);
+    verify(exchanger, times(2)).request(any());
+  }
 }
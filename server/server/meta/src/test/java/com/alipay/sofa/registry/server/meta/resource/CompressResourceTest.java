@@ -22,11 +22,14 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.console.PersistenceData;
 import com.alipay.sofa.registry.common.model.metaserver.CompressDatumSwitch;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDicts;
 import com.alipay.sofa.registry.common.model.metaserver.CompressPushSwitch;
 import com.alipay.sofa.registry.server.meta.provide.data.DefaultProvideDataNotifier;
 import com.alipay.sofa.registry.server.meta.provide.data.ProvideDataService;
 import com.alipay.sofa.registry.store.api.DBResponse;
 import com.alipay.sofa.registry.store.api.OperationStatus;
+import com.google.common.collect.Lists;
+import java.util.Base64;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -75,4 +78,16 @@ public class CompressResourceTest {
   public void testGetDatumSwitch() {
     compressResource.getDatumSwitch();
   }
+
+  @Test
+  public void testSetDicts() {
+    CompressDicts dicts = new CompressDicts();
+    dicts.setZstdDicts(Lists.newArrayList(Base64.getEncoder().encodeToString(new byte[10])));
+    Assert.assertFalse(compressResource.setDicts(dicts).isSuccess());
+    verify(provideDataNotifier, times(0)).notifyProvideDataChange(any());
+
+    Assert.assertTrue(compressResource.setDicts(new CompressDicts()).isSuccess());
+    verify(provideDataNotifier, times(1)).notifyProvideDataChange(any());
+    Assert.assertEquals(0, compressResource.getDicts().getZstdDicts().size());
+  }
 }
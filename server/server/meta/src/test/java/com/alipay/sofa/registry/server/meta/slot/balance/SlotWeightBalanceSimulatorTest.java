@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.alipay.sofa.registry.common.model.slot.DataNodeSlot;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * replays the slot weights offline and checks the weighted load after balance. the weights could be
+ * loaded from the file(one "slotId,weight" per line) by -Dslot.weights.file
+ */
+public class SlotWeightBalanceSimulatorTest extends AbstractMetaServerTestBase {
+  private static final int SLOT_NUM = 256;
+  private static final int MAX_ROUNDS = 200;
+
+  @Test
+  public void testSimulate() throws Exception {
+    double leaderRatio = simulate(8, 2, loadWeights(20000));
+    Assert.assertTrue(leaderRatio <= 1.2);
+  }
+
+  @Test
+  public void testSimulateReplicas() throws Exception {
+    double leaderRatio = simulate(8, 3, loadWeights(40000));
+    Assert.assertTrue(leaderRatio <= 1.3);
+  }
+
+  private double simulate(int dataServerNum, int replicas, Map<Integer, Long> weights) {
+    List<String> dataServers = Lists.newArrayList();
+    for (int i = 1; i <= dataServerNum; i++) {
+      dataServers.add("10.0.0." + i);
+    }
+    SlotTable slotTable = roundRobinSlotTable(dataServers, replicas, 1);
+
+    Map<String, Long> leaderLoads =
+        balancer(slotTable, dataServers, replicas, weights).collectWeightedLoads(true);
+    Map<String, Long> replicaLoads =
+        balancer(slotTable, dataServers, replicas, weights).collectWeightedLoads(false);
+    final double leaderRatio = maxAvgRatio(leaderLoads);
+    final double replicaRatio = maxAvgRatio(replicaLoads);
+
+    int rounds = 0;
+    for (; rounds < MAX_ROUNDS; rounds++) {
+      SlotTable next = balancer(slotTable, dataServers, replicas, weights).balance();
+      if (next == null) {
+        break;
+      }
+      assertSlotTableNoDupLeaderFollower(next);
+      Assert.assertTrue(next.getEpoch() > slotTable.getEpoch());
+      slotTable = next;
+    }
+    Assert.assertTrue(rounds < MAX_ROUNDS);
+
+    // the moves keep the slot nums of each data server in the water marks
+    NaiveBalancePolicy policy = new NaiveBalancePolicy();
+    final int avg = SLOT_NUM / dataServers.size();
+    final int followerAvg = SLOT_NUM * (replicas - 1) / dataServers.size();
+    for (DataNodeSlot dataNodeSlot : slotTable.transfer(null, false)) {
+      Assert.assertTrue(
+          dataNodeSlot.getLeaders().size() <= policy.getHighWaterMarkSlotLeaderNums(avg));
+      Assert.assertTrue(
+          dataNodeSlot.getLeaders().size() >= policy.getLowWaterMarkSlotLeaderNums(avg));
+      Assert.assertTrue(
+          dataNodeSlot.getFollowers().size()
+              <= policy.getHighWaterMarkSlotFollowerNums(followerAvg));
+      Assert.assertTrue(
+          dataNodeSlot.getFollowers().size()
+              >= policy.getLowWaterMarkSlotFollowerNums(followerAvg));
+    }
+    for (Slot slot : slotTable.getSlots()) {
+      Assert.assertEquals(replicas - 1, slot.getFollowers().size());
+    }
+    final double balancedLeaderRatio =
+        maxAvgRatio(balancer(slotTable, dataServers, replicas, weights).collectWeightedLoads(true));
+    final double balancedReplicaRatio =
+        maxAvgRatio(
+            balancer(slotTable, dataServers, replicas, weights).collectWeightedLoads(false));
+    logger.info(
+        "[simulate] replicas={}, rounds={}, leader max/avg {} -> {}, replica max/avg {} -> {}",
+        replicas,
+        rounds,
+        leaderRatio,
+        balancedLeaderRatio,
+        replicaRatio,
+        balancedReplicaRatio);
+    Assert.assertTrue(balancedLeaderRatio < leaderRatio);
+    Assert.assertTrue(balancedReplicaRatio <= replicaRatio);
+    Assert.assertTrue(balancedReplicaRatio <= 1.2);
+    return balancedLeaderRatio;
+  }
+
+  @Test
+  public void testNoWeights() {
+    List<String> dataServers = Lists.newArrayList("10.0.0.1", "10.0.0.2", "10.0.0.3", "10.0.0.4");
+    SlotTable slotTable = roundRobinSlotTable(dataServers, 2, 1);
+    Assert.assertNull(balancer(slotTable, dataServers, 2, Collections.emptyMap()).balance());
+    // not all slots reported
+    Map<Integer, Long> weights = Maps.newHashMap();
+    weights.put(0, 10000L);
+    Assert.assertNull(balancer(slotTable, dataServers, 2, weights).balance());
+  }
+
+  private static DefaultSlotBalancer balancer(
+      SlotTable slotTable, List<String> dataServers, int replicas, Map<Integer, Long> weights) {
+    SlotTableBuilder slotTableBuilder = new SlotTableBuilder(slotTable, SLOT_NUM, replicas);
+    slotTableBuilder.init(dataServers);
+    return new DefaultSlotBalancer(slotTableBuilder, dataServers, weights);
+  }
+
+  private static SlotTable roundRobinSlotTable(List<String> dataServers, int replicas, long epoch) {
+    List<Slot> slots = Lists.newArrayListWithCapacity(SLOT_NUM);
+    for (int slotId = 0; slotId < SLOT_NUM; slotId++) {
+      String leader = dataServers.get(slotId % dataServers.size());
+      List<String> followers = Lists.newArrayList();
+      for (int i = 1; i < replicas; i++) {
+        followers.add(dataServers.get((slotId + i) % dataServers.size()));
+      }
+      slots.add(new Slot(slotId, leader, epoch, followers));
+    }
+    return new SlotTable(epoch, slots);
+  }
+
+  private static Map<Integer, Long> loadWeights(long skew) throws Exception {
+    Map<Integer, Long> weights = Maps.newHashMap();
+    String file = System.getProperty("slot.weights.file");
+    if (StringUtils.isNotBlank(file)) {
+      for (String line : Files.readAllLines(new File(file).toPath(), StandardCharsets.UTF_8)) {
+        String[] parts = StringUtils.split(line, ',');
+        if (parts == null || parts.length != 2) {
+          continue;
+        }
+        weights.put(Integer.parseInt(parts[0].trim()), Long.parseLong(parts[1].trim()));
+      }
+      return weights;
+    }
+    // zipf-like skew, a few slots hold the huge service groups
+    List<Integer> ranks = Lists.newArrayList();
+    for (int i = 0; i < SLOT_NUM; i++) {
+      ranks.add(i);
+    }
+    Collections.shuffle(ranks, new Random(SLOT_NUM));
+    for (int slotId = 0; slotId < SLOT_NUM; slotId++) {
+      weights.put(slotId, 1000L + skew / (ranks.get(slotId) + 1));
+    }
+    return weights;
+  }
+
+  private static double maxAvgRatio(Map<String, Long> loads) {
+    long max = 0, total = 0;
+    for (long load : loads.values()) {
+      max = Math.max(max, load);
+      total += load;
+    }
+    return (double) max * loads.size() / total;
+  }
+}
@@ -152,14 +152,10 @@ public class ExecutorManager {
         reportExecutors.computeIfAbsent(
             ACCESS_METADATA_EXECUTOR,
             k ->
-                new MetricsableThreadPoolExecutor(
+                MetricsableThreadPoolExecutor.newBlockingIOExecutor(
                     ACCESS_METADATA_EXECUTOR,
                     sessionServerConfig.getAccessMetadataWorkerSize(),
-                    sessionServerConfig.getAccessMetadataWorkerSize(),
-                    60,
-                    TimeUnit.SECONDS,
-                    new ArrayBlockingQueue<>(sessionServerConfig.getAccessMetadataMaxBufferSize()),
-                    new NamedThreadFactory(ACCESS_METADATA_EXECUTOR, true)));
+                    sessionServerConfig.getAccessMetadataMaxBufferSize()));
 
     consoleExecutor =
         reportExecutors.computeIfAbsent(
@@ -198,29 +194,20 @@ public class ExecutorManager {
         reportExecutors.computeIfAbsent(
             APP_REVISION_REGISTER_EXECUTOR,
             k ->
-                new MetricsableThreadPoolExecutor(
+                MetricsableThreadPoolExecutor.newBlockingIOExecutor(
                     APP_REVISION_REGISTER_EXECUTOR,
                     sessionServerConfig.getMetadataRegisterExecutorPoolSize(),
-                    sessionServerConfig.getMetadataRegisterExecutorPoolSize(),
-                    60,
-                    TimeUnit.SECONDS,
-                    new ArrayBlockingQueue<>(
-                        sessionServerConfig.getMetadataRegisterExecutorQueueSize()),
-                    new NamedThreadFactory(APP_REVISION_REGISTER_EXECUTOR, true),
+                    sessionServerConfig.getMetadataRegisterExecutorQueueSize(),
                     new ThreadPoolExecutor.CallerRunsPolicy()));
 
     scanExecutor =
         reportExecutors.computeIfAbsent(
             SCAN_EXECUTOR,
             k ->
-                new MetricsableThreadPoolExecutor(
+                MetricsableThreadPoolExecutor.newBlockingIOExecutor(
                     SCAN_EXECUTOR,
                     sessionServerConfig.getScanExecutorPoolSize(),
-                    sessionServerConfig.getScanExecutorPoolSize(),
-                    60,
-                    TimeUnit.SECONDS,
-                    new ArrayBlockingQueue<>(sessionServerConfig.getScanExecutorQueueSize()),
-                    new NamedThreadFactory(SCAN_EXECUTOR, true),
+                    sessionServerConfig.getScanExecutorQueueSize(),
                     new ThreadPoolExecutor.CallerRunsPolicy()));
   }
 
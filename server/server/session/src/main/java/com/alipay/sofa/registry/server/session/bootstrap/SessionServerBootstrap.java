@@ -30,8 +30,10 @@ import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufCustomSerializer;
 import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufSerializer;
+import com.alipay.sofa.registry.remoting.bolt.serializer.SchemaSerializer;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
+import com.alipay.sofa.registry.server.session.cache.DatumCacheWarmup;
 import com.alipay.sofa.registry.server.session.metadata.MetadataCacheRegistry;
 import com.alipay.sofa.registry.server.session.providedata.ConfigProvideDataWatcher;
 import com.alipay.sofa.registry.server.session.remoting.handler.ClientNodeConnectionHandler;
@@ -114,6 +116,8 @@ public class SessionServerBootstrap {
 
   @Autowired private MetadataCacheRegistry metadataCacheRegistry;
 
+  @Autowired private DatumCacheWarmup datumCacheWarmup;
+
   @Resource private ClientNodeConnectionHandler clientNodeConnectionHandler;
 
   private Server httpServer;
@@ -192,6 +196,8 @@ public class SessionServerBootstrap {
       configProvideDataWatcher.start();
       registerSerializer();
       openConsoleServer();
+      // fill the datum cache before the clients reconnect and register
+      datumCacheWarmup.warmup();
       openSessionServer();
 
       TaskMetrics.getInstance().registerBolt();
@@ -223,6 +229,8 @@ public class SessionServerBootstrap {
   private void doStop() {
     try {
       LOGGER.info("{} Shutting down Session Server..", new Date().toString());
+      // the interests are cleaned after the clients disconnect
+      datumCacheWarmup.snapshot();
       stopHttpServer();
       clientNodeConnectionHandler.stop(); // stop process disconnect event
       stopServer();
@@ -415,6 +423,7 @@ public class SessionServerBootstrap {
         MultiReceivedDataPb.class.getName(), serializer);
     SerializerManager.addSerializer(
         ProtobufSerializer.PROTOCOL_PROTOBUF, ProtobufSerializer.getInstance());
+    SchemaSerializer.install();
   }
 
   private void stopServer() {
@@ -62,6 +62,14 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getDataNodeExchangeForFetchDatumTimeoutMillis();
 
+  int getDataNodeFetchBatchWindowMillis();
+
+  int getDataNodeFetchBatchMaxSize();
+
+  int getDataNodeFollowerReadHotThreshold();
+
+  int getDataNodeFollowerReadHotWindowMillis();
+
   int getMetaNodeExchangeTimeoutMillis();
 
   String getSessionServerRegion();
@@ -98,6 +106,26 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getPushTaskExecutorQueueSize();
 
+  int getPriorityPushTaskReservedQueueSize();
+
+  int getPriorityPushTaskMaxBurst();
+
+  int getPushFlowMinLimit();
+
+  int getPushFlowInitLimit();
+
+  int getPushFlowMaxLimit();
+
+  long getPushFlowMaxInflightBytes();
+
+  long getPushFlowIdleMillis();
+
+  int getPriorityPushSloMillis();
+
+  boolean isPushBatchEnable();
+
+  int getPushBatchMaxSize();
+
   int getPushTaskBufferBucketSize();
 
   int getPushTaskRetryTimes();
@@ -164,6 +192,16 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getCacheDatumExpireSecs();
 
+  boolean isCacheDatumWarmupEnable();
+
+  String getCacheDatumSnapshotFile();
+
+  int getCacheDatumWarmupConcurrency();
+
+  int getCacheDatumWarmupTimeoutMillis();
+
+  int getCacheDatumWarmupExpireSecs();
+
   int getHeartbeatCacheCheckerInitialDelaySecs();
 
   int getHeartbeatCacheCheckerSecs();
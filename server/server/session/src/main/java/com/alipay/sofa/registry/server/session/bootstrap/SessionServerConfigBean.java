@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.session.bootstrap;
 import com.alipay.sofa.registry.server.shared.config.CommonConfig;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.util.OsUtils;
+import java.io.File;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Optional;
@@ -114,12 +115,51 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int dataNodeExchangeForFetchDatumTimeoutMillis = 5000;
 
+  // gather the datum fetches to the same data leader within the window into one request,
+  // 0 means disabled, enable it after the data servers support BatchGetMultiDataRequest
+  private int dataNodeFetchBatchWindowMillis = 0;
+
+  private int dataNodeFetchBatchMaxSize = 100;
+
+  // the datum fetched not less than the threshold times within the window is read from the data
+  // followers in turn, 0 means disabled, enable it after the data servers support follower read
+  private int dataNodeFollowerReadHotThreshold = 0;
+
+  private int dataNodeFollowerReadHotWindowMillis = 10000;
+
   private int metaNodeExchangeTimeoutMillis = 3000;
 
   private int pushTaskExecutorPoolSize = OsUtils.getCpuCount() * 3;
 
   private int pushTaskExecutorQueueSize = pushTaskExecutorPoolSize * 3000;
 
+  // the Reg/Empty pushes could be queued above the pushTaskExecutorQueueSize
+  private int priorityPushTaskReservedQueueSize = OsUtils.getCpuCount() * 1000;
+
+  // the push lane runs one normal push after the max burst of the Reg/Empty pushes
+  private int priorityPushTaskMaxBurst = 8;
+
+  // the AIMD limit of the inflight pushes per client connection
+  private int pushFlowMinLimit = 1;
+
+  private int pushFlowInitLimit = 8;
+
+  private int pushFlowMaxLimit = 64;
+
+  // the budget of the inflight push bytes per client connection
+  private long pushFlowMaxInflightBytes = 1024 * 1024 * 4;
+
+  // the limit of the connection without pushes is removed after the idle
+  private long pushFlowIdleMillis = 60000;
+
+  private int priorityPushSloMillis = 1000;
+
+  // gather the ready push tasks of the same client connection into one ReceivedDataBatch,
+  // only for the clients which declare the capability
+  private boolean pushBatchEnable = false;
+
+  private int pushBatchMaxSize = 64;
+
   private int pushDataTaskRetryFirstDelayMillis = 500;
 
   private int pushDataTaskRetryIncrementDelayMillis = 500;
@@ -173,6 +213,24 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int cacheDatumExpireSecs = 5;
 
+  // prefetch the datums served before restart, ahead of opening the client port
+  private boolean cacheDatumWarmupEnable = true;
+
+  private String cacheDatumSnapshotFile =
+      System.getProperty("user.home")
+          + File.separator
+          + "registry"
+          + File.separator
+          + "session_datum_cache.snapshot";
+
+  private int cacheDatumWarmupConcurrency = 8;
+
+  private int cacheDatumWarmupTimeoutMillis = 10000;
+
+  // the warmed datums outlive cacheDatumExpireSecs until taken by the first register,
+  // covers the warmup timeout and the reconnection of the clients after the client port opens
+  private int cacheDatumWarmupExpireSecs = 60;
+
   // metadata config start
 
   private int heartbeatCacheCheckerInitialDelaySecs = 60;
@@ -622,6 +680,96 @@ public class SessionServerConfigBean implements SessionServerConfig {
     return pushTaskExecutorQueueSize;
   }
 
+  @Override
+  public int getPriorityPushTaskReservedQueueSize() {
+    return priorityPushTaskReservedQueueSize;
+  }
+
+  public void setPriorityPushTaskReservedQueueSize(int priorityPushTaskReservedQueueSize) {
+    this.priorityPushTaskReservedQueueSize = priorityPushTaskReservedQueueSize;
+  }
+
+  @Override
+  public int getPriorityPushTaskMaxBurst() {
+    return priorityPushTaskMaxBurst;
+  }
+
+  public void setPriorityPushTaskMaxBurst(int priorityPushTaskMaxBurst) {
+    this.priorityPushTaskMaxBurst = priorityPushTaskMaxBurst;
+  }
+
+  @Override
+  public int getPushFlowMinLimit() {
+    return pushFlowMinLimit;
+  }
+
+  public void setPushFlowMinLimit(int pushFlowMinLimit) {
+    this.pushFlowMinLimit = pushFlowMinLimit;
+  }
+
+  @Override
+  public int getPushFlowInitLimit() {
+    return pushFlowInitLimit;
+  }
+
+  public void setPushFlowInitLimit(int pushFlowInitLimit) {
+    this.pushFlowInitLimit = pushFlowInitLimit;
+  }
+
+  @Override
+  public int getPushFlowMaxLimit() {
+    return pushFlowMaxLimit;
+  }
+
+  public void setPushFlowMaxLimit(int pushFlowMaxLimit) {
+    this.pushFlowMaxLimit = pushFlowMaxLimit;
+  }
+
+  @Override
+  public long getPushFlowMaxInflightBytes() {
+    return pushFlowMaxInflightBytes;
+  }
+
+  public void setPushFlowMaxInflightBytes(long pushFlowMaxInflightBytes) {
+    this.pushFlowMaxInflightBytes = pushFlowMaxInflightBytes;
+  }
+
+  @Override
+  public long getPushFlowIdleMillis() {
+    return pushFlowIdleMillis;
+  }
+
+  public void setPushFlowIdleMillis(long pushFlowIdleMillis) {
+    this.pushFlowIdleMillis = pushFlowIdleMillis;
+  }
+
+  @Override
+  public int getPriorityPushSloMillis() {
+    return priorityPushSloMillis;
+  }
+
+  public void setPriorityPushSloMillis(int priorityPushSloMillis) {
+    this.priorityPushSloMillis = priorityPushSloMillis;
+  }
+
+  @Override
+  public boolean isPushBatchEnable() {
+    return pushBatchEnable;
+  }
+
+  public void setPushBatchEnable(boolean pushBatchEnable) {
+    this.pushBatchEnable = pushBatchEnable;
+  }
+
+  @Override
+  public int getPushBatchMaxSize() {
+    return pushBatchMaxSize;
+  }
+
+  public void setPushBatchMaxSize(int pushBatchMaxSize) {
+    this.pushBatchMaxSize = pushBatchMaxSize;
+  }
+
   @Override
   public int getPushDataTaskDebouncingMillis() {
     return pushDataTaskDebouncingMillis;
@@ -824,6 +972,42 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.dataNodeExchangeForFetchDatumTimeoutMillis = dataNodeExchangeForFetchDatumTimeoutMillis;
   }
 
+  @Override
+  public int getDataNodeFetchBatchWindowMillis() {
+    return dataNodeFetchBatchWindowMillis;
+  }
+
+  public void setDataNodeFetchBatchWindowMillis(int dataNodeFetchBatchWindowMillis) {
+    this.dataNodeFetchBatchWindowMillis = dataNodeFetchBatchWindowMillis;
+  }
+
+  @Override
+  public int getDataNodeFetchBatchMaxSize() {
+    return dataNodeFetchBatchMaxSize;
+  }
+
+  public void setDataNodeFetchBatchMaxSize(int dataNodeFetchBatchMaxSize) {
+    this.dataNodeFetchBatchMaxSize = dataNodeFetchBatchMaxSize;
+  }
+
+  @Override
+  public int getDataNodeFollowerReadHotThreshold() {
+    return dataNodeFollowerReadHotThreshold;
+  }
+
+  public void setDataNodeFollowerReadHotThreshold(int dataNodeFollowerReadHotThreshold) {
+    this.dataNodeFollowerReadHotThreshold = dataNodeFollowerReadHotThreshold;
+  }
+
+  @Override
+  public int getDataNodeFollowerReadHotWindowMillis() {
+    return dataNodeFollowerReadHotWindowMillis;
+  }
+
+  public void setDataNodeFollowerReadHotWindowMillis(int dataNodeFollowerReadHotWindowMillis) {
+    this.dataNodeFollowerReadHotWindowMillis = dataNodeFollowerReadHotWindowMillis;
+  }
+
   /**
    * Getter method for property <tt>slotSyncPublisherMaxNum</tt>.
    *
@@ -985,6 +1169,51 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.cacheDatumExpireSecs = cacheDatumExpireSecs;
   }
 
+  @Override
+  public boolean isCacheDatumWarmupEnable() {
+    return cacheDatumWarmupEnable;
+  }
+
+  public void setCacheDatumWarmupEnable(boolean cacheDatumWarmupEnable) {
+    this.cacheDatumWarmupEnable = cacheDatumWarmupEnable;
+  }
+
+  @Override
+  public String getCacheDatumSnapshotFile() {
+    return cacheDatumSnapshotFile;
+  }
+
+  public void setCacheDatumSnapshotFile(String cacheDatumSnapshotFile) {
+    this.cacheDatumSnapshotFile = cacheDatumSnapshotFile;
+  }
+
+  @Override
+  public int getCacheDatumWarmupConcurrency() {
+    return cacheDatumWarmupConcurrency;
+  }
+
+  public void setCacheDatumWarmupConcurrency(int cacheDatumWarmupConcurrency) {
+    this.cacheDatumWarmupConcurrency = cacheDatumWarmupConcurrency;
+  }
+
+  @Override
+  public int getCacheDatumWarmupTimeoutMillis() {
+    return cacheDatumWarmupTimeoutMillis;
+  }
+
+  public void setCacheDatumWarmupTimeoutMillis(int cacheDatumWarmupTimeoutMillis) {
+    this.cacheDatumWarmupTimeoutMillis = cacheDatumWarmupTimeoutMillis;
+  }
+
+  @Override
+  public int getCacheDatumWarmupExpireSecs() {
+    return cacheDatumWarmupExpireSecs;
+  }
+
+  public void setCacheDatumWarmupExpireSecs(int cacheDatumWarmupExpireSecs) {
+    this.cacheDatumWarmupExpireSecs = cacheDatumWarmupExpireSecs;
+  }
+
   @Override
   public int getSyncSessionIOLowWaterMark() {
     return syncSessionIOLowWaterMark;
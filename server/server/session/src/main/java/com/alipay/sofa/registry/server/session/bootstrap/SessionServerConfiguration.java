@@ -30,6 +30,7 @@ import com.alipay.sofa.registry.server.session.acceptor.WriteDataAcceptorImpl;
 import com.alipay.sofa.registry.server.session.cache.CacheGenerator;
 import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.DatumCacheGenerator;
+import com.alipay.sofa.registry.server.session.cache.DatumCacheWarmup;
 import com.alipay.sofa.registry.server.session.cache.SessionDatumCacheService;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
 import com.alipay.sofa.registry.server.session.circuit.breaker.DefaultCircuitBreakerService;
@@ -72,6 +73,7 @@ import com.alipay.sofa.registry.server.shared.client.manager.ClientManagerServic
 import com.alipay.sofa.registry.server.shared.config.CommonConfig;
 import com.alipay.sofa.registry.server.shared.meta.MetaLeaderExchanger;
 import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
+import com.alipay.sofa.registry.server.shared.providedata.FetchCompressDictService;
 import com.alipay.sofa.registry.server.shared.providedata.FetchSystemPropertyService;
 import com.alipay.sofa.registry.server.shared.providedata.ProvideDataProcessor;
 import com.alipay.sofa.registry.server.shared.providedata.SystemPropertyProcessorManager;
@@ -367,6 +369,7 @@ public class SessionServerConfiguration {
     public Collection<AbstractClientHandler> metaClientHandlers() {
       Collection<AbstractClientHandler> list = new ArrayList<>();
       list.add(notifyProvideDataChangeHandler());
+      list.add(notifyProvideDataBatchChangeHandler());
       list.add(slotTableChangeEventHandler());
       list.add(appRevisionSliceHandler());
       return list;
@@ -387,6 +390,11 @@ public class SessionServerConfiguration {
       return new NotifyProvideDataChangeHandler();
     }
 
+    @Bean
+    public AbstractClientHandler notifyProvideDataBatchChangeHandler() {
+      return new NotifyProvideDataBatchChangeHandler();
+    }
+
     @Bean
     public AbstractClientHandler appRevisionSliceHandler() {
       return new AppRevisionSliceHandler();
@@ -495,6 +503,11 @@ public class SessionServerConfiguration {
       return new SessionRegistry();
     }
 
+    @Bean
+    public DataInfoIdIndex dataInfoIdIndex() {
+      return new DataInfoIdIndex();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public Interests sessionInterests() {
@@ -605,6 +618,11 @@ public class SessionServerConfiguration {
       return new DatumCacheGenerator();
     }
 
+    @Bean
+    public DatumCacheWarmup datumCacheWarmup() {
+      return new DatumCacheWarmup();
+    }
+
     @Bean
     public MetadataCacheRegistry metadataCacheRegistry() {
       return new MetadataCacheRegistry();
@@ -823,6 +841,14 @@ public class SessionServerConfiguration {
       return compressPushService;
     }
 
+    @Bean
+    public FetchSystemPropertyService fetchCompressDictService(
+        SystemPropertyProcessorManager systemPropertyProcessorManager) {
+      FetchCompressDictService fetchCompressDictService = new FetchCompressDictService();
+      systemPropertyProcessorManager.addSystemDataProcessor(fetchCompressDictService);
+      return fetchCompressDictService;
+    }
+
     @Bean
     public FetchSystemPropertyService appRevisionWriteSwitchService(
         SystemPropertyProcessorManager systemPropertyProcessorManager) {
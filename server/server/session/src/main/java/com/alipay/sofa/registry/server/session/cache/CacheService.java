@@ -32,6 +32,50 @@ public interface CacheService {
 
   Value getValueIfPresent(Key key);
 
+  /**
+   * load the value ahead of the first access, the warmed value is kept until taken by the first
+   * load of the key, even if the cache entry expired before
+   *
+   * @param key key
+   * @return Value
+   */
+  default Value warm(Key key) throws CacheAccessException {
+    return getValue(key);
+  }
+
+  /** the warm calls are in a warmup until finishWarmup */
+  default void startWarmup() {}
+
+  /** the values warmed after it are not kept */
+  default void finishWarmup() {}
+
+  /**
+   * whether any warmed value is kept or the warmup is running
+   *
+   * @return boolean
+   */
+  default boolean hasWarmed() {
+    return false;
+  }
+
+  /**
+   * the datum changed to the version, drops the warmed value older than it, the change may come
+   * before anyone subscribes the datum
+   *
+   * @param dataCenter dataCenter
+   * @param dataInfoId dataInfoId
+   * @param version version
+   */
+  default void invalidateWarmed(String dataCenter, String dataInfoId, long version) {}
+
+  /**
+   * put the value got from other ways, e.g. carried by the notify
+   *
+   * @param key key
+   * @param value value
+   */
+  void put(Key key, Value value);
+
   /**
    * invalidate cache by key
    *
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * keep the dataInfoIds subscribed on this session in a local file when shutdown, the next start
+ * loads their datums into the cache before opening the client port, so the register pushes of the
+ * reconnecting clients hit the cache instead of fetching from data one by one
+ */
+public class DatumCacheWarmup {
+  private static final Logger LOGGER = LoggerFactory.getLogger("CACHE-GEN");
+
+  @Autowired SessionServerConfig sessionServerConfig;
+
+  @Autowired Interests sessionInterests;
+
+  @Autowired CacheService sessionDatumCacheService;
+
+  /**
+   * write the subscribed dataInfoIds to the snapshot file
+   *
+   * @return the count of dataInfoIds written, -1 if failed
+   */
+  public int snapshot() {
+    if (!sessionServerConfig.isCacheDatumWarmupEnable()) {
+      return 0;
+    }
+    final File file = new File(sessionServerConfig.getCacheDatumSnapshotFile());
+    try {
+      List<String> dataInfoIds = new ArrayList<>(sessionInterests.getDataInfoIds());
+      if (dataInfoIds.isEmpty()) {
+        // maybe called again after the interests cleaned, keep the previous snapshot
+        LOGGER.info("[WarmupSnapshot]skip, no dataInfoIds");
+        return 0;
+      }
+      File dir = file.getAbsoluteFile().getParentFile();
+      if (dir != null && !dir.exists() && !dir.mkdirs()) {
+        throw new IOException("failed to create dir " + dir);
+      }
+      // write to a tmp file and rename, avoid the half-written snapshot
+      Path tmp = new File(file.getAbsolutePath() + ".tmp").toPath();
+      Files.write(tmp, dataInfoIds, StandardCharsets.UTF_8);
+      Files.move(
+          tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      LOGGER.info("[WarmupSnapshot]write {} dataInfoIds to {}", dataInfoIds.size(), file);
+      return dataInfoIds.size();
+    } catch (Throwable e) {
+      LOGGER.error("[WarmupSnapshot]failed to write {}", file, e);
+      return -1;
+    }
+  }
+
+  /**
+   * load the datums of the dataInfoIds in the snapshot file into cache, with the local dataCenter
+   * which is the key of the most register pushes. blocks at most cacheDatumWarmupTimeoutMillis. the
+   * warmed datums are kept until the first register, at most cacheDatumWarmupExpireSecs
+   *
+   * @return the count of datums loaded
+   */
+  public int warmup() {
+    if (!sessionServerConfig.isCacheDatumWarmupEnable()) {
+      return 0;
+    }
+    final File file = new File(sessionServerConfig.getCacheDatumSnapshotFile());
+    if (!file.exists()) {
+      LOGGER.info("[Warmup]skip, snapshot not exist: {}", file);
+      return 0;
+    }
+    final List<String> dataInfoIds;
+    try {
+      dataInfoIds = readSnapshot(file);
+    } catch (Throwable e) {
+      LOGGER.error("[Warmup]failed to read {}", file, e);
+      return 0;
+    }
+    if (dataInfoIds.isEmpty()) {
+      return 0;
+    }
+    final long start = System.currentTimeMillis();
+    final Set<String> dataCenters =
+        Collections.singleton(sessionServerConfig.getSessionServerDataCenter());
+    final AtomicInteger loaded = new AtomicInteger();
+    final AtomicInteger failed = new AtomicInteger();
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, sessionServerConfig.getCacheDatumWarmupConcurrency()),
+            new NamedThreadFactory("DatumCacheWarmup", true));
+    sessionDatumCacheService.startWarmup();
+    try {
+      List<Future<?>> futures = new ArrayList<>(dataInfoIds.size());
+      for (String dataInfoId : dataInfoIds) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  try {
+                    Key key =
+                        new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenters));
+                    sessionDatumCacheService.warm(key);
+                    loaded.incrementAndGet();
+                  } catch (Throwable e) {
+                    failed.incrementAndGet();
+                    LOGGER.warn("[Warmup]failed to load {}: {}", dataInfoId, e.getMessage());
+                  }
+                }));
+      }
+      final long deadline = start + sessionServerConfig.getCacheDatumWarmupTimeoutMillis();
+      for (Future<?> future : futures) {
+        long wait = deadline - System.currentTimeMillis();
+        if (wait <= 0) {
+          break;
+        }
+        try {
+          future.get(wait, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+          break;
+        } catch (ExecutionException e) {
+          // not happen, the task catches all
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+      // the loads timed out may still run, they are not kept
+      sessionDatumCacheService.finishWarmup();
+    }
+    LOGGER.info(
+        "[Warmup]snapshot={},loaded={},failed={},span={}",
+        dataInfoIds.size(),
+        loaded.get(),
+        failed.get(),
+        System.currentTimeMillis() - start);
+    return loaded.get();
+  }
+
+  @VisibleForTesting
+  static List<String> readSnapshot(File file) throws IOException {
+    Set<String> dataInfoIds = new LinkedHashSet<>();
+    for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+      if (StringUtils.isNotBlank(line)) {
+        dataInfoIds.add(line.trim());
+      }
+    }
+    return new ArrayList<>(dataInfoIds);
+  }
+}
@@ -76,6 +76,11 @@ public abstract class SessionCacheService implements CacheService {
     return readWriteCacheMap.getIfPresent(key);
   }
 
+  @Override
+  public void put(Key key, Value value) {
+    readWriteCacheMap.put(key, value);
+  }
+
   @Override
   public void invalidate(Key key) {
     readWriteCacheMap.invalidate(key);
@@ -17,10 +17,15 @@
 package com.alipay.sofa.registry.server.session.cache;
 
 import com.alipay.sofa.registry.cache.CacheCleaner;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.Weigher;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,8 +38,22 @@ public class SessionDatumCacheService extends SessionCacheService {
 
   @Autowired SessionServerConfig sessionServerConfig;
 
+  // the warmed values before the client port opens, outlive the expiry of readWriteCacheMap
+  Cache<Key, Value> warmedCacheMap;
+
+  private volatile boolean warming;
+
+  // the highest changed version of the keys while warming, the warmed value older than it is stale
+  private final ConcurrentMap<Key, Long> warmingChangedVersions = Maps.newConcurrentMap();
+
   @PostConstruct
   public void init() {
+    this.warmedCacheMap =
+        CacheBuilder.newBuilder()
+            .maximumWeight(sessionServerConfig.getCacheDatumMaxWeight())
+            .weigher((Weigher<Key, Value>) (key, value) -> key.size() + value.size())
+            .expireAfterWrite(sessionServerConfig.getCacheDatumWarmupExpireSecs(), TimeUnit.SECONDS)
+            .build();
     this.readWriteCacheMap =
         CacheBuilder.newBuilder()
             .maximumWeight(sessionServerConfig.getCacheDatumMaxWeight())
@@ -45,9 +64,87 @@ public class SessionDatumCacheService extends SessionCacheService {
                 new CacheLoader<Key, Value>() {
                   @Override
                   public Value load(Key key) {
-                    return generatePayload(key);
+                    // the first load after the warmed entry expired takes the warmed value
+                    Value warmed = warmedCacheMap.asMap().remove(key);
+                    return warmed != null ? warmed : generatePayload(key);
                   }
                 });
     CacheCleaner.autoClean(readWriteCacheMap, 10);
+    CacheCleaner.autoClean(warmedCacheMap, 1000);
+  }
+
+  @Override
+  public void startWarmup() {
+    warming = true;
+  }
+
+  @Override
+  public void finishWarmup() {
+    warming = false;
+    warmingChangedVersions.clear();
+  }
+
+  @Override
+  public boolean hasWarmed() {
+    return warming || warmedCacheMap.size() != 0;
+  }
+
+  @Override
+  public Value warm(Key key) throws CacheAccessException {
+    Value value = getValue(key);
+    if (!warming) {
+      // the warmup finished, no changes are tracked for it
+      return value;
+    }
+    warmedCacheMap.put(key, value);
+    // the change came during the fetch found nothing to drop, check it after put
+    if (isStale(key, value, warmingChangedVersions.get(key))) {
+      warmedCacheMap.asMap().remove(key, value);
+    }
+    return value;
+  }
+
+  @Override
+  public void invalidateWarmed(String dataCenter, String dataInfoId, long version) {
+    // the datums are warmed with the local dataCenter
+    final Key key =
+        new Key(
+            DatumKey.class.getName(), new DatumKey(dataInfoId, Collections.singleton(dataCenter)));
+    if (warming) {
+      warmingChangedVersions.merge(key, version, Math::max);
+    }
+    final Value warmed = warmedCacheMap.getIfPresent(key);
+    if (warmed != null && isStale(key, warmed, version)) {
+      warmedCacheMap.asMap().remove(key, warmed);
+    }
+  }
+
+  private static boolean isStale(Key key, Value value, Long changedVersion) {
+    if (changedVersion == null) {
+      return false;
+    }
+    final MultiSubDatum datum = (MultiSubDatum) value.getPayload();
+    if (datum == null) {
+      return true;
+    }
+    for (String dataCenter : ((DatumKey) key.getEntityType()).getDataCenters()) {
+      if (datum.getVersion(dataCenter) < changedVersion) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void put(Key key, Value value) {
+    warmedCacheMap.invalidate(key);
+    super.put(key, value);
+  }
+
+  @Override
+  public void invalidate(Key key) {
+    // the datum changed, the warmed one is stale
+    warmedCacheMap.invalidate(key);
+    super.invalidate(key);
   }
 }
@@ -35,6 +35,7 @@ import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Futures;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -67,15 +68,30 @@ public class MetadataCacheRegistry {
 
   private AtomicReference<Set<String>> pushEnableSet = new AtomicReference<>();
 
-  private final MetadataRegisterWorker registerWorker = new MetadataRegisterWorker();
-  private final MultiSyncInfoReloadWorker syncInfoReloadWorker = new MultiSyncInfoReloadWorker();
+  // map: <dataInfoId, nanosVersion of the mapping which revisions are prefetched>
+  private final Map<String, Long> prefetchedMappings = Maps.newConcurrentMap();
+
+  private MetadataRegisterWorker registerWorker;
+  private MultiSyncInfoReloadWorker syncInfoReloadWorker;
 
   @PostConstruct
   public void init() {
+    registerWorker = new MetadataRegisterWorker();
+    syncInfoReloadWorker = new MultiSyncInfoReloadWorker();
     ConcurrentUtils.createDaemonThread("MetadataRegisterWorker", registerWorker).start();
     ConcurrentUtils.createDaemonThread("MultiSyncInfoReloadWorker", syncInfoReloadWorker).start();
   }
 
+  @VisibleForTesting
+  void stop() {
+    if (registerWorker != null) {
+      registerWorker.close();
+    }
+    if (syncInfoReloadWorker != null) {
+      syncInfoReloadWorker.close();
+    }
+  }
+
   public Set<String> getPushEnableDataCenters() {
     Set<String> set = pushEnableSet.get();
     return set == null ? Collections.EMPTY_SET : set;
@@ -130,13 +146,33 @@ public class MetadataCacheRegistry {
   }
 
   public InterfaceMapping getAppNames(String dataInfoId) {
-    return interfaceAppsRepository.getAppNames(dataInfoId);
+    InterfaceMapping mapping = interfaceAppsRepository.getAppNames(dataInfoId);
+    prefetchRevisions(dataInfoId, mapping);
+    return mapping;
+  }
+
+  /**
+   * the clients query the revisions of the apps after the apps of the interface, prefetch them when
+   * the mapping is newly seen
+   */
+  void prefetchRevisions(String dataInfoId, InterfaceMapping mapping) {
+    if (mapping.getNanosVersion() <= 0 || CollectionUtils.isEmpty(mapping.getApps())) {
+      return;
+    }
+    Long prev = prefetchedMappings.put(dataInfoId, mapping.getNanosVersion());
+    if (prev == null || prev != mapping.getNanosVersion()) {
+      appRevisionRepository.prefetchRevisions(mapping.getApps());
+    }
   }
 
   public AppRevision getRevision(String revision) {
     return appRevisionRepository.queryRevision(revision);
   }
 
+  public Map<String, AppRevision> getRevisions(Collection<String> revisions) {
+    return appRevisionRepository.queryRevisions(revisions);
+  }
+
   private class MetadataRegisterWorker extends WakeUpLoopRunnable {
 
     @Override
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.session.node.service;
 
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
 
 /**
  * @author shangyu.wh
@@ -26,4 +27,12 @@ import com.alipay.sofa.registry.remoting.CallbackHandler;
 public interface ClientNodeService {
 
   void pushWithCallback(Object object, URL url, CallbackHandler callbackHandler);
+
+  /**
+   * get the channel of the client
+   *
+   * @param url client address
+   * @return null if the client is not connected
+   */
+  Channel getChannel(URL url);
 }
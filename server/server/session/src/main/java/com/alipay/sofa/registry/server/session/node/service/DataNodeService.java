@@ -65,4 +65,13 @@ public interface DataNodeService {
    * @return MultiSubDatum
    */
   MultiSubDatum fetch(String dataInfoId, Set<String> dataCenters);
+
+  /**
+   * the versions of the datum expected by the push, the hot datum read from the data follower must
+   * not be older than them
+   *
+   * @param dataInfoId dataInfoId
+   * @param versions dataCenter -> version
+   */
+  void expectVersions(String dataInfoId, Map<String, Long> versions);
 }
@@ -18,15 +18,16 @@ package com.alipay.sofa.registry.server.session.node.service;
 
 import com.alipay.sofa.registry.common.model.ClientOffPublishers;
 import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.dataserver.*;
 import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
-import com.alipay.sofa.registry.compress.CompressConstants;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.CallbackHandler;
@@ -40,6 +41,7 @@ import com.alipay.sofa.registry.remoting.exchange.message.SimpleRequest;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.alipay.sofa.registry.server.shared.providedata.FetchCompressDictService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.task.BlockingQueues;
 import com.alipay.sofa.registry.task.FastRejectedExecutionException;
@@ -53,10 +55,13 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -74,7 +79,11 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   @Autowired private SessionServerConfig sessionServerConfig;
 
+  @Resource private FetchCompressDictService fetchCompressDictService;
+
   private Worker[] workers;
+  private DatumFetchBatcher fetchBatcher;
+  private HotDatumReadRouter hotReadRouter;
   private BlockingQueues<Req> blockingQueues;
 
   final RejectedDiscardHandler discardHandler = new RejectedDiscardHandler();
@@ -94,6 +103,19 @@ public class DataNodeServiceImpl implements DataNodeService {
       workers[i] = new Worker(blockingQueues.getQueue(i));
       ConcurrentUtils.createDaemonThread("req-data-worker-" + i, workers[i]).start();
     }
+    if (sessionServerConfig.getDataNodeFetchBatchWindowMillis() > 0) {
+      this.fetchBatcher =
+          new DatumFetchBatcher(
+              sessionServerConfig.getDataNodeFetchBatchWindowMillis(),
+              sessionServerConfig.getDataNodeFetchBatchMaxSize(),
+              this::sendFetchBatch);
+    }
+    if (sessionServerConfig.getDataNodeFollowerReadHotThreshold() > 0) {
+      this.hotReadRouter =
+          new HotDatumReadRouter(
+              sessionServerConfig.getDataNodeFollowerReadHotThreshold(),
+              sessionServerConfig.getDataNodeFollowerReadHotWindowMillis());
+    }
   }
 
   private void commitReq(int slotId, Req req) {
@@ -225,38 +247,22 @@ public class DataNodeServiceImpl implements DataNodeService {
               ServerEnv.PROCESS_ID,
               slotId,
               dataInfoId,
-              CompressConstants.defaultCompressEncodes,
+              fetchCompressDictService.getAcceptEncodes(),
               slotTableEpochs,
               slotLeaderEpochs);
 
-      Request<GetMultiDataRequest> getDataRequestStringRequest =
-          new Request<GetMultiDataRequest>() {
-
-            @Override
-            public GetMultiDataRequest getRequestBody() {
-              return getMultiDataRequest;
-            }
-
-            @Override
-            public URL getRequestUrl() {
-              return getUrl(localSlot);
-            }
-
-            @Override
-            public Integer getTimeout() {
-              return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
-            }
-          };
-
-      Response response = dataNodeExchanger.request(getDataRequestStringRequest);
-      Object result = response.getResult();
-      MultiSlotAccessGenericResponse<MultiSubDatum> genericResponse =
-          (MultiSlotAccessGenericResponse<MultiSubDatum>) result;
+      final MultiSubDatum followerDatum = fetchFromFollower(localSlot, getMultiDataRequest);
+      if (followerDatum != null) {
+        return followerDatum;
+      }
+      final MultiSlotAccessGenericResponse<MultiSubDatum> genericResponse =
+          fetch(getUrl(localSlot), getMultiDataRequest);
       if (genericResponse.isSuccess()) {
         final MultiSubDatum datum = genericResponse.getData();
         if (datum == null) {
           return null;
         }
+        observeVersion(datum);
         return MultiSubDatum.intern(datum);
       } else {
         throw new RuntimeException(
@@ -280,6 +286,204 @@ public class DataNodeServiceImpl implements DataNodeService {
     }
   }
 
+  @Override
+  public void expectVersions(String dataInfoId, Map<String, Long> versions) {
+    if (hotReadRouter == null) {
+      return;
+    }
+    final Long version = versions.get(sessionServerConfig.getSessionServerDataCenter());
+    if (version != null) {
+      hotReadRouter.observe(dataInfoId, version);
+    }
+  }
+
+  /**
+   * read the hot datum of the local dataCenter from the follower, the follower answers only if it
+   * has the min version known by the session
+   *
+   * @return null if not read from the follower or the follower has not caught up
+   */
+  MultiSubDatum fetchFromFollower(Slot slot, GetMultiDataRequest leaderRequest) {
+    final String localDataCenter = sessionServerConfig.getSessionServerDataCenter();
+    final String dataInfoId = leaderRequest.getDataInfoId();
+    // the remote dataCenters or the unknown version are served by the leader
+    final Map<String, Long> slotTableEpochs = leaderRequest.getSlotTableEpochs();
+    if (hotReadRouter == null
+        || slotTableEpochs.size() != 1
+        || !slotTableEpochs.containsKey(localDataCenter)
+        || !hotReadRouter.onFetch(dataInfoId)) {
+      return null;
+    }
+    final Long minVersion = hotReadRouter.minVersionOf(dataInfoId);
+    if (minVersion == null) {
+      return null;
+    }
+    final String follower = hotReadRouter.selectFollower(slot);
+    if (follower == null) {
+      return null;
+    }
+    GetMultiDataRequest request =
+        new GetMultiDataRequest(
+            leaderRequest.getSessionProcessId(),
+            leaderRequest.getSlotId(),
+            dataInfoId,
+            leaderRequest.getAcceptEncodes(),
+            leaderRequest.getSlotTableEpochs(),
+            leaderRequest.getSlotLeaderEpochs());
+    request.setMinVersions(Collections.singletonMap(localDataCenter, minVersion));
+    try {
+      MultiSlotAccessGenericResponse<MultiSubDatum> response =
+          fetch(new URL(follower, sessionServerConfig.getDataServerPort()), request);
+      if (response.isSuccess() && response.getData() != null) {
+        HotDatumReadRouter.FOLLOWER_READ_Y_COUNTER.inc();
+        observeVersion(response.getData());
+        return MultiSubDatum.intern(response.getData());
+      }
+      LOGGER.info(
+          "[FollowerRead]rejected, fallback to leader, {}, {}, {}",
+          follower,
+          dataInfoId,
+          response.getMessage());
+    } catch (Throwable e) {
+      LOGGER.warn(
+          "[FollowerRead]fetch fail, fallback to leader, {}, {}, {}",
+          follower,
+          dataInfoId,
+          e.getMessage());
+    }
+    HotDatumReadRouter.FOLLOWER_READ_N_COUNTER.inc();
+    hotReadRouter.onReject(slot, follower);
+    return null;
+  }
+
+  private void observeVersion(MultiSubDatum datum) {
+    if (hotReadRouter == null) {
+      return;
+    }
+    final SubDatum subDatum = datum.getSubDatum(sessionServerConfig.getSessionServerDataCenter());
+    if (subDatum != null) {
+      hotReadRouter.observe(datum.getDataInfoId(), subDatum.getVersion());
+    }
+  }
+
+  private MultiSlotAccessGenericResponse<MultiSubDatum> fetch(
+      URL url, GetMultiDataRequest getMultiDataRequest) {
+    if (fetchBatcher != null) {
+      return fetchInBatch(url, getMultiDataRequest);
+    }
+    return fetchSingle(url, getMultiDataRequest);
+  }
+
+  private MultiSlotAccessGenericResponse<MultiSubDatum> fetchSingle(
+      URL url, GetMultiDataRequest getMultiDataRequest) {
+    Request<GetMultiDataRequest> getDataRequestStringRequest =
+        new Request<GetMultiDataRequest>() {
+
+          @Override
+          public GetMultiDataRequest getRequestBody() {
+            return getMultiDataRequest;
+          }
+
+          @Override
+          public URL getRequestUrl() {
+            return url;
+          }
+
+          @Override
+          public Integer getTimeout() {
+            return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
+          }
+        };
+
+    Response response = dataNodeExchanger.request(getDataRequestStringRequest);
+    return (MultiSlotAccessGenericResponse<MultiSubDatum>) response.getResult();
+  }
+
+  private MultiSlotAccessGenericResponse<MultiSubDatum> fetchInBatch(
+      URL url, GetMultiDataRequest getMultiDataRequest) {
+    try {
+      return fetchBatcher
+          .submit(url, getMultiDataRequest)
+          .get(
+              sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis(),
+              TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw new RequestException("batch fetch failed", e.getCause());
+    } catch (TimeoutException e) {
+      throw new RequestException("batch fetch timeout", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RequestException("batch fetch interrupted", e);
+    }
+  }
+
+  void sendFetchBatch(URL url, List<DatumFetchBatcher.Pending> pendings) {
+    List<GetMultiDataRequest> requests = Lists.newArrayListWithCapacity(pendings.size());
+    for (DatumFetchBatcher.Pending pending : pendings) {
+      requests.add(pending.request);
+    }
+    final CallbackHandler handler =
+        new CallbackHandler() {
+          @Override
+          public void onCallback(Channel channel, Object message) {
+            handleFetchBatchCallback(url, message, pendings);
+          }
+
+          @Override
+          public void onException(Channel channel, Throwable exception) {
+            for (DatumFetchBatcher.Pending pending : pendings) {
+              pending.future.completeExceptionally(exception);
+            }
+          }
+
+          @Override
+          public Executor getExecutor() {
+            return callbackExecutor;
+          }
+        };
+    Request<BatchGetMultiDataRequest> request =
+        new SimpleRequest<BatchGetMultiDataRequest>(
+            new BatchGetMultiDataRequest(ServerEnv.PROCESS_ID, requests), url, handler) {
+          @Override
+          public Integer getTimeout() {
+            return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
+          }
+        };
+    dataNodeExchanger.request(request);
+  }
+
+  void handleFetchBatchCallback(URL url, Object message, List<DatumFetchBatcher.Pending> pendings) {
+    try {
+      if (!(message instanceof GenericResponse)) {
+        throw new RuntimeException(
+            StringFormatter.format(
+                "BatchGetMultiData got unexpected response {}, size={}, {}",
+                url,
+                pendings.size(),
+                message == null ? null : message.getClass().getName()));
+      }
+      GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> response =
+          (GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>>) message;
+      final List<MultiSlotAccessGenericResponse<MultiSubDatum>> results = response.getData();
+      if (!response.isSuccess() || results == null || results.size() != pendings.size()) {
+        throw new RuntimeException(
+            StringFormatter.format(
+                "BatchGetMultiData got fail response {}, size={}, msg:{}",
+                url,
+                pendings.size(),
+                response.getMessage()));
+      }
+      for (int i = 0; i < pendings.size(); i++) {
+        pendings.get(i).future.complete(results.get(i));
+      }
+    } catch (Throwable e) {
+      // the completed ones ignore it, no caller waits until timeout
+      for (DatumFetchBatcher.Pending pending : pendings) {
+        pending.future.completeExceptionally(e);
+      }
+    }
+  }
+
   private CommonResponse sendRequest(Request request) throws RequestException {
     Response response = dataNodeExchanger.request(request);
     Object result = response.getResult();
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+import com.google.common.annotations.VisibleForTesting;
+import io.prometheus.client.Histogram;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * gathers the concurrent datum fetches bound for the same data leader within a short window, the
+ * gathered requests are sent by the sender as one BatchGetMultiDataRequest
+ */
+final class DatumFetchBatcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DatumFetchBatcher.class);
+
+  private static final Histogram BATCH_SIZE_HISTOGRAM =
+      Histogram.build()
+          .linearBuckets(1, 10, 10)
+          .namespace("session")
+          .subsystem("fetch")
+          .name("batch_size")
+          .help("the count of datum fetches in one batch request")
+          .register();
+
+  private final int windowMillis;
+  private final int maxSize;
+  private final BiConsumer<URL, List<Pending>> sender;
+
+  // guarded by this
+  private final Map<URL, Batch> batches = new HashMap<>();
+
+  private final ScheduledThreadPoolExecutor timer =
+      new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("DatumFetchBatcher", true));
+
+  DatumFetchBatcher(int windowMillis, int maxSize, BiConsumer<URL, List<Pending>> sender) {
+    this.windowMillis = windowMillis;
+    this.maxSize = Math.max(1, maxSize);
+    this.sender = sender;
+    this.timer.setRemoveOnCancelPolicy(true);
+  }
+
+  CompletableFuture<MultiSlotAccessGenericResponse<MultiSubDatum>> submit(
+      URL url, GetMultiDataRequest request) {
+    final Pending pending = new Pending(request);
+    Batch full = null;
+    synchronized (this) {
+      Batch batch = batches.get(url);
+      if (batch == null) {
+        batch = new Batch(url);
+        batches.put(url, batch);
+        final Batch scheduled = batch;
+        timer.schedule(() -> flush(scheduled), windowMillis, TimeUnit.MILLISECONDS);
+      }
+      batch.pendings.add(pending);
+      if (batch.pendings.size() >= maxSize) {
+        batches.remove(url);
+        full = batch;
+      }
+    }
+    if (full != null) {
+      // send in the caller thread, the timer would find the batch has been removed
+      send(full);
+    }
+    return pending.future;
+  }
+
+  void flush(Batch batch) {
+    synchronized (this) {
+      if (!batches.remove(batch.url, batch)) {
+        return;
+      }
+    }
+    send(batch);
+  }
+
+  private void send(Batch batch) {
+    BATCH_SIZE_HISTOGRAM.observe(batch.pendings.size());
+    try {
+      sender.accept(batch.url, batch.pendings);
+    } catch (Throwable e) {
+      LOGGER.error("failed to send batch to {}, size={}", batch.url, batch.pendings.size(), e);
+      for (Pending pending : batch.pendings) {
+        pending.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int pendingSize() {
+    int size = 0;
+    for (Batch batch : batches.values()) {
+      size += batch.pendings.size();
+    }
+    return size;
+  }
+
+  static final class Batch {
+    final URL url;
+    final List<Pending> pendings = new ArrayList<>();
+
+    Batch(URL url) {
+      this.url = url;
+    }
+  }
+
+  static final class Pending {
+    final GetMultiDataRequest request;
+    final CompletableFuture<MultiSlotAccessGenericResponse<MultiSubDatum>> future =
+        new CompletableFuture<>();
+
+    Pending(GetMultiDataRequest request) {
+      this.request = request;
+    }
+  }
+}
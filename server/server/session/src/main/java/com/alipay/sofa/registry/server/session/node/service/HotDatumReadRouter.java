@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.prometheus.client.Counter;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * spreads the fetches of the hot dataInfoIds across the leader and the followers of the slot, a
+ * dataInfoId is hot when it is fetched not less than the threshold times within the window. a
+ * follower read carries the max version of the datum known by the session, the follower answers
+ * only if it has caught up, otherwise the fetch falls back to the leader. a follower rejected the
+ * read is skipped for the slot within the window
+ */
+final class HotDatumReadRouter {
+  private static final Counter FOLLOWER_READ_COUNTER =
+      Counter.build()
+          .namespace("session")
+          .subsystem("fetch")
+          .name("follower_read_total")
+          .help("the datum fetches from the data followers")
+          .labelNames("type")
+          .register();
+
+  static final Counter.Child FOLLOWER_READ_Y_COUNTER = FOLLOWER_READ_COUNTER.labels("Y");
+  static final Counter.Child FOLLOWER_READ_N_COUNTER = FOLLOWER_READ_COUNTER.labels("N");
+
+  private static final int MAX_SIZE = 100000;
+
+  private final int hotThreshold;
+
+  // the entry expires after the window since it is created, the count is not rewritten
+  private final Cache<String, AtomicInteger> fetchCounts;
+
+  // dataInfoId -> max version of the local dataCenter known by the session
+  private final Cache<String, Long> versions;
+
+  // follower#slotId of the followers rejected the reads, skipped until expires
+  private final Cache<String, Boolean> rejects;
+
+  private final AtomicInteger roundRobin = new AtomicInteger();
+
+  HotDatumReadRouter(int hotThreshold, int windowMillis) {
+    this.hotThreshold = hotThreshold;
+    this.fetchCounts =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(windowMillis, TimeUnit.MILLISECONDS)
+            .build();
+    this.versions =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterAccess(windowMillis * 10L, TimeUnit.MILLISECONDS)
+            .build();
+    this.rejects =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(windowMillis, TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  /**
+   * count the fetch of the dataInfoId
+   *
+   * @param dataInfoId dataInfoId
+   * @return true if the dataInfoId is hot
+   */
+  boolean onFetch(String dataInfoId) {
+    try {
+      return fetchCounts.get(dataInfoId, AtomicInteger::new).incrementAndGet() >= hotThreshold;
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  void observe(String dataInfoId, long version) {
+    if (version <= 0) {
+      return;
+    }
+    versions.asMap().merge(dataInfoId, version, Math::max);
+  }
+
+  Long minVersionOf(String dataInfoId) {
+    return versions.getIfPresent(dataInfoId);
+  }
+
+  /**
+   * the follower rejected the read of the slot, e.g. it lags behind the leader, skip it within the
+   * window
+   */
+  void onReject(Slot slot, String follower) {
+    rejects.put(rejectKey(slot, follower), Boolean.TRUE);
+  }
+
+  private static String rejectKey(Slot slot, String follower) {
+    return follower + "#" + slot.getId();
+  }
+
+  /**
+   * select the data server to read in turn, the followers rejected recently are skipped
+   *
+   * @param slot slot
+   * @return the follower address, null means reading from the leader
+   */
+  String selectFollower(Slot slot) {
+    final Set<String> followers = slot.getFollowers();
+    if (followers.isEmpty()) {
+      return null;
+    }
+    // the leader takes one turn as the followers do
+    int idx = Math.floorMod(roundRobin.getAndIncrement(), followers.size() + 1);
+    for (String follower : followers) {
+      if (idx-- == 0) {
+        if (StringUtils.isBlank(follower)
+            || rejects.getIfPresent(rejectKey(slot, follower)) != null) {
+          return null;
+        }
+        return follower;
+      }
+    }
+    return null;
+  }
+}
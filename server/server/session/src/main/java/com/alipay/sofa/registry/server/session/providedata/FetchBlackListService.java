@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.session.providedata;
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataSetDiff;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
@@ -35,7 +36,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -60,7 +63,8 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
   public FetchBlackListService() {
     super(
         ValueConstants.BLACK_LIST_DATA_ID,
-        new BlacklistStorage(INIT_VERSION, Lists.newArrayList()));
+        new BlacklistStorage(
+            INIT_VERSION, Lists.newArrayList(), Collections.emptySet(), Collections.emptyMap()));
   }
 
   private Map<String, Map<String, Set<String>>> convertBlacklistConfig(
@@ -82,6 +86,12 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
       LOGGER.info("[cmd] setBlacklistConfig fail, params is null");
       return null;
     }
+    return convertBlacklistConfig(blacklistConfigMap, blacklistConfigs);
+  }
+
+  private Map<String, Map<String, Set<String>>> convertBlacklistConfig(
+      Map<String, Map<String, Set<String>>> blacklistConfigMap,
+      List<BlacklistConfig> blacklistConfigs) {
     try {
       for (Entry<String, Map<String, Set<String>>> configEntry : blacklistConfigMap.entrySet()) {
         BlacklistConfig blacklistConfig = new BlacklistConfig();
@@ -108,9 +118,9 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
     }
   }
 
-  private void clientOffBlackIp(Map<String, Map<String, Set<String>>> blacklistConfigMap) {
+  private Set<String> blackIps(Map<String, Map<String, Set<String>>> blacklistConfigMap) {
+    Set<String> ipSet = new HashSet();
     if (blacklistConfigMap != null) {
-      Set<String> ipSet = new HashSet();
 
       for (Map.Entry<String, Map<String, Set<String>>> configEntry :
           blacklistConfigMap.entrySet()) {
@@ -128,11 +138,17 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
           }
         }
       }
+    }
+    return ipSet;
+  }
 
-      List<ConnectId> conIds = connectionsService.getIpConnects(ipSet);
-      // blacklist remove pub, sub, watch
-      sessionRegistry.blacklist(conIds);
+  private void clientOffBlackIp(Set<String> ipSet) {
+    if (ipSet.isEmpty()) {
+      return;
     }
+    List<ConnectId> conIds = connectionsService.getIpConnects(ipSet);
+    // blacklist remove pub, sub, watch
+    sessionRegistry.blacklist(conIds);
   }
 
   @Override
@@ -155,11 +171,15 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
     // {"FORBIDDEN_PUB":{"IP_FULL":["1.1.1.1"]},"FORBIDDEN_SUB_BY_PREFIX":{"IP_FULL":["1.1.1.1"]}}
     Map<String, Map<String, Set<String>>> blacklistConfigMap =
         convertBlacklistConfig(data, blacklistConfigs);
-    clientOffBlackIp(blacklistConfigMap);
+    final Set<String> ipSet = blackIps(blacklistConfigMap);
+    // the ips in the prev version has been kicked off, only the added ips need to client off
+    clientOffBlackIp(Sets.difference(ipSet, expect.blackIps));
 
     // after cancel success
     try {
-      BlacklistStorage update = new BlacklistStorage(provideData.getVersion(), blacklistConfigs);
+      BlacklistStorage update =
+          new BlacklistStorage(
+              provideData.getVersion(), blacklistConfigs, ipSet, blacklistConfigMap);
       if (compareAndSet(expect, update)) {
         return true;
       }
@@ -170,12 +190,52 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
     return false;
   }
 
+  @Override
+  public boolean applyDiff(ProvideDataSetDiff diff) {
+    BlacklistStorage expect = storage.get();
+    if (diff.getVersion() <= expect.getVersion()) {
+      // already up to date
+      return true;
+    }
+    // the config of the base version is unknown, fetch the full config
+    if (diff.getBaseVersion() != expect.getVersion() || expect.blacklistConfigMap == null) {
+      return false;
+    }
+    LOGGER.info("Apply session blacklist diff {}", diff);
+
+    try {
+      Map<String, Map<String, Set<String>>> blacklistConfigMap =
+          diff.applyTo(expect.blacklistConfigMap);
+      List<BlacklistConfig> blacklistConfigs = new ArrayList();
+      if (convertBlacklistConfig(blacklistConfigMap, blacklistConfigs) == null) {
+        return false;
+      }
+      final Set<String> ipSet = blackIps(blacklistConfigMap);
+      clientOffBlackIp(Sets.difference(ipSet, expect.blackIps));
+      return compareAndSet(
+          expect,
+          new BlacklistStorage(diff.getVersion(), blacklistConfigs, ipSet, blacklistConfigMap));
+    } catch (Throwable t) {
+      LOGGER.error("apply blacklist diff:{} error.", diff, t);
+      return false;
+    }
+  }
+
   protected static class BlacklistStorage extends SystemDataStorage {
     final List<BlacklistConfig> blacklistConfigList;
+    final Set<String> blackIps;
+    // the parsed config to apply the diff on, null if failed to parse
+    final Map<String, Map<String, Set<String>>> blacklistConfigMap;
 
-    public BlacklistStorage(long version, List<BlacklistConfig> blacklistConfigList) {
+    public BlacklistStorage(
+        long version,
+        List<BlacklistConfig> blacklistConfigList,
+        Set<String> blackIps,
+        Map<String, Map<String, Set<String>>> blacklistConfigMap) {
       super(version);
       this.blacklistConfigList = blacklistConfigList;
+      this.blackIps = blackIps;
+      this.blacklistConfigMap = blacklistConfigMap;
     }
   }
 
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * choose the debouncing window of each dataInfoId by the observed change rate and push cost. the
+ * change rate is estimated by an exponential decaying counter, a rarely changed dataInfoId gets the
+ * min window, a hot dataInfoId with many subscribers gets a window close to the max
+ */
+public final class AdaptiveDebouncer {
+  private static final String KEY_HALF_LIFE_MILLIS = "registry.session.debouncing.half_life_millis";
+  private static final String KEY_HOT_THRESHOLD = "registry.session.debouncing.hot_threshold";
+
+  // the count of changes decays to half after halfLifeMillis
+  private final long halfLifeMillis;
+  // the pressure at which the window is the middle of [min, max]
+  private final double hotThreshold;
+
+  private final Map<String, Rate> rates = new ConcurrentHashMap<>(4096);
+  private final AtomicLong lastCleanTimestamp = new AtomicLong(System.currentTimeMillis());
+
+  public AdaptiveDebouncer() {
+    this(
+        SystemUtils.getSystemLong(KEY_HALF_LIFE_MILLIS, 10000),
+        SystemUtils.getSystemInteger(KEY_HOT_THRESHOLD, 4));
+  }
+
+  AdaptiveDebouncer(long halfLifeMillis, double hotThreshold) {
+    this.halfLifeMillis = halfLifeMillis;
+    this.hotThreshold = hotThreshold;
+  }
+
+  public void onChange(String dataInfoId, long now) {
+    Rate rate = rates.computeIfAbsent(dataInfoId, k -> new Rate(now));
+    synchronized (rate) {
+      rate.changes = decay(rate.changes, now - rate.timestamp) + 1;
+      rate.timestamp = Math.max(rate.timestamp, now);
+    }
+    cleanIfNeeded(now);
+  }
+
+  /**
+   * record the cost of the push after a change
+   *
+   * @param dataInfoId dataInfoId
+   * @param subscribers the count of subscribers to push
+   */
+  public void onPush(String dataInfoId, int subscribers) {
+    Rate rate = rates.get(dataInfoId);
+    if (rate == null) {
+      return;
+    }
+    synchronized (rate) {
+      rate.cost = rate.cost < 0 ? subscribers : rate.cost * 0.7 + subscribers * 0.3;
+    }
+  }
+
+  public int debouncingMillis(String dataInfoId, int minMillis, int maxMillis, long now) {
+    if (maxMillis <= minMillis) {
+      return minMillis;
+    }
+    final double factor = factor(pressure(dataInfoId, now));
+    return minMillis + (int) Math.round((maxMillis - minMillis) * factor);
+  }
+
+  @VisibleForTesting
+  double pressure(String dataInfoId, long now) {
+    Rate rate = rates.get(dataInfoId);
+    if (rate == null) {
+      return 0;
+    }
+    final double changes;
+    final double cost;
+    synchronized (rate) {
+      changes = decay(rate.changes, now - rate.timestamp);
+      cost = rate.cost;
+    }
+    // the latest change is not counted, only the changes before it make the dataInfoId hot
+    final double hot = Math.max(0, changes - 1);
+    // more subscribers, more expensive of each push, log2(1+cost)/8 => [0, 4] for 2^32
+    return hot * (1 + Math.log(1 + Math.max(0, cost)) / Math.log(2) / 8);
+  }
+
+  private double factor(double pressure) {
+    return pressure / (pressure + hotThreshold);
+  }
+
+  private double decay(double changes, long elapsed) {
+    if (elapsed <= 0) {
+      return changes;
+    }
+    return changes * Math.pow(0.5, (double) elapsed / halfLifeMillis);
+  }
+
+  private void cleanIfNeeded(long now) {
+    final long last = lastCleanTimestamp.get();
+    if (now - last < halfLifeMillis * 8 || !lastCleanTimestamp.compareAndSet(last, now)) {
+      return;
+    }
+    clean(now);
+  }
+
+  @VisibleForTesting
+  void clean(long now) {
+    // the rate decays to <1% after 7 half-lives, it's the same as never changed
+    rates
+        .entrySet()
+        .removeIf(
+            e -> {
+              Rate rate = e.getValue();
+              synchronized (rate) {
+                return decay(rate.changes, now - rate.timestamp) < 0.01;
+              }
+            });
+  }
+
+  public int size() {
+    return rates.size();
+  }
+
+  private static final class Rate {
+    double changes;
+    long timestamp;
+    double cost = -1;
+
+    Rate(long timestamp) {
+      this.timestamp = timestamp;
+    }
+  }
+}
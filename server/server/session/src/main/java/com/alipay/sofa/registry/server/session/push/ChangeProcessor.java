@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.server.session.push;
 
+import static com.alipay.sofa.registry.server.session.push.PushMetrics.Fetch.*;
+
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
@@ -23,11 +25,11 @@ import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.collect.Maps;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -38,6 +40,8 @@ public class ChangeProcessor {
 
   Map<String, Worker[]> dataCenterWorkers = Maps.newConcurrentMap();
 
+  final AdaptiveDebouncer adaptiveDebouncer = new AdaptiveDebouncer();
+
   @PostConstruct
   public void init() {
     Worker[] workers = initWorkers();
@@ -50,7 +54,8 @@ public class ChangeProcessor {
       workers[i] =
           new Worker(
               sessionServerConfig.getDataChangeDebouncingMillis(),
-              sessionServerConfig.getDataChangeMaxDebouncingMillis());
+              sessionServerConfig.getDataChangeMaxDebouncingMillis(),
+              adaptiveDebouncer);
       ConcurrentUtils.createDaemonThread("ChangeExecutor-" + i, workers[i]).start();
     }
     return workers;
@@ -74,6 +79,22 @@ public class ChangeProcessor {
     return worker.commitChange(key, handler, changeCtx);
   }
 
+  /**
+   * record the count of subscribers pushed by the change of dataInfoId, the expensive change is
+   * debounced longer
+   *
+   * @param dataInfoId dataInfoId
+   * @param subscribers subscribers
+   */
+  public void onPush(String dataInfoId, int subscribers) {
+    adaptiveDebouncer.onPush(dataInfoId, subscribers);
+  }
+
+  public int adaptiveDebouncingMillis(String dataInfoId, int minMillis, int maxMillis) {
+    return adaptiveDebouncer.debouncingMillis(
+        dataInfoId, minMillis, maxMillis, System.currentTimeMillis());
+  }
+
   interface ChangeHandler {
     boolean onChange(String dataInfoId, TriggerPushContext changeCtx);
   }
@@ -84,6 +105,8 @@ public class ChangeProcessor {
     final ChangeHandler changeHandler;
     final long expireTimestamp;
     long expireDeadlineTimestamp;
+    // order of the tasks with the same expireTimestamp
+    long seq;
 
     ChangeTask(
         ChangeKey key,
@@ -111,23 +134,55 @@ public class ChangeProcessor {
     }
   }
 
+  static final Comparator<ChangeTask> EXPIRE_COMPARATOR =
+      Comparator.comparingLong((ChangeTask t) -> t.expireTimestamp).thenComparingLong(t -> t.seq);
+
   static final class Worker extends WakeUpLoopRunnable {
-    // task sorted by expire probably
-    final LinkedHashMap<ChangeKey, ChangeTask> tasks = Maps.newLinkedHashMap();
+    // index by key, the rarely changed key with short debouncing not wait behind the hot keys
+    final Map<ChangeKey, ChangeTask> tasks = Maps.newHashMap();
+    // task sorted by expire
+    final TreeSet<ChangeTask> expireQueue = new TreeSet<>(EXPIRE_COMPARATOR);
+    long seq;
 
     public void setChangeTaskWorkDelay(PushEfficiencyImproveConfig pushEfficiencyImproveConfig) {
       this.changeDebouncingMillis = pushEfficiencyImproveConfig.getChangeDebouncingMillis();
       this.changeDebouncingMaxMillis = pushEfficiencyImproveConfig.getChangeDebouncingMaxMillis();
       this.changeTaskWaitingMillis = pushEfficiencyImproveConfig.getChangeTaskWaitingMillis();
+      this.adaptiveDebouncing = pushEfficiencyImproveConfig.isAdaptiveDebouncing();
+      this.adaptiveDebouncingMinMillis =
+          pushEfficiencyImproveConfig.getAdaptiveDebouncingMinMillis();
     }
 
     int changeDebouncingMillis;
     int changeDebouncingMaxMillis;
     int changeTaskWaitingMillis = 100;
+    volatile boolean adaptiveDebouncing;
+    int adaptiveDebouncingMinMillis;
+    final AdaptiveDebouncer adaptiveDebouncer;
 
     Worker(int changeDebouncingMillis, int changeDebouncingMaxMillis) {
+      this(changeDebouncingMillis, changeDebouncingMaxMillis, new AdaptiveDebouncer());
+    }
+
+    Worker(
+        int changeDebouncingMillis,
+        int changeDebouncingMaxMillis,
+        AdaptiveDebouncer adaptiveDebouncer) {
       this.changeDebouncingMillis = changeDebouncingMillis;
       this.changeDebouncingMaxMillis = changeDebouncingMaxMillis;
+      this.adaptiveDebouncer = adaptiveDebouncer;
+    }
+
+    int debouncingMillis(ChangeKey key, long now) {
+      adaptiveDebouncer.onChange(key.dataInfoId, now);
+      if (!adaptiveDebouncing) {
+        return changeDebouncingMillis;
+      }
+      final int millis =
+          adaptiveDebouncer.debouncingMillis(
+              key.dataInfoId, adaptiveDebouncingMinMillis, changeDebouncingMaxMillis, now);
+      CHANGE_DEBOUNCING_HISTOGRAM.observe(millis);
+      return millis;
     }
 
     ChangeTask get(ChangeKey key) {
@@ -138,13 +193,18 @@ public class ChangeProcessor {
 
     boolean commitChange(ChangeKey key, ChangeHandler handler, TriggerPushContext changeCtx) {
       final long now = System.currentTimeMillis();
-      final ChangeTask task = new ChangeTask(key, changeCtx, handler, now + changeDebouncingMillis);
+      final int debouncingMillis = debouncingMillis(key, now);
+      final ChangeTask task = new ChangeTask(key, changeCtx, handler, now + debouncingMillis);
 
       synchronized (tasks) {
         final ChangeTask exist = tasks.get(key);
         if (exist == null) {
           task.expireDeadlineTimestamp = now + changeDebouncingMaxMillis;
-          tasks.put(key, task);
+          enqueue(task);
+          if (debouncingMillis <= 0) {
+            // the rarely changed dataInfoId, process immediately
+            wakeup();
+          }
           return true;
         }
 
@@ -152,15 +212,16 @@ public class ChangeProcessor {
           return false;
         }
         task.changeCtx.mergeVersion(exist.changeCtx);
+        CHANGE_TASK_MERGE_COUNTER.inc();
         // compare with exist
         if (task.expireTimestamp <= exist.expireDeadlineTimestamp) {
           // not reach deadline, requeue to wait
           task.expireDeadlineTimestamp = exist.expireDeadlineTimestamp;
           // merge change, merge tracetimes
           task.changeCtx.addTraceTime(exist.changeCtx.getFirstTimes());
-          // tasks is linkedMap, must remove the exist first, then enqueue in the tail
-          tasks.remove(key);
-          tasks.put(key, task);
+          // replace the exist, resort by the new expire
+          expireQueue.remove(exist);
+          enqueue(task);
         } else {
           // reach deadline, could not requeue, use exist.expire as newTask.expire
           exist.changeCtx.setExpectDatumVersion(task.changeCtx.getExpectDatumVersion());
@@ -170,16 +231,22 @@ public class ChangeProcessor {
       }
     }
 
+    private void enqueue(ChangeTask task) {
+      task.seq = seq++;
+      tasks.put(task.key, task);
+      expireQueue.add(task);
+    }
+
     ChangeTask getExpire() {
       final long now = System.currentTimeMillis();
       synchronized (tasks) {
-        if (tasks.isEmpty()) {
+        if (expireQueue.isEmpty()) {
           return null;
         }
-        Iterator<ChangeTask> it = tasks.values().iterator();
-        final ChangeTask first = it.next();
+        final ChangeTask first = expireQueue.first();
         if (first.expireTimestamp <= now) {
-          it.remove();
+          expireQueue.pollFirst();
+          tasks.remove(first.key);
           return first;
         }
         return null;
@@ -33,6 +33,7 @@ import com.alipay.sofa.registry.server.session.cache.Value;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
 import com.alipay.sofa.registry.server.session.metadata.MetadataCacheRegistry;
 import com.alipay.sofa.registry.server.session.multi.cluster.DataCenterMetadataCache;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.task.FastRejectedExecutionException;
@@ -74,6 +75,8 @@ public class FirePushService {
   @Autowired ChangeProcessor changeProcessor;
   @Autowired WatchProcessor watchProcessor;
 
+  @Autowired DataNodeService dataNodeService;
+
   @Autowired DataCenterMetadataCache dataCenterMetadataCache;
 
   RegProcessor regProcessor;
@@ -196,7 +199,9 @@ public class FirePushService {
 
   boolean doExecuteOnChange(String changeDataInfoId, TriggerPushContext changeCtx) {
     final Map<String, Long> expectVersions = changeCtx.getExpectDatumVersion();
+    changeCtx.setChangeFireTimestamp(System.currentTimeMillis());
     final MultiSubDatum datum = getDatum(changeDataInfoId, expectVersions);
+    changeCtx.setDatumFetchTimestamp(System.currentTimeMillis());
     if (datum == null) {
       // datum change, but get null datum, should not happen
       LOGGER.error("[changeNil] {},{}", changeDataInfoId, expectVersions);
@@ -225,8 +230,9 @@ public class FirePushService {
   }
 
   private void onDatumChange(TriggerPushContext changeCtx, MultiSubDatum datum) {
-    Map<ScopeEnum, List<Subscriber>> scopes =
-        SubscriberUtils.groupByScope(sessionInterests.getDatas(datum.getDataInfoId()));
+    final Collection<Subscriber> subscribers = sessionInterests.getDatas(datum.getDataInfoId());
+    changeProcessor.onPush(datum.getDataInfoId(), subscribers.size());
+    Map<ScopeEnum, List<Subscriber>> scopes = SubscriberUtils.groupByScope(subscribers);
 
     final Map<String, Long> datumTimestamp =
         Maps.newHashMapWithExpectedSize(datum.getDatumMap().size());
@@ -270,17 +276,17 @@ public class FirePushService {
     Key key = new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, expectVersions.keySet()));
     Value value = sessionDatumCacheService.getValueIfPresent(key);
     if (value == null) {
-      return miss(key);
+      return miss(key, dataInfoId, expectVersions);
     }
     MultiSubDatum datum = (MultiSubDatum) value.getPayload();
 
     if (datum == null || !expectVersions.keySet().equals(datum.dataCenters())) {
-      return miss(key);
+      return miss(key, dataInfoId, expectVersions);
     }
     for (Entry<String, Long> entry : expectVersions.entrySet()) {
       SubDatum subDatum = datum.getSubDatum(entry.getKey());
       if (subDatum != null && subDatum.getVersion() < entry.getValue()) {
-        return miss(key);
+        return miss(key, dataInfoId, expectVersions);
       }
     }
     // the expect version got
@@ -288,9 +294,35 @@ public class FirePushService {
     return datum;
   }
 
-  private MultiSubDatum miss(Key key) {
+  /**
+   * put the datum carried by the change notify into cache, then the change push needs not to fetch
+   * it from data
+   *
+   * @param datum datum
+   * @return true if the cache is updated
+   */
+  public boolean putDatumIfNewer(SubDatum datum) {
+    Key key =
+        new Key(
+            DatumKey.class.getName(),
+            new DatumKey(datum.getDataInfoId(), Collections.singleton(datum.getDataCenter())));
+    Value value = sessionDatumCacheService.getValueIfPresent(key);
+    if (value != null && value.getPayload() != null) {
+      SubDatum exist = ((MultiSubDatum) value.getPayload()).getSubDatum(datum.getDataCenter());
+      if (exist != null && exist.getVersion() >= datum.getVersion()) {
+        return false;
+      }
+    }
+    sessionDatumCacheService.put(key, new Value(MultiSubDatum.of(SubDatum.intern(datum))));
+    CACHE_INLINE_COUNTER.inc();
+    return true;
+  }
+
+  private MultiSubDatum miss(Key key, String dataInfoId, Map<String, Long> expectVersions) {
     Value value;
     CACHE_MISS_COUNTER.inc();
+    // the fetch from the data follower must not be older than the expect versions
+    dataNodeService.expectVersions(dataInfoId, expectVersions);
     // the cache is too old
     sessionDatumCacheService.invalidate(key);
     value = sessionDatumCacheService.getValue(key);
@@ -400,6 +432,7 @@ public class FirePushService {
     }
 
     MultiSubDatum datum = getDatum(dataInfoId, getDatumVersions);
+    final long datumFetchTimestamp = System.currentTimeMillis();
     if (datum == null || CollectionUtils.isEmpty(datum.getDatumMap())) {
       Subscriber first = subscribers.get(0);
       datum =
@@ -430,6 +463,7 @@ public class FirePushService {
     TriggerPushContext pushCtx =
         new TriggerPushContext(
             expectDatumVersions, null, SubscriberUtils.getMinRegisterTimestamp(subscribers));
+    pushCtx.setDatumFetchTimestamp(datumFetchTimestamp);
     PushCause cause = new PushCause(pushCtx, PushType.Reg, datumTimestamp);
     Map<ScopeEnum, List<Subscriber>> scopes = SubscriberUtils.groupByScope(subscribers);
     for (List<Subscriber> scopeList : scopes.values()) {
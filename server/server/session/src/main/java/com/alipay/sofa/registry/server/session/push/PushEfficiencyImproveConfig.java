@@ -80,6 +80,15 @@ public class PushEfficiencyImproveConfig {
   /** session 处理 pushTask delay pushTaskDebouncingMillis 时间处理，可以合并相同的推送任务，避免数据连续变化触发大量推送, 默认500ms */
   private int sbfAppPushTaskDebouncingMillis = DEFAULT_PUSH_TASK_DEBOUNCING_MILLIS;
 
+  /**
+   * 三板斧配置 自适应 debouncing, 按 dataInfoId 的变更频率和推送订阅数, 在 [adaptiveDebouncingMinMillis,
+   * changeDebouncingMaxMillis] 之间选择 changeTask 的 delay, 在 [adaptiveDebouncingMinMillis,
+   * pushTaskDebouncingMillis] 之间选择 pushTask 的 delay, 默认false
+   */
+  private boolean adaptiveDebouncing = false;
+  /** 自适应 debouncing 的最小 delay, 低频变更的 dataInfoId 使用该值, 默认 0ms 立即处理 */
+  private int adaptiveDebouncingMinMillis = 0;
+
   /**
    * 判断是否满足 三板斧灰度条件
    *
@@ -251,6 +260,22 @@ public class PushEfficiencyImproveConfig {
     this.regWorkWake = regWorkWake;
   }
 
+  public boolean isAdaptiveDebouncing() {
+    return adaptiveDebouncing && inIpZoneSBF();
+  }
+
+  public void setAdaptiveDebouncing(boolean adaptiveDebouncing) {
+    this.adaptiveDebouncing = adaptiveDebouncing;
+  }
+
+  public int getAdaptiveDebouncingMinMillis() {
+    return adaptiveDebouncingMinMillis;
+  }
+
+  public void setAdaptiveDebouncingMinMillis(int adaptiveDebouncingMinMillis) {
+    this.adaptiveDebouncingMinMillis = adaptiveDebouncingMinMillis;
+  }
+
   public void setSessionServerConfig(SessionServerConfig sessionServerConfig) {
     if (null != sessionServerConfig
         && StringUtils.isNotBlank(sessionServerConfig.getSessionServerRegion())) {
@@ -267,6 +292,9 @@ public class PushEfficiencyImproveConfig {
     if (pushTaskWaitingMillis <= 0 || changeTaskWaitingMillis <= 0) {
       return false;
     }
+    if (adaptiveDebouncingMinMillis < 0) {
+      return false;
+    }
     return true;
   }
 
@@ -310,6 +338,10 @@ public class PushEfficiencyImproveConfig {
         + pushTaskWake
         + ", regWorkWake="
         + regWorkWake
+        + ", adaptiveDebouncing="
+        + adaptiveDebouncing
+        + ", adaptiveDebouncingMinMillis="
+        + adaptiveDebouncingMinMillis
         + '}';
   }
 }
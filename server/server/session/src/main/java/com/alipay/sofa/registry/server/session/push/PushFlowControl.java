@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * per client connection flow control of push. The inflight pushes of a connection are limited by
+ * AIMD: the limit increases by one after a full window of pushes acked, and halves when the push is
+ * overflow or timeout. The inflight bytes of a connection are limited by a byte budget: each push
+ * is charged with its serialized size and released on ack or failure, so a few large pushes not
+ * fill the channel of the client.
+ */
+public final class PushFlowControl {
+  private final int minLimit;
+  private final int initLimit;
+  private final int maxLimit;
+  private final long maxInflightBytes;
+  private final long idleMillis;
+
+  final Map<InetSocketAddress, ConnectionLimit> limits = new ConcurrentHashMap<>(1024);
+
+  PushFlowControl(
+      int minLimit, int initLimit, int maxLimit, long maxInflightBytes, long idleMillis) {
+    this.minLimit = Math.max(1, minLimit);
+    this.maxLimit = Math.max(this.minLimit, maxLimit);
+    this.initLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initLimit));
+    this.maxInflightBytes = maxInflightBytes;
+    this.idleMillis = idleMillis;
+  }
+
+  /**
+   * check whether the connection has free permit, not reserve the permit
+   *
+   * @param addr client address
+   * @return true if has free permit
+   */
+  boolean hasPermit(InetSocketAddress addr) {
+    final ConnectionLimit limit = limits.get(addr);
+    return limit == null || !limit.isFull();
+  }
+
+  /**
+   * try to acquire a permit of the connection
+   *
+   * @param addr client address
+   * @return null if the inflight pushes or bytes of the connection reach the limit
+   */
+  Permit tryAcquire(InetSocketAddress addr) {
+    for (; ; ) {
+      final ConnectionLimit limit =
+          limits.computeIfAbsent(addr, k -> new ConnectionLimit(initLimit));
+      synchronized (limit) {
+        if (limit.removed) {
+          // removed by clean, retry with the new one
+          continue;
+        }
+        if (limit.isFull()) {
+          return null;
+        }
+        limit.inflight++;
+        limit.lastAcquireTimestamp = System.currentTimeMillis();
+        return new Permit(limit);
+      }
+    }
+  }
+
+  /**
+   * remove the idle limits, avoid the disconnected clients leak
+   *
+   * @return the count of removed
+   */
+  int cleanIdle() {
+    final long now = System.currentTimeMillis();
+    int count = 0;
+    Iterator<ConnectionLimit> it = limits.values().iterator();
+    while (it.hasNext()) {
+      final ConnectionLimit limit = it.next();
+      synchronized (limit) {
+        if (limit.inflight == 0 && limit.lastAcquireTimestamp + idleMillis < now) {
+          limit.removed = true;
+          it.remove();
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  int size() {
+    return limits.size();
+  }
+
+  @VisibleForTesting
+  int getLimit(InetSocketAddress addr) {
+    final ConnectionLimit limit = limits.get(addr);
+    return limit == null ? initLimit : limit.limit;
+  }
+
+  @VisibleForTesting
+  int getInflight(InetSocketAddress addr) {
+    final ConnectionLimit limit = limits.get(addr);
+    return limit == null ? 0 : limit.inflight;
+  }
+
+  @VisibleForTesting
+  long getInflightBytes(InetSocketAddress addr) {
+    final ConnectionLimit limit = limits.get(addr);
+    return limit == null ? 0 : limit.inflightBytes;
+  }
+
+  final class ConnectionLimit {
+    volatile int inflight;
+    volatile int limit;
+    volatile long inflightBytes;
+    int acks;
+    long lastAcquireTimestamp;
+    boolean removed;
+
+    ConnectionLimit(int limit) {
+      this.limit = limit;
+    }
+
+    boolean isFull() {
+      // the first push of an idle connection is always permitted, even larger than the budget
+      return inflight >= limit || inflightBytes >= maxInflightBytes;
+    }
+
+    synchronized void charge(long bytes) {
+      inflightBytes += bytes;
+    }
+
+    synchronized void release(Feedback feedback, long bytes) {
+      inflight--;
+      inflightBytes -= bytes;
+      switch (feedback) {
+        case ACK:
+          if (++acks >= limit) {
+            acks = 0;
+            limit = Math.min(maxLimit, limit + 1);
+          }
+          break;
+        case CONGESTED:
+          acks = 0;
+          limit = Math.max(minLimit, limit / 2);
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  enum Feedback {
+    ACK,
+    CONGESTED,
+    NONE,
+  }
+
+  static final class Permit {
+    private final ConnectionLimit limit;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    private long chargedBytes;
+
+    Permit(ConnectionLimit limit) {
+      this.limit = limit;
+    }
+
+    /**
+     * charge the serialized size of the push to the byte budget of the connection, the charged
+     * bytes are released with the permit
+     *
+     * @param bytes serialized size of the push
+     */
+    void charge(long bytes) {
+      if (bytes <= 0) {
+        return;
+      }
+      synchronized (this) {
+        if (released.get()) {
+          return;
+        }
+        chargedBytes += bytes;
+        limit.charge(bytes);
+      }
+    }
+
+    /**
+     * release the permit, only the first call takes effect
+     *
+     * @param feedback the result of the push
+     * @return true if released by this call
+     */
+    boolean release(Feedback feedback) {
+      synchronized (this) {
+        if (released.compareAndSet(false, true)) {
+          limit.release(feedback, chargedBytes);
+          return true;
+        }
+        return false;
+      }
+    }
+
+    boolean isReleased() {
+      return released.get();
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.session.push;
 
 import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 
 public final class PushMetrics {
@@ -38,6 +39,28 @@ public final class PushMetrics {
             .name("change_task_exec_total")
             .help("change task exec")
             .register();
+    static final Counter CHANGE_TASK_MERGE_COUNTER =
+        Counter.build()
+            .namespace("session")
+            .subsystem("fetch")
+            .name("change_task_merge_total")
+            .help("change task merged into the debouncing one, saved a push")
+            .register();
+
+    private static final Histogram DEBOUNCING_HISTOGRAM =
+        Histogram.build()
+            .buckets(0, 10, 50, 100, 200, 500, 1000, 2000, 3000, 5000)
+            .namespace("session")
+            .subsystem("fetch")
+            .name("adaptive_debouncing_millis")
+            .help("debouncing millis chosen by the change rate of dataInfoId")
+            .labelNames("type")
+            .register();
+
+    static final Histogram.Child CHANGE_DEBOUNCING_HISTOGRAM =
+        DEBOUNCING_HISTOGRAM.labels("change");
+    static final Histogram.Child PUSH_DEBOUNCING_HISTOGRAM = DEBOUNCING_HISTOGRAM.labels("push");
+
     static final Counter REGISTER_TASK_COUNTER =
         Counter.build()
             .namespace("session")
@@ -78,6 +101,8 @@ public final class PushMetrics {
 
     static final Counter.Child CACHE_HIT_COUNTER = CACHE_COUNTER.labels("Y");
     static final Counter.Child CACHE_MISS_COUNTER = CACHE_COUNTER.labels("N");
+    // the datum carried by the change notify is put into cache
+    static final Counter.Child CACHE_INLINE_COUNTER = CACHE_COUNTER.labels("inline");
   }
 
   static final class Push {
@@ -92,6 +117,7 @@ public final class PushMetrics {
     static final Counter.Child BUFFER_REPLACE_COUNTER = BUFFER_COUNTER.labels("replace");
     static final Counter.Child BUFFER_NEW_COUNTER = BUFFER_COUNTER.labels("new");
     static final Counter.Child BUFFER_SKIP_COUNTER = BUFFER_COUNTER.labels("skip");
+    static final Counter.Child BUFFER_PARK_COUNTER = BUFFER_COUNTER.labels("park");
 
     static final Counter COMMIT_COUNTER =
         Counter.build()
@@ -211,6 +237,67 @@ public final class PushMetrics {
       }
     }
 
+    static final Gauge PUSH_LANE_QUEUE_GAUGE =
+        Gauge.build()
+            .namespace("session")
+            .subsystem("push")
+            .name("lane_queue_size")
+            .help("queue size of push lane")
+            .labelNames("lane")
+            .register();
+
+    private static final Histogram PUSH_LANE_WAIT_HISTOGRAM =
+        Histogram.build()
+            .buckets(10, 50, 100, 200, 500, 1000, 2000, 5000)
+            .namespace("session")
+            .subsystem("push")
+            .name("lane_wait")
+            .help("wait millis from commit to execute in push lane")
+            .labelNames("lane")
+            .register();
+
+    static final Histogram.Child PUSH_PRIORITY_LANE_WAIT_HISTOGRAM =
+        PUSH_LANE_WAIT_HISTOGRAM.labels("priority");
+    static final Histogram.Child PUSH_NORMAL_LANE_WAIT_HISTOGRAM =
+        PUSH_LANE_WAIT_HISTOGRAM.labels("normal");
+
+    static final Counter PUSH_PRIORITY_SLO_VIOLATION_COUNTER =
+        Counter.build()
+            .namespace("session")
+            .subsystem("push")
+            .name("priority_slo_violation_total")
+            .help("priority push wait longer than slo")
+            .register();
+
+    private static final Histogram PUSH_STAGE_HISTOGRAM =
+        Histogram.build()
+            .buckets(1, 5, 10, 50, 100, 200, 500, 1000, 2000, 5000, 10000)
+            .namespace("session")
+            .subsystem("push")
+            .name("stage_millis")
+            .help("millis spent in the push stage since the previous stage")
+            .labelNames("stage", "cause")
+            .register();
+
+    static void observePushStages(PushType pushType, long[] spans) {
+      for (int i = 0; i < spans.length; i++) {
+        if (spans[i] >= 0) {
+          PUSH_STAGE_HISTOGRAM
+              .labels(PushStage.STAGES[i].name(), pushType.name())
+              .observe(spans[i]);
+        }
+      }
+    }
+
+    static final Histogram PUSH_BATCH_SIZE_HISTOGRAM =
+        Histogram.build()
+            .buckets(2, 5, 10, 20, 50, 100)
+            .namespace("session")
+            .subsystem("push")
+            .name("batch_size")
+            .help("count of push tasks sent in one batch request")
+            .register();
+
     static final Counter PUSH_EMPTY_SKIP_COUNTER =
         Counter.build()
             .namespace("session")
@@ -24,6 +24,12 @@ import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.PushData;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.constants.AttributeKeyConstants;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatch;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatchResult;
+import com.alipay.sofa.registry.core.model.Result;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.remoting.CallbackHandler;
 import com.alipay.sofa.registry.remoting.Channel;
@@ -33,16 +39,19 @@ import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
-import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
+import com.alipay.sofa.registry.task.KeyedPriorityThreadPoolExecutor;
 import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
 import com.alipay.sofa.registry.task.RejectedDiscardHandler;
 import com.alipay.sofa.registry.trace.TraceID;
 import com.alipay.sofa.registry.util.*;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -53,12 +62,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class PushProcessor {
   private static final Logger LOGGER = PushLog.LOGGER;
 
-  private KeyedThreadPoolExecutor pushExecutor;
+  // the first push of subscriber (Reg/Empty) is polled before the change pushes in its lane
+  private KeyedPriorityThreadPoolExecutor pushExecutor;
   PushTaskBuffer taskBuffer;
 
   final Map<PushTask.PushingTaskKey, PushRecord> pushingRecords =
       new ConcurrentHashMap<>(1024 * 16);
 
+  PushFlowControl flowControl;
+
   @Autowired protected SessionServerConfig sessionServerConfig;
 
   @Autowired protected PushSwitchService pushSwitchService;
@@ -69,6 +81,8 @@ public class PushProcessor {
 
   @Autowired protected CircuitBreakerService circuitBreakerService;;
 
+  @Autowired protected ChangeProcessor changeProcessor;
+
   private int pushDataTaskDebouncingMillis = 500;
   private PushEfficiencyImproveConfig pushEfficiencyImproveConfig;
 
@@ -81,15 +95,37 @@ public class PushProcessor {
 
   @PostConstruct
   public void init() {
+    initFlowControl();
+    ParaCheckUtil.checkIsPositive(
+        sessionServerConfig.getPriorityPushTaskMaxBurst(), "priorityPushTaskMaxBurst");
     pushExecutor =
-        new KeyedThreadPoolExecutor(
+        new KeyedPriorityThreadPoolExecutor(
             "PushExecutor",
             sessionServerConfig.getPushTaskExecutorPoolSize(),
-            sessionServerConfig.getPushTaskExecutorQueueSize());
+            sessionServerConfig.getPushTaskExecutorQueueSize(),
+            sessionServerConfig.getPriorityPushTaskReservedQueueSize(),
+            sessionServerConfig.getPriorityPushTaskMaxBurst(),
+            PushProcessor::isPriorityRunnable);
     intTaskBuffer();
+    if (sessionServerConfig.isPushBatchEnable()) {
+      taskBuffer.enableBatch(
+          sessionServerConfig.getPushBatchMaxSize(),
+          task -> pushLaneKey(task.pushingTaskKey),
+          this::commitBatch);
+    }
     ConcurrentUtils.createDaemonThread("PushCleaner", cleaner).start();
   }
 
+  void initFlowControl() {
+    flowControl =
+        new PushFlowControl(
+            sessionServerConfig.getPushFlowMinLimit(),
+            sessionServerConfig.getPushFlowInitLimit(),
+            sessionServerConfig.getPushFlowMaxLimit(),
+            sessionServerConfig.getPushFlowMaxInflightBytes(),
+            sessionServerConfig.getPushFlowIdleMillis());
+  }
+
   public void setPushTaskDelayTime(PushEfficiencyImproveConfig pushEfficiencyImproveConfig) {
     this.taskBuffer.setPushTaskWorkWaitingMillis(
         pushEfficiencyImproveConfig.getPushTaskWaitingMillis());
@@ -111,9 +147,18 @@ public class PushProcessor {
     PushTask pushTask = new PushTaskImpl(pushCause, addr, subscriberMap, datum);
     // set expireTimestamp, wait to merge to debouncing
     if (null != pushEfficiencyImproveConfig) {
-      pushTask.expireAfter(
+      int debouncingMillis =
           pushEfficiencyImproveConfig.fetchSbfAppPushTaskDebouncingMillis(
-              pushTask.subscriber.getAppName()));
+              pushTask.subscriber.getAppName());
+      if (pushEfficiencyImproveConfig.isAdaptiveDebouncing() && changeProcessor != null) {
+        debouncingMillis =
+            changeProcessor.adaptiveDebouncingMillis(
+                pushTask.subscriber.getDataInfoId(),
+                pushEfficiencyImproveConfig.getAdaptiveDebouncingMinMillis(),
+                debouncingMillis);
+        PushMetrics.Fetch.PUSH_DEBOUNCING_HISTOGRAM.observe(debouncingMillis);
+      }
+      pushTask.expireAfter(debouncingMillis);
     } else {
       pushTask.expireAfter(pushDataTaskDebouncingMillis);
     }
@@ -141,12 +186,17 @@ public class PushProcessor {
     @Override
     public void runUnthrowable() {
       int cleans = cleanPushingTaskRunTooLong();
+      int flowCleans = flowControl.cleanIdle();
+      observeLaneQueueSize();
       LOGGER.info(
-          "cleans={}, callbackDiscardCounter={}, buffer={}, pushing={}",
+          "cleans={}, callbackDiscardCounter={}, buffer={}, parked={}, pushing={}, flows={}/{}",
           cleans,
           discardHandler.getDiscardCountThenReset(),
           taskBuffer.size(),
-          pushingRecords.size());
+          taskBuffer.parkedSize(),
+          pushingRecords.size(),
+          flowControl.size(),
+          flowCleans);
     }
 
     @Override
@@ -155,6 +205,47 @@ public class PushProcessor {
     }
   }
 
+  void observeLaneQueueSize() {
+    if (pushExecutor != null) {
+      final int prioritySize = pushExecutor.getPriorityQueueSize();
+      PUSH_LANE_QUEUE_GAUGE.labels("normal").set(pushExecutor.getQueueSize() - prioritySize);
+      PUSH_LANE_QUEUE_GAUGE.labels("priority").set(prioritySize);
+    }
+  }
+
+  Object pushLaneKey(PushTask.PushingTaskKey pushingTaskKey) {
+    // keyed by client.addr && (pushingKey%concurrencyLevel)
+    // avoid generating too many pushes for the same client at the same time
+    final int level = sessionServerConfig.getClientNodePushConcurrencyLevel();
+    return new Tuple(pushingTaskKey.addr, pushingTaskKey.hashCode() % level);
+  }
+
+  static boolean isPriorityRunnable(Runnable runnable) {
+    if (runnable instanceof PushTask) {
+      return ((PushTask) runnable).isPriority();
+    }
+    if (runnable instanceof PushBatchRunner) {
+      return ((PushBatchRunner) runnable).priority;
+    }
+    return false;
+  }
+
+  void observeLaneWait(PushTask task) {
+    if (task.commitTimestamp <= 0) {
+      return;
+    }
+    final long wait = System.currentTimeMillis() - task.commitTimestamp;
+    if (task.isPriority()) {
+      PUSH_PRIORITY_LANE_WAIT_HISTOGRAM.observe(wait);
+      if (wait > sessionServerConfig.getPriorityPushSloMillis()) {
+        PUSH_PRIORITY_SLO_VIOLATION_COUNTER.inc();
+        LOGGER.warn("[prioritySlo]{},{},wait={}", task.taskID, task.pushingTaskKey, wait);
+      }
+    } else {
+      PUSH_NORMAL_LANE_WAIT_HISTOGRAM.observe(wait);
+    }
+  }
+
   private int getPushingMaxSpanMillis() {
     return sessionServerConfig.getClientNodeExchangeTimeoutMillis() * 3;
   }
@@ -183,6 +274,8 @@ public class PushProcessor {
       // force to remove the prev task
       final boolean cleaned = pushingRecords.remove(pushingTaskKey, task);
       if (cleaned) {
+        // the callback is lost, treat as congested
+        releasePermit(task.permit, PushFlowControl.Feedback.CONGESTED);
         for (DataCenterPushInfo value : task.dataCenterPushInfos.values()) {
           value.setPushVersion(0L);
         }
@@ -267,6 +360,7 @@ public class PushProcessor {
     Waiting,
     Error,
     Overflow,
+    Congested,
   }
 
   // some groupId not need to retry
@@ -308,44 +402,36 @@ public class PushProcessor {
   }
 
   boolean doPush(PushTask task) {
-    if (!pushSwitchService.canIpPushMulti(
-        task.pushingTaskKey.addr.getAddress().getHostAddress(), task.datum.dataCenters())) {
-      return false;
-    }
-
+    PushFlowControl.Permit permit = null;
+    boolean pushing = false;
     try {
-      task.trace.startPush();
-      if (!checkPushRunning(task)) {
+      if (!checkBeforePush(task)) {
         return false;
       }
 
-      if (!causeContinue(task)) {
+      // acquire before createPushData, the congested client not waste the serialization
+      permit = flowControl.tryAcquire(task.pushingTaskKey.addr);
+      if (permit == null) {
+        park(task);
         return false;
       }
 
-      final PushData pushData = task.createPushData();
-      task.setDataCenterPushInfos(pushData.getDataCenterPushInfo());
-
-      if (interruptOnPushEmpty(
-          task.datum, pushData, task.trace.pushCause, task.subscriber, task.pushingTaskKey.addr)) {
-        return false;
-      }
-
-      // double check
-      if (!causeContinue(task)) {
-        return false;
-      }
-      // check push empty can skip (last push is also empty)
-      if (checkSkipPushEmptyAndUpdateVersion(task)) {
+      final PushData pushData = encodePush(task);
+      if (pushData == null) {
         return false;
       }
+      permit.charge(pushBytesOf(task, pushData));
 
       pushingRecords.put(
           task.pushingTaskKey,
           new PushRecord(
-              task.trace, task.taskID, task.retryCount, pushData.getDataCenterPushInfo()));
+              task.trace, task.taskID, task.retryCount, pushData.getDataCenterPushInfo(), permit));
       clientNodeService.pushWithCallback(
-          pushData.getPayload(), task.subscriber.getSourceAddress(), new PushClientCallback(task));
+          pushData.getPayload(),
+          task.subscriber.getSourceAddress(),
+          new PushClientCallback(task, permit));
+      task.trace.mark(PushStage.PUSH_SEND);
+      pushing = true;
       PUSH_CLIENT_ING_COUNTER.inc();
       LOGGER.info(
           "[pushing]{},{},{},{}",
@@ -355,11 +441,273 @@ public class PushProcessor {
           task.getPushDataCount());
       return true;
     } catch (Throwable e) {
+      if (e instanceof ChannelOverflowException) {
+        releasePermit(permit, PushFlowControl.Feedback.CONGESTED);
+      }
       handleDoPushException(task, e);
+    } finally {
+      if (!pushing) {
+        releasePermit(permit, PushFlowControl.Feedback.NONE);
+      }
     }
     return false;
   }
 
+  private boolean checkBeforePush(PushTask task) {
+    if (!pushSwitchService.canIpPushMulti(
+        task.pushingTaskKey.addr.getAddress().getHostAddress(), task.datum.dataCenters())) {
+      return false;
+    }
+    task.trace.startPush();
+    if (!checkPushRunning(task)) {
+      return false;
+    }
+    return causeContinue(task);
+  }
+
+  /**
+   * create the push data of the task
+   *
+   * @param task the push task
+   * @return null if the task needs not to push
+   */
+  private PushData encodePush(PushTask task) {
+    final PushData pushData = task.createPushData();
+    task.trace.mark(PushStage.PUSH_ENCODE);
+    task.setDataCenterPushInfos(pushData.getDataCenterPushInfo());
+
+    if (interruptOnPushEmpty(
+        task.datum, pushData, task.trace.pushCause, task.subscriber, task.pushingTaskKey.addr)) {
+      return null;
+    }
+
+    // double check
+    if (!causeContinue(task)) {
+      return null;
+    }
+    // check push empty can skip (last push is also empty)
+    if (checkSkipPushEmptyAndUpdateVersion(task)) {
+      return null;
+    }
+    return pushData;
+  }
+
+  /**
+   * the serialized size of the push, the encoded size of the protobuf segments, or the estimated
+   * size of the datum for hessian which is serialized when writing to the channel
+   */
+  static long pushBytesOf(PushTask task, PushData pushData) {
+    long bytes = 0;
+    for (DataCenterPushInfo info :
+        ((Map<String, DataCenterPushInfo>) pushData.getDataCenterPushInfo()).values()) {
+      for (Integer size : info.getEncodeSize().values()) {
+        if (size != null) {
+          bytes += size;
+        }
+      }
+    }
+    return bytes > 0 ? bytes : task.datum.size();
+  }
+
+  boolean isBatchable(PushTask task) {
+    // the batch only carries ReceivedData
+    final Byte serializerIndex = task.subscriber.getSourceAddress().getSerializerIndex();
+    if (serializerIndex != null && URL.PROTOBUF == serializerIndex) {
+      return false;
+    }
+    for (Subscriber subscriber : task.subscriberMap.values()) {
+      if (subscriber.acceptMulti()
+          || !Boolean.parseBoolean(
+              subscriber.attributeOf(AttributeKeyConstants.ATTRIBUTE_ACCEPT_BATCH_PUSH))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean commitBatch(List<PushTask> batch) {
+    final PushTask first = batch.get(0);
+    try {
+      boolean priority = false;
+      final long now = System.currentTimeMillis();
+      for (PushTask task : batch) {
+        priority |= task.isPriority();
+        task.commitTimestamp = now;
+        task.trace.mark(PushStage.TASK_COMMIT, now);
+      }
+      pushExecutor.execute(pushLaneKey(first.pushingTaskKey), new PushBatchRunner(batch, priority));
+      COMMIT_COUNTER.inc(batch.size());
+      PUSH_BATCH_SIZE_HISTOGRAM.observe(batch.size());
+      return true;
+    } catch (Throwable e) {
+      LOGGER.error(
+          "failed to exec push batch {},size={}", first.pushingTaskKey.addr, batch.size(), e);
+      return false;
+    }
+  }
+
+  final class PushBatchRunner implements Runnable {
+    final List<PushTask> batch;
+    final boolean priority;
+
+    PushBatchRunner(List<PushTask> batch, boolean priority) {
+      this.batch = batch;
+      this.priority = priority;
+    }
+
+    @Override
+    public void run() {
+      for (PushTask task : batch) {
+        observeLaneWait(task);
+      }
+      doPushBatch(batch);
+    }
+  }
+
+  /**
+   * push the tasks of the same client connection in one ReceivedDataBatch request, share one permit
+   * of the flow control
+   *
+   * @param batch tasks of the same client connection
+   * @return count of the pushing tasks
+   */
+  int doPushBatch(List<PushTask> batch) {
+    final InetSocketAddress addr = batch.get(0).pushingTaskKey.addr;
+    final List<PushTask> candidates = new ArrayList<>(batch.size());
+    final Set<PushTask.PushingTaskKey> pushingTaskKeys = new HashSet<>(batch.size());
+    for (PushTask task : batch) {
+      try {
+        if (!checkBeforePush(task)) {
+          continue;
+        }
+        if (pushingTaskKeys.add(task.pushingTaskKey)) {
+          candidates.add(task);
+        } else {
+          // the same pushingTaskKey in the batch, wait for the prev one
+          retry(task, RetryReason.Waiting);
+        }
+      } catch (Throwable e) {
+        handleDoPushException(task, e);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return 0;
+    }
+    final PushFlowControl.Permit permit = flowControl.tryAcquire(addr);
+    if (permit == null) {
+      for (PushTask task : candidates) {
+        park(task);
+      }
+      return 0;
+    }
+
+    final List<PushTask> pushings = new ArrayList<>(candidates.size());
+    final List<Object> payloads = new ArrayList<>(candidates.size());
+    boolean pushing = false;
+    try {
+      for (PushTask task : candidates) {
+        try {
+          final PushData pushData = encodePush(task);
+          if (pushData == null) {
+            continue;
+          }
+          permit.charge(pushBytesOf(task, pushData));
+          pushingRecords.put(
+              task.pushingTaskKey,
+              new PushRecord(
+                  task.trace,
+                  task.taskID,
+                  task.retryCount,
+                  pushData.getDataCenterPushInfo(),
+                  permit));
+          pushings.add(task);
+          payloads.add(pushData.getPayload());
+        } catch (Throwable e) {
+          handleDoPushException(task, e);
+        }
+      }
+      if (pushings.isEmpty()) {
+        return 0;
+      }
+      final PushTask first = pushings.get(0);
+      if (pushings.size() == 1) {
+        clientNodeService.pushWithCallback(
+            payloads.get(0),
+            first.subscriber.getSourceAddress(),
+            new PushClientCallback(first, permit));
+      } else {
+        List<ReceivedData> data = new ArrayList<>(payloads.size());
+        for (Object payload : payloads) {
+          data.add((ReceivedData) payload);
+        }
+        clientNodeService.pushWithCallback(
+            new ReceivedDataBatch(data),
+            first.subscriber.getSourceAddress(),
+            new PushBatchCallback(pushings, permit));
+      }
+      final long sendTimestamp = System.currentTimeMillis();
+      for (PushTask task : pushings) {
+        task.trace.mark(PushStage.PUSH_SEND, sendTimestamp);
+      }
+      pushing = true;
+      PUSH_CLIENT_ING_COUNTER.inc(pushings.size());
+      for (PushTask task : pushings) {
+        LOGGER.info(
+            "[pushing]{},{},{},{},batch={}",
+            task.taskID,
+            task.pushingTaskKey,
+            task.datum.getVersion(),
+            task.getPushDataCount(),
+            pushings.size());
+      }
+      return pushings.size();
+    } catch (Throwable e) {
+      if (e instanceof ChannelOverflowException) {
+        releasePermit(permit, PushFlowControl.Feedback.CONGESTED);
+      }
+      for (PushTask task : pushings) {
+        handleDoPushException(task, e);
+      }
+    } finally {
+      if (!pushing) {
+        releasePermit(permit, PushFlowControl.Feedback.NONE);
+      }
+    }
+    return 0;
+  }
+
+  boolean isPushable(PushTask task) {
+    if (!flowControl.hasPermit(task.pushingTaskKey.addr)) {
+      return false;
+    }
+    final Channel channel = clientNodeService.getChannel(task.subscriber.getSourceAddress());
+    // the closed channel is pushable, let the push fails fast
+    return channel == null || !channel.isConnected() || channel.isWritable();
+  }
+
+  void park(PushTask task) {
+    final boolean buffed = taskBuffer.buffer(task);
+    BUFFER_PARK_COUNTER.inc();
+    LOGGER.info(
+        "[park]{},{},{},buffed={}",
+        task.taskID,
+        task.pushingTaskKey,
+        task.datum.getVersion(),
+        buffed);
+    // the buffer is full or has a newer task, not drop the task silently
+    if (!buffed && !retry(task, RetryReason.Congested)) {
+      task.trace.finishPush(
+          PushTrace.PushStatus.Busy, task.taskID, task.getDataCenterPushInfos(), task.retryCount);
+    }
+  }
+
+  void releasePermit(PushFlowControl.Permit permit, PushFlowControl.Feedback feedback) {
+    if (permit != null && permit.release(feedback) && taskBuffer.parkedSize() != 0) {
+      // some tasks are waiting for the permit
+      taskBuffer.wakeupAll();
+    }
+  }
+
   void handleDoPushException(PushTask task, Throwable e) {
     // try to delete self
     pushingRecords.remove(task.pushingTaskKey);
@@ -425,11 +773,9 @@ public class PushProcessor {
             pushingTaskKey.addr.getAddress().getHostAddress(), datum.dataCenters())) {
           return false;
         }
-        // keyed by client.addr && (pushingKey%concurrencyLevel)
-        // avoid generating too many pushes for the same client at the same time
-        final int level = sessionServerConfig.getClientNodePushConcurrencyLevel();
-        pushExecutor.execute(
-            new Tuple(pushingTaskKey.addr, pushingTaskKey.hashCode() % level), this);
+        commitTimestamp = System.currentTimeMillis();
+        trace.mark(PushStage.TASK_COMMIT, commitTimestamp);
+        pushExecutor.execute(pushLaneKey(pushingTaskKey), this);
         COMMIT_COUNTER.inc();
         return true;
       } catch (Throwable e) {
@@ -438,84 +784,180 @@ public class PushProcessor {
       }
     }
 
+    @Override
+    protected boolean isBlocked() {
+      return !isPushable(this);
+    }
+
+    @Override
+    protected boolean isBatchable() {
+      return PushProcessor.this.isBatchable(this);
+    }
+
     @Override
     public void run() {
+      observeLaneWait(this);
       doPush(this);
     }
   }
 
+  // the pushing record is removed before the permit released
+  void onPushSuccess(PushTask pushTask) {
+    for (Subscriber subscriber : pushTask.subscriberMap.values()) {
+      if (!circuitBreakerService.onPushSuccess(
+          pushTask.datum.getVersion(), pushTask.getDataCenterPushCount(), subscriber)) {
+        LOGGER.info(
+            "PushY, but failed to updateVersion, {}, {}", pushTask.taskID, pushTask.pushingTaskKey);
+      }
+    }
+    pushTask.trace.finishPush(
+        PushTrace.PushStatus.OK,
+        pushTask.taskID,
+        pushTask.getDataCenterPushInfos(),
+        pushTask.retryCount);
+  }
+
+  void onPushFail(PushTask pushTask, Channel channel, Throwable exception) {
+    boolean needRecord = true;
+    final boolean channelConnected = channel.isConnected();
+    if (channelConnected) {
+      retry(pushTask, RetryReason.Error);
+    }
+
+    if (exception instanceof InvokeTimeoutException) {
+      pushTask.trace.finishPush(
+          PushTrace.PushStatus.Timeout,
+          pushTask.taskID,
+          pushTask.getDataCenterPushInfos(),
+          pushTask.retryCount);
+      LOGGER.error("[PushTimeout]taskId={}, {}", pushTask.taskID, pushTask.pushingTaskKey);
+    } else {
+      if (channelConnected) {
+        pushTask.trace.finishPush(
+            PushTrace.PushStatus.Fail,
+            pushTask.taskID,
+            pushTask.getDataCenterPushInfos(),
+            pushTask.retryCount);
+        LOGGER.error(
+            "[PushFailed]taskId={}, {}", pushTask.taskID, pushTask.pushingTaskKey, exception);
+      } else {
+        needRecord = false;
+        pushTask.trace.finishPush(
+            PushTrace.PushStatus.ChanClosed,
+            pushTask.taskID,
+            pushTask.getDataCenterPushInfos(),
+            pushTask.retryCount);
+        // channel closed, just warn
+        LOGGER.warn("[PushChanClosed]taskId={}, {}", pushTask.taskID, pushTask.pushingTaskKey);
+      }
+    }
+
+    if (needRecord) {
+      // record push fail
+      for (Subscriber subscriber : pushTask.subscriberMap.values()) {
+        if (!circuitBreakerService.onPushFail(pushTask.datum.getVersion(), subscriber)) {
+          LOGGER.info(
+              "PushN, failed to do onPushFail, {}, {}", pushTask.taskID, pushTask.pushingTaskKey);
+        }
+      }
+    }
+  }
+
+  static PushFlowControl.Feedback feedbackOf(Throwable exception) {
+    return exception instanceof InvokeTimeoutException
+        ? PushFlowControl.Feedback.CONGESTED
+        : PushFlowControl.Feedback.NONE;
+  }
+
   final class PushClientCallback implements CallbackHandler {
     final PushTask pushTask;
+    final PushFlowControl.Permit permit;
 
     PushClientCallback(PushTask pushTask) {
+      this(pushTask, null);
+    }
+
+    PushClientCallback(PushTask pushTask, PushFlowControl.Permit permit) {
       this.pushTask = pushTask;
+      this.permit = permit;
     }
 
     @Override
     public void onCallback(Channel channel, Object message) {
       pushingRecords.remove(pushTask.pushingTaskKey);
-      for (Subscriber subscriber : pushTask.subscriberMap.values()) {
-        if (!circuitBreakerService.onPushSuccess(
-            pushTask.datum.getVersion(), pushTask.getDataCenterPushCount(), subscriber)) {
-          LOGGER.info(
-              "PushY, but failed to updateVersion, {}, {}",
-              pushTask.taskID,
-              pushTask.pushingTaskKey);
-        }
-      }
-      this.pushTask.trace.finishPush(
-          PushTrace.PushStatus.OK,
-          pushTask.taskID,
-          pushTask.getDataCenterPushInfos(),
-          pushTask.retryCount);
+      releasePermit(permit, PushFlowControl.Feedback.ACK);
+      onPushSuccess(pushTask);
     }
 
     @Override
     public void onException(Channel channel, Throwable exception) {
       pushingRecords.remove(pushTask.pushingTaskKey);
+      releasePermit(permit, feedbackOf(exception));
+      onPushFail(pushTask, channel, exception);
+    }
 
-      boolean needRecord = true;
-      final boolean channelConnected = channel.isConnected();
-      if (channelConnected) {
-        retry(pushTask, RetryReason.Error);
-      }
+    @Override
+    public Executor getExecutor() {
+      return pushCallbackExecutor;
+    }
+  }
 
-      if (exception instanceof InvokeTimeoutException) {
-        this.pushTask.trace.finishPush(
-            PushTrace.PushStatus.Timeout,
-            pushTask.taskID,
-            pushTask.getDataCenterPushInfos(),
-            pushTask.retryCount);
-        LOGGER.error("[PushTimeout]taskId={}, {}", pushTask.taskID, pushTask.pushingTaskKey);
-      } else {
-        if (channelConnected) {
-          this.pushTask.trace.finishPush(
-              PushTrace.PushStatus.Fail,
-              pushTask.taskID,
-              pushTask.getDataCenterPushInfos(),
-              pushTask.retryCount);
-          LOGGER.error(
-              "[PushFailed]taskId={}, {}", pushTask.taskID, pushTask.pushingTaskKey, exception);
+  /** callback of ReceivedDataBatch, every task is acked by its own result */
+  final class PushBatchCallback implements CallbackHandler {
+    final List<PushTask> pushTasks;
+    final PushFlowControl.Permit permit;
+
+    PushBatchCallback(List<PushTask> pushTasks, PushFlowControl.Permit permit) {
+      this.pushTasks = pushTasks;
+      this.permit = permit;
+    }
+
+    @Override
+    public void onCallback(Channel channel, Object message) {
+      removePushingRecords();
+      releasePermit(permit, PushFlowControl.Feedback.ACK);
+      List<Result> results = null;
+      if (message instanceof ReceivedDataBatchResult) {
+        results = ((ReceivedDataBatchResult) message).getResults();
+      }
+      if (results == null || results.size() != pushTasks.size()) {
+        final Throwable exception =
+            new IllegalStateException(
+                StringFormatter.format(
+                    "illegal batch push response, expect {} results, {}",
+                    pushTasks.size(),
+                    message));
+        for (PushTask pushTask : pushTasks) {
+          onPushFail(pushTask, channel, exception);
+        }
+        return;
+      }
+      for (int i = 0; i < pushTasks.size(); i++) {
+        final Result result = results.get(i);
+        if (result != null && result.isSuccess()) {
+          onPushSuccess(pushTasks.get(i));
         } else {
-          needRecord = false;
-          this.pushTask.trace.finishPush(
-              PushTrace.PushStatus.ChanClosed,
-              pushTask.taskID,
-              pushTask.getDataCenterPushInfos(),
-              pushTask.retryCount);
-          // channel closed, just warn
-          LOGGER.warn("[PushChanClosed]taskId={}, {}", pushTask.taskID, pushTask.pushingTaskKey);
+          onPushFail(
+              pushTasks.get(i),
+              channel,
+              new IllegalStateException(
+                  "batch push failed: " + (result == null ? null : result.getMessage())));
         }
       }
+    }
 
-      if (needRecord) {
-        // record push fail
-        for (Subscriber subscriber : pushTask.subscriberMap.values()) {
-          if (!circuitBreakerService.onPushFail(pushTask.datum.getVersion(), subscriber)) {
-            LOGGER.info(
-                "PushN, failed to do onPushFail, {}, {}", pushTask.taskID, pushTask.pushingTaskKey);
-          }
-        }
+    @Override
+    public void onException(Channel channel, Throwable exception) {
+      removePushingRecords();
+      releasePermit(permit, feedbackOf(exception));
+      for (PushTask pushTask : pushTasks) {
+        onPushFail(pushTask, channel, exception);
+      }
+    }
+
+    private void removePushingRecords() {
+      for (PushTask pushTask : pushTasks) {
+        pushingRecords.remove(pushTask.pushingTaskKey);
       }
     }
 
@@ -532,10 +974,11 @@ public class PushProcessor {
         sessionServerConfig.getPushDataTaskRetryIncrementDelayMillis());
   }
 
-  private static final class PushRecord {
+  static final class PushRecord {
     final PushTrace trace;
     final TraceID taskID;
     final int retryCount;
+    final PushFlowControl.Permit permit;
 
     private Map<String, DataCenterPushInfo> dataCenterPushInfos;
 
@@ -543,11 +986,13 @@ public class PushProcessor {
         PushTrace pushTrace,
         TraceID taskID,
         int retryCount,
-        Map<String, DataCenterPushInfo> dataCenterPushInfos) {
+        Map<String, DataCenterPushInfo> dataCenterPushInfos,
+        PushFlowControl.Permit permit) {
       this.trace = pushTrace;
       this.taskID = taskID;
       this.retryCount = retryCount;
       this.dataCenterPushInfos = dataCenterPushInfos;
+      this.permit = permit;
     }
   }
 }
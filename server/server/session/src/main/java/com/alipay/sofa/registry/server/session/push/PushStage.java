@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+/**
+ * the stages of a push from the publisher change on data server to the client ack, in time order.
+ * the data stages come from the TraceTimes in the change notify, the others are marked on session
+ */
+public enum PushStage {
+  /** the first put request of the change received by data server */
+  DATA_PUT_RECEIVE,
+  /** the put request committed to the datum storage */
+  DATA_PUT_COMMIT,
+  /** the first change merged on data server */
+  DATA_CHANGE,
+  /** the merged changes flushed to the notifier */
+  DATA_MERGE,
+  DATA_NOTIFY_CREATE,
+  DATA_NOTIFY_SEND,
+  /** session received the change notify, or the subscriber registered */
+  SESSION_TRIGGER,
+  /** the change task fired after debounce */
+  CHANGE_FIRE,
+  /** the datum fetched from the cache */
+  DATUM_FETCH,
+  /** the push task created and put into buffer */
+  TASK_CREATE,
+  /** the push task committed to the push executor */
+  TASK_COMMIT,
+  /** the push task picked by the push executor */
+  PUSH_START,
+  /** the push data serialized and compressed */
+  PUSH_ENCODE,
+  /** the push request written to the client connection, the client has not responded yet */
+  PUSH_SEND,
+  /** the client responded */
+  PUSH_ACK;
+
+  static final PushStage[] STAGES = values();
+}
@@ -45,6 +45,7 @@ public abstract class PushTask {
   protected final PushTrace trace;
 
   protected int retryCount;
+  protected volatile long commitTimestamp;
   private Map<String, DataCenterPushInfo> dataCenterPushInfos;
 
   protected PushTask(
@@ -73,6 +74,25 @@ public abstract class PushTask {
 
   protected abstract PushData createPushData();
 
+  /**
+   * blocked by the flow control of the client connection, the task keeps parking in the buffer
+   * (still could be replaced by the newer one) until unblocked
+   *
+   * @return true if blocked
+   */
+  protected boolean isBlocked() {
+    return false;
+  }
+
+  /**
+   * could be pushed together with the other tasks of the same client connection in one request
+   *
+   * @return true if batchable
+   */
+  protected boolean isBatchable() {
+    return false;
+  }
+
   protected void expireAfter(long intervalMs) {
     this.expireTimestamp = System.currentTimeMillis() + intervalMs;
   }
@@ -89,6 +109,10 @@ public abstract class PushTask {
     return true;
   }
 
+  public boolean isPriority() {
+    return trace.pushCause.pushType.priority;
+  }
+
   public boolean isSingletonReg() {
     return trace.pushCause.pushType == PushType.Reg && subscriberMap.size() == 1;
   }
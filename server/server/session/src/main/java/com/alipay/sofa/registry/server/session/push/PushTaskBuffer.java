@@ -30,16 +30,27 @@ import com.google.common.collect.Sets;
 import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public final class PushTaskBuffer {
   private static final Logger LOGGER = LoggerFactory.getLogger(PushTaskBuffer.class);
   private static final String KEY_MAX_BUFFERED_SIZE = "registry.session.push_task.max_buffered";
   private static final int MAX_BUFFERED_SIZE =
       SystemUtils.getSystemInteger(KEY_MAX_BUFFERED_SIZE, 10000);
+  private static final String KEY_PRIORITY_RESERVED_SIZE =
+      "registry.session.push_task.priority_reserved";
+  // the priority tasks could be buffered when the buffer is full of change tasks
+  private static final int PRIORITY_RESERVED_SIZE =
+      SystemUtils.getSystemInteger(KEY_PRIORITY_RESERVED_SIZE, 2000);
 
   final BufferWorker[] workers;
   private PushEfficiencyImproveConfig pushEfficiencyImproveConfig;
 
+  // not null if the batchable tasks of the same client connection are committed in batch
+  private volatile BatchCommitter batchCommitter;
+  private volatile Function<PushTask, Object> batchLaneOf;
+  private volatile int batchMaxSize;
+
   PushTaskBuffer(int workerSize) {
     this.workers = new BufferWorker[workerSize];
     for (int i = 0; i < workerSize; i++) {
@@ -55,6 +66,28 @@ public final class PushTaskBuffer {
     }
   }
 
+  interface BatchCommitter {
+    boolean commitBatch(List<PushTask> batch);
+  }
+
+  /**
+   * commit the batchable tasks of the same client connection in batch, the tasks of the same
+   * connection are buffered in the same worker. must be called before any task is buffered
+   *
+   * @param maxSize max count of tasks in one batch
+   * @param laneOf the executor lane of the task, only the tasks of the same lane are batched
+   * @param committer committer of the batch
+   */
+  void enableBatch(int maxSize, Function<PushTask, Object> laneOf, BatchCommitter committer) {
+    this.batchMaxSize = maxSize;
+    this.batchLaneOf = laneOf;
+    this.batchCommitter = committer;
+  }
+
+  boolean isBatchEnabled() {
+    return batchCommitter != null;
+  }
+
   boolean bufferWakeUp(PushTask pushTask) {
     final BufferTaskKey key = bufferTaskKey(pushTask);
     final BufferWorker worker = workerOf(key);
@@ -69,7 +102,7 @@ public final class PushTaskBuffer {
   boolean buffer(PushTask pushTask) {
     final BufferTaskKey key = bufferTaskKey(pushTask);
     final BufferWorker worker = workerOf(key);
-    if (worker.bufferMap.size() >= MAX_BUFFERED_SIZE) {
+    if (worker.bufferMap.size() >= maxBufferedSize(pushTask)) {
       return false;
     }
     if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
@@ -119,6 +152,10 @@ public final class PushTaskBuffer {
     }
   }
 
+  static int maxBufferedSize(PushTask pushTask) {
+    return pushTask.isPriority() ? MAX_BUFFERED_SIZE + PRIORITY_RESERVED_SIZE : MAX_BUFFERED_SIZE;
+  }
+
   private void wakeup(BufferWorker worker, PushTask pushTask) {
     if (pushTask.trace.pushCause.pushType.noDelay) {
       worker.wakeup();
@@ -134,6 +171,9 @@ public final class PushTaskBuffer {
 
     private int waitingMillis = 200;
 
+    // the count of tasks blocked by flow control in the last round
+    volatile int parkedSize;
+
     @Override
     public void runUnthrowable() {
       watchBuffer(this);
@@ -144,21 +184,35 @@ public final class PushTaskBuffer {
       return waitingMillis;
     }
 
-    private List<PushTask> transferAndMerge() {
+    List<PushTask> transferAndMerge() {
       if (bufferMap.isEmpty()) {
         return Collections.emptyList();
       }
       List<PushTask> pending = Lists.newArrayListWithCapacity(1024);
+      List<PushTask> normals = Lists.newArrayListWithCapacity(1024);
       final long now = System.currentTimeMillis();
+      int parked = 0;
       for (Map.Entry<BufferTaskKey, PushTask> e : bufferMap.entrySet()) {
         final PushTask task = e.getValue();
         // no delay or expire, push immediately
         if (task.trace.pushCause.pushType.noDelay || task.expireTimestamp <= now) {
-          pending.add(task);
+          if (task.isBlocked()) {
+            // the connection is congested, keep it in buffer, not waste the serialization
+            parked++;
+            continue;
+          }
+          // commit the priority tasks first
+          if (task.isPriority()) {
+            pending.add(task);
+          } else {
+            normals.add(task);
+          }
           // the task maybe update
           bufferMap.remove(e.getKey(), task);
         }
       }
+      this.parkedSize = parked;
+      pending.addAll(normals);
       return pending;
     }
   }
@@ -170,14 +224,47 @@ public final class PushTaskBuffer {
     }
 
     List<PushTask> pending = worker.transferAndMerge();
+    final BatchCommitter committer = batchCommitter;
     int count = 0;
+    if (committer != null) {
+      count = commitInBatch(pending, committer);
+    } else {
+      for (PushTask task : pending) {
+        if (task.commit()) {
+          count++;
+        }
+      }
+    }
+    if (pending.size() > 0 || count > 0) {
+      LOGGER.info("buffers={},commits={},parks={}", pending.size(), count, worker.parkedSize);
+    }
+    return count;
+  }
+
+  int commitInBatch(List<PushTask> pending, BatchCommitter committer) {
+    int count = 0;
+    // keep the order, the priority tasks first
+    Map<Object, List<PushTask>> batches = new LinkedHashMap<>();
     for (PushTask task : pending) {
-      if (task.commit()) {
+      if (task.isBatchable()) {
+        batches.computeIfAbsent(batchLaneOf.apply(task), k -> new ArrayList<>()).add(task);
+      } else if (task.commit()) {
         count++;
       }
     }
-    if (pending.size() > 0 || count > 0) {
-      LOGGER.info("buffers={},commits={}", pending.size(), count);
+    for (List<PushTask> tasks : batches.values()) {
+      for (List<PushTask> batch : Lists.partition(tasks, Math.max(1, batchMaxSize))) {
+        if (batch.size() != 1 && committer.commitBatch(new ArrayList<>(batch))) {
+          count += batch.size();
+          continue;
+        }
+        // commit one by one if the batch is rejected
+        for (PushTask task : batch) {
+          if (task.commit()) {
+            count++;
+          }
+        }
+      }
     }
     return count;
   }
@@ -243,11 +330,27 @@ public final class PushTaskBuffer {
     }
   }
 
-  private BufferWorker workerOf(Object key) {
-    int n = (key.hashCode() & 0x7fffffff) % workers.length;
+  private BufferWorker workerOf(BufferTaskKey key) {
+    // gather the tasks of the same connection in one worker for batch
+    final int hash = isBatchEnabled() ? key.addr.hashCode() : key.hashCode();
+    int n = (hash & 0x7fffffff) % workers.length;
     return workers[n];
   }
 
+  int parkedSize() {
+    int size = 0;
+    for (BufferWorker w : workers) {
+      size += w.parkedSize;
+    }
+    return size;
+  }
+
+  void wakeupAll() {
+    for (BufferWorker w : workers) {
+      w.wakeup();
+    }
+  }
+
   public int size() {
     int size = 0;
     for (BufferWorker w : workers) {
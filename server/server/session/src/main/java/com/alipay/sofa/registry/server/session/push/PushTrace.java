@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.session.push;
 
 import com.alipay.sofa.registry.common.model.DataCenterPushInfo;
+import com.alipay.sofa.registry.common.model.TraceTimes;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
@@ -28,6 +29,7 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.trace.TraceID;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.SystemUtils;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Longs;
 import java.net.InetSocketAddress;
@@ -36,6 +38,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.logging.log4j.core.async.Hack;
 
@@ -45,6 +48,11 @@ public final class PushTrace {
       Hack.hackLoggerDisruptor(LoggerFactory.getLogger("PUSH-TRACE"));
   private static final Logger SLOW_LOGGER =
       Hack.hackLoggerDisruptor(LoggerFactory.getLogger("PUSH-TRACE-SLOW"));
+  private static final String KEY_STAGE_SAMPLE_PERCENT =
+      "registry.session.push_trace.stage_sample_percent";
+  // the percent of the succeed pushes which log the stage timestamps in detail
+  private static final int STAGE_SAMPLE_PERCENT =
+      SystemUtils.getSystemInteger(KEY_STAGE_SAMPLE_PERCENT, 1);
   private final MultiSubDatum datum;
   final long pushCreateTimestamp = System.currentTimeMillis();
 
@@ -57,6 +65,9 @@ public final class PushTrace {
   private volatile long pushStartTimestamp;
   private final int subNum;
 
+  // the timestamps of the stages marked on session, indexed by PushStage.ordinal
+  private final long[] stages = new long[PushStage.STAGES.length];
+
   private PushTrace(
       MultiSubDatum datum,
       InetSocketAddress address,
@@ -70,6 +81,7 @@ public final class PushTrace {
     this.subApp = subApp;
     this.subNum = subNum;
     this.subRegTimestamp = subRegTimestamp;
+    this.stages[PushStage.TASK_CREATE.ordinal()] = pushCreateTimestamp;
   }
 
   public static PushTrace trace(
@@ -108,6 +120,91 @@ public final class PushTrace {
 
   public void startPush() {
     this.pushStartTimestamp = System.currentTimeMillis();
+    mark(PushStage.PUSH_START, pushStartTimestamp);
+  }
+
+  void mark(PushStage stage) {
+    mark(stage, System.currentTimeMillis());
+  }
+
+  void mark(PushStage stage, long timestamp) {
+    stages[stage.ordinal()] = timestamp;
+  }
+
+  long[] stageTimestamps(long pushFinishTimestamp) {
+    final long[] ret = stages.clone();
+    final TriggerPushContext ctx = pushCause.triggerPushCtx;
+    final TraceTimes times = ctx.getLastTimes();
+    // the trace times is created on session if the push not triggered by data change
+    if (times.getFirstDataChange() > 0) {
+      ret[PushStage.DATA_PUT_RECEIVE.ordinal()] = times.getDataPutReceive();
+      ret[PushStage.DATA_PUT_COMMIT.ordinal()] = times.getDataPutCommit();
+      ret[PushStage.DATA_CHANGE.ordinal()] = times.getFirstDataChange();
+      ret[PushStage.DATA_MERGE.ordinal()] = times.getCreateTs();
+      ret[PushStage.DATA_NOTIFY_CREATE.ordinal()] = times.getDatumNotifyCreate();
+      ret[PushStage.DATA_NOTIFY_SEND.ordinal()] = times.getDatumNotifySend();
+    }
+    ret[PushStage.SESSION_TRIGGER.ordinal()] = times.getTriggerSession();
+    ret[PushStage.CHANGE_FIRE.ordinal()] = ctx.getChangeFireTimestamp();
+    ret[PushStage.DATUM_FETCH.ordinal()] = ctx.getDatumFetchTimestamp();
+    ret[PushStage.PUSH_ACK.ordinal()] = pushFinishTimestamp;
+    return ret;
+  }
+
+  /**
+   * the millis spent in every stage since the previous marked stage, -1 means the stage is not
+   * marked
+   */
+  static long[] stageSpans(long[] timestamps) {
+    final long[] spans = new long[timestamps.length];
+    long prev = 0;
+    for (int i = 0; i < timestamps.length; i++) {
+      final long ts = timestamps[i];
+      if (ts <= 0 || prev <= 0) {
+        spans[i] = -1;
+      } else {
+        // the clocks of data and session maybe not in sync
+        spans[i] = Math.max(ts - prev, 0);
+      }
+      if (ts > 0) {
+        prev = ts;
+      }
+    }
+    return spans;
+  }
+
+  static String formatStageSpans(long[] spans) {
+    StringBuilder sb = ThreadLocalStringBuilder.get();
+    sb.append('{');
+    for (int i = 0; i < spans.length; i++) {
+      if (spans[i] < 0) {
+        continue;
+      }
+      if (sb.length() > 1) {
+        sb.append(',');
+      }
+      sb.append(PushStage.STAGES[i].name()).append('=').append(spans[i]);
+    }
+    sb.append('}');
+    return sb.toString();
+  }
+
+  private void observeStages(PushStatus status, TraceID taskID) {
+    if (status != PushStatus.OK) {
+      return;
+    }
+    final long[] spans = stageSpans(stageTimestamps(System.currentTimeMillis()));
+    PushMetrics.Push.observePushStages(pushCause.pushType, spans);
+    if (STAGE_SAMPLE_PERCENT > 0
+        && ThreadLocalRandom.current().nextInt(100) < STAGE_SAMPLE_PERCENT) {
+      LOGGER.info(
+          "[stages]{},{},{},addr={},{}",
+          datum.getDataInfoId(),
+          pushCause.pushType,
+          taskID,
+          subAddress,
+          formatStageSpans(spans));
+    }
   }
 
   public void finishPush(
@@ -122,6 +219,7 @@ public final class PushTrace {
         DataCenterPushInfo pushInfo = entry.getValue();
         finish(dataCenter, status, taskID, pushInfo, retry);
       }
+      observeStages(status, taskID);
     } catch (Throwable t) {
       LOGGER.error(
           "finish push error, {},{},{},{}",
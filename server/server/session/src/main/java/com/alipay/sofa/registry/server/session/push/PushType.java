@@ -17,14 +17,17 @@
 package com.alipay.sofa.registry.server.session.push;
 
 public enum PushType {
-  Sub(false),
-  Reg(false),
-  Temp(true),
-  Empty(true);
+  Sub(false, false),
+  Reg(false, true),
+  Temp(true, false),
+  Empty(true, true);
 
   public final boolean noDelay;
+  // the first push of subscriber, runs in the priority lane, not blocked by the change pushes
+  public final boolean priority;
 
-  private PushType(boolean noDelay) {
+  private PushType(boolean noDelay, boolean priority) {
     this.noDelay = noDelay;
+    this.priority = priority;
   }
 }
@@ -30,6 +30,9 @@ public final class TriggerPushContext {
   private Map<String, Long> expectDatumVersion;
   private TraceTimes firstTraceTimes;
   private TraceTimes lastTraceTimes;
+  // the timestamps of the push stages on session, 0 means not happened
+  private volatile long changeFireTimestamp;
+  private volatile long datumFetchTimestamp;
 
   public TriggerPushContext(
       String dataCenter, long expectDatumVersion, String dataNode, long triggerSessionTimestamp) {
@@ -94,6 +97,22 @@ public final class TriggerPushContext {
     }
   }
 
+  public long getChangeFireTimestamp() {
+    return changeFireTimestamp;
+  }
+
+  public void setChangeFireTimestamp(long changeFireTimestamp) {
+    this.changeFireTimestamp = changeFireTimestamp;
+  }
+
+  public long getDatumFetchTimestamp() {
+    return datumFetchTimestamp;
+  }
+
+  public void setDatumFetchTimestamp(long datumFetchTimestamp) {
+    this.datumFetchTimestamp = datumFetchTimestamp;
+  }
+
   public synchronized Map<String, Long> getExpectDatumVersion() {
     return expectDatumVersion;
   }
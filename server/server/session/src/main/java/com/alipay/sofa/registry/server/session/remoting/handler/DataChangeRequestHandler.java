@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.session.remoting.handler;
 import com.alipay.sofa.registry.common.model.Node.NodeType;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
@@ -83,9 +84,15 @@ public class DataChangeRequestHandler extends AbstractClientHandler<DataChangeRe
     final String dataNode = RemotingHelper.getRemoteHostAddress(channel);
     final String dataCenter = dataChangeRequest.getDataCenter();
     final long changeTimestamp = System.currentTimeMillis();
+    // nothing to drop after the warmed datums are taken or expired
+    final boolean hasWarmed = sessionCacheService.hasWarmed();
     for (Map.Entry<String, DatumVersion> e : dataChangeRequest.getDataInfoIds().entrySet()) {
 
       final String dataInfoId = e.getKey();
+      // the warmed datum is taken by the first register, drop it even if no subscriber now
+      if (hasWarmed) {
+        sessionCacheService.invalidateWarmed(dataCenter, dataInfoId, e.getValue().getValue());
+      }
       if (!pushSwitchService.canPushMulti(Collections.singleton(dataCenter))) {
         continue;
       }
@@ -99,6 +106,10 @@ public class DataChangeRequestHandler extends AbstractClientHandler<DataChangeRe
         }
         continue;
       }
+      final SubDatum datum = dataChangeRequest.getDatums().get(dataInfoId);
+      if (datum != null) {
+        firePushService.putDatumIfNewer(datum);
+      }
       final TriggerPushContext changeCtx =
           new TriggerPushContext(
               dataCenter,
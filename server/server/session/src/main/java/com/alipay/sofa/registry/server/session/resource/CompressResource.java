@@ -16,23 +16,104 @@
  */
 package com.alipay.sofa.registry.server.session.resource;
 
+import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.metaserver.CompressPushSwitch;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.server.session.store.DataStore;
+import com.github.luben.zstd.Zstd;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import javax.annotation.Resource;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /*
 temp set current session push compress switch
 */
 @Path("compress")
 public class CompressResource {
+  private static final Logger LOGGER = LoggerFactory.getLogger("COMPRESS");
+
   @Resource CompressPushService compressPushService;
 
+  @Autowired DataStore sessionDataStore;
+
   @GET
   @Path("push/state")
   @Produces(MediaType.APPLICATION_JSON)
   public CompressPushSwitch getCurrentSwitch() {
     return compressPushService.getCompressSwitch();
   }
+
+  /**
+   * train the zstd dictionary from the data of local publishers, one sample per dataInfoId. the
+   * trained dictionary could be distributed by meta
+   */
+  @GET
+  @Path("dicts/train")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Map<String, Object> trainDict(
+      @QueryParam("group") String group,
+      @QueryParam("maxSamples") @DefaultValue("10000") int maxSamples,
+      @QueryParam("dictSize") @DefaultValue("16384") int dictSize) {
+    final List<byte[]> samples = Lists.newArrayList();
+    sessionDataStore.forEach(
+        (dataInfoId, publishers) -> {
+          if (samples.size() >= maxSamples || publishers.isEmpty()) {
+            return;
+          }
+          if (StringUtils.isNotBlank(group)
+              && !StringUtils.equals(group, DataInfo.valueOf(dataInfoId).getGroup())) {
+            return;
+          }
+          byte[] sample = sampleOf(publishers.values());
+          if (sample.length != 0) {
+            samples.add(sample);
+          }
+        });
+    Map<String, Object> ret = Maps.newLinkedHashMap();
+    ret.put("samples", samples.size());
+    try {
+      byte[] dict = CompressUtils.trainZstdDict(samples, dictSize);
+      ret.put("dictId", Zstd.getDictIdFromDict(dict));
+      ret.put("dict", Base64.getEncoder().encodeToString(dict));
+    } catch (Throwable e) {
+      LOGGER.error("train zstd dict failed, samples={}", samples.size(), e);
+      ret.put("error", e.getMessage());
+    }
+    return ret;
+  }
+
+  private static byte[] sampleOf(Collection<Publisher> publishers) {
+    StringBuilder sb = new StringBuilder(256);
+    for (Publisher publisher : publishers) {
+      List<ServerDataBox> dataList = publisher.getDataList();
+      if (dataList == null) {
+        continue;
+      }
+      for (ServerDataBox dataBox : dataList) {
+        try {
+          Object data = dataBox.extract();
+          if (data instanceof String) {
+            sb.append((String) data);
+          }
+        } catch (Throwable e) {
+          LOGGER.error("extract data box failed, {}", publisher.getDataInfoId(), e);
+        }
+      }
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
 }
@@ -38,6 +38,7 @@ import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
 import com.alipay.sofa.registry.remoting.exchange.message.SimpleRequest;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.providedata.FetchStopPushService;
+import com.alipay.sofa.registry.server.session.store.DataInfoIdIndex;
 import com.alipay.sofa.registry.server.session.store.DataStore;
 import com.alipay.sofa.registry.server.session.store.FetchPubSubDataInfoIdService;
 import com.alipay.sofa.registry.server.session.store.Interests;
@@ -46,12 +47,17 @@ import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
 import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
 import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
+import com.alipay.sofa.registry.util.JsonUtils;
 import com.alipay.sofa.registry.util.OsUtils;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -70,6 +76,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
@@ -91,6 +99,8 @@ public class SessionDigestResource {
   /** store publishers */
   @Autowired private DataStore sessionDataStore;
 
+  @Autowired private DataInfoIdIndex dataInfoIdIndex;
+
   @Autowired private MetaServerService metaNodeService;
 
   @Autowired private SessionServerConfig sessionServerConfig;
@@ -121,6 +131,12 @@ public class SessionDigestResource {
 
   private static final String META = "META";
 
+  private static final String NDJSON = "application/x-ndjson";
+
+  private static final int DEFAULT_PAGE_LIMIT = 1000;
+
+  private static final int MAX_PAGE_LIMIT = 10000;
+
   private final ThreadPoolExecutor pubSubQueryZoneExecutor =
       MetricsableThreadPoolExecutor.newExecutor(
           "PubSubQueryZoneExecutor",
@@ -299,17 +315,57 @@ public class SessionDigestResource {
   @Path("getDataInfoIdList")
   @Produces(MediaType.APPLICATION_JSON)
   public Collection<String> getDataInfoIdList() {
-    Collection<String> ret = new HashSet<>();
-    ret.addAll(sessionInterests.getDataInfoIds());
-    ret.addAll(sessionDataStore.getDataInfoIds());
-    return ret;
+    // serialize from the index directly, not copy the stores
+    return dataInfoIdIndex.dataInfoIds();
   }
 
   @GET
   @Path("checkSumDataInfoIdList")
   @Produces(MediaType.APPLICATION_JSON)
   public int checkSumDataInfoIdList() {
-    return getDataInfoIdList().hashCode();
+    return dataInfoIdIndex.checksum();
+  }
+
+  /**
+   * curl "http://localhost:9603/digest/dataInfoIds/page?cursor=xx&limit=1000", the cursor of next
+   * page is the last dataInfoId of the current page, null means no more pages
+   */
+  @GET
+  @Path("dataInfoIds/page")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Map<String, Object> getDataInfoIdPage(
+      @QueryParam("cursor") String cursor, @QueryParam("limit") int limit) {
+    if (limit <= 0) {
+      limit = DEFAULT_PAGE_LIMIT;
+    }
+    limit = Math.min(limit, MAX_PAGE_LIMIT);
+    List<String> dataInfoIds = dataInfoIdIndex.page(cursor, limit);
+    Map<String, Object> resultMap = new HashMap<>(2);
+    resultMap.put("dataInfoIds", dataInfoIds);
+    resultMap.put(
+        "cursor", dataInfoIds.size() < limit ? null : dataInfoIds.get(dataInfoIds.size() - 1));
+    return resultMap;
+  }
+
+  /** curl "http://localhost:9603/digest/dataInfoIds/stream", one json string per line */
+  @GET
+  @Path("dataInfoIds/stream")
+  @Produces(NDJSON)
+  public Response streamDataInfoIds() {
+    return Response.ok()
+        .type(NDJSON)
+        .entity(
+            (StreamingOutput)
+                output -> {
+                  Writer writer =
+                      new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                  for (String dataInfoId : dataInfoIdIndex.dataInfoIds()) {
+                    writer.write(JsonUtils.writeValueAsString(dataInfoId));
+                    writer.write('\n');
+                  }
+                  writer.flush();
+                })
+        .build();
   }
 
   private void fillServerList(
@@ -52,12 +52,14 @@ public abstract class AbstractDataManager<T extends BaseInfo>
     final String registerId = data.getRegisterId();
     // quick path
     if (dataMap.putIfAbsent(registerId, data) == null) {
+      refDataInfoId(data.getDataInfoId());
       return new Tuple<>(null, true);
     }
     for (; ; ) {
       final T existing = dataMap.get(registerId);
       if (existing == null) {
         if (dataMap.putIfAbsent(registerId, data) == null) {
+          refDataInfoId(data.getDataInfoId());
           return new Tuple<>(null, true);
         }
       } else {
@@ -94,6 +96,8 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
     if (dataToDelete == null) {
       logger.warn("Delete but not registered, {}, {}", dataInfoId, registerId);
+    } else {
+      unrefDataInfoId(dataInfoId);
     }
     return dataToDelete;
   }
@@ -112,6 +116,7 @@ public abstract class AbstractDataManager<T extends BaseInfo>
         continue;
       }
       if (dataMap.remove(pos.getRegisterId(), data)) {
+        unrefDataInfoId(data.getDataInfoId());
         ret.put(data.getRegisterId(), data);
       }
     }
@@ -158,13 +163,11 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
   @Override
   public List<T> getDataList() {
-    List<T> ret = new ArrayList<>(1024);
-    getStore()
-        .forEach(
-            (String dataInfoId, Map<String, T> datas) -> {
-              ret.addAll(datas.values());
-            });
-    return ret;
+    return getStore()
+        .<List<T>>parallelReduce(
+            () -> new ArrayList<>(256),
+            (List<T> ret, String dataInfoId, Map<String, T> datas) -> ret.addAll(datas.values()),
+            SlotStore::mergeList);
   }
 
   @Override
@@ -233,6 +236,29 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
   protected abstract Store<T> getStore();
 
+  /**
+   * the index of dataInfoIds shared by publishers and subscribers, null means not indexed
+   *
+   * @return DataInfoIdIndex
+   */
+  protected DataInfoIdIndex getDataInfoIdIndex() {
+    return null;
+  }
+
+  private void refDataInfoId(String dataInfoId) {
+    final DataInfoIdIndex index = getDataInfoIdIndex();
+    if (index != null) {
+      index.ref(dataInfoId);
+    }
+  }
+
+  private void unrefDataInfoId(String dataInfoId) {
+    final DataInfoIdIndex index = getDataInfoIdIndex();
+    if (index != null) {
+      index.unref(dataInfoId);
+    }
+  }
+
   class ConnectDataIndexer extends DataIndexer<ConnectId, DataPos> {
 
     public ConnectDataIndexer(String name) {
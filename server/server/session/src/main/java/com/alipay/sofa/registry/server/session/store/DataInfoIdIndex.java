@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * the dataInfoIds which have publishers or subscribers on the session, sorted to support the cursor
+ * paging without copying the stores. the checksum is the hashCode of the dataInfoId set, maintained
+ * incrementally when a dataInfoId is added or removed
+ */
+public final class DataInfoIdIndex {
+  private final ConcurrentSkipListMap<String, Integer> refs = new ConcurrentSkipListMap<>();
+  private final AtomicInteger checksum = new AtomicInteger();
+
+  void ref(String dataInfoId) {
+    for (; ; ) {
+      final Integer count = refs.putIfAbsent(dataInfoId, 1);
+      if (count == null) {
+        checksum.addAndGet(dataInfoId.hashCode());
+        return;
+      }
+      if (refs.replace(dataInfoId, count, count + 1)) {
+        return;
+      }
+    }
+  }
+
+  void unref(String dataInfoId) {
+    for (; ; ) {
+      final Integer count = refs.get(dataInfoId);
+      if (count == null) {
+        return;
+      }
+      if (count == 1) {
+        if (refs.remove(dataInfoId, count)) {
+          checksum.addAndGet(-dataInfoId.hashCode());
+          return;
+        }
+      } else if (refs.replace(dataInfoId, count, count - 1)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * the same as the hashCode of the set of dataInfoIds
+   *
+   * @return int
+   */
+  public int checksum() {
+    return checksum.get();
+  }
+
+  public int size() {
+    return refs.size();
+  }
+
+  /**
+   * a weakly consistent view of the dataInfoIds, not a copy
+   *
+   * @return NavigableSet
+   */
+  public NavigableSet<String> dataInfoIds() {
+    return Collections.unmodifiableNavigableSet(refs.keySet());
+  }
+
+  /**
+   * the dataInfoIds after the cursor
+   *
+   * @param cursor exclusive, null or empty means from the first one
+   * @param limit max size of the page
+   * @return List
+   */
+  public List<String> page(String cursor, int limit) {
+    final NavigableSet<String> set =
+        cursor == null || cursor.isEmpty() ? refs.keySet() : refs.keySet().tailSet(cursor, false);
+    final List<String> ret = Lists.newArrayListWithCapacity(Math.min(limit, 1024));
+    for (String dataInfoId : set) {
+      if (ret.size() >= limit) {
+        break;
+      }
+      ret.add(dataInfoId);
+    }
+    return ret;
+  }
+}
@@ -37,6 +37,8 @@ public class SessionDataStore extends AbstractDataManager<Publisher> implements
 
   @Autowired SlotTableCache slotTableCache;
 
+  @Autowired DataInfoIdIndex dataInfoIdIndex;
+
   private final SlotStore<Publisher> store = new SlotStore<>(this::slotOf);
 
   public SessionDataStore() {
@@ -63,6 +65,11 @@ public class SessionDataStore extends AbstractDataManager<Publisher> implements
     return store;
   }
 
+  @Override
+  protected DataInfoIdIndex getDataInfoIdIndex() {
+    return dataInfoIdIndex;
+  }
+
   @VisibleForTesting
   public void setSlotTableCache(SlotTableCache slotTableCache) {
     this.slotTableCache = slotTableCache;
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -31,6 +32,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -45,7 +47,9 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
     super(LOGGER);
   }
 
-  private final Store<Subscriber> store = new SimpleStore<>(1024 * 16, 256);
+  private final Store<Subscriber> store = new SlotStore<>(SlotFunctionRegistry.getFunc()::slotOf);
+
+  @Autowired DataInfoIdIndex dataInfoIdIndex;
 
   @Override
   public boolean add(Subscriber subscriber) {
@@ -81,56 +85,71 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
   public SelectSubscriber selectSubscribers(Set<String> dataCenters) {
     final String localDataCenter = sessionServerConfig.getSessionServerDataCenter();
 
-    Store<Subscriber> store = getStore();
-    int dataInfoIdSize = store.getDataInfoIds().size();
+    return getStore()
+        .parallelReduce(
+            () -> newSelectSubscriber(dataCenters),
+            (SelectSubscriber select, String dataInfoId, Map<String, Subscriber> subs) -> {
+              if (CollectionUtils.isEmpty(subs)) {
+                return;
+              }
+              for (Subscriber sub : subs.values()) {
+
+                if (!sub.hasPushed()) {
+                  select.getToRegisterMulti().add(sub);
+                  continue;
+                }
+
+                for (String dataCenter : dataCenters) {
+                  Map<String, DatumVersion> vers = select.getVersions().get(dataCenter);
+                  List<Subscriber> pushEmpty = select.getToPushEmpty().get(dataCenter);
+
+                  final boolean isLocalDataCenter = localDataCenter.equals(dataCenter);
+                  // not multi sub and not local dataCenter, not interest the other dataCenter's pub
+                  if (!sub.acceptMulti() && !isLocalDataCenter) {
+                    continue;
+                  }
+
+                  if (sub.isMarkedPushEmpty(dataCenter)) {
+                    if (sub.needPushEmpty(dataCenter)) {
+                      pushEmpty.add(sub);
+                    }
+                    continue;
+                  }
+                  final long pushVersion = sub.getPushedVersion(dataCenter);
+                  DatumVersion maxVersion =
+                      vers.computeIfAbsent(dataInfoId, k -> new DatumVersion(0));
+                  if (maxVersion.getValue() < pushVersion) {
+                    vers.put(dataInfoId, new DatumVersion(pushVersion));
+                  }
+                }
+              }
+            },
+            SessionInterests::mergeSelectSubscriber);
+  }
+
+  private static SelectSubscriber newSelectSubscriber(Set<String> dataCenters) {
     final Map<String, Map<String, DatumVersion>> versions =
         Maps.newHashMapWithExpectedSize(dataCenters.size());
     final Map<String, List<Subscriber>> toPushEmptySubscribers =
         Maps.newHashMapWithExpectedSize(dataCenters.size());
-    final List<Subscriber> toRegisterMultiSubscribers = Lists.newArrayListWithCapacity(128);
-
     for (String dataCenter : dataCenters) {
-      versions.put(dataCenter, Maps.newHashMapWithExpectedSize(dataInfoIdSize));
-      toPushEmptySubscribers.put(dataCenter, Lists.newArrayListWithCapacity(256));
+      versions.put(dataCenter, Maps.newHashMapWithExpectedSize(256));
+      toPushEmptySubscribers.put(dataCenter, Lists.newArrayList());
     }
+    return new SelectSubscriber(versions, toPushEmptySubscribers, Lists.newArrayList());
+  }
 
-    store.forEach(
-        (String dataInfoId, Map<String, Subscriber> subs) -> {
-          if (CollectionUtils.isEmpty(subs)) {
-            return;
-          }
-          for (Subscriber sub : subs.values()) {
-
-            if (!sub.hasPushed()) {
-              toRegisterMultiSubscribers.add(sub);
-              continue;
-            }
-
-            for (String dataCenter : dataCenters) {
-              Map<String, DatumVersion> vers = versions.get(dataCenter);
-              List<Subscriber> pushEmpty = toPushEmptySubscribers.get(dataCenter);
-
-              final boolean isLocalDataCenter = localDataCenter.equals(dataCenter);
-              // not multi sub and not local dataCenter, not interest the other dataCenter's pub
-              if (!sub.acceptMulti() && !isLocalDataCenter) {
-                continue;
-              }
-
-              if (sub.isMarkedPushEmpty(dataCenter)) {
-                if (sub.needPushEmpty(dataCenter)) {
-                  pushEmpty.add(sub);
-                }
-                continue;
-              }
-              final long pushVersion = sub.getPushedVersion(dataCenter);
-              DatumVersion maxVersion = vers.computeIfAbsent(dataInfoId, k -> new DatumVersion(0));
-              if (maxVersion.getValue() < pushVersion) {
-                vers.put(dataInfoId, new DatumVersion(pushVersion));
-              }
-            }
-          }
-        });
-    return new SelectSubscriber(versions, toPushEmptySubscribers, toRegisterMultiSubscribers);
+  private static SelectSubscriber mergeSelectSubscriber(SelectSubscriber a, SelectSubscriber b) {
+    for (Map.Entry<String, Map<String, DatumVersion>> e : a.getVersions().entrySet()) {
+      e.setValue(SlotStore.mergeMap(e.getValue(), b.getVersions().get(e.getKey())));
+    }
+    for (Map.Entry<String, List<Subscriber>> e : a.getToPushEmpty().entrySet()) {
+      e.setValue(SlotStore.mergeList(e.getValue(), b.getToPushEmpty().get(e.getKey())));
+    }
+    return new SelectSubscriber(
+        a.getVersions(),
+        a.getToPushEmpty(),
+        SlotStore.mergeList(a.getToRegisterMulti(), b.getToRegisterMulti()));
   }
 
   @Override
@@ -138,25 +157,31 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
     return store;
   }
 
+  @Override
+  protected DataInfoIdIndex getDataInfoIdIndex() {
+    return dataInfoIdIndex;
+  }
+
   @Override
   public Map<String, List<String>> filterIPs(String group, int limit) {
-    Map<String, List<String>> ret = Maps.newHashMapWithExpectedSize(1024);
-    forEach(
-        (String dataInfoId, Map<String, Subscriber> subs) -> {
-          if (CollectionUtils.isEmpty(subs)) {
-            return;
-          }
-          String g = subs.values().stream().findAny().get().getGroup();
-          if (!StringUtils.equals(g, group)) {
-            return;
-          }
-          ret.put(
-              dataInfoId,
-              subs.values().stream()
-                  .map(s -> s.getSourceAddress().getIpAddress())
-                  .limit(Math.max(limit, 0))
-                  .collect(Collectors.toList()));
-        });
-    return ret;
+    return getStore()
+        .<Map<String, List<String>>>parallelReduce(
+            () -> Maps.newHashMapWithExpectedSize(256),
+            (Map<String, List<String>> ret, String dataInfoId, Map<String, Subscriber> subs) -> {
+              if (CollectionUtils.isEmpty(subs)) {
+                return;
+              }
+              String g = subs.values().stream().findAny().get().getGroup();
+              if (!StringUtils.equals(g, group)) {
+                return;
+              }
+              ret.put(
+                  dataInfoId,
+                  subs.values().stream()
+                      .map(s -> s.getSourceAddress().getIpAddress())
+                      .limit(Math.max(limit, 0))
+                      .collect(Collectors.toList()));
+            },
+            SlotStore::mergeMap);
   }
 }
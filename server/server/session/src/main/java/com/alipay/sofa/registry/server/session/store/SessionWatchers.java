@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.common.model.Tuple;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Watcher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -28,7 +29,7 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 public class SessionWatchers extends AbstractDataManager<Watcher> implements Watchers {
   private static final Logger LOGGER = LoggerFactory.getLogger(SessionWatchers.class);
 
-  private final Store<Watcher> store = new SimpleStore<>(1024 * 16, 32);
+  private final Store<Watcher> store = new SlotStore<>(SlotFunctionRegistry.getFunc()::slotOf);
 
   public SessionWatchers() {
     super(LOGGER);
@@ -25,6 +25,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
 import org.springframework.util.CollectionUtils;
 
 public class SimpleStore<T> implements Store<T> {
@@ -86,4 +88,15 @@ public class SimpleStore<T> implements Store<T> {
     }
     return ret;
   }
+
+  @Override
+  public <R> R parallelReduce(
+      Supplier<R> supplier, Accumulator<T, R> accumulator, BinaryOperator<R> combiner) {
+    // only one partition
+    final R ret = supplier.get();
+    for (Map.Entry<String, Map<String, T>> e : stores.entrySet()) {
+      accumulator.accept(ret, e.getKey(), e.getValue());
+    }
+    return ret;
+  }
 }
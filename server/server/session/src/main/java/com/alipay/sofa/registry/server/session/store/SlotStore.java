@@ -18,15 +18,23 @@ package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
-import org.glassfish.jersey.internal.guava.Sets;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
 
+/** the store partitioned by slot, the full scans run on the slots concurrently by fork-join */
 public class SlotStore<T> implements Store<T> {
-  private final Map<Integer, SimpleStore<T>> slots = new ConcurrentHashMap<>(512);
+  // the count of slots to run the scan concurrently, see ConcurrentHashMap.reduceValues
+  private static final long PARALLELISM_THRESHOLD = 1;
+
+  private final ConcurrentHashMap<Integer, SimpleStore<T>> slots = new ConcurrentHashMap<>(512);
   private final SlotOfCaller slotOfCaller;
 
   public SlotStore(SlotOfCaller slotOfCaller) {
@@ -61,11 +69,14 @@ public class SlotStore<T> implements Store<T> {
 
   @Override
   public Map<String, Map<String, T>> copyMap() {
-    Map<String, Map<String, T>> ret = Maps.newHashMapWithExpectedSize(1024 * 16);
-    for (SimpleStore<T> store : slots.values()) {
-      ret.putAll(store.copyMap());
-    }
-    return ret;
+    return this.<Map<String, Map<String, T>>>parallelReduce(
+        () -> Maps.newHashMapWithExpectedSize(256),
+        (ret, dataInfoId, datas) -> {
+          if (!datas.isEmpty()) {
+            ret.put(dataInfoId, new HashMap<>(datas));
+          }
+        },
+        SlotStore::mergeMap);
   }
 
   public Map<String, Map<String, T>> copyMap(int slotId) {
@@ -74,23 +85,82 @@ public class SlotStore<T> implements Store<T> {
   }
 
   public Tuple<Long, Long> count() {
-    long dataInfoIdCount = 0;
-    long dataCount = 0;
-    for (SimpleStore<T> store : slots.values()) {
-      Tuple<Long, Long> ret = store.count();
-      dataInfoIdCount += ret.getFirst();
-      dataCount += ret.getSecond();
-    }
-    return new Tuple<>(dataInfoIdCount, dataCount);
+    long[] ret =
+        parallelReduce(
+            () -> new long[2],
+            (counts, dataInfoId, datas) -> {
+              int size = datas.size();
+              if (size != 0) {
+                counts[0]++;
+                counts[1] += size;
+              }
+            },
+            (a, b) -> {
+              a[0] += b[0];
+              a[1] += b[1];
+              return a;
+            });
+    return new Tuple<>(ret[0], ret[1]);
   }
 
   @Override
   public Collection<String> getDataInfoIds() {
-    Set<String> ret = Sets.newHashSetWithExpectedSize(1024 * 16);
-    for (SimpleStore<T> store : slots.values()) {
-      ret.addAll(store.getDataInfoIds());
+    return this.<Set<String>>parallelReduce(
+        () -> Sets.newHashSetWithExpectedSize(256),
+        (ret, dataInfoId, datas) -> {
+          if (!datas.isEmpty()) {
+            ret.add(dataInfoId);
+          }
+        },
+        SlotStore::mergeSet);
+  }
+
+  @Override
+  public <R> R parallelReduce(
+      Supplier<R> supplier, Accumulator<T, R> accumulator, BinaryOperator<R> combiner) {
+    R ret =
+        slots.reduceValues(
+            PARALLELISM_THRESHOLD,
+            store -> store.parallelReduce(supplier, accumulator, combiner),
+            combiner);
+    return ret == null ? supplier.get() : ret;
+  }
+
+  /**
+   * merge the smaller map into the bigger one, the keys of slots are disjoint
+   *
+   * @param a a
+   * @param b b
+   * @return the merged map
+   * @param <K> key
+   * @param <V> value
+   */
+  public static <K, V> Map<K, V> mergeMap(Map<K, V> a, Map<K, V> b) {
+    if (a.size() < b.size()) {
+      b.putAll(a);
+      return b;
+    }
+    a.putAll(b);
+    return a;
+  }
+
+  public static <E> Set<E> mergeSet(Set<E> a, Set<E> b) {
+    if (a.size() < b.size()) {
+      b.addAll(a);
+      return b;
+    }
+    a.addAll(b);
+    return a;
+  }
+
+  // the order of elements is not kept
+  public static <E> List<E> mergeList(List<E> a, List<E> b) {
+    if (a.size() < b.size()) {
+      b.addAll(a);
+      return b;
     }
-    return ret;
+    a.addAll(b);
+    return a;
   }
 
   public interface SlotOfCaller {
@@ -20,6 +20,8 @@ import com.alipay.sofa.registry.common.model.Tuple;
 import java.util.Collection;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
 
 public interface Store<T> {
   Map<String, T> get(String dataInfoId);
@@ -33,4 +35,21 @@ public interface Store<T> {
   Tuple<Long, Long> count();
 
   Collection<String> getDataInfoIds();
+
+  /**
+   * visit the partitions of the store concurrently, the datas of one partition are accumulated into
+   * a result created by the supplier, the results of partitions are merged by the combiner
+   *
+   * @param supplier create the result of one partition
+   * @param accumulator accumulate the datas of one dataInfoId into the result, not thread safe
+   * @param combiner merge two results
+   * @return the merged result
+   * @param <R> the result type
+   */
+  <R> R parallelReduce(
+      Supplier<R> supplier, Accumulator<T, R> accumulator, BinaryOperator<R> combiner);
+
+  interface Accumulator<T, R> {
+    void accept(R result, String dataInfoId, Map<String, T> datas);
+  }
 }
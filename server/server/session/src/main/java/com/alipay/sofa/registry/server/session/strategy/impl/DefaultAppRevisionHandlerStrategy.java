@@ -34,6 +34,7 @@ import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class DefaultAppRevisionHandlerStrategy implements AppRevisionHandlerStrategy {
@@ -112,14 +113,17 @@ public class DefaultAppRevisionHandlerStrategy implements AppRevisionHandlerStra
     int statusCode = ValueConstants.METADATA_STATUS_PROCESS_SUCCESS;
     String queryRevision = null;
     try {
+      // query the missing revisions in one batch
+      Map<String, AppRevision> appRevisions = null;
+      try {
+        appRevisions = metadataCacheRegistry.getRevisions(revisions);
+      } catch (Throwable e) {
+        LOG.error("query revisions {} error", revisions, e);
+      }
       for (String revision : revisions) {
         queryRevision = revision;
-        AppRevision appRevision = null;
-        try {
-          appRevision = metadataCacheRegistry.getRevision(revision);
-        } catch (Throwable e) {
-          LOG.error("query revision {} error", queryRevision, e);
-        }
+        AppRevision appRevision =
+            appRevisions != null ? appRevisions.get(revision) : queryRevisionOneByOne(revision);
         if (appRevision == null) {
           statusCode = ValueConstants.METADATA_STATUS_DATA_NOT_FOUND;
           String msg = StringFormatter.format("query revision not found, {}", revision);
@@ -140,6 +144,16 @@ public class DefaultAppRevisionHandlerStrategy implements AppRevisionHandlerStra
     return builder.build();
   }
 
+  // the batch query failed, query one by one, a bad revision not fail the others
+  private AppRevision queryRevisionOneByOne(String revision) {
+    try {
+      return metadataCacheRegistry.getRevision(revision);
+    } catch (Throwable e) {
+      LOG.error("query revision {} error", revision, e);
+      return null;
+    }
+  }
+
   @Override
   public MetaHeartbeatResponse heartbeat(List<String> revisions) {
     ParaCheckUtil.checkNotEmpty(revisions, "revisions");
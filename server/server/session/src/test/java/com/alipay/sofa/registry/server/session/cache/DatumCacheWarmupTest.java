@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.google.common.collect.Lists;
+import java.io.File;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatumCacheWarmupTest {
+
+  private DatumCacheWarmup newWarmup(File file) {
+    SessionServerConfigBean config = TestUtils.newSessionConfig("testDc");
+    config.setCacheDatumSnapshotFile(file.getAbsolutePath());
+    DatumCacheWarmup warmup = new DatumCacheWarmup();
+    warmup.sessionServerConfig = config;
+    warmup.sessionInterests = mock(Interests.class);
+    warmup.sessionDatumCacheService = mock(CacheService.class);
+    return warmup;
+  }
+
+  @Test
+  public void testSnapshotAndWarmup() throws Exception {
+    File file = File.createTempFile("datum_cache", ".snapshot");
+    file.deleteOnExit();
+    DatumCacheWarmup warmup = newWarmup(file);
+    when(warmup.sessionInterests.getDataInfoIds()).thenReturn(Lists.newArrayList("a", "b", "c"));
+    Assert.assertEquals(3, warmup.snapshot());
+    Assert.assertEquals(Lists.newArrayList("a", "b", "c"), DatumCacheWarmup.readSnapshot(file));
+
+    // the interests are empty, keep the previous snapshot
+    when(warmup.sessionInterests.getDataInfoIds()).thenReturn(Collections.emptyList());
+    Assert.assertEquals(0, warmup.snapshot());
+    Assert.assertEquals(3, DatumCacheWarmup.readSnapshot(file).size());
+
+    when(warmup.sessionDatumCacheService.warm(any(Key.class)))
+        .thenReturn(new Value(null))
+        .thenThrow(new CacheAccessException("test", null))
+        .thenReturn(new Value(null));
+    Assert.assertEquals(2, warmup.warmup());
+    verify(warmup.sessionDatumCacheService, times(1))
+        .warm(
+            new Key(DatumKey.class.getName(), new DatumKey("a", Collections.singleton("testDc"))));
+  }
+
+  @Test
+  public void testWarmupOutliveExpiry() throws Exception {
+    File file = File.createTempFile("datum_cache", ".snapshot");
+    file.deleteOnExit();
+    DatumCacheWarmup warmup = newWarmup(file);
+    SessionServerConfigBean config = (SessionServerConfigBean) warmup.sessionServerConfig;
+    config.setCacheDatumExpireSecs(1);
+    SessionDatumCacheService cacheService = new SessionDatumCacheService();
+    cacheService.sessionServerConfig = config;
+    DatumCacheGenerator generator = new DatumCacheGenerator();
+    generator.dataNodeService = mock(DataNodeService.class);
+    cacheService.setCacheGenerators(Collections.singletonMap(DatumKey.class.getName(), generator));
+    cacheService.init();
+    warmup.sessionDatumCacheService = cacheService;
+
+    final String dataInfoId = TestUtils.newDataInfoId("testWarmup");
+    MultiSubDatum datum =
+        MultiSubDatum.of(
+            TestUtils.newSubDatum("testDc", "testWarmup", 100, Collections.emptyList()));
+    when(generator.dataNodeService.fetch(anyString(), anySetOf(String.class))).thenReturn(datum);
+    when(warmup.sessionInterests.getDataInfoIds()).thenReturn(Lists.newArrayList(dataInfoId));
+    Assert.assertEquals(1, warmup.snapshot());
+    Assert.assertEquals(1, warmup.warmup());
+
+    // the cache entry expired before the client port opens
+    Thread.sleep(1500);
+    final Key key =
+        new Key(
+            DatumKey.class.getName(), new DatumKey(dataInfoId, Collections.singleton("testDc")));
+    Assert.assertNull(cacheService.getValueIfPresent(key));
+    // the first register takes the warmed datum
+    Assert.assertSame(datum, cacheService.getValue(key).getPayload());
+    verify(generator.dataNodeService, times(1)).fetch(anyString(), anySetOf(String.class));
+
+    // the warmed datum is taken once
+    cacheService.invalidate(key);
+    cacheService.getValue(key);
+    verify(generator.dataNodeService, times(2)).fetch(anyString(), anySetOf(String.class));
+
+    // the changed datum drops the warmed one
+    cacheService.startWarmup();
+    cacheService.warm(key);
+    cacheService.invalidate(key);
+    cacheService.getValue(key);
+    verify(generator.dataNodeService, times(3)).fetch(anyString(), anySetOf(String.class));
+
+    // the change of the datum without subscriber drops the older warmed one
+    cacheService.warm(key);
+    cacheService.invalidateWarmed("testDc", dataInfoId, 100);
+    Assert.assertNotNull(cacheService.warmedCacheMap.getIfPresent(key));
+    cacheService.invalidateWarmed("testDc", dataInfoId, 101);
+    Assert.assertNull(cacheService.warmedCacheMap.getIfPresent(key));
+
+    // the change came before the warm finished drops the older warmed one
+    cacheService.invalidate(key);
+    cacheService.warm(key);
+    Assert.assertNull(cacheService.warmedCacheMap.getIfPresent(key));
+    Assert.assertTrue(cacheService.hasWarmed());
+
+    // not kept after the warmup finished
+    cacheService.finishWarmup();
+    cacheService.invalidate(key);
+    cacheService.warm(key);
+    Assert.assertNull(cacheService.warmedCacheMap.getIfPresent(key));
+    Assert.assertFalse(cacheService.hasWarmed());
+  }
+
+  @Test
+  public void testWarmupSkip() throws Exception {
+    File file = new File(System.getProperty("java.io.tmpdir"), "not_exist_datum_cache.snapshot");
+    file.delete();
+    DatumCacheWarmup warmup = newWarmup(file);
+    Assert.assertEquals(0, warmup.warmup());
+
+    ((SessionServerConfigBean) warmup.sessionServerConfig).setCacheDatumWarmupEnable(false);
+    Assert.assertEquals(0, warmup.snapshot());
+    Assert.assertFalse(file.exists());
+    verify(warmup.sessionDatumCacheService, never()).warm(any(Key.class));
+  }
+}
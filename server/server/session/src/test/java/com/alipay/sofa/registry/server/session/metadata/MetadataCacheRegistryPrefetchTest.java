@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.metadata;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
+import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.Test;
+
+public class MetadataCacheRegistryPrefetchTest {
+
+  @Test
+  public void testPrefetchRevisions() {
+    // not init, no workers touch the mock repository
+    MetadataCacheRegistry registry = new MetadataCacheRegistry();
+    AppRevisionRepository repository = mock(AppRevisionRepository.class);
+    registry.setAppRevisionRepository(repository);
+
+    Set<String> apps = Collections.singleton("testPrefetchApp");
+    registry.prefetchRevisions("testPrefetchService", new InterfaceMapping(-1));
+    registry.prefetchRevisions("testPrefetchService", new InterfaceMapping(1, apps));
+    registry.prefetchRevisions("testPrefetchService", new InterfaceMapping(1, apps));
+    verify(repository, times(1)).prefetchRevisions(apps);
+
+    // mapping changed, prefetch again
+    registry.prefetchRevisions("testPrefetchService", new InterfaceMapping(2, apps));
+    verify(repository, times(2)).prefetchRevisions(apps);
+  }
+}
@@ -42,6 +42,7 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -103,6 +104,11 @@ public class MetadataCacheRegistryTest extends AbstractSessionServerTestBase {
     metadataCacheRegistry.waitSynced();
   }
 
+  @After
+  public void after() {
+    metadataCacheRegistry.stop();
+  }
+
   @Test
   public void testRegister() throws InterruptedException, TimeoutException {
     for (AppRevision revision : appRevisionList) {
@@ -176,10 +182,11 @@ public class MetadataCacheRegistryTest extends AbstractSessionServerTestBase {
               }
             });
 
-    metadataCacheRegistry.init();
+    // stub before the workers started, they call the repository concurrently
     doThrow(new SofaRegistryRuntimeException("expected exception"))
         .when(mockAppRevisionRepository)
         .register(any());
+    metadataCacheRegistry.init();
 
     for (AppRevision revision : appRevisionList) {
       metadataCacheRegistry.register(revision);
@@ -200,5 +207,6 @@ public class MetadataCacheRegistryTest extends AbstractSessionServerTestBase {
     metadataCacheRegistry.setAppRevisionRepository(appRevisionRepository);
 
     waitConditionUntilTimeOut(MetadataCacheRegistryTest::check, 3000);
+    metadataCacheRegistry.stop();
   }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.google.common.collect.Maps;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatumFetchBatcherTest {
+  private final URL url1 = new URL("127.0.0.1", 9620);
+  private final URL url2 = new URL("127.0.0.2", 9620);
+
+  private final List<List<DatumFetchBatcher.Pending>> sent =
+      Collections.synchronizedList(new ArrayList<>());
+
+  private void complete(URL url, List<DatumFetchBatcher.Pending> pendings) {
+    sent.add(pendings);
+    for (DatumFetchBatcher.Pending pending : pendings) {
+      pending.future.complete(
+          new MultiSlotAccessGenericResponse<>(
+              true,
+              pending.request.getDataInfoId(),
+              null,
+              Collections.singletonMap("testDc", null)));
+    }
+  }
+
+  private static GetMultiDataRequest request(String dataInfoId) {
+    return new GetMultiDataRequest(
+        null, 1, dataInfoId, new String[0], Maps.newHashMap(), Maps.newHashMap());
+  }
+
+  @Test
+  public void testWindow() throws Exception {
+    DatumFetchBatcher batcher = new DatumFetchBatcher(50, 10, this::complete);
+    CompletableFuture<MultiSlotAccessGenericResponse<MultiSubDatum>> f1 =
+        batcher.submit(url1, request("a"));
+    CompletableFuture<MultiSlotAccessGenericResponse<MultiSubDatum>> f2 =
+        batcher.submit(url1, request("b"));
+    CompletableFuture<MultiSlotAccessGenericResponse<MultiSubDatum>> f3 =
+        batcher.submit(url2, request("c"));
+    Assert.assertEquals(3, batcher.pendingSize());
+
+    Assert.assertEquals("a", f1.get(3, TimeUnit.SECONDS).getMessage());
+    Assert.assertEquals("b", f2.get(3, TimeUnit.SECONDS).getMessage());
+    Assert.assertEquals("c", f3.get(3, TimeUnit.SECONDS).getMessage());
+    Assert.assertEquals(2, sent.size());
+    Assert.assertEquals(0, batcher.pendingSize());
+  }
+
+  @Test
+  public void testMaxSize() throws Exception {
+    DatumFetchBatcher batcher = new DatumFetchBatcher(60000, 2, this::complete);
+    CompletableFuture<MultiSlotAccessGenericResponse<MultiSubDatum>> f1 =
+        batcher.submit(url1, request("a"));
+    Assert.assertFalse(f1.isDone());
+    // full, sent in the caller thread
+    batcher.submit(url1, request("b"));
+    Assert.assertTrue(f1.isDone());
+    Assert.assertEquals(1, sent.size());
+    Assert.assertEquals(2, sent.get(0).size());
+
+    batcher.submit(url1, request("c"));
+    Assert.assertEquals(1, batcher.pendingSize());
+  }
+
+  @Test
+  public void testSendFailed() throws Exception {
+    DatumFetchBatcher batcher =
+        new DatumFetchBatcher(
+            10,
+            10,
+            (url, pendings) -> {
+              throw new IllegalStateException("test");
+            });
+    CompletableFuture<MultiSlotAccessGenericResponse<MultiSubDatum>> f1 =
+        batcher.submit(url1, request("a"));
+    try {
+      f1.get(3, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void testHandleCallback() throws Exception {
+    DataNodeServiceImpl service = new DataNodeServiceImpl();
+    // unexpected response type
+    List<DatumFetchBatcher.Pending> pendings =
+        Collections.singletonList(new DatumFetchBatcher.Pending(request("a")));
+    service.handleFetchBatchCallback(url1, "unexpected", pendings);
+    assertFailed(pendings.get(0));
+
+    // results not match the requests
+    pendings = Collections.singletonList(new DatumFetchBatcher.Pending(request("a")));
+    service.handleFetchBatchCallback(
+        url1, new GenericResponse<>().fillSucceed(Collections.emptyList()), pendings);
+    assertFailed(pendings.get(0));
+
+    pendings = Collections.singletonList(new DatumFetchBatcher.Pending(request("a")));
+    MultiSlotAccessGenericResponse<MultiSubDatum> result =
+        new MultiSlotAccessGenericResponse<>(true, "a", null, Collections.emptyMap());
+    service.handleFetchBatchCallback(
+        url1, new GenericResponse<>().fillSucceed(Collections.singletonList(result)), pendings);
+    Assert.assertSame(result, pendings.get(0).future.get(3, TimeUnit.SECONDS));
+  }
+
+  private static void assertFailed(DatumFetchBatcher.Pending pending) throws Exception {
+    try {
+      pending.future.get(3, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof RuntimeException);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HotDatumReadRouterTest {
+
+  @Test
+  public void testHot() {
+    HotDatumReadRouter router = new HotDatumReadRouter(3, 60000);
+    Assert.assertFalse(router.onFetch("a"));
+    Assert.assertFalse(router.onFetch("a"));
+    Assert.assertTrue(router.onFetch("a"));
+    Assert.assertFalse(router.onFetch("b"));
+  }
+
+  @Test
+  public void testWindow() throws Exception {
+    HotDatumReadRouter router = new HotDatumReadRouter(2, 50);
+    Assert.assertFalse(router.onFetch("a"));
+    Thread.sleep(100);
+    // the count of the last window expired
+    Assert.assertFalse(router.onFetch("a"));
+    Assert.assertTrue(router.onFetch("a"));
+  }
+
+  @Test
+  public void testVersion() {
+    HotDatumReadRouter router = new HotDatumReadRouter(1, 60000);
+    Assert.assertNull(router.minVersionOf("a"));
+    router.observe("a", 10);
+    router.observe("a", 5);
+    Assert.assertEquals(10, router.minVersionOf("a").longValue());
+    router.observe("a", 20);
+    Assert.assertEquals(20, router.minVersionOf("a").longValue());
+
+    // the unknown version of register
+    router.observe("b", Long.MIN_VALUE);
+    Assert.assertNull(router.minVersionOf("b"));
+  }
+
+  @Test
+  public void testSelectFollower() {
+    HotDatumReadRouter router = new HotDatumReadRouter(1, 60000);
+    Assert.assertNull(router.selectFollower(new Slot(1, "leader", 1, Collections.emptyList())));
+
+    Slot slot = new Slot(1, "leader", 1, Lists.newArrayList("f1", "f2"));
+    Set<String> selected = new HashSet<>();
+    int leaderTurns = 0;
+    for (int i = 0; i < 6; i++) {
+      String follower = router.selectFollower(slot);
+      if (follower == null) {
+        leaderTurns++;
+      } else {
+        selected.add(follower);
+      }
+    }
+    Assert.assertEquals(2, leaderTurns);
+    Assert.assertEquals(slot.getFollowers(), selected);
+  }
+
+  @Test
+  public void testReject() throws Exception {
+    HotDatumReadRouter router = new HotDatumReadRouter(1, 100);
+    Slot slot = new Slot(1, "leader", 1, Lists.newArrayList("f1"));
+    Slot other = new Slot(2, "leader", 1, Lists.newArrayList("f1"));
+    router.onReject(slot, "f1");
+    for (int i = 0; i < 4; i++) {
+      Assert.assertNull(router.selectFollower(slot));
+    }
+    // the other slot of the follower is not affected
+    Set<String> selected = new HashSet<>();
+    for (int i = 0; i < 2; i++) {
+      String follower = router.selectFollower(other);
+      if (follower != null) {
+        selected.add(follower);
+      }
+    }
+    Assert.assertEquals(other.getFollowers(), selected);
+
+    Thread.sleep(200);
+    selected.clear();
+    for (int i = 0; i < 2; i++) {
+      String follower = router.selectFollower(slot);
+      if (follower != null) {
+        selected.add(follower);
+      }
+    }
+    Assert.assertEquals(slot.getFollowers(), selected);
+  }
+}
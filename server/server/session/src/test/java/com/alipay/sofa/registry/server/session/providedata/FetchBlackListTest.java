@@ -16,14 +16,18 @@
  */
 package com.alipay.sofa.registry.server.session.providedata;
 
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataSetDiff;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.connections.ConnectionsService;
 import com.alipay.sofa.registry.server.session.registry.Registry;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import java.util.Collections;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -33,13 +37,14 @@ import org.junit.Test;
  * @version $Id: FetchBlackListTest.java, v 0.1 2021年06月04日 21:03 xiaojian.xj Exp $
  */
 public class FetchBlackListTest extends FetchBlackListService {
+  private ConnectionsService connectionsService;
 
   @Before
   public void beforeFetchBlackListTest() {
 
     Registry sessionRegistry = mock(Registry.class);
     SessionServerConfig sessionServerConfig = mock(SessionServerConfig.class);
-    ConnectionsService connectionsService = mock(ConnectionsService.class);
+    connectionsService = mock(ConnectionsService.class);
 
     this.setSessionRegistry(sessionRegistry)
         .setSessionServerConfig(sessionServerConfig)
@@ -59,4 +64,74 @@ public class FetchBlackListTest extends FetchBlackListService {
                 ValueConstants.BLACK_LIST_DATA_ID,
                 1L)));
   }
+
+  @Test
+  public void testClientOffAddedIps() {
+    Assert.assertTrue(
+        doProcess(
+            storage.get(),
+            new ProvideData(
+                new ServerDataBox("{\"FORBIDDEN_PUB\":{\"IP_FULL\":[\"1.1.1.1\"]}}"),
+                ValueConstants.BLACK_LIST_DATA_ID,
+                1L)));
+    verify(connectionsService, times(1)).getIpConnects(Sets.newHashSet("1.1.1.1"));
+
+    Assert.assertTrue(
+        doProcess(
+            storage.get(),
+            new ProvideData(
+                new ServerDataBox("{\"FORBIDDEN_PUB\":{\"IP_FULL\":[\"1.1.1.1\",\"2.2.2.2\"]}}"),
+                ValueConstants.BLACK_LIST_DATA_ID,
+                2L)));
+    verify(connectionsService, times(1)).getIpConnects(Sets.newHashSet("2.2.2.2"));
+
+    // only removed, nothing to client off
+    Assert.assertTrue(
+        doProcess(
+            storage.get(),
+            new ProvideData(
+                new ServerDataBox("{\"FORBIDDEN_PUB\":{\"IP_FULL\":[\"2.2.2.2\"]}}"),
+                ValueConstants.BLACK_LIST_DATA_ID,
+                3L)));
+    verify(connectionsService, times(2)).getIpConnects(anySet());
+  }
+
+  @Test
+  public void testApplyDiff() {
+    Assert.assertTrue(
+        doProcess(
+            storage.get(),
+            new ProvideData(
+                new ServerDataBox("{\"FORBIDDEN_PUB\":{\"IP_FULL\":[\"1.1.1.1\"]}}"),
+                ValueConstants.BLACK_LIST_DATA_ID,
+                1L)));
+    verify(connectionsService, times(1)).getIpConnects(Sets.newHashSet("1.1.1.1"));
+
+    ProvideDataSetDiff diff =
+        new ProvideDataSetDiff(
+            ValueConstants.BLACK_LIST_DATA_ID,
+            1L,
+            2L,
+            ImmutableMap.of(
+                "FORBIDDEN_PUB", ImmutableMap.of("IP_FULL", Sets.newHashSet("2.2.2.2"))),
+            ImmutableMap.of(
+                "FORBIDDEN_PUB", ImmutableMap.of("IP_FULL", Sets.newHashSet("1.1.1.1"))));
+    Assert.assertTrue(applyDiff(diff));
+    Assert.assertEquals(2L, storage.get().getVersion());
+    Assert.assertEquals(Sets.newHashSet("2.2.2.2"), storage.get().blackIps);
+    verify(connectionsService, times(1)).getIpConnects(Sets.newHashSet("2.2.2.2"));
+    // applied already
+    Assert.assertTrue(applyDiff(diff));
+
+    // the base version is not the local version, fetch the full value
+    Assert.assertFalse(
+        applyDiff(
+            new ProvideDataSetDiff(
+                ValueConstants.BLACK_LIST_DATA_ID,
+                3L,
+                4L,
+                Collections.emptyMap(),
+                Collections.emptyMap())));
+    Assert.assertEquals(2L, storage.get().getVersion());
+  }
 }
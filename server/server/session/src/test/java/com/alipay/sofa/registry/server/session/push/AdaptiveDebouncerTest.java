@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveDebouncerTest {
+  private static final long HALF_LIFE = 10000;
+
+  @Test
+  public void testRareChange() {
+    AdaptiveDebouncer debouncer = new AdaptiveDebouncer(HALF_LIFE, 4);
+    long now = System.currentTimeMillis();
+    Assert.assertEquals(0, debouncer.debouncingMillis("unknown", 0, 3000, now));
+
+    debouncer.onChange("rare", now);
+    debouncer.onPush("rare", 100);
+    Assert.assertEquals(0, debouncer.debouncingMillis("rare", 0, 3000, now));
+    // change once per 10 half-lives
+    now += HALF_LIFE * 10;
+    debouncer.onChange("rare", now);
+    Assert.assertTrue(debouncer.debouncingMillis("rare", 0, 3000, now) < 10);
+    Assert.assertTrue(debouncer.debouncingMillis("rare", 50, 3000, now) < 60);
+    // min >= max
+    Assert.assertEquals(100, debouncer.debouncingMillis("rare", 100, 100, now));
+  }
+
+  @Test
+  public void testHotChange() {
+    AdaptiveDebouncer debouncer = new AdaptiveDebouncer(HALF_LIFE, 4);
+    long now = System.currentTimeMillis();
+    int prev = -1;
+    for (int i = 0; i < 30; i++) {
+      // change per second
+      now += 1000;
+      debouncer.onChange("hot", now);
+      int millis = debouncer.debouncingMillis("hot", 0, 3000, now);
+      Assert.assertTrue(millis >= prev);
+      prev = millis;
+    }
+    Assert.assertTrue(prev > 2000);
+    Assert.assertTrue(prev <= 3000);
+
+    // stop changing, cool down
+    now += HALF_LIFE * 10;
+    Assert.assertTrue(debouncer.debouncingMillis("hot", 0, 3000, now) < 50);
+    Assert.assertEquals(1, debouncer.size());
+    debouncer.clean(now);
+    Assert.assertEquals(1, debouncer.size());
+    now += HALF_LIFE * 10;
+    debouncer.clean(now);
+    Assert.assertEquals(0, debouncer.size());
+  }
+
+  @Test
+  public void testPushCost() {
+    AdaptiveDebouncer debouncer = new AdaptiveDebouncer(HALF_LIFE, 4);
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < 3; i++) {
+      now += 5000;
+      debouncer.onChange("cheap", now);
+      debouncer.onChange("expensive", now);
+      debouncer.onPush("cheap", 1);
+      debouncer.onPush("expensive", 10000);
+    }
+    Assert.assertTrue(
+        debouncer.pressure("expensive", now) > debouncer.pressure("cheap", now) * 1.5);
+    Assert.assertTrue(
+        debouncer.debouncingMillis("expensive", 0, 3000, now)
+            > debouncer.debouncingMillis("cheap", 0, 3000, now));
+  }
+}
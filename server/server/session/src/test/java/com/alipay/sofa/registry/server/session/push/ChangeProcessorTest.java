@@ -161,4 +161,53 @@ public class ChangeProcessorTest {
     processor.setWorkDelayTime(pushEfficiencyImproveConfig);
     Assert.assertEquals(worker.changeDebouncingMillis, 10);
   }
+
+  @Test
+  public void testAdaptiveDebouncing() {
+    ChangeProcessor.Worker worker =
+        new ChangeProcessor.Worker(changeDebouncingMillis, changeDebouncingMaxMillis);
+    PushEfficiencyImproveConfig config = new PushEfficiencyImproveConfig();
+    config.setZoneSet(Collections.singleton("ALL_ZONE"));
+    config.setChangeDebouncingMillis(changeDebouncingMillis);
+    config.setChangeDebouncingMaxMillis(changeDebouncingMaxMillis);
+    config.setAdaptiveDebouncing(true);
+    Assert.assertTrue(config.validate());
+    worker.setChangeTaskWorkDelay(config);
+    Assert.assertTrue(worker.adaptiveDebouncing);
+
+    ChangeProcessor.ChangeHandler handler = mock(ChangeProcessor.ChangeHandler.class);
+    ChangeProcessor.ChangeKey key =
+        new ChangeProcessor.ChangeKey(Collections.singleton(dataCenter), dataInfoId);
+    long now = System.currentTimeMillis();
+    TriggerPushContext ctx = new TriggerPushContext(dataCenter, 100, null, now);
+    // the first change is rare, process immediately
+    Assert.assertTrue(worker.commitChange(key, handler, ctx));
+    ChangeProcessor.ChangeTask task = worker.get(key);
+    Assert.assertTrue(task.expireTimestamp <= System.currentTimeMillis());
+    Assert.assertTrue(worker.getExpire() == task);
+
+    // hot key, debounce longer
+    for (int i = 0; i < 20; i++) {
+      ctx = new TriggerPushContext(dataCenter, 200 + i, null, System.currentTimeMillis());
+      Assert.assertTrue(worker.commitChange(key, handler, ctx));
+    }
+    task = worker.get(key);
+    Assert.assertTrue(
+        task.expireTimestamp - System.currentTimeMillis() > changeDebouncingMaxMillis / 2);
+    Assert.assertTrue(task.expireTimestamp <= task.expireDeadlineTimestamp);
+
+    // the cold key committed after the hot key not wait behind it
+    ChangeProcessor.ChangeKey coldKey =
+        new ChangeProcessor.ChangeKey(Collections.singleton(dataCenter), dataInfoId + "-cold");
+    ctx = new TriggerPushContext(dataCenter, 100, null, System.currentTimeMillis());
+    Assert.assertTrue(worker.commitChange(coldKey, handler, ctx));
+    ChangeProcessor.ChangeTask coldTask = worker.get(coldKey);
+    Assert.assertTrue(worker.getExpire() == coldTask);
+    Assert.assertNull(worker.get(coldKey));
+    Assert.assertNull(worker.getExpire());
+    Assert.assertTrue(worker.get(key) == task);
+
+    config.setAdaptiveDebouncingMinMillis(-1);
+    Assert.assertFalse(config.validate());
+  }
 }
@@ -31,6 +31,7 @@ import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.Value;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
 import com.alipay.sofa.registry.server.session.multi.cluster.DataCenterMetadataCache;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.task.FastRejectedExecutionException;
 import java.util.Collections;
@@ -134,6 +135,8 @@ public class FirePushServiceTest {
     svc.pushSwitchService = Mockito.mock(PushSwitchService.class);
     svc.circuitBreakerService = Mockito.mock(CircuitBreakerService.class);
     svc.dataCenterMetadataCache = Mockito.mock(DataCenterMetadataCache.class);
+    svc.changeProcessor = Mockito.mock(ChangeProcessor.class);
+    svc.dataNodeService = Mockito.mock(DataNodeService.class);
     return svc;
   }
 
@@ -188,4 +191,26 @@ public class FirePushServiceTest {
     when(svc.sessionDatumCacheService.getValueIfPresent(Mockito.anyObject())).thenReturn(v);
     Assert.assertTrue(svc.changeHandler.onChange("testDataId", ctx));
   }
+
+  @Test
+  public void testPutDatumIfNewer() {
+    FirePushService svc = mockFirePushService();
+    SubDatum datum = TestUtils.newSubDatum("testDc", "testDataId", 200, Collections.emptyList());
+    // no cache
+    Assert.assertTrue(svc.putDatumIfNewer(datum));
+    Mockito.verify(svc.sessionDatumCacheService, Mockito.times(1))
+        .put(Mockito.anyObject(), Mockito.anyObject());
+
+    Value v =
+        new Value(
+            (Sizer)
+                TestUtils.newMultiSubDatum("testDc", "testDataId", 200, Collections.emptyList()));
+    when(svc.sessionDatumCacheService.getValueIfPresent(Mockito.anyObject())).thenReturn(v);
+    Assert.assertFalse(svc.putDatumIfNewer(datum));
+
+    datum = TestUtils.newSubDatum("testDc", "testDataId", 300, Collections.emptyList());
+    Assert.assertTrue(svc.putDatumIfNewer(datum));
+    Mockito.verify(svc.sessionDatumCacheService, Mockito.times(2))
+        .put(Mockito.anyObject(), Mockito.anyObject());
+  }
 }
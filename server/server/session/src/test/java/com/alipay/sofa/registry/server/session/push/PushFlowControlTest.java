@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.google.common.collect.Lists;
+import java.net.InetSocketAddress;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PushFlowControlTest {
+  private final InetSocketAddress addr = new InetSocketAddress("127.0.0.1", 9600);
+
+  @Test
+  public void testAIMD() {
+    PushFlowControl flowControl = new PushFlowControl(1, 2, 3, 1024, 60000);
+    Assert.assertTrue(flowControl.hasPermit(addr));
+    Assert.assertEquals(2, flowControl.getLimit(addr));
+
+    PushFlowControl.Permit p1 = flowControl.tryAcquire(addr);
+    PushFlowControl.Permit p2 = flowControl.tryAcquire(addr);
+    Assert.assertNull(flowControl.tryAcquire(addr));
+    Assert.assertFalse(flowControl.hasPermit(addr));
+    Assert.assertEquals(2, flowControl.getInflight(addr));
+
+    // additive increase after a full window acked
+    Assert.assertTrue(p1.release(PushFlowControl.Feedback.ACK));
+    Assert.assertFalse(p1.release(PushFlowControl.Feedback.ACK));
+    Assert.assertEquals(2, flowControl.getLimit(addr));
+    p2.release(PushFlowControl.Feedback.ACK);
+    Assert.assertEquals(3, flowControl.getLimit(addr));
+    Assert.assertEquals(0, flowControl.getInflight(addr));
+
+    List<PushFlowControl.Permit> permits = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      permits.add(flowControl.tryAcquire(addr));
+    }
+    Assert.assertNull(flowControl.tryAcquire(addr));
+    for (PushFlowControl.Permit p : permits) {
+      p.release(PushFlowControl.Feedback.ACK);
+    }
+    // not exceed the max
+    Assert.assertEquals(3, flowControl.getLimit(addr));
+
+    // multiplicative decrease
+    flowControl.tryAcquire(addr).release(PushFlowControl.Feedback.CONGESTED);
+    Assert.assertEquals(1, flowControl.getLimit(addr));
+    flowControl.tryAcquire(addr).release(PushFlowControl.Feedback.CONGESTED);
+    Assert.assertEquals(1, flowControl.getLimit(addr));
+    flowControl.tryAcquire(addr).release(PushFlowControl.Feedback.NONE);
+    Assert.assertEquals(1, flowControl.getLimit(addr));
+  }
+
+  @Test
+  public void testInflightBytes() {
+    PushFlowControl flowControl = new PushFlowControl(1, 3, 3, 100, 60000);
+    PushFlowControl.Permit p1 = flowControl.tryAcquire(addr);
+    // the first push larger than the budget is permitted
+    p1.charge(150);
+    Assert.assertEquals(150, flowControl.getInflightBytes(addr));
+    Assert.assertFalse(flowControl.hasPermit(addr));
+    Assert.assertNull(flowControl.tryAcquire(addr));
+
+    // released on ack
+    Assert.assertTrue(p1.release(PushFlowControl.Feedback.ACK));
+    Assert.assertEquals(0, flowControl.getInflightBytes(addr));
+    PushFlowControl.Permit p2 = flowControl.tryAcquire(addr);
+    p2.charge(40);
+    PushFlowControl.Permit p3 = flowControl.tryAcquire(addr);
+    p3.charge(60);
+    Assert.assertNull(flowControl.tryAcquire(addr));
+
+    // released on failure, only once
+    Assert.assertTrue(p2.release(PushFlowControl.Feedback.NONE));
+    Assert.assertFalse(p2.release(PushFlowControl.Feedback.NONE));
+    Assert.assertEquals(60, flowControl.getInflightBytes(addr));
+    Assert.assertTrue(flowControl.hasPermit(addr));
+
+    // charge after released is ignored
+    p2.charge(10);
+    Assert.assertEquals(60, flowControl.getInflightBytes(addr));
+    p3.release(PushFlowControl.Feedback.NONE);
+    Assert.assertEquals(0, flowControl.getInflightBytes(addr));
+    Assert.assertEquals(0, flowControl.getInflight(addr));
+  }
+
+  @Test
+  public void testCleanIdle() {
+    PushFlowControl flowControl = new PushFlowControl(1, 2, 3, 1024, -1);
+    PushFlowControl.Permit permit = flowControl.tryAcquire(addr);
+    Assert.assertEquals(0, flowControl.cleanIdle());
+    Assert.assertEquals(1, flowControl.size());
+    permit.release(PushFlowControl.Feedback.NONE);
+    Assert.assertEquals(1, flowControl.cleanIdle());
+    Assert.assertEquals(0, flowControl.size());
+    // release after clean is safe
+    Assert.assertNotNull(flowControl.tryAcquire(addr));
+    Assert.assertEquals(1, flowControl.getInflight(addr));
+  }
+}
@@ -22,11 +22,17 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
 import com.alipay.remoting.rpc.exception.InvokeTimeoutException;
+import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.store.BaseInfo;
 import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.core.constants.AttributeKeyConstants;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatch;
+import com.alipay.sofa.registry.core.model.ReceivedDataBatchResult;
+import com.alipay.sofa.registry.core.model.Result;
 import com.alipay.sofa.registry.net.NetUtil;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
 import com.alipay.sofa.registry.remoting.ChannelOverflowException;
 import com.alipay.sofa.registry.remoting.exchange.RequestChannelClosedException;
 import com.alipay.sofa.registry.server.session.AbstractSessionServerTestBase.InMemoryCircuitBreakerService;
@@ -36,8 +42,11 @@ import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerSer
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
 import com.alipay.sofa.registry.task.RejectedDiscardHandler;
 import com.alipay.sofa.registry.util.BackOffTimes;
+import com.google.common.collect.Lists;
+import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -45,6 +54,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class PushProcessorTest {
@@ -427,6 +437,7 @@ public class PushProcessorTest {
     processor.circuitBreakerService = circuitBreakerService;
     processor.pushDataGenerator = new PushDataGenerator();
     processor.pushDataGenerator.sessionServerConfig = config;
+    processor.initFlowControl();
     processor.intTaskBuffer();
     processor.taskBuffer.suspend();
     Assert.assertEquals(1, processor.taskBuffer.workers.length);
@@ -540,4 +551,205 @@ public class PushProcessorTest {
 
     Assert.assertTrue(processor.taskBuffer.workers[0].getWaitingMillis() == 10);
   }
+
+  @Test
+  public void testFlowControl() {
+    PushProcessor processor = newProcessor();
+    final PushTaskBuffer.BufferWorker worker = processor.taskBuffer.workers[0];
+    TestUtils.MockBlotChannel channel = TestUtils.newChannel(9600, "192.168.1.1", 1234);
+    Mockito.when(processor.clientNodeService.getChannel(Mockito.any())).thenReturn(channel);
+
+    TriggerPushContext ctx =
+        new TriggerPushContext(dataCenter, 100, null, System.currentTimeMillis());
+    PushCause pushCause =
+        new PushCause(
+            ctx, PushType.Reg, Collections.singletonMap(dataCenter, System.currentTimeMillis()));
+    Subscriber subscriber = TestUtils.newZoneSubscriber(dataId, zone);
+    SubDatum datum =
+        TestUtils.newSubDatum(dataCenter, subscriber.getDataId(), 100, Collections.emptyList());
+    processor.firePush(
+        pushCause,
+        NetUtil.getLocalSocketAddress(),
+        Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+        MultiSubDatum.of(datum));
+    PushTask task = worker.bufferMap.values().iterator().next();
+
+    // channel not writable, park in buffer
+    Mockito.when(channel.conn.getChannel().isWritable()).thenReturn(false);
+    task.expireTimestamp = 0;
+    Assert.assertEquals(0, processor.taskBuffer.watchBuffer(worker));
+    Assert.assertEquals(1, worker.bufferMap.size());
+    Assert.assertEquals(1, processor.taskBuffer.parkedSize());
+
+    // no permit, park in buffer
+    Mockito.when(channel.conn.getChannel().isWritable()).thenReturn(true);
+    List<PushFlowControl.Permit> permits = Lists.newArrayList();
+    PushFlowControl.Permit permit;
+    while ((permit = processor.flowControl.tryAcquire(task.pushingTaskKey.addr)) != null) {
+      permits.add(permit);
+    }
+    processor.taskBuffer.watchBuffer(worker);
+    Assert.assertEquals(1, worker.bufferMap.size());
+    worker.bufferMap.clear();
+    Assert.assertFalse(processor.doPush(task));
+    Assert.assertEquals(1, worker.bufferMap.size());
+    Mockito.verify(processor.clientNodeService, Mockito.times(0))
+        .pushWithCallback(Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject());
+    // not buffered, the task goes to the retry path
+    final int retryCount = task.retryCount;
+    processor.park(task);
+    Assert.assertEquals(retryCount + 1, task.retryCount);
+    Assert.assertEquals(1, worker.bufferMap.size());
+    task.expireTimestamp = 0;
+
+    // release permit, unpark
+    processor.releasePermit(permits.get(0), PushFlowControl.Feedback.NONE);
+    processor.taskBuffer.watchBuffer(worker);
+    Assert.assertEquals(0, worker.bufferMap.size());
+    Assert.assertEquals(0, processor.taskBuffer.parkedSize());
+
+    // push success, the permit released on callback
+    final int inflight = processor.flowControl.getInflight(task.pushingTaskKey.addr);
+    Assert.assertTrue(processor.doPush(task));
+    Assert.assertEquals(inflight + 1, processor.flowControl.getInflight(task.pushingTaskKey.addr));
+    // charged with the push size, released with the permit
+    Assert.assertTrue(processor.flowControl.getInflightBytes(task.pushingTaskKey.addr) > 0);
+    PushProcessor.PushRecord record = processor.pushingRecords.get(task.pushingTaskKey);
+    PushProcessor.PushClientCallback callback =
+        processor.new PushClientCallback(task, record.permit);
+    callback.onException(channel, new InvokeTimeoutException());
+    Assert.assertEquals(inflight, processor.flowControl.getInflight(task.pushingTaskKey.addr));
+    Assert.assertEquals(0, processor.flowControl.getInflightBytes(task.pushingTaskKey.addr));
+    // release again is ignored
+    callback.onCallback(channel, null);
+    Assert.assertEquals(inflight, processor.flowControl.getInflight(task.pushingTaskKey.addr));
+  }
+
+  @Test
+  public void testPriorityLaneWait() {
+    PushProcessor processor = newProcessor();
+    ((SessionServerConfigBean) processor.sessionServerConfig).setPriorityPushSloMillis(100);
+    final PushTaskBuffer.BufferWorker worker = processor.taskBuffer.workers[0];
+    TriggerPushContext ctx =
+        new TriggerPushContext(dataCenter, 100, null, System.currentTimeMillis());
+    PushCause pushCause =
+        new PushCause(
+            ctx, PushType.Reg, Collections.singletonMap(dataCenter, System.currentTimeMillis()));
+    Subscriber subscriber = TestUtils.newZoneSubscriber(dataId, zone);
+    SubDatum datum =
+        TestUtils.newSubDatum(dataCenter, subscriber.getDataId(), 100, Collections.emptyList());
+    processor.firePush(
+        pushCause,
+        NetUtil.getLocalSocketAddress(),
+        Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+        MultiSubDatum.of(datum));
+    PushTask task = worker.bufferMap.values().iterator().next();
+    Assert.assertTrue(task.isPriority());
+    Assert.assertTrue(PushProcessor.isPriorityRunnable((Runnable) task));
+    Assert.assertTrue(
+        PushProcessor.isPriorityRunnable(
+            processor.new PushBatchRunner(Collections.singletonList(task), true)));
+    Assert.assertFalse(PushProcessor.isPriorityRunnable(() -> {}));
+
+    final double violations = PushMetrics.Push.PUSH_PRIORITY_SLO_VIOLATION_COUNTER.get();
+    // not committed
+    processor.observeLaneWait(task);
+    task.commitTimestamp = System.currentTimeMillis();
+    processor.observeLaneWait(task);
+    Assert.assertEquals(violations, PushMetrics.Push.PUSH_PRIORITY_SLO_VIOLATION_COUNTER.get(), 0);
+    task.commitTimestamp = System.currentTimeMillis() - 1000;
+    processor.observeLaneWait(task);
+    Assert.assertEquals(
+        violations + 1, PushMetrics.Push.PUSH_PRIORITY_SLO_VIOLATION_COUNTER.get(), 0);
+  }
+
+  @Test
+  public void testPushBatch() {
+    PushProcessor processor = newProcessor();
+    final PushTaskBuffer.BufferWorker worker = processor.taskBuffer.workers[0];
+    TriggerPushContext ctx =
+        new TriggerPushContext(dataCenter, 100, null, System.currentTimeMillis());
+    PushCause pushCause =
+        new PushCause(
+            ctx, PushType.Reg, Collections.singletonMap(dataCenter, System.currentTimeMillis()));
+    List<Subscriber> subscribers = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      Subscriber subscriber = TestUtils.newZoneSubscriber(dataId + i, zone);
+      // the last one not accept batch push
+      if (i != 2) {
+        subscriber.setAttributes(
+            Collections.singletonMap(AttributeKeyConstants.ATTRIBUTE_ACCEPT_BATCH_PUSH, "true"));
+      }
+      subscribers.add(subscriber);
+      SubDatum datum =
+          TestUtils.newSubDatum(dataCenter, subscriber.getDataId(), 100, Collections.emptyList());
+      processor.firePush(
+          pushCause,
+          NetUtil.getLocalSocketAddress(),
+          Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+          MultiSubDatum.of(datum));
+    }
+    Assert.assertEquals(3, worker.bufferMap.size());
+    List<PushTask> tasks = Lists.newArrayList(worker.bufferMap.values());
+    worker.bufferMap.clear();
+
+    List<List<PushTask>> batches = Lists.newArrayList();
+    PushTaskBuffer.BatchCommitter committer =
+        batch -> {
+          batches.add(batch);
+          return true;
+        };
+    Assert.assertTrue(processor.pushLaneKey(tasks.get(0).pushingTaskKey) instanceof Tuple);
+    processor.taskBuffer.enableBatch(
+        10, task -> processor.pushLaneKey(task.pushingTaskKey), committer);
+    // the not batchable one is committed alone, failed as the executor not init
+    Assert.assertEquals(2, processor.taskBuffer.commitInBatch(tasks, committer));
+    Assert.assertEquals(1, batches.size());
+    List<PushTask> batch = batches.get(0);
+    Assert.assertEquals(2, batch.size());
+    for (PushTask task : batch) {
+      Assert.assertTrue(task.isBatchable());
+      Assert.assertNotEquals(subscribers.get(2), task.subscriber);
+    }
+
+    // the rejected batch falls back to commit one by one
+    List<PushTask> spies = Lists.newArrayList();
+    for (PushTask task : batch) {
+      spies.add(Mockito.spy(task));
+    }
+    Assert.assertEquals(0, processor.taskBuffer.commitInBatch(spies, b -> false));
+    for (PushTask task : spies) {
+      Mockito.verify(task, Mockito.times(1)).commit();
+    }
+
+    final InetSocketAddress addr = batch.get(0).pushingTaskKey.addr;
+    final int inflight = processor.flowControl.getInflight(addr);
+    Assert.assertEquals(2, processor.doPushBatch(batch));
+    Assert.assertEquals(2, processor.pushingRecords.size());
+    // one request with one permit
+    Assert.assertEquals(inflight + 1, processor.flowControl.getInflight(addr));
+    Assert.assertTrue(processor.flowControl.getInflightBytes(addr) > 0);
+    ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+    ArgumentCaptor<CallbackHandler> callback = ArgumentCaptor.forClass(CallbackHandler.class);
+    Mockito.verify(processor.clientNodeService, Mockito.times(1))
+        .pushWithCallback(payload.capture(), Mockito.anyObject(), callback.capture());
+    Assert.assertEquals(2, ((ReceivedDataBatch) payload.getValue()).getData().size());
+
+    // ack by each
+    TestUtils.MockBlotChannel channel = TestUtils.newChannel(9600, "192.168.1.1", 1234);
+    callback
+        .getValue()
+        .onCallback(
+            channel,
+            new ReceivedDataBatchResult(
+                Lists.newArrayList(Result.success(), Result.failed("test"))));
+    Assert.assertEquals(inflight, processor.flowControl.getInflight(addr));
+    Assert.assertEquals(0, processor.flowControl.getInflightBytes(addr));
+    Assert.assertEquals(0, processor.pushingRecords.size());
+    Assert.assertEquals(100, batch.get(0).subscriber.getPushedVersion(dataCenter));
+    Assert.assertEquals(0, batch.get(1).subscriber.getPushedVersion(dataCenter));
+    // the failed one retry
+    Assert.assertEquals(1, worker.bufferMap.size());
+    Assert.assertEquals(1, batch.get(1).retryCount);
+  }
 }
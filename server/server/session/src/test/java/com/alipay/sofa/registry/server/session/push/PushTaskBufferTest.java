@@ -22,8 +22,10 @@ import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.server.session.TestUtils;
+import com.google.common.collect.Lists;
 import java.net.InetSocketAddress;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
@@ -64,6 +66,40 @@ public class PushTaskBufferTest {
     Assert.assertTrue(buffer.buffer(task1));
   }
 
+  @Test
+  public void testPriorityFirst() {
+    PushTaskBuffer buffer = new PushTaskBuffer(1);
+    buffer.suspend();
+    List<PushTask> tasks = Lists.newArrayList();
+    for (PushType pushType : new PushType[] {PushType.Sub, PushType.Reg, PushType.Sub}) {
+      Subscriber subscriber = TestUtils.newZoneSubscriber("testDataId", "region");
+      SubDatum datum = TestUtils.newSubDatum(subscriber.getDataId(), 100, Collections.emptyList());
+      MockTask task =
+          new MockTask(
+              new PushCause(
+                  null,
+                  pushType,
+                  Collections.singletonMap(datum.getDataCenter(), System.currentTimeMillis())),
+              NetUtil.getLocalSocketAddress(),
+              Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+              datum);
+      task.expireTimestamp = 1;
+      Assert.assertTrue(buffer.buffer(task));
+      tasks.add(task);
+    }
+    Assert.assertFalse(tasks.get(0).isPriority());
+    Assert.assertTrue(tasks.get(1).isPriority());
+    Assert.assertTrue(
+        PushTaskBuffer.maxBufferedSize(tasks.get(1))
+            > PushTaskBuffer.maxBufferedSize(tasks.get(0)));
+
+    List<PushTask> pending = buffer.workers[0].transferAndMerge();
+    Assert.assertEquals(3, pending.size());
+    Assert.assertSame(tasks.get(1), pending.get(0));
+    Assert.assertFalse(pending.get(1).isPriority());
+    Assert.assertFalse(pending.get(2).isPriority());
+  }
+
   private static final class MockTask extends PushTask {
 
     MockTask(
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.session.push;
 
 import com.alipay.sofa.registry.common.model.DataCenterPushInfo;
+import com.alipay.sofa.registry.common.model.TraceTimes;
 import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.common.model.store.SubPublisher;
@@ -100,6 +101,69 @@ public class PushTraceTest {
         PushTrace.PushStatus.OK, null, Collections.singletonMap("testDc", pushInfo), 0);
   }
 
+  @Test
+  public void testStages() {
+    SubDatum subDatum =
+        TestUtils.newSubDatum("testDataId", DatumVersionUtil.nextId(), Collections.emptyList());
+    TraceTimes times = new TraceTimes();
+    times.setCreateTs(1010);
+    times.setDataPutReceive(990);
+    times.setDataPutCommit(998);
+    times.setFirstDataChange(1000);
+    times.setDatumNotifyCreate(1020);
+    times.setDatumNotifySend(1030);
+    // the session clock is behind the data
+    TriggerPushContext ctx = new TriggerPushContext("testDc", 100, null, 1025, times);
+    ctx.setChangeFireTimestamp(1100);
+    ctx.setDatumFetchTimestamp(1105);
+    PushTrace trace =
+        PushTrace.trace(
+            MultiSubDatum.of(subDatum),
+            NetUtil.getLocalSocketAddress(),
+            "subApp",
+            new PushCause(ctx, PushType.Sub, Collections.singletonMap("testDc", 1000L)),
+            1,
+            0);
+    trace.mark(PushStage.TASK_CREATE, 1110);
+    trace.mark(PushStage.PUSH_START, 1130);
+    trace.mark(PushStage.PUSH_ENCODE, 1135);
+    trace.mark(PushStage.PUSH_SEND, 1140);
+
+    long[] spans = PushTrace.stageSpans(trace.stageTimestamps(1200));
+    Assert.assertEquals(PushStage.STAGES.length, spans.length);
+    Assert.assertEquals(-1, spans[PushStage.DATA_PUT_RECEIVE.ordinal()]);
+    Assert.assertEquals(8, spans[PushStage.DATA_PUT_COMMIT.ordinal()]);
+    Assert.assertEquals(2, spans[PushStage.DATA_CHANGE.ordinal()]);
+    Assert.assertEquals(10, spans[PushStage.DATA_MERGE.ordinal()]);
+    Assert.assertEquals(0, spans[PushStage.SESSION_TRIGGER.ordinal()]);
+    Assert.assertEquals(75, spans[PushStage.CHANGE_FIRE.ordinal()]);
+    Assert.assertEquals(5, spans[PushStage.DATUM_FETCH.ordinal()]);
+    // not committed, the span of start is since the create
+    Assert.assertEquals(-1, spans[PushStage.TASK_COMMIT.ordinal()]);
+    Assert.assertEquals(20, spans[PushStage.PUSH_START.ordinal()]);
+    // the send and the client ack are apart
+    Assert.assertEquals(5, spans[PushStage.PUSH_SEND.ordinal()]);
+    Assert.assertEquals(60, spans[PushStage.PUSH_ACK.ordinal()]);
+    String str = PushTrace.formatStageSpans(spans);
+    Assert.assertTrue(str, str.startsWith("{DATA_PUT_COMMIT=8,DATA_CHANGE=2,DATA_MERGE=10,"));
+    Assert.assertFalse(str, str.contains("TASK_COMMIT"));
+
+    // not triggered by data change
+    ctx = new TriggerPushContext("testDc", 100, null, 1025);
+    trace =
+        PushTrace.trace(
+            MultiSubDatum.of(subDatum),
+            NetUtil.getLocalSocketAddress(),
+            "subApp",
+            new PushCause(ctx, PushType.Reg, Collections.singletonMap("testDc", 1000L)),
+            1,
+            0);
+    spans = PushTrace.stageSpans(trace.stageTimestamps(System.currentTimeMillis()));
+    Assert.assertEquals(-1, spans[PushStage.DATA_MERGE.ordinal()]);
+    Assert.assertEquals(-1, spans[PushStage.SESSION_TRIGGER.ordinal()]);
+    Assert.assertTrue(spans[PushStage.TASK_CREATE.ordinal()] > 0);
+  }
+
   @Test
   public void testFind() {
     Assert.assertTrue(PushTrace.findNewPublishers(Collections.emptyList(), 100).isEmpty());
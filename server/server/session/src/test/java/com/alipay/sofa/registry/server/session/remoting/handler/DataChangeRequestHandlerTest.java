@@ -22,12 +22,15 @@ import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.TraceTimes;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.push.FirePushService;
 import com.alipay.sofa.registry.server.session.store.Interests;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.Assert;
@@ -59,6 +62,7 @@ public class DataChangeRequestHandlerTest {
     handler.executorManager = new ExecutorManager(serverConfigBean);
     handler.firePushService = mock(FirePushService.class);
     handler.sessionInterests = mock(Interests.class);
+    handler.sessionCacheService = mock(CacheService.class);
 
     handler
         .pushSwitchService
@@ -74,15 +78,40 @@ public class DataChangeRequestHandlerTest {
         .setStopPushSwitch(System.currentTimeMillis(), false);
     when(handler.sessionInterests.checkInterestVersion(anyString(), anyString(), anyLong()))
         .thenReturn(Interests.InterestVersionCheck.Obsolete);
+    when(handler.sessionCacheService.hasWarmed()).thenReturn(true);
     obj = handler.doHandle(null, request());
     Assert.assertNull(obj);
     verify(handler.firePushService, times(0)).fireOnChange(anyString(), anyObject());
+    // the warmed datum is dropped without subscriber
+    verify(handler.sessionCacheService, times(1)).invalidateWarmed("testDc", "testId1", 100);
+    // nothing warmed, skip dropping
+    when(handler.sessionCacheService.hasWarmed()).thenReturn(false);
+    handler.doHandle(null, request());
+    verify(handler.sessionCacheService, times(2))
+        .invalidateWarmed(anyString(), anyString(), anyLong());
 
     when(handler.sessionInterests.checkInterestVersion(anyString(), anyString(), anyLong()))
         .thenReturn(Interests.InterestVersionCheck.Interested);
     obj = handler.doHandle(null, request());
     Assert.assertNull(obj);
     verify(handler.firePushService, times(2)).fireOnChange(anyString(), anyObject());
+    verify(handler.firePushService, times(0)).putDatumIfNewer(anyObject());
+
+    // the datum carried by the request
+    Map<String, DatumVersion> dataInfoIds =
+        Collections.singletonMap("testId1", new DatumVersion(100));
+    SubDatum datum = TestUtils.newSubDatum("testDc", "testId1", 100, Collections.emptyList());
+    obj =
+        handler.doHandle(
+            null,
+            new DataChangeRequest(
+                "testDc",
+                dataInfoIds,
+                new TraceTimes(),
+                Collections.singletonMap("testId1", datum)));
+    Assert.assertNull(obj);
+    verify(handler.firePushService, times(1)).putDatumIfNewer(datum);
+    verify(handler.firePushService, times(3)).fireOnChange(anyString(), anyObject());
   }
 
   private static DataChangeRequest request() {
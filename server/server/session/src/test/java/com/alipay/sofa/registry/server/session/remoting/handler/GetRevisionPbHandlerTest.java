@@ -20,10 +20,16 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.client.pb.GetRevisionsRequest;
+import com.alipay.sofa.registry.common.model.client.pb.GetRevisionsResponse;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.store.AppRevision;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
+import com.alipay.sofa.registry.server.session.metadata.MetadataCacheRegistry;
 import com.alipay.sofa.registry.server.session.strategy.AppRevisionHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.impl.DefaultAppRevisionHandlerStrategy;
+import com.google.common.collect.Lists;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -54,6 +60,26 @@ public class GetRevisionPbHandlerTest {
     verify(handler.appRevisionHandlerStrategy, times(1)).queryRevision(anyList());
   }
 
+  @Test
+  public void testQueryRevisionFallback() {
+    MetadataCacheRegistry registry = mock(MetadataCacheRegistry.class);
+    DefaultAppRevisionHandlerStrategy strategy = new DefaultAppRevisionHandlerStrategy();
+    strategy.setMetadataCacheRegistry(registry);
+    AppRevision revision = new AppRevision();
+    revision.setAppName("testApp");
+    revision.setRevision("testRevision");
+    when(registry.getRevisions(anyList())).thenThrow(new RuntimeException("expected"));
+    when(registry.getRevision("testRevision")).thenReturn(revision);
+    when(registry.getRevision("badRevision")).thenThrow(new RuntimeException("expected"));
+
+    // the batch query failed, query one by one
+    GetRevisionsResponse response =
+        strategy.queryRevision(Lists.newArrayList("testRevision", "badRevision"));
+    Assert.assertEquals(ValueConstants.METADATA_STATUS_DATA_NOT_FOUND, response.getStatusCode());
+    Assert.assertEquals(1, response.getRevisionsCount());
+    Assert.assertEquals("testApp", response.getRevisionsMap().get("testRevision").getApplication());
+  }
+
   private static GetRevisionsRequest request() {
     GetRevisionsRequest.Builder builder = GetRevisionsRequest.newBuilder();
     builder.addRevisions("testRevision");
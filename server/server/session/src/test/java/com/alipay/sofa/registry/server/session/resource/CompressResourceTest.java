@@ -16,8 +16,21 @@
  */
 package com.alipay.sofa.registry.server.session.resource;
 
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
+import com.alipay.sofa.registry.server.session.store.SessionDataStore;
+import com.google.common.collect.Lists;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 public class CompressResourceTest {
 
@@ -26,4 +39,48 @@ public class CompressResourceTest {
     CompressResource resource = new CompressResource();
     resource.compressPushService = new CompressPushService();
   }
+
+  @Test
+  public void testTrainDict() throws Exception {
+    CompressResource resource = new CompressResource();
+    SessionDataStore store = new SessionDataStore();
+    store.setSlotTableCache(Mockito.mock(SlotTableCache.class));
+    resource.sessionDataStore = store;
+
+    Map<String, Object> ret = resource.trainDict(null, 100, 4096);
+    Assert.assertEquals(0, ret.get("samples"));
+    Assert.assertNotNull(ret.get("error"));
+
+    for (int i = 0; i < 500; i++) {
+      Publisher publisher = TestUtils.createTestPublisher("testTrainDict-" + i);
+      String url =
+          "dubbo://192.168.1."
+              + (i % 256)
+              + ":20880/com.alipay.test.Service"
+              + i
+              + "?application=app"
+              + (i % 10)
+              + "&dubbo=2.0.2&interface=com.alipay.test.Service"
+              + i
+              + "&methods=get,put,remove&pid="
+              + (1000 + i)
+              + "&side=provider&timestamp="
+              + (1600000000000L + i);
+      publisher.setDataList(Lists.newArrayList(new ServerDataBox(url)));
+      store.add(publisher);
+    }
+    ret = resource.trainDict("not-exist-group", 100, 4096);
+    Assert.assertEquals(0, ret.get("samples"));
+
+    ret = resource.trainDict(null, 100, 4096);
+    Assert.assertEquals(100, ret.get("samples"));
+    Assert.assertNull(ret.get("error"));
+    byte[] dict = Base64.getDecoder().decode((String) ret.get("dict"));
+    Compressor.ZstdDictCompressor compressor =
+        (Compressor.ZstdDictCompressor) CompressUtils.registerZstdDict(dict);
+    Assert.assertEquals(ret.get("dictId"), compressor.getDictId());
+    byte[] data =
+        "dubbo://192.168.1.1:20880/com.alipay.test.Service".getBytes(StandardCharsets.UTF_8);
+    Assert.assertArrayEquals(data, compressor.decompress(compressor.compress(data), data.length));
+  }
 }
@@ -30,8 +30,10 @@ import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean
 import com.alipay.sofa.registry.server.session.providedata.FetchStopPushService;
 import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
 import com.alipay.sofa.registry.server.shared.config.CommonConfig;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.List;
@@ -132,6 +134,50 @@ public class DataCacheTest extends BaseTest {
     Assert.assertEquals(map2.get(address).size(), 100);
   }
 
+  @Test
+  public void testDataInfoIdIndex() {
+    DataInfoIdIndex index = new DataInfoIdIndex();
+    SessionInterests sessionInterests = new SessionInterests();
+    sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+    sessionInterests.dataInfoIdIndex = index;
+    SessionDataStore sessionDataStore = new SessionDataStore();
+    sessionDataStore.slotTableCache = mock(SlotTableCache.class);
+    sessionDataStore.dataInfoIdIndex = index;
+
+    String connectId = "192.168.1.2:9000_127.0.0.1:34567";
+    for (int i = 0; i < 10; i++) {
+      sessionInterests.add(getSub("dataid" + i, ScopeEnum.zone, "sub" + i, null));
+      sessionDataStore.add(getPub("dataid" + (i + 5), "pub" + i, null));
+    }
+    // replace not change the index
+    sessionDataStore.add(getPub("dataid5", "pub0", null));
+    Assert.assertEquals(15, index.size());
+    Assert.assertEquals(Sets.newHashSet(index.dataInfoIds()).hashCode(), index.checksum());
+    Assert.assertEquals(
+        Sets.newHashSet(
+            Iterables.concat(sessionInterests.getDataInfoIds(), sessionDataStore.getDataInfoIds())),
+        Sets.newHashSet(index.dataInfoIds()));
+
+    // page by cursor
+    List<String> page1 = index.page(null, 10);
+    List<String> page2 = index.page(page1.get(9), 10);
+    Assert.assertEquals(10, page1.size());
+    Assert.assertEquals(5, page2.size());
+    Assert.assertTrue(page1.get(9).compareTo(page2.get(0)) < 0);
+
+    String dataInfoId5 = DataInfo.toDataInfoId("dataid5", "instance2", "rpc");
+    sessionInterests.deleteById("sub5", dataInfoId5);
+    Assert.assertTrue(index.dataInfoIds().contains(dataInfoId5));
+    sessionDataStore.deleteById("pub0", dataInfoId5);
+    Assert.assertFalse(index.dataInfoIds().contains(dataInfoId5));
+    Assert.assertEquals(14, index.size());
+
+    sessionInterests.deleteByConnectId(ConnectId.parse(connectId));
+    sessionDataStore.deleteByConnectId(ConnectId.parse(connectId));
+    Assert.assertEquals(0, index.size());
+    Assert.assertEquals(0, index.checksum());
+  }
+
   @Test
   public void testGetPub() {
     SessionDataStore sessionDataStore = new SessionDataStore();
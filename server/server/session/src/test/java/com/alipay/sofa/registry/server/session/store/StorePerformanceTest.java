@@ -16,7 +16,9 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.BaseInfo;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.common.model.store.URL;
@@ -24,7 +26,13 @@ import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.slot.SlotTableCacheImpl;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class StorePerformanceTest {
@@ -38,6 +46,85 @@ public class StorePerformanceTest {
     //    warm();
     //    testSub0();
     //    testSub1();
+    //    testScan(1000000);
+    newScanStores(800);
+  }
+
+  /** run with -Dsession.store.scan.subscribers=1000000 to benchmark the full scan */
+  public static void main(String[] args) {
+    testScan(Integer.getInteger("session.store.scan.subscribers", 1000000));
+  }
+
+  /** the single store and the slot partitioned store with the same subscribers and scan result */
+  private static Store<Subscriber>[] newScanStores(int subscribers) {
+    final SimpleStore<Subscriber> simpleStore = new SimpleStore<>(1024 * 16, 256);
+    final SlotStore<Subscriber> slotStore = new SlotStore<>(SlotFunctionRegistry.getFunc()::slotOf);
+    final int dataIdNum = Math.max(1, subscribers / DATA_NUM);
+    for (int i = 0; i < dataIdNum; i++) {
+      final String dataInfoId = DataInfo.toDataInfoId("scan-" + i, "testInstance", "testGroup");
+      for (int j = 0; j < DATA_NUM; j++) {
+        Subscriber sub = new Subscriber();
+        sub.setRegisterId("scan-" + i + "-" + j);
+        sub.setDataInfoId(dataInfoId);
+        sub.setClientVersion(BaseInfo.ClientVersion.StoreData);
+        sub.setScope(ScopeEnum.zone);
+        sub.setSourceAddress(new URL("192.168.0." + (j % 256), 54321));
+        simpleStore.getOrCreate(sub.getDataInfoId()).put(sub.getRegisterId(), sub);
+        slotStore.getOrCreate(sub.getDataInfoId()).put(sub.getRegisterId(), sub);
+      }
+    }
+    Assert.assertEquals(simpleStore.count(), slotStore.count());
+    Assert.assertEquals(Sets.newHashSet(simpleStore.getDataInfoIds()), slotStore.getDataInfoIds());
+    Assert.assertEquals(simpleStore.copyMap(), slotStore.copyMap());
+    Assert.assertEquals(scanIps(simpleStore), scanIps(slotStore));
+    return new Store[] {simpleStore, slotStore};
+  }
+
+  /** compare the full scan of the single store and the slot partitioned store */
+  public static void testScan(int subscribers) {
+    final Store<Subscriber>[] stores = newScanStores(subscribers);
+    final Store<Subscriber> simpleStore = stores[0];
+    final Store<Subscriber> slotStore = stores[1];
+
+    final int rounds = 20;
+    for (int i = 0; i < 3; i++) {
+      scanIps(simpleStore);
+      scanIps(slotStore);
+    }
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < rounds; i++) {
+      scanIps(simpleStore);
+    }
+    final long simpleSpan = System.currentTimeMillis() - start;
+    start = System.currentTimeMillis();
+    for (int i = 0; i < rounds; i++) {
+      scanIps(slotStore);
+    }
+    final long slotSpan = System.currentTimeMillis() - start;
+    System.out.println(
+        StringFormatter.format(
+            "scan subscribers={}, cores={}, simple={}ms, slot={}ms",
+            subscribers,
+            Runtime.getRuntime().availableProcessors(),
+            simpleSpan / rounds,
+            slotSpan / rounds));
+  }
+
+  private static Map<String, Set<String>> scanIps(Store<Subscriber> store) {
+    return store.<Map<String, Set<String>>>parallelReduce(
+        () -> Maps.newHashMapWithExpectedSize(256),
+        (ret, dataInfoId, subs) -> {
+          for (Subscriber sub : subs.values()) {
+            ret.computeIfAbsent(sub.getSourceAddress().getIpAddress(), k -> Sets.newHashSet())
+                .add(dataInfoId);
+          }
+        },
+        (a, b) -> {
+          for (Map.Entry<String, Set<String>> e : b.entrySet()) {
+            a.merge(e.getKey(), e.getValue(), SlotStore::mergeSet);
+          }
+          return a;
+        });
   }
 
   public static void warm() {
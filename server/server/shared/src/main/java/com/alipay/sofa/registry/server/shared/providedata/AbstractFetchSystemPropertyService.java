@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.shared.providedata;
 
 import com.alipay.sofa.registry.common.model.metaserver.FetchSystemPropertyResult;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataSetDiff;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
@@ -96,6 +97,35 @@ public abstract class AbstractFetchSystemPropertyService<T extends SystemDataSto
     return processorData(response.getProvideData(), expect);
   }
 
+  /**
+   * apply the value carried by the batch notify, without fetching from meta
+   *
+   * @param data the provide data
+   * @return false if failed to process, the caller should fetch it again
+   */
+  public boolean apply(ProvideData data) {
+    T expect = storage.get();
+    if (data.getVersion() == null) {
+      return false;
+    }
+    if (data.getVersion() <= expect.version) {
+      // already up to date
+      return true;
+    }
+    LOGGER.info("[ApplySystemProperty]dataInfoId:{}, version:{}", dataInfoId, data.getVersion());
+    return processorData(data, expect);
+  }
+
+  /**
+   * apply the add/remove diff of the set valued provide data carried by the batch notify
+   *
+   * @param diff the diff against the base version
+   * @return false if not supported or failed to apply, the caller should fetch it again
+   */
+  public boolean applyDiff(ProvideDataSetDiff diff) {
+    return false;
+  }
+
   @Override
   public boolean doFetch() {
     watchDog.wakeup();
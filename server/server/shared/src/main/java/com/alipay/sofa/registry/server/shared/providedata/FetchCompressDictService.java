@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.shared.providedata;
+
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDicts;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.shared.config.ServerShareConfig;
+import com.alipay.sofa.registry.util.JsonUtils;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * fetch the trained compress dictionaries, the encodings of the dictionaries are accepted before
+ * the default encodings
+ */
+public class FetchCompressDictService
+    extends AbstractFetchSystemPropertyService<FetchCompressDictService.DictStorage> {
+  private static final Logger LOGGER = LoggerFactory.getLogger("COMPRESS");
+
+  @Autowired private ServerShareConfig serverShareConfig;
+
+  public FetchCompressDictService() {
+    super(
+        ValueConstants.COMPRESS_DICTS_DATA_ID,
+        new DictStorage(INIT_VERSION, ArrayUtils.EMPTY_STRING_ARRAY));
+  }
+
+  @Override
+  protected int getSystemPropertyIntervalMillis() {
+    return serverShareConfig.getSystemPropertyIntervalMillis();
+  }
+
+  @Override
+  protected boolean doProcess(DictStorage expect, ProvideData data) {
+    final String dictsString = ProvideData.toString(data);
+    try {
+      CompressDicts dicts =
+          StringUtils.isBlank(dictsString)
+              ? CompressDicts.defaultDicts()
+              : JsonUtils.read(dictsString, CompressDicts.class);
+      List<String> encodes = new ArrayList<>(dicts.getZstdDicts().size());
+      for (String dict : dicts.getZstdDicts()) {
+        encodes.add(CompressUtils.registerZstdDict(Base64.getDecoder().decode(dict)).getEncoding());
+      }
+      DictStorage update = new DictStorage(data.getVersion(), encodes.toArray(new String[0]));
+      if (!compareAndSet(expect, update)) {
+        return false;
+      }
+      LOGGER.info(
+          "Fetch compress dicts, prev={}, current={}",
+          StringUtils.join(expect.dictEncodes, ","),
+          StringUtils.join(update.dictEncodes, ","));
+      return true;
+    } catch (Throwable e) {
+      LOGGER.error("Fetch compress dicts error", e);
+    }
+    return false;
+  }
+
+  public String[] getDictEncodes() {
+    return storage.get().dictEncodes;
+  }
+
+  /**
+   * the encodings accepted by this server
+   *
+   * @return the dictionary encodings and the default encodings
+   */
+  public String[] getAcceptEncodes() {
+    final String[] dictEncodes = getDictEncodes();
+    if (dictEncodes.length == 0) {
+      return CompressConstants.defaultCompressEncodes;
+    }
+    return (String[]) ArrayUtils.addAll(dictEncodes, CompressConstants.defaultCompressEncodes);
+  }
+
+  protected static class DictStorage extends SystemDataStorage {
+    protected final String[] dictEncodes;
+
+    public DictStorage(long version, String[] dictEncodes) {
+      super(version);
+      this.dictEncodes = dictEncodes;
+    }
+  }
+}
@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.server.shared.providedata;
 
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataSetDiff;
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -54,6 +56,36 @@ public class SystemPropertyProcessorManager {
     return false;
   }
 
+  /**
+   * apply the value of the provide data carried by the notify
+   *
+   * @param data provide data
+   * @return false if not supported or failed to apply
+   */
+  public boolean doApply(ProvideData data) {
+    for (AbstractFetchSystemPropertyService systemDataProcessor : systemDataProcessors) {
+      if (systemDataProcessor.support(data.getDataInfoId())) {
+        return systemDataProcessor.apply(data);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * apply the diff of the set valued provide data carried by the notify
+   *
+   * @param diff provide data diff
+   * @return false if not supported or failed to apply
+   */
+  public boolean doApplyDiff(ProvideDataSetDiff diff) {
+    for (AbstractFetchSystemPropertyService systemDataProcessor : systemDataProcessors) {
+      if (systemDataProcessor.support(diff.getDataInfoId())) {
+        return systemDataProcessor.applyDiff(diff);
+      }
+    }
+    return false;
+  }
+
   public boolean startFetchMetaSystemProperty() {
     boolean success = true;
 
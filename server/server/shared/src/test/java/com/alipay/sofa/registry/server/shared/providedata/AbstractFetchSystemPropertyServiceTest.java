@@ -100,4 +100,26 @@ public class AbstractFetchSystemPropertyServiceTest
 
     Assert.assertTrue(doFetchData());
   }
+
+  @Test
+  public void testApply() {
+    Assert.assertFalse(
+        apply(new ProvideData(null, ValueConstants.STOP_PUSH_DATA_SWITCH_DATA_ID, null)));
+    Assert.assertTrue(
+        apply(
+            new ProvideData(
+                new ServerDataBox("true"),
+                ValueConstants.STOP_PUSH_DATA_SWITCH_DATA_ID,
+                INIT_VERSION + 1)));
+    Assert.assertEquals(INIT_VERSION + 1, storage.get().getVersion());
+    Assert.assertTrue(storage.get().stopPushSwitch);
+    // older version has been applied
+    Assert.assertTrue(
+        apply(
+            new ProvideData(
+                new ServerDataBox("false"),
+                ValueConstants.STOP_PUSH_DATA_SWITCH_DATA_ID,
+                INIT_VERSION)));
+    Assert.assertTrue(storage.get().stopPushSwitch);
+  }
 }
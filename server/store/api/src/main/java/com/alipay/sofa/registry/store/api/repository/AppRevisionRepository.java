@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.store.AppRevision;
 import com.alipay.sofa.registry.store.api.multi.MultiDataCenterListener;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,10 +53,50 @@ public interface AppRevisionRepository extends MultiDataCenterListener {
    */
   AppRevision queryRevision(String revision);
 
+  /**
+   * get AppRevisions, the not exist revisions are absent in the result
+   *
+   * @param revisions revisions
+   * @return Map
+   */
+  default Map<String, AppRevision> queryRevisions(Collection<String> revisions) {
+    Map<String, AppRevision> ret = new HashMap<>(revisions.size());
+    for (String revision : revisions) {
+      AppRevision appRevision = queryRevision(revision);
+      if (appRevision != null) {
+        ret.put(revision, appRevision);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * load the revisions of the apps in the background, so the following queries hit the cache
+   *
+   * @param appNames appNames
+   */
+  default void prefetchRevisions(Collection<String> appNames) {}
+
   boolean heartbeat(String revision);
 
   boolean heartbeatDB(String revision);
 
+  /**
+   * heartbeat the revision to storage asynchronously, the implementation may coalesce the
+   * heartbeats and write them in batches
+   *
+   * @param revision revision
+   */
+  default void asyncHeartbeatDB(String revision) {
+    heartbeatDB(revision);
+  }
+
+  /**
+   * write the heartbeats coalesced by asyncHeartbeatDB to storage, the errors are thrown to the
+   * caller
+   */
+  default void flushHeartbeatDB() {}
+
   Collection<String> availableRevisions();
 
   List<AppRevision> listFromStorage(long start, int limit);
@@ -39,6 +39,20 @@ public interface InterfaceAppsRepository extends MultiDataCenterListener {
 
   void renew(String interfaceName, String appName);
 
+  /**
+   * renew the mapping asynchronously, the implementation may coalesce the renewals and write them
+   * in batches
+   *
+   * @param interfaceName interfaceName
+   * @param appName appName
+   */
+  default void asyncRenew(String interfaceName, String appName) {
+    renew(interfaceName, appName);
+  }
+
+  /** write the renewals coalesced by asyncRenew to storage, the errors are thrown to the caller */
+  default void flushRenew() {}
+
   void startSynced();
 
   void waitSynced();
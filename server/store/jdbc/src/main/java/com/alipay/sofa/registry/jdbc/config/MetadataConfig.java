@@ -32,4 +32,10 @@ public interface MetadataConfig {
   int getClientManagerExecutorPoolSize();
 
   int getClientManagerExecutorQueueSize();
+
+  int getWriteBehindBatchSize();
+
+  int getWriteBehindMaxPendingSize();
+
+  int getWriteBehindFlushIntervalMillis();
 }
@@ -37,6 +37,10 @@ public class MetadataConfigBean implements MetadataConfig {
   private int clientManagerExecutorPoolSize = OsUtils.getCpuCount() * 6;
   private int clientManagerExecutorQueueSize = 3000;
 
+  private int writeBehindBatchSize = 200;
+  private int writeBehindMaxPendingSize = 10000;
+  private int writeBehindFlushIntervalMillis = 1000;
+
   public int getRevisionRenewIntervalMinutes() {
     return revisionRenewIntervalMinutes;
   }
@@ -113,4 +117,31 @@ public class MetadataConfigBean implements MetadataConfig {
   public void setClientManagerExecutorPoolSize(int clientManagerExecutorPoolSize) {
     this.clientManagerExecutorPoolSize = clientManagerExecutorPoolSize;
   }
+
+  @Override
+  public int getWriteBehindBatchSize() {
+    return writeBehindBatchSize;
+  }
+
+  public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+    this.writeBehindBatchSize = writeBehindBatchSize;
+  }
+
+  @Override
+  public int getWriteBehindMaxPendingSize() {
+    return writeBehindMaxPendingSize;
+  }
+
+  public void setWriteBehindMaxPendingSize(int writeBehindMaxPendingSize) {
+    this.writeBehindMaxPendingSize = writeBehindMaxPendingSize;
+  }
+
+  @Override
+  public int getWriteBehindFlushIntervalMillis() {
+    return writeBehindFlushIntervalMillis;
+  }
+
+  public void setWriteBehindFlushIntervalMillis(int writeBehindFlushIntervalMillis) {
+    this.writeBehindFlushIntervalMillis = writeBehindFlushIntervalMillis;
+  }
 }
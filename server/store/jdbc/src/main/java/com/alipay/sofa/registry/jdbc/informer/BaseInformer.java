@@ -85,9 +85,11 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
       logger.info("start watch from {}", start);
       long maxId =
           listToTail(
-              (T entry) -> {
-                container.onEntry(entry);
-                logger.info("watch received entry: {}", entry);
+              (List<T> entries) -> {
+                container.onEntries(entries);
+                for (T entry : entries) {
+                  logger.info("watch received entry: {}", entry);
+                }
               },
               start,
               100);
@@ -102,7 +104,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     syncStart();
     try {
       C newContainer = containerFactory();
-      long maxId = listToTail(newContainer::onEntry, 0, 1000);
+      long maxId = listToTail(newContainer::onEntries, 0, 1000);
       logger.info("end list to {}", maxId);
       preList(newContainer);
       this.container = newContainer;
@@ -112,15 +114,15 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     }
   }
 
-  private long listToTail(EntryCallable<T> callable, final long start, final int page) {
+  private long listToTail(EntriesCallable<T> callable, final long start, final int page) {
     long curStart = start;
     while (true) {
       List<T> entries = listStableEntries(curStart, page);
       if (CollectionUtils.isEmpty(entries)) {
         break;
       }
+      callable.onEntries(entries);
       for (T entry : entries) {
-        callable.onEntry(entry);
         curStart = Math.max(curStart, entry.getId());
       }
       ConcurrentUtils.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
@@ -235,7 +237,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     }
   }
 
-  interface EntryCallable<T> {
-    void onEntry(T entry);
+  interface EntriesCallable<T> {
+    void onEntries(List<T> entries);
   }
 }
@@ -17,7 +17,19 @@
 package com.alipay.sofa.registry.jdbc.informer;
 
 import com.alipay.sofa.registry.store.api.meta.DbEntry;
+import java.util.List;
 
 public interface DbEntryContainer<T extends DbEntry> {
   void onEntry(T entry);
+
+  /**
+   * apply a page of entries, the container could publish the changes of the page at once
+   *
+   * @param entries entries
+   */
+  default void onEntries(List<T> entries) {
+    for (T entry : entries) {
+      onEntry(entry);
+    }
+  }
 }
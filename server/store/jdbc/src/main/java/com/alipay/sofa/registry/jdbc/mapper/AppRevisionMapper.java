@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.jdbc.mapper;
 
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -38,6 +39,17 @@ public interface AppRevisionMapper {
   List<AppRevisionDomain> queryRevision(
       @Param("dataCenters") Set<String> dataCenters, @Param("revision") String revision);
 
+  /**
+   * query revisions in one statement
+   *
+   * @param dataCenters dataCenters
+   * @param revisions revisions
+   * @return List
+   */
+  List<AppRevisionDomain> queryRevisions(
+      @Param("dataCenters") Set<String> dataCenters,
+      @Param("revisions") Collection<String> revisions);
+
   List<AppRevisionDomain> listRevisions(
       @Param("dataCenter") String dataCenter,
       @Param("afterId") long afterId,
@@ -45,6 +57,16 @@ public interface AppRevisionMapper {
 
   int heartbeat(@Param("dataCenter") String dataCenter, @Param("revision") String revision);
 
+  /**
+   * refresh gmt_modified of the revisions in one statement
+   *
+   * @param dataCenter dataCenter
+   * @param revisions revisions
+   * @return effect rows number
+   */
+  int batchHeartbeat(
+      @Param("dataCenter") String dataCenter, @Param("revisions") Collection<String> revisions);
+
   void replace(AppRevisionDomain domain);
 
   List<AppRevisionDomain> getExpired(
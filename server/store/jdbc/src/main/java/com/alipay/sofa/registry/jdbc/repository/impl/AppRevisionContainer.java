@@ -20,6 +20,8 @@ import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
 import com.alipay.sofa.registry.jdbc.informer.DbEntryContainer;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -27,15 +29,50 @@ import java.util.function.BiConsumer;
 public class AppRevisionContainer implements DbEntryContainer<AppRevisionDomain> {
   private final Map<String, String> data = Maps.newConcurrentMap();
 
+  // map: <appName, revisions>, the revisions are copy on write
+  private final Map<String, Set<String>> appRevisions = Maps.newConcurrentMap();
+
   @Override
   public synchronized void onEntry(AppRevisionDomain entry) {
     String revision = WordCache.getWordCache(entry.getRevision());
     String appName = WordCache.getWordCache(entry.getAppName());
     if (entry.isDeleted()) {
-      data.remove(revision);
+      String prev = data.remove(revision);
+      if (prev != null) {
+        removeAppRevision(prev, revision);
+      }
     } else {
-      data.put(revision, appName);
+      String prev = data.put(revision, appName);
+      if (prev != null && !prev.equals(appName)) {
+        removeAppRevision(prev, revision);
+      }
+      Set<String> revisions = appRevisions.get(appName);
+      if (revisions == null || !revisions.contains(revision)) {
+        Set<String> copy =
+            revisions == null ? Sets.newHashSetWithExpectedSize(1) : Sets.newHashSet(revisions);
+        copy.add(revision);
+        appRevisions.put(appName, Collections.unmodifiableSet(copy));
+      }
+    }
+  }
+
+  private void removeAppRevision(String appName, String revision) {
+    Set<String> revisions = appRevisions.get(appName);
+    if (revisions == null || !revisions.contains(revision)) {
+      return;
     }
+    if (revisions.size() == 1) {
+      appRevisions.remove(appName);
+      return;
+    }
+    Set<String> copy = Sets.newHashSet(revisions);
+    copy.remove(revision);
+    appRevisions.put(appName, Collections.unmodifiableSet(copy));
+  }
+
+  public Set<String> revisionsOf(String appName) {
+    Set<String> revisions = appRevisions.get(appName);
+    return revisions == null ? Collections.emptySet() : revisions;
   }
 
   public boolean containsRevisionId(String revisionId) {
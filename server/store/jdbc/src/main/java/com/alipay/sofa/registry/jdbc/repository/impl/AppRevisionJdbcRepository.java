@@ -18,11 +18,13 @@ package com.alipay.sofa.registry.jdbc.repository.impl;
 
 import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Fetch.REVISION_CACHE_HIT_COUNTER;
 import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Fetch.REVISION_CACHE_MISS_COUNTER;
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Fetch.REVISION_CACHE_NEGATIVE_COUNTER;
 import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Register.REVISION_REGISTER_COUNTER;
 
 import com.alipay.sofa.registry.cache.CacheCleaner;
 import com.alipay.sofa.registry.common.model.store.AppRevision;
 import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.convertor.AppRevisionDomainConvertor;
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
@@ -35,6 +37,7 @@ import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
 import com.alipay.sofa.registry.store.api.date.DateNowRepository;
 import com.alipay.sofa.registry.store.api.meta.RecoverConfig;
 import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
+import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
 import com.alipay.sofa.registry.util.NamedThreadFactory;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
@@ -43,13 +46,17 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,6 +76,25 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
   private final Cache<String, Boolean> localRevisions =
       CacheBuilder.newBuilder().expireAfterWrite(2, TimeUnit.MINUTES).build();
 
+  /**
+   * the revisions not exist in db, cached in a short time to protect db from the queries storm.
+   * skipped once the informer has loaded the revision, which maybe registered on other nodes
+   */
+  private final Cache<String, Boolean> missingRevisions =
+      CacheBuilder.newBuilder().expireAfterWrite(5, TimeUnit.SECONDS).build();
+
+  /** map: <revision, loading future>, merge the concurrent loading of the same revision */
+  private final Map<String, CompletableFuture<AppRevision>> loadingRevisions =
+      Maps.newConcurrentMap();
+
+  private static final int MAX_QUERY_REVISIONS = 500;
+
+  private static final int WAIT_LOADING_TIMEOUT_MILLIS = 3000;
+
+  private final ThreadPoolExecutor prefetchExecutor =
+      MetricsableThreadPoolExecutor.newBlockingIOExecutor(
+          "RevisionPrefetch", 1, 1000, new ThreadPoolExecutor.DiscardPolicy());
+
   private final CachedExecutor<String, Boolean> cachedExecutor = new CachedExecutor<>(1000 * 10);
 
   private final ScheduledExecutorService revisionDigestService =
@@ -82,6 +108,10 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   @Autowired private DefaultCommonConfig defaultCommonConfig;
 
+  @Autowired private MetadataConfig metadataConfig;
+
+  private WriteBehindBuffer<String> heartbeatBuffer;
+
   private final Informer informer = new Informer();
 
   private Set<String> dataCenters = Sets.newConcurrentHashSet();
@@ -116,6 +146,14 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   @PostConstruct
   public void init() {
+    heartbeatBuffer =
+        new WriteBehindBuffer<>(
+            "RevisionHeartbeat",
+            metadataConfig.getWriteBehindBatchSize(),
+            metadataConfig.getWriteBehindMaxPendingSize(),
+            metadataConfig.getWriteBehindFlushIntervalMillis(),
+            this::batchHeartbeatDB);
+    heartbeatBuffer.start();
 
     revisionDigestService.scheduleAtFixedRate(
         () -> {
@@ -148,6 +186,7 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     // new revision, save into database
     REVISION_REGISTER_COUNTER.inc();
     refreshEntryToStorage(domain);
+    missingRevisions.invalidate(appRevision.getRevision());
   }
 
   /**
@@ -182,6 +221,122 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     }
   }
 
+  @Override
+  public Map<String, AppRevision> queryRevisions(Collection<String> revisions) {
+    Map<String, AppRevision> ret = Maps.newHashMapWithExpectedSize(revisions.size());
+    Map<String, CompletableFuture<AppRevision>> loads = Maps.newHashMap();
+    Map<String, CompletableFuture<AppRevision>> waits = Maps.newHashMap();
+    for (String revision : revisions) {
+      AppRevision appRevision = registry.getIfPresent(revision);
+      if (appRevision != null) {
+        REVISION_CACHE_HIT_COUNTER.inc();
+        ret.put(revision, appRevision);
+        continue;
+      }
+      if (isMissing(revision)) {
+        REVISION_CACHE_NEGATIVE_COUNTER.inc();
+        continue;
+      }
+      CompletableFuture<AppRevision> future = new CompletableFuture<>();
+      CompletableFuture<AppRevision> loading = loadingRevisions.putIfAbsent(revision, future);
+      if (loading == null) {
+        loads.put(revision, future);
+      } else {
+        // other query is loading the revision
+        waits.put(revision, loading);
+      }
+    }
+    if (!loads.isEmpty()) {
+      loadRevisions(loads, ret);
+    }
+    for (Map.Entry<String, CompletableFuture<AppRevision>> e : waits.entrySet()) {
+      try {
+        AppRevision appRevision =
+            e.getValue().get(WAIT_LOADING_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (appRevision != null) {
+          ret.put(e.getKey(), appRevision);
+        }
+      } catch (TimeoutException t) {
+        // the loading query is stuck, not hang the request on it
+        LOG.error("jdbc wait revision timeout, revision: {}", e.getKey());
+        throw new RuntimeException("jdbc query revisions timeout", t);
+      } catch (Throwable t) {
+        LOG.error("jdbc wait revision error, revision: {}", e.getKey(), t);
+        throw new RuntimeException("jdbc query revisions failed", t);
+      }
+    }
+    return ret;
+  }
+
+  private void loadRevisions(
+      Map<String, CompletableFuture<AppRevision>> loads, Map<String, AppRevision> ret) {
+    try {
+      ParaCheckUtil.checkNotEmpty(dataCenters, "dataCenters");
+      REVISION_CACHE_MISS_COUNTER.inc(loads.size());
+      Map<String, AppRevision> loaded = Maps.newHashMapWithExpectedSize(loads.size());
+      for (List<String> batch : Iterables.partition(loads.keySet(), MAX_QUERY_REVISIONS)) {
+        for (AppRevisionDomain domain : appRevisionMapper.queryRevisions(dataCenters, batch)) {
+          if (!domain.isDeleted()) {
+            loaded.putIfAbsent(
+                domain.getRevision(), AppRevisionDomainConvertor.convert2Revision(domain));
+          }
+        }
+      }
+      for (Map.Entry<String, CompletableFuture<AppRevision>> e : loads.entrySet()) {
+        String revision = e.getKey();
+        AppRevision appRevision = loaded.get(revision);
+        if (appRevision != null) {
+          registry.put(revision, appRevision);
+          ret.put(revision, appRevision);
+        } else {
+          missingRevisions.put(revision, true);
+        }
+        e.getValue().complete(appRevision);
+      }
+    } catch (Throwable t) {
+      for (CompletableFuture<AppRevision> future : loads.values()) {
+        future.completeExceptionally(t);
+      }
+      LOG.error("jdbc load revisions error, revisions: {}", loads.keySet(), t);
+      throw new RuntimeException("jdbc load revisions failed", t);
+    } finally {
+      for (Map.Entry<String, CompletableFuture<AppRevision>> e : loads.entrySet()) {
+        loadingRevisions.remove(e.getKey(), e.getValue());
+      }
+    }
+  }
+
+  private boolean isMissing(String revision) {
+    if (missingRevisions.getIfPresent(revision) == null) {
+      return false;
+    }
+    if (informer.getContainer().containsRevisionId(revision)) {
+      missingRevisions.invalidate(revision);
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void prefetchRevisions(Collection<String> appNames) {
+    prefetchExecutor.execute(
+        () -> {
+          AppRevisionContainer container = informer.getContainer();
+          Set<String> revisions = Sets.newHashSet();
+          for (String appName : appNames) {
+            for (String revision : container.revisionsOf(appName)) {
+              if (registry.getIfPresent(revision) == null) {
+                revisions.add(revision);
+              }
+            }
+          }
+          if (!revisions.isEmpty()) {
+            queryRevisions(revisions);
+            LOG.info("prefetch revisions, apps={}, revisions={}", appNames, revisions.size());
+          }
+        });
+  }
+
   @Override
   public boolean heartbeat(String revision) {
     localRevisions.put(revision, true);
@@ -198,6 +353,30 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     return effect > 0;
   }
 
+  @Override
+  public void asyncHeartbeatDB(String revision) {
+    heartbeatBuffer.offer(revision);
+  }
+
+  @Override
+  public void flushHeartbeatDB() {
+    heartbeatBuffer.flush();
+  }
+
+  int batchHeartbeatDB(List<String> revisions) {
+    int effect =
+        appRevisionMapper.batchHeartbeat(defaultCommonConfig.getClusterId(tableName()), revisions);
+    if (effect < revisions.size()) {
+      LOG.error("revisions heartbeat fail, expect={}, effect={}", revisions.size(), effect);
+    }
+    return 1;
+  }
+
+  @VisibleForTesting
+  WriteBehindBuffer<String> getHeartbeatBuffer() {
+    return heartbeatBuffer;
+  }
+
   @VisibleForTesting
   LoadingCache<String, AppRevision> getRevisions() {
     return registry;
@@ -206,6 +385,7 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
   @VisibleForTesting
   void cleanCache() {
     registry.invalidateAll();
+    missingRevisions.invalidateAll();
     cachedExecutor.clean();
   }
 
@@ -23,10 +23,11 @@ import com.alipay.sofa.registry.jdbc.informer.DbEntryContainer;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import org.glassfish.jersey.internal.guava.Sets;
 
 /**
  * @author xiaojian.xj
@@ -36,12 +37,30 @@ public class ClientManagerAddressContainer implements DbEntryContainer<ClientMan
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ClientManagerAddressContainer.class);
 
-  private final Map<String, AddressVersion> clientOffData = Maps.newConcurrentMap();
-
-  private volatile Set<String> reduces = Sets.newHashSet();
+  // copy on write, the maps in the snapshot are never modified after published
+  private volatile ClientManagerAddress snapshot =
+      new ClientManagerAddress(Collections.emptyMap(), Collections.emptySet());
 
   @Override
   public void onEntry(ClientManagerAddressDomain clientManagerAddress) {
+    onEntries(Collections.singletonList(clientManagerAddress));
+  }
+
+  @Override
+  public synchronized void onEntries(List<ClientManagerAddressDomain> entries) {
+    final ClientManagerAddress current = snapshot;
+    Map<String, AddressVersion> clientOffData = Maps.newHashMap(current.clientOffData);
+    Set<String> reduces = Sets.newHashSet(current.reduces);
+    for (ClientManagerAddressDomain entry : entries) {
+      apply(entry, clientOffData, reduces);
+    }
+    snapshot = new ClientManagerAddress(clientOffData, Collections.unmodifiableSet(reduces));
+  }
+
+  private static void apply(
+      ClientManagerAddressDomain clientManagerAddress,
+      Map<String, AddressVersion> clientOffData,
+      Set<String> reduces) {
     switch (clientManagerAddress.getOperation()) {
       case ValueConstants.CLIENT_OFF:
         clientOffData.put(
@@ -67,11 +86,10 @@ public class ClientManagerAddressContainer implements DbEntryContainer<ClientMan
   }
 
   public ClientManagerAddress queryClientManagerAddress() {
-    return new ClientManagerAddress(
-        Maps.newHashMap(clientOffData), Collections.unmodifiableSet(reduces));
+    return snapshot;
   }
 
-  public class ClientManagerAddress {
+  public static class ClientManagerAddress {
     private final Map<String, AddressVersion> clientOffData;
 
     private final Set<String> reduces;
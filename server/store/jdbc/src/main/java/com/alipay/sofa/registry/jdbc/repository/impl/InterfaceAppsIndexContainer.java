@@ -29,7 +29,8 @@ import org.springframework.util.CollectionUtils;
 
 public class InterfaceAppsIndexContainer implements DbEntryContainer<InterfaceAppsIndexDomain> {
 
-  // <dataInfoId, <dataCenter, InterfaceMapping>>
+  // <dataInfoId, <dataCenter, InterfaceMapping>>, the inner maps are copy on write, readers get
+  // the consistent mappings of an interface without copying
   private final Map<String, Map<String, InterfaceMapping>> multiData = Maps.newConcurrentMap();
 
   private void addEntry(InterfaceAppsIndexDomain entry) {
@@ -39,12 +40,12 @@ public class InterfaceAppsIndexContainer implements DbEntryContainer<InterfaceAp
     String appName = WordCache.getWordCache(entry.getAppName());
     long nanoTime = TimestampUtil.getNanosLong(entry.getGmtCreate());
 
-    Map<String, InterfaceMapping> data =
-        multiData.computeIfAbsent(interfaceName, k -> Maps.newConcurrentMap());
-
-    InterfaceMapping mapping =
-        data.computeIfAbsent(dataCenter, k -> new InterfaceMapping(nanoTime, appName));
-    data.put(dataCenter, mapping.addApp(nanoTime, appName));
+    Map<String, InterfaceMapping> data = multiData.get(interfaceName);
+    InterfaceMapping mapping = data == null ? null : data.get(dataCenter);
+    if (mapping == null) {
+      mapping = new InterfaceMapping(nanoTime, appName);
+    }
+    multiData.put(interfaceName, copyOnWrite(data, dataCenter, mapping.addApp(nanoTime, appName)));
   }
 
   private void removeEntry(InterfaceAppsIndexDomain entry) {
@@ -54,12 +55,21 @@ public class InterfaceAppsIndexContainer implements DbEntryContainer<InterfaceAp
     String appName = WordCache.getWordCache(entry.getAppName());
     long nanoTime = TimestampUtil.getNanosLong(entry.getGmtCreate());
 
-    Map<String, InterfaceMapping> data =
-        multiData.computeIfAbsent(interfaceName, k -> Maps.newConcurrentMap());
+    Map<String, InterfaceMapping> data = multiData.get(interfaceName);
+    InterfaceMapping mapping = data == null ? null : data.get(dataCenter);
+    if (mapping == null) {
+      mapping = new InterfaceMapping(nanoTime);
+    }
+    multiData.put(
+        interfaceName, copyOnWrite(data, dataCenter, mapping.removeApp(nanoTime, appName)));
+  }
 
-    InterfaceMapping mapping =
-        data.computeIfAbsent(dataCenter, k -> new InterfaceMapping(nanoTime));
-    data.put(dataCenter, mapping.removeApp(nanoTime, appName));
+  private static Map<String, InterfaceMapping> copyOnWrite(
+      Map<String, InterfaceMapping> data, String dataCenter, InterfaceMapping mapping) {
+    Map<String, InterfaceMapping> copy =
+        data == null ? Maps.newHashMapWithExpectedSize(1) : Maps.newHashMap(data);
+    copy.put(dataCenter, mapping);
+    return Collections.unmodifiableMap(copy);
   }
 
   public boolean containsName(String dataCenter, String interfaceName, String appName) {
@@ -76,10 +86,11 @@ public class InterfaceAppsIndexContainer implements DbEntryContainer<InterfaceAp
   }
 
   public Map<String, InterfaceMapping> getAppMapping(String interfaceName) {
-    if (CollectionUtils.isEmpty(multiData.get(interfaceName))) {
+    Map<String, InterfaceMapping> data = multiData.get(interfaceName);
+    if (CollectionUtils.isEmpty(data)) {
       return Collections.EMPTY_MAP;
     }
-    return Maps.newHashMap(multiData.get(interfaceName));
+    return data;
   }
 
   public Set<String> interfaces() {
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.jdbc.repository.impl;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
 import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
@@ -33,9 +34,16 @@ import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import java.sql.Statement;
 import java.util.*;
 import java.util.Map.Entry;
+import javax.annotation.PostConstruct;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
@@ -53,15 +61,33 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
 
   @Autowired private DateNowRepository dateNowRepository;
 
+  @Autowired private MetadataConfig metadataConfig;
+
+  @Autowired private SqlSessionFactory sqlSessionFactory;
+
   private final CachedExecutor<Tuple<String, String>, Boolean> cachedExecutor =
       new CachedExecutor<>(1000 * 10);
 
   final Informer informer;
 
+  private WriteBehindBuffer<Tuple<String, String>> renewBuffer;
+
   public InterfaceAppsJdbcRepository() {
     informer = new Informer();
   }
 
+  @PostConstruct
+  public void init() {
+    renewBuffer =
+        new WriteBehindBuffer<>(
+            "InterfaceAppsRenew",
+            metadataConfig.getWriteBehindBatchSize(),
+            metadataConfig.getWriteBehindMaxPendingSize(),
+            metadataConfig.getWriteBehindFlushIntervalMillis(),
+            this::batchRenew);
+    renewBuffer.start();
+  }
+
   private Set<String> dataCenters = Sets.newConcurrentHashSet();
 
   @Override
@@ -90,11 +116,17 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
     String localDataCenter = defaultCommonConfig.getDefaultClusterId();
     InterfaceAppsIndexContainer c = informer.getContainer();
 
+    List<InterfaceAppsIndexDomain> entries = Lists.newArrayList();
     for (String interfaceName : interfaceNames) {
       if (c.containsName(localDataCenter, interfaceName, appName)) {
         continue;
       }
-      refreshEntryToStorage(new InterfaceAppsIndexDomain(localDataCenter, interfaceName, appName));
+      entries.add(new InterfaceAppsIndexDomain(localDataCenter, interfaceName, appName));
+    }
+    if (entries.size() == 1) {
+      refreshEntryToStorage(entries.get(0));
+    } else if (!entries.isEmpty()) {
+      refreshEntriesToStorage(entries);
     }
   }
 
@@ -105,6 +137,25 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
             defaultCommonConfig.getDefaultClusterId(), interfaceName, appName));
   }
 
+  @Override
+  public void asyncRenew(String interfaceName, String appName) {
+    renewBuffer.offer(new Tuple<>(interfaceName, appName));
+  }
+
+  @Override
+  public void flushRenew() {
+    renewBuffer.flush();
+  }
+
+  int batchRenew(List<Tuple<String, String>> mappings) {
+    String localDataCenter = defaultCommonConfig.getDefaultClusterId();
+    List<InterfaceAppsIndexDomain> entries = Lists.newArrayListWithCapacity(mappings.size());
+    for (Tuple<String, String> mapping : mappings) {
+      entries.add(new InterfaceAppsIndexDomain(localDataCenter, mapping.o1, mapping.o2));
+    }
+    return refreshEntriesToStorage(entries);
+  }
+
   @Override
   public void startSynced() {
     ParaCheckUtil.checkNotEmpty(dataCenters, "dataCenters");
@@ -141,6 +192,78 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
     }
   }
 
+  /**
+   * upsert the entries with the batch executor: update all of them in one batch, then replace the
+   * missing ones in another batch. the driver may not report the update count of each row in a
+   * batch (SUCCESS_NO_INFO), those rows are updated again one by one in the same session to find
+   * the missing ones, the row still without count is replaced
+   *
+   * @param entries entries
+   * @return the number of executed batches
+   */
+  protected int refreshEntriesToStorage(List<InterfaceAppsIndexDomain> entries) {
+    try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      InterfaceAppsIndexMapper mapper = session.getMapper(InterfaceAppsIndexMapper.class);
+      for (InterfaceAppsIndexDomain entry : entries) {
+        mapper.update(entry);
+      }
+      List<InterfaceAppsIndexDomain> missing = Lists.newArrayList();
+      List<InterfaceAppsIndexDomain> unknown = Lists.newArrayList();
+      for (BatchResult result : session.flushStatements()) {
+        List<Object> params = result.getParameterObjects();
+        int[] counts = result.getUpdateCounts();
+        for (int i = 0; i < params.size(); i++) {
+          InterfaceAppsIndexDomain entry = (InterfaceAppsIndexDomain) params.get(i);
+          if (counts.length != params.size() || counts[i] == Statement.SUCCESS_NO_INFO) {
+            unknown.add(entry);
+          } else if (counts[i] == 0) {
+            missing.add(entry);
+          }
+        }
+      }
+      for (InterfaceAppsIndexDomain entry : unknown) {
+        mapper.update(entry);
+        if (!isUpdated(session.flushStatements())) {
+          missing.add(entry);
+        }
+      }
+      int batches = 1;
+      if (!missing.isEmpty()) {
+        for (InterfaceAppsIndexDomain entry : missing) {
+          mapper.replace(entry);
+        }
+        session.flushStatements();
+        batches++;
+      }
+      session.commit();
+      LOG.info(
+          "refresh interface app mappings succeed, size={}, inserted={}",
+          entries.size(),
+          missing.size());
+      return batches;
+    } catch (Exception e) {
+      LOG.error("batch refresh to db failed: ", e);
+      throw new RuntimeException(
+          StringFormatter.format("batch refresh to db failed: {}", e.getMessage()));
+    }
+  }
+
+  private static boolean isUpdated(List<BatchResult> results) {
+    for (BatchResult result : results) {
+      for (int count : result.getUpdateCounts()) {
+        if (count > 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @VisibleForTesting
+  WriteBehindBuffer<Tuple<String, String>> getRenewBuffer() {
+    return renewBuffer;
+  }
+
   @VisibleForTesting
   void cleanCache() {
     cachedExecutor.clean();
@@ -267,4 +390,16 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
     this.defaultCommonConfig = defaultCommonConfig;
     return this;
   }
+
+  /**
+   * Setter method for property <tt>sqlSessionFactory</tt>.
+   *
+   * @param sqlSessionFactory value to be assigned to property sqlSessionFactory
+   * @return InterfaceAppsJdbcRepository
+   */
+  @VisibleForTesting
+  public InterfaceAppsJdbcRepository setSqlSessionFactory(SqlSessionFactory sqlSessionFactory) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    return this;
+  }
 }
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.jdbc.repository.impl;
 
 import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
 
 /**
  * @author xiaojian.xj
@@ -37,6 +38,9 @@ public class MetadataMetrics {
             .register();
     static final Counter.Child REVISION_CACHE_HIT_COUNTER = FETCH_REVISION_COUNTER.labels("Y");
     static final Counter.Child REVISION_CACHE_MISS_COUNTER = FETCH_REVISION_COUNTER.labels("N");
+    // the revision is known as not exist in a short time
+    static final Counter.Child REVISION_CACHE_NEGATIVE_COUNTER =
+        FETCH_REVISION_COUNTER.labels("NEG");
 
     static final Counter FETCH_APPS_COUNTER =
         Counter.build()
@@ -61,6 +65,36 @@ public class MetadataMetrics {
             .register();
   }
 
+  static final class WriteBehind {
+    static final Counter WRITE_BEHIND_KEY_COUNTER =
+        Counter.build()
+            .namespace("metadata")
+            .subsystem("write_behind")
+            .name("key_total")
+            .help("write behind keys")
+            .labelNames("name", "type")
+            .register();
+
+    static final Counter WRITE_BEHIND_STATEMENT_COUNTER =
+        Counter.build()
+            .namespace("metadata")
+            .subsystem("write_behind")
+            .name("statement_total")
+            .help("write behind db statements")
+            .labelNames("name")
+            .register();
+
+    static final Histogram WRITE_BEHIND_FLUSH_HISTOGRAM =
+        Histogram.build()
+            .namespace("metadata")
+            .subsystem("write_behind")
+            .name("flush_millis")
+            .help("write behind batch flush latency in millis")
+            .labelNames("name")
+            .buckets(5, 10, 20, 50, 100, 200, 500, 1000, 3000)
+            .register();
+  }
+
   public static final class ProvideData {
     public static final Counter PROVIDE_DATA_UPDATE_COUNTER =
         Counter.build()
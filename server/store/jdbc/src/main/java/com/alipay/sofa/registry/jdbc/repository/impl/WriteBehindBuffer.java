@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.repository.impl;
+
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.WriteBehind.*;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * coalesce the keys to write in a bounded pending set, the pending keys are written in batches when
+ * the size arrives batchSize or every flushIntervalMillis. when the pending set is full, the caller
+ * writes the keys itself, the write errors are thrown to the caller in that case. the keys failed
+ * to write are kept pending and retried by the next flush.
+ */
+final class WriteBehindBuffer<K> {
+  private static final Logger LOG = LoggerFactory.getLogger("METADATA-EXCHANGE", "[WriteBehind]");
+
+  private final String name;
+  private final int batchSize;
+  private final int maxPendingSize;
+  private final int flushIntervalMillis;
+  // write a batch of keys, return the number of executed db statements
+  private final ToIntFunction<List<K>> writer;
+
+  private final Flusher flusher = new Flusher();
+
+  private final Counter.Child offerCounter;
+  private final Counter.Child dedupCounter;
+  private final Counter.Child statementCounter;
+  private final Histogram.Child flushHistogram;
+
+  private LinkedHashSet<K> pending = new LinkedHashSet<>();
+
+  private final Object flushLock = new Object();
+
+  WriteBehindBuffer(
+      String name,
+      int batchSize,
+      int maxPendingSize,
+      int flushIntervalMillis,
+      ToIntFunction<List<K>> writer) {
+    ParaCheckUtil.checkIsPositive(batchSize, "batchSize");
+    ParaCheckUtil.checkIsPositive(maxPendingSize, "maxPendingSize");
+    ParaCheckUtil.checkIsPositive(flushIntervalMillis, "flushIntervalMillis");
+    this.name = name;
+    this.batchSize = batchSize;
+    this.maxPendingSize = maxPendingSize;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.writer = writer;
+    this.offerCounter = WRITE_BEHIND_KEY_COUNTER.labels(name, "offer");
+    this.dedupCounter = WRITE_BEHIND_KEY_COUNTER.labels(name, "dedup");
+    this.statementCounter = WRITE_BEHIND_STATEMENT_COUNTER.labels(name);
+    this.flushHistogram = WRITE_BEHIND_FLUSH_HISTOGRAM.labels(name);
+  }
+
+  void start() {
+    ConcurrentUtils.createDaemonThread(name + "-WriteBehind", flusher).start();
+  }
+
+  /**
+   * @param key key
+   * @return false if the key is already pending
+   */
+  boolean offer(K key) {
+    final int size;
+    synchronized (this) {
+      if (!pending.add(key)) {
+        dedupCounter.inc();
+        return false;
+      }
+      size = pending.size();
+    }
+    offerCounter.inc();
+    if (size >= maxPendingSize) {
+      flush();
+    } else if (size >= batchSize) {
+      flusher.wakeup();
+    }
+    return true;
+  }
+
+  /**
+   * write all the pending keys, the flushes are serialized, so when it returns, the keys offered
+   * before are written. the keys not written are put back to the pending set if the writer throws
+   *
+   * @return the number of executed db statements
+   */
+  int flush() {
+    synchronized (flushLock) {
+      final LinkedHashSet<K> keys;
+      synchronized (this) {
+        if (pending.isEmpty()) {
+          return 0;
+        }
+        keys = pending;
+        pending = new LinkedHashSet<>();
+      }
+      int statements = 0;
+      int written = 0;
+      try {
+        for (List<K> batch : Iterables.partition(keys, batchSize)) {
+          final long start = System.currentTimeMillis();
+          try {
+            statements += writer.applyAsInt(batch);
+          } finally {
+            flushHistogram.observe(System.currentTimeMillis() - start);
+          }
+          written += batch.size();
+        }
+      } catch (Throwable e) {
+        final int unwritten = requeue(keys, written);
+        LOG.error("[{}]flush failed, requeue keys={}", name, unwritten, e);
+        throw e;
+      } finally {
+        statementCounter.inc(statements);
+      }
+      LOG.info("[{}]flush keys={}, statements={}", name, keys.size(), statements);
+      return statements;
+    }
+  }
+
+  private synchronized int requeue(LinkedHashSet<K> keys, int written) {
+    final LinkedHashSet<K> requeue = new LinkedHashSet<>();
+    Iterables.addAll(requeue, Iterables.skip(keys, written));
+    final int unwritten = requeue.size();
+    // keep the order, the keys offered during the flush are behind
+    requeue.addAll(pending);
+    pending = requeue;
+    return unwritten;
+  }
+
+  synchronized int size() {
+    return pending.size();
+  }
+
+  @VisibleForTesting
+  void close() {
+    flusher.close();
+  }
+
+  private final class Flusher extends WakeUpLoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      flush();
+    }
+
+    @Override
+    public int getWaitingMillis() {
+      return flushIntervalMillis;
+    }
+  }
+}
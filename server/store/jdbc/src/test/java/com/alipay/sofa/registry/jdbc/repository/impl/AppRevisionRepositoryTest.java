@@ -31,6 +31,8 @@ import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.LoopRunnable;
 import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -199,6 +201,87 @@ public class AppRevisionRepositoryTest extends AbstractH2DbTestBase {
     }
   }
 
+  @Test
+  public void testAsyncHeartbeat() throws Exception {
+    AppRevisionJdbcRepository repository = (AppRevisionJdbcRepository) appRevisionJdbcRepository;
+    register();
+    Thread.sleep(100);
+    Date beforeHeartbeat = new Date();
+    Thread.sleep(100);
+
+    WriteBehindBuffer<String> buffer = repository.getHeartbeatBuffer();
+    buffer.close();
+    buffer.flush();
+    for (AppRevision appRevision : appRevisionList) {
+      appRevisionJdbcRepository.asyncHeartbeatDB(appRevision.getRevision());
+    }
+    Assert.assertFalse(buffer.offer(appRevisionList.get(0).getRevision()));
+    Assert.assertEquals(APP_REVISION_SIZE, buffer.size());
+    // one multi-row statement for all the revisions
+    Assert.assertEquals(1, buffer.flush());
+    Assert.assertEquals(0, buffer.size());
+
+    List<AppRevisionDomain> expired =
+        appRevisionMapper.getExpired(
+            defaultCommonConfig.getDefaultClusterId(), beforeHeartbeat, APP_REVISION_SIZE * 2);
+    Set<String> revisions = Sets.newHashSet();
+    for (AppRevision appRevision : appRevisionList) {
+      revisions.add(appRevision.getRevision());
+    }
+    for (AppRevisionDomain domain : expired) {
+      Assert.assertFalse(revisions.contains(domain.getRevision()));
+    }
+  }
+
+  @Test
+  public void testQueryRevisions() throws Exception {
+    AppRevisionJdbcRepository repository = (AppRevisionJdbcRepository) appRevisionJdbcRepository;
+    register();
+    Set<String> revisions = Sets.newHashSet();
+    for (AppRevision appRevision : appRevisionList) {
+      revisions.add(appRevision.getRevision());
+    }
+    repository.cleanCache();
+    AppRevision notExist = buildAppRevisions(1).get(0);
+    notExist.setRevision("notExist-" + notExist.getRevision());
+    revisions.add(notExist.getRevision());
+
+    Map<String, AppRevision> ret = appRevisionJdbcRepository.queryRevisions(revisions);
+    Assert.assertEquals(APP_REVISION_SIZE, ret.size());
+    Assert.assertFalse(ret.containsKey(notExist.getRevision()));
+    Assert.assertEquals(APP_REVISION_SIZE, repository.getRevisions().size());
+
+    // the missing revision is cached as not exist
+    final double negatives = MetadataMetrics.Fetch.REVISION_CACHE_NEGATIVE_COUNTER.get();
+    ret = appRevisionJdbcRepository.queryRevisions(Collections.singleton(notExist.getRevision()));
+    Assert.assertTrue(ret.isEmpty());
+    Assert.assertEquals(
+        negatives + 1, MetadataMetrics.Fetch.REVISION_CACHE_NEGATIVE_COUNTER.get(), 0);
+
+    // registered by other nodes, the negative cache is skipped after the informer loads it
+    appRevisionMapper.replace(
+        AppRevisionDomainConvertor.convert2Domain(
+            defaultCommonConfig.getDefaultClusterId(), notExist));
+    waitConditionUntilTimeOut(() -> repository.exist(notExist.getRevision()), 5000);
+    ret = appRevisionJdbcRepository.queryRevisions(Collections.singleton(notExist.getRevision()));
+    Assert.assertEquals(notExist.getAppName(), ret.get(notExist.getRevision()).getAppName());
+    repository.cleanCache();
+  }
+
+  @Test
+  public void testPrefetchRevisions() throws Exception {
+    AppRevisionJdbcRepository repository = (AppRevisionJdbcRepository) appRevisionJdbcRepository;
+    register();
+    appRevisionJdbcRepository.waitSynced();
+    repository.cleanCache();
+
+    AppRevision appRevision = appRevisionList.get(0);
+    appRevisionJdbcRepository.prefetchRevisions(Collections.singleton(appRevision.getAppName()));
+    waitConditionUntilTimeOut(
+        () -> repository.getRevisions().getIfPresent(appRevision.getRevision()) != null, 3000);
+    repository.cleanCache();
+  }
+
   @Test
   public void testCountByApp() throws Exception {
     register();
@@ -16,8 +16,11 @@
  */
 package com.alipay.sofa.registry.jdbc.repository.impl;
 
+import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
 import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -55,4 +58,22 @@ public class InterfaceAppsIndexContainerTest {
     Assert.assertEquals(0, container.getAppMapping("service3").size());
     Assert.assertEquals(container.interfaces().size(), 2);
   }
+
+  @Test
+  public void testSnapshot() {
+    InterfaceAppsIndexContainer container = new InterfaceAppsIndexContainer();
+    InterfaceAppsIndexDomain domain1 = new InterfaceAppsIndexDomain("dc", "service1", "app1");
+    domain1.setGmtCreate(new Timestamp(10));
+    InterfaceAppsIndexDomain domain2 = new InterfaceAppsIndexDomain("dc", "service1", "app2");
+    domain2.setGmtCreate(new Timestamp(20));
+    container.onEntries(Collections.singletonList(domain1));
+
+    Map<String, InterfaceMapping> snapshot = container.getAppMapping("service1");
+    container.onEntries(Collections.singletonList(domain2));
+    // the published mappings are not changed by the later entries
+    Assert.assertEquals(Collections.singleton("app1"), snapshot.get("dc").getApps());
+    Assert.assertEquals(2, container.getAppMapping("service1").get("dc").getApps().size());
+    Assert.assertNotSame(snapshot, container.getAppMapping("service1"));
+    Assert.assertSame(container.getAppMapping("service1"), container.getAppMapping("service1"));
+  }
 }
@@ -19,8 +19,11 @@ package com.alipay.sofa.registry.jdbc.repository.impl;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.exception.SofaRegistryRuntimeException;
 import com.alipay.sofa.registry.jdbc.AbstractH2DbTestBase;
@@ -32,11 +35,16 @@ import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
 import com.alipay.sofa.registry.util.TimestampUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -107,6 +115,88 @@ public class InterfaceAppsJdbcRepositoryTest extends AbstractH2DbTestBase {
     impl.getDataVersion();
   }
 
+  @Test
+  public void testRefreshEntriesNoInfo() {
+    InterfaceAppsIndexDomain exist = new InterfaceAppsIndexDomain("dc", "exist", "app");
+    InterfaceAppsIndexDomain missing = new InterfaceAppsIndexDomain("dc", "missing", "app");
+    BatchResult result = new BatchResult(null, "update");
+    result.addParameterObject(exist);
+    result.addParameterObject(missing);
+    // the driver does not report the update count of each row
+    result.setUpdateCounts(new int[] {Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+    // the rows are updated again one by one in the batch session
+    BatchResult existResult = new BatchResult(null, "update");
+    existResult.addParameterObject(exist);
+    existResult.setUpdateCounts(new int[] {1});
+    BatchResult missingResult = new BatchResult(null, "update");
+    missingResult.addParameterObject(missing);
+    missingResult.setUpdateCounts(new int[] {0});
+
+    InterfaceAppsIndexMapper batchMapper = mock(InterfaceAppsIndexMapper.class);
+    SqlSession session = mock(SqlSession.class);
+    when(session.getMapper(InterfaceAppsIndexMapper.class)).thenReturn(batchMapper);
+    when(session.flushStatements())
+        .thenReturn(
+            Lists.newArrayList(result),
+            Lists.newArrayList(existResult),
+            Lists.newArrayList(missingResult),
+            Collections.emptyList());
+    SqlSessionFactory factory = mock(SqlSessionFactory.class);
+    when(factory.openSession(ExecutorType.BATCH)).thenReturn(session);
+
+    InterfaceAppsIndexMapper mapper = mock(InterfaceAppsIndexMapper.class);
+    InterfaceAppsJdbcRepository impl =
+        new InterfaceAppsJdbcRepository()
+            .setInterfaceAppsIndexMapper(mapper)
+            .setSqlSessionFactory(factory);
+
+    Assert.assertEquals(2, impl.refreshEntriesToStorage(Lists.newArrayList(exist, missing)));
+    verify(batchMapper, times(1)).replace(missing);
+    verify(batchMapper, times(0)).replace(exist);
+    verify(batchMapper, times(2)).update(exist);
+    verify(mapper, times(0)).update(anyObject());
+    verify(session, times(1)).commit();
+  }
+
+  @Test
+  public void testAsyncRenew() {
+    InterfaceAppsJdbcRepository impl = (InterfaceAppsJdbcRepository) interfaceAppsJdbcRepository;
+    WriteBehindBuffer<Tuple<String, String>> buffer = impl.getRenewBuffer();
+    buffer.close();
+    buffer.flush();
+
+    String app = "asyncRenewApp";
+    List<String> services = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      services.add(i + "asyncRenewService-" + System.currentTimeMillis());
+    }
+    for (String service : services) {
+      impl.asyncRenew(service, app);
+    }
+    Assert.assertFalse(buffer.offer(new Tuple<>(services.get(0), app)));
+    Assert.assertEquals(services.size(), buffer.size());
+    // the mappings not exist, one batch for update and one batch for insert
+    Assert.assertEquals(2, buffer.flush());
+
+    for (String service : services) {
+      impl.asyncRenew(service, app);
+    }
+    // all the mappings exist, only the update batch
+    Assert.assertEquals(1, buffer.flush());
+
+    impl.asyncRenew(services.get(0), app);
+    impl.flushRenew();
+    Assert.assertEquals(0, buffer.size());
+
+    impl.startSynced();
+    impl.waitSynced();
+    for (String service : services) {
+      InterfaceMapping appNames = impl.getAppNames(service);
+      Assert.assertEquals(Collections.singleton(app), appNames.getApps());
+    }
+  }
+
   @Test(expected = RuntimeException.class)
   public void testRuntimeException() {
     InterfaceAppsIndexMapper mapper = mock(InterfaceAppsIndexMapper.class);
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.repository.impl;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WriteBehindBufferTest {
+
+  @Test
+  public void testRequeueOnFailure() {
+    List<List<String>> written = Lists.newArrayList();
+    AtomicBoolean fail = new AtomicBoolean(false);
+    WriteBehindBuffer<String> buffer =
+        new WriteBehindBuffer<>(
+            "test",
+            2,
+            100,
+            60000,
+            batch -> {
+              if (fail.get() && !written.isEmpty()) {
+                throw new IllegalStateException("test");
+              }
+              written.add(Lists.newArrayList(batch));
+              return 1;
+            });
+    for (String key : new String[] {"a", "b", "c", "d", "e"}) {
+      buffer.offer(key);
+    }
+    fail.set(true);
+    try {
+      buffer.flush();
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      // the first batch is written, the others are kept pending
+    }
+    Assert.assertEquals(1, written.size());
+    Assert.assertEquals(3, buffer.size());
+    buffer.offer("f");
+    Assert.assertFalse(buffer.offer("c"));
+
+    fail.set(false);
+    Assert.assertEquals(2, buffer.flush());
+    Assert.assertEquals(0, buffer.size());
+    Assert.assertEquals(Lists.newArrayList("c", "d"), written.get(1));
+    Assert.assertEquals(Lists.newArrayList("e", "f"), written.get(2));
+  }
+}